@@ -0,0 +1,92 @@
+package javadev.stringcollections.textreplacor.benchmark;
+
+import javadev.stringcollections.textreplacor.io.json.JSONObjectUtility;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nurujjamanpollob
+ * @apiNote Measures JSON string escaping on lines like the ones a search report holds: source code, mostly without chars
+ * that need escaping, some with quotes, backslashes or tabs. The legacy implementation is the one escapeSpecialCharacters had before the lookup table.
+ * <p>
+ * Run with <code>gradlew :classes:jmh</code>.
+ * @since 2.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class JsonEscapeBenchmark {
+
+    private static final String[] LINES = {
+            "    public static void writeToPath(byte[] bytes, String path) throws IOException {",
+            "        // Resolve a path if not exists",
+            "        PathResolver.resolvePathIfNotExists(updatedPath);",
+            "            throw new IOException(\"It seems, strange things are happening, file not available at: \" + updatedPath);",
+            "        return PathResolver.cleanPath(path.replaceAll(\"[\\\\/\\\\\\\\]\", \"\\\\\" + osPathSeparator));",
+            "\t\tint index = searchBuffer.indexOf(searchTarget); // Find the first occurrence of searchString",
+            "import javadev.stringcollections.textreplacor.object.TextSearchResult;",
+            "     * @return a list of TextSearchResult objects containing the search results. Null if not match found!",
+            "}",
+            "",
+            "        jsonBuilder.append(\"\\\"file\\\": \\\"\").append(result.file().getAbsolutePath()).append(\"\\\",\\n\");",
+            "    private final ConcurrentLinkedQueue<TextSearchResult> results = new ConcurrentLinkedQueue<>();",
+    };
+
+    private StringWriter writer;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        writer = new StringWriter(1 << 16);
+    }
+
+    @Benchmark
+    public void legacyEscape(Blackhole blackhole) {
+        for (String line : LINES) {
+            blackhole.consume(legacyEscapeSpecialCharacters(line));
+        }
+    }
+
+    @Benchmark
+    public void escapeSpecialCharacters(Blackhole blackhole) {
+        for (String line : LINES) {
+            blackhole.consume(JSONObjectUtility.escapeSpecialCharacters(line));
+        }
+    }
+
+    @Benchmark
+    public void writeEscaped(Blackhole blackhole) throws IOException {
+        writer.getBuffer().setLength(0);
+        for (String line : LINES) {
+            JSONObjectUtility.writeEscaped(writer, line);
+        }
+        blackhole.consume(writer.getBuffer().length());
+    }
+
+    // escapeSpecialCharacters before the fast path and lookup table
+    private static String legacyEscapeSpecialCharacters(String input) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            switch (c) {
+                case '\\': sb.append("\\\\"); break;
+                case '"': sb.append("\\\""); break;
+                case '\b': sb.append("\\b"); break;
+                case '\f': sb.append("\\f"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -1,10 +1,17 @@
 package javadev.stringcollections.textreplacor;
 
 import javadev.stringcollections.textreplacor.console.ColoredConsoleOutput;
+import javadev.stringcollections.textreplacor.console.ProgressReporter;
 import javadev.stringcollections.textreplacor.exception.TextReplacerError;
 import javadev.stringcollections.textreplacor.filesquery.DirectoryReader;
+import javadev.stringcollections.textreplacor.filesquery.DuplicateFileGrouper;
+import javadev.stringcollections.textreplacor.generator.RandomGenerator;
+import javadev.stringcollections.textreplacor.io.zip.ZipArchiveReader;
+import javadev.stringcollections.textreplacor.metrics.MetricsRecorder;
 import javadev.stringcollections.textreplacor.mimedetector.TextFileDetector;
+import javadev.stringcollections.textreplacor.object.ReplaceResult;
 import javadev.stringcollections.textreplacor.writer.ReplaceStringInAFile;
+import javadev.stringcollections.textreplacor.writer.ReplaceStringInAnArchive;
 import librarycollections.nurujjamanpollob.mimedetector.MagicException;
 import librarycollections.nurujjamanpollob.mimedetector.MagicMatchNotFoundException;
 import librarycollections.nurujjamanpollob.mimedetector.MagicParseException;
@@ -12,6 +19,10 @@ import lombok.Setter;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.List;
 
 
@@ -77,6 +88,63 @@ public class ReplaceStringInFiles {
     @Setter
     private boolean useLogging = false;
 
+    /**
+     * -- SETTER --
+     *  This method used to set the recorder that receives the counters and stage latencies of the run. Default is {@link MetricsRecorder#NO_OP}.
+     *
+     */
+    @Setter
+    private MetricsRecorder metricsRecorder = MetricsRecorder.NO_OP;
+
+    /**
+     * -- SETTER --
+     *  This method used to set the progress reporter, it is started and stopped by {@link #replaceStringInFiles()}. Default is null, no progress is shown.
+     *
+     */
+    @Setter
+    private ProgressReporter progressReporter = null;
+
+    /**
+     * -- SETTER --
+     *  This method used to enable or disable the console line printed for each ignored file. Default is true, disable it when a progress reporter is set.
+     *
+     */
+    @Setter
+    private boolean printIgnoredFiles = true;
+
+    /**
+     * -- SETTER --
+     *  This method used to set the algorithm of the content digests computed for each replaced file, for example SHA-256.
+     *  The digests are computed in the replace pass, and the result of each file is kept, see {@link #getReplaceResults()}.
+     *  Default is null, no digest is computed and no result is kept.
+     *
+     */
+    @Setter
+    private String digestAlgorithm = null;
+
+    // results of the last run, only kept when a digest algorithm is set
+    private final List<ReplaceResult> replaceResults = new ArrayList<>();
+
+    /**
+     * -- SETTER --
+     *  This method used to replace byte-identical files once. The string is replaced in the first file of each group of copies,
+     *  and its new content is copied to the others, see {@link DuplicateFileGrouper}. Copies are compared byte by byte before they are overwritten.
+     *  Default is false.
+     *
+     */
+    @Setter
+    private boolean deduplicateFiles = false;
+
+    /**
+     * -- SETTER --
+     *  This method used to replace the string in the text entries of zip archives, like jar files, see {@link ReplaceStringInAnArchive}.
+     *  The extension filters apply to the entry names, and the entries that don't match are copied without being inflated again.
+     *  Default is false, archives are binary files.
+     *
+     */
+    @Setter
+    private boolean replaceInArchives = false;
+
     private final boolean proceedOnlyFilesWithExtensions;
     private final boolean useFiltering;
 
@@ -211,19 +279,52 @@ public class ReplaceStringInFiles {
         }
 
         // get the directory reader
+        long walkStart = System.nanoTime();
         DirectoryReader directoryReader = new DirectoryReader(initialDirectoryPath);
 
         // get the files
         List<File> files = directoryReader.listAllFiles();
+        metricsRecorder.recordLatency(MetricsRecorder.Stage.WALK, System.nanoTime() - walkStart);
+        metricsRecorder.add(MetricsRecorder.Counter.FILES_WALKED, files.size());
 
         // show log that the process is started
         logMessage(
                 "File replacing process form this directory %s has been started. Now processing %s size of files".formatted(initialDirectoryPath, files.size()),
                 LogType.INFO);
 
-        // loop through the files
-        for (File file : files) {
-           processFile(file);
+        replaceResults.clear();
+        List<List<File>> groups = groupFiles(files);
+        if (progressReporter != null) {
+            progressReporter.start();
+            progressReporter.setTotalFiles(files.size());
+        }
+
+        // loop through the files, a group holds one file or identical copies
+        try {
+            for (List<File> group : groups) {
+                File file = group.get(0);
+                long size = progressReporter != null ? file.length() : 0;
+                try {
+                    ReplaceResult result = processFileAndGetResult(file);
+                    if (result != null && group.size() > 1) {
+                        copyToDuplicates(result, group);
+                    }
+                } catch (TextReplacerError e) {
+                    if (progressReporter != null) {
+                        progressReporter.error();
+                    }
+                    throw e;
+                }
+                if (progressReporter != null) {
+                    for (int i = 0; i < group.size(); i++) {
+                        progressReporter.fileProcessed(size);
+                    }
+                }
+            }
+        } finally {
+            if (progressReporter != null) {
+                progressReporter.stop();
+            }
         }
 
         // show log that the process is completed
@@ -243,17 +344,27 @@ public class ReplaceStringInFiles {
      * This method is designed with a future extension in mind, in case if we need to add more conditions to process the file.
      */
     public void processFile(File file) throws TextReplacerError {
+        processFileAndGetResult(file);
+    }
 
+    // processes the file, returns the result if the string was replaced in it, or null if it was ignored
+    private ReplaceResult processFileAndGetResult(File file) throws TextReplacerError {
+
+        if (replaceInArchives && ZipArchiveReader.isArchive(file) && !isFileExtensionInIgnoreList(file) && isFileValid(file)) {
+            ReplaceResult result = replaceInArchive(file);
+            // not a zip, processed like any other file
+            if (result != null) {
+                return result;
+            }
+        }
 
         // if filtering is disabled, return true
         if (!useFiltering) {
 
             // execute if the file is valid and text mime type
-            if (isFileValid(file) && isTextFile(file)) {
+            if (isFileValid(file) && classify(file)) {
                 // replace the string in the file
-                ReplaceStringInAFile replaceStringInAFile = new ReplaceStringInAFile(file, oldString, newString, bufferSize);
-                replaceStringInAFile.setUseLogger(useLogging);
-                replaceStringInAFile.replaceString();
+                return replaceInFile(file);
             }
         } else {
 
@@ -263,27 +374,26 @@ public class ReplaceStringInFiles {
                 logMessage("File %s is ignored due to provided settings".formatted(file.getAbsolutePath()), LogType.INFO);
 
                 // Show log that the file is ignored
-                ColoredConsoleOutput.printBlueText("File %s is ignored due to provided settings".formatted(file.getAbsolutePath()));
+                if (printIgnoredFiles) {
+                    ColoredConsoleOutput.printBlueText("File %s is ignored due to provided settings".formatted(file.getAbsolutePath()));
+                }
 
-                return;
+                return null;
             }
 
             // check if file is in process list only, otherwise detect if text file and process
             if (isFileExtensionInProcessOnlyList(file)) {
                 // replace the string in the file
-                ReplaceStringInAFile replaceStringInAFile = new ReplaceStringInAFile(file, oldString, newString, bufferSize);
-                replaceStringInAFile.setUseLogger(useLogging);
-                replaceStringInAFile.replaceString();
+                return replaceInFile(file);
             } else {
                 // if the file is valid and text mime type
-                if (isFileValid(file) && isTextFile(file)) {
+                if (isFileValid(file) && classify(file)) {
                     // replace the string in the file
-                    ReplaceStringInAFile replaceStringInAFile = new ReplaceStringInAFile(file, oldString, newString, bufferSize);
-                    replaceStringInAFile.setUseLogger(useLogging);
-                    replaceStringInAFile.replaceString();
+                    ReplaceResult result = replaceInFile(file);
 
                     // Do Log
                     logMessage("File %s is processed".formatted(file.getAbsolutePath()), LogType.INFO);
+                    return result;
                 } else {
                     // Do Log
                     logMessage("File %s is ignored due to provided settings and not being a text file".formatted(file.getAbsolutePath()), LogType.INFO);
@@ -291,6 +401,154 @@ public class ReplaceStringInFiles {
             }
         }
 
+        return null;
+    }
+
+    /**
+     * This method used to get the result of each replaced file of the last {@link #replaceStringInFiles()} call, in processing order.
+     * The results are only kept when a {@link #setDigestAlgorithm(String) digest algorithm} is set, so a large tree doesn't hold
+     * one object per file for the whole run.
+     *
+     * @return a copy of the results, empty if no digest algorithm is set
+     */
+    public List<ReplaceResult> getReplaceResults() {
+        return List.copyOf(replaceResults);
+    }
+
+    // keeps the result of a file for getReplaceResults(), only when the digests are requested
+    private void addResult(ReplaceResult result) {
+        if (digestAlgorithm != null) {
+            replaceResults.add(result);
+        }
+    }
+
+    // replaces the string in a text file
+    private ReplaceResult replaceInFile(File file) throws TextReplacerError {
+        ReplaceStringInAFile replaceStringInAFile = new ReplaceStringInAFile(file, oldString, newString, bufferSize);
+        replaceStringInAFile.setUseLogger(useLogging);
+        replaceStringInAFile.setMetricsRecorder(metricsRecorder);
+        replaceStringInAFile.setDigestAlgorithm(digestAlgorithm);
+        ReplaceResult result = replaceStringInAFile.replaceStringWithResult();
+        addResult(result);
+
+        if (progressReporter != null && result.matched()) {
+            progressReporter.fileMatched();
+        }
+        return result;
+    }
+
+    // replaces the string in the entries of an archive, returns null if it is not a zip archive
+    private ReplaceResult replaceInArchive(File file) throws TextReplacerError {
+        ReplaceStringInAnArchive replaceStringInAnArchive = new ReplaceStringInAnArchive(file, oldString, newString, bufferSize);
+        replaceStringInAnArchive.setUseLogger(useLogging);
+        replaceStringInAnArchive.setMetricsRecorder(metricsRecorder);
+        replaceStringInAnArchive.setDigestAlgorithm(digestAlgorithm);
+        replaceStringInAnArchive.setEntryFilter(this::isEntryIncluded);
+        ReplaceResult result = replaceStringInAnArchive.replaceStringWithResult();
+        if (result == null) {
+            return null;
+        }
+        addResult(result);
+
+        if (progressReporter != null && result.matched()) {
+            progressReporter.fileMatched();
+        }
+        return result;
+    }
+
+    // the extension filters for an entry name of an archive
+    private boolean isEntryIncluded(String name) {
+        if (!useFiltering) {
+            return true;
+        }
+        String entryName = name.toLowerCase();
+        if (proceedOnlyFilesWithExtensions) {
+            if (onlyFileExtensions == null) {
+                return true;
+            }
+            for (String onlyFileExtension : onlyFileExtensions) {
+                if (entryName.endsWith(onlyFileExtension.toLowerCase())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (ignoreFileExtensions != null) {
+            for (String ignoreFileExtension : ignoreFileExtensions) {
+                if (entryName.endsWith(ignoreFileExtension.toLowerCase())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // one group per file, or per unique content when deduplicating
+    private List<List<File>> groupFiles(List<File> files) throws TextReplacerError {
+        if (!deduplicateFiles) {
+            List<List<File>> groups = new ArrayList<>(files.size());
+            for (File file : files) {
+                groups.add(List.of(file));
+            }
+            return groups;
+        }
+        try {
+            // copies are only grouped if the extension filters treat them the same way
+            List<List<File>> groups = DuplicateFileGrouper.group(files, this::filterPartition, true);
+            metricsRecorder.add(MetricsRecorder.Counter.FILES_DEDUPLICATED, files.size() - groups.size());
+            return groups;
+        } catch (IOException e) {
+            logMessage("Cannot group identical files: " + e.getMessage(), LogType.ERROR);
+            throw new TextReplacerError("Cannot group identical files: " + e.getMessage());
+        }
+    }
+
+    // the decision of the extension filters for a file, null for an ignored file, which is not read
+    private Object filterPartition(File file) {
+        if (!useFiltering) {
+            return Boolean.TRUE;
+        }
+        if (isFileExtensionInIgnoreList(file)) {
+            return null;
+        }
+        if (onlyFileExtensions == null || !proceedOnlyFilesWithExtensions) {
+            return Boolean.FALSE;
+        }
+        String fileName = file.getName().toLowerCase();
+        for (String onlyFileExtension : onlyFileExtensions) {
+            if (fileName.endsWith(onlyFileExtension.toLowerCase())) {
+                return Boolean.TRUE;
+            }
+        }
+        return Boolean.FALSE;
+    }
+
+    // gives the copies of a file the content that was written to it, through a tmp file like ReplaceStringInAFile
+    private void copyToDuplicates(ReplaceResult result, List<File> group) throws TextReplacerError {
+        Path source = group.get(0).toPath();
+        for (int i = 1; i < group.size(); i++) {
+            File duplicate = group.get(i);
+            if (result.matched()) {
+                File tmpFile = new File(duplicate.getAbsolutePath() + "." + RandomGenerator.generateRandomStringOnlyAlphabetsAndNumbers(10));
+                try {
+                    Files.copy(source, tmpFile.toPath());
+                    Files.move(tmpFile.toPath(), duplicate.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException e) {
+                    tmpFile.delete();
+                    logMessage("Cannot copy the replaced content to the identical file: " + duplicate.getAbsolutePath(), LogType.ERROR);
+                    throw new TextReplacerError("Cannot copy the replaced content to the identical file: " + duplicate.getAbsolutePath() + " The error is: " + e.getMessage());
+                }
+                metricsRecorder.increment(MetricsRecorder.Counter.FILES_REWRITTEN);
+                metricsRecorder.add(MetricsRecorder.Counter.BYTES_WRITTEN, result.bytesWritten());
+                if (progressReporter != null) {
+                    progressReporter.fileMatched();
+                }
+
+                logMessage("File %s has the content of %s, the replaced content is copied".formatted(duplicate.getAbsolutePath(), source), LogType.INFO);
+            }
+            addResult(new ReplaceResult(duplicate.getAbsolutePath(), result.matched(), result.bytesRead(), result.bytesWritten(),
+                    result.inputDigest(), result.outputDigest()));
+        }
     }
 
     // this method tests it if the file extension is in the ignore list
@@ -341,7 +599,7 @@ public class ReplaceStringInFiles {
         for (String onlyFileExtension : onlyFileExtensions) {
             // if the file name ends with the ignore file extension, file extension check without case sensitivity
             if (fileName.toLowerCase().endsWith(onlyFileExtension.toLowerCase())) {
-                return isTextFile(file);
+                return classify(file);
             }
         }
 
@@ -392,6 +650,15 @@ public class ReplaceStringInFiles {
         return file != null && file.isFile() && file.length() > 0;
     }
 
+    // isTextFile, recording the classify latency and the text or binary counter
+    private boolean classify(File file) {
+        long start = System.nanoTime();
+        boolean isText = isTextFile(file);
+        metricsRecorder.recordLatency(MetricsRecorder.Stage.CLASSIFY, System.nanoTime() - start);
+        metricsRecorder.increment(isText ? MetricsRecorder.Counter.FILES_TEXT : MetricsRecorder.Counter.FILES_BINARY);
+        return isText;
+    }
+
     /**
      * This method used to log the message
      *
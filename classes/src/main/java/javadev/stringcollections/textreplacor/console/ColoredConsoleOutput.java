@@ -222,12 +222,31 @@ public class ColoredConsoleOutput {
      */
     public static void printColoredText(String color, String text) {
 
-        // split text by new line
-        String[] lines = text.split("\n");
+        // single line, the common case
+        if (text.indexOf('\n') == -1) {
+            System.out.println(color + text + "\u001B[0m");
+            return;
+        }
+
+        // trailing line breaks are ignored, like String.split does
+        int length = text.length();
+        while (length > 0 && text.charAt(length - 1) == '\n') {
+            length--;
+        }
 
-        for (String line : lines) {
-            System.out.println(color + line + "\u001B[0m");
+        // color each line, and write them all with a single print
+        String lineSeparator = System.lineSeparator();
+        StringBuilder output = new StringBuilder(length + 16);
+        int start = 0;
+        while (start < length) {
+            int end = text.indexOf('\n', start);
+            if (end == -1 || end > length) {
+                end = length;
+            }
+            output.append(color).append(text, start, end).append("\u001B[0m").append(lineSeparator);
+            start = end + 1;
         }
+        System.out.print(output);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,239 @@
+package javadev.stringcollections.textreplacor.console;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote Shows the progress of a search or replacement as one status line, refreshed in place a few times per second:
+ * <pre>
+ *     files 1200/5000 (24%) | 410.2 files/s | 12.3 MB/s | matched 12 | errors 0 | ETA 00:00:09
+ * </pre>
+ * The worker threads only add to {@link LongAdder} counters, the line is rendered by a background thread, so reporting never waits for the console.
+ * Set it with {@link javadev.stringcollections.textreplacor.ReplaceStringInFiles#setProgressReporter(ProgressReporter)} or
+ * {@link javadev.stringcollections.textreplacor.search.StringMatcherInFiles#setProgressReporter(ProgressReporter)}, which start and stop it.
+ * Turn off their per-file console output while it runs, or the status line is mixed with other lines.
+ * @since 2.1.0
+ */
+public class ProgressReporter implements Closeable {
+
+    /**
+     * Default time between two refreshes of the status line.
+     */
+    public static final long DEFAULT_REFRESH_INTERVAL_MILLIS = 250;
+
+    private final PrintStream out;
+    private final long refreshIntervalMillis;
+
+    private final LongAdder filesProcessed = new LongAdder();
+    private final LongAdder bytesProcessed = new LongAdder();
+    private final LongAdder filesMatched = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private volatile long totalFiles = -1;
+    private volatile long startNanos = System.nanoTime();
+
+    private ScheduledExecutorService renderer;
+    private final Object renderLock = new Object();
+    // length of the last rendered line, to erase its rest
+    private int lastLineLength = 0;
+
+    /**
+     * Creates a reporter that writes to the standard output, every {@link #DEFAULT_REFRESH_INTERVAL_MILLIS} milliseconds.
+     */
+    public ProgressReporter() {
+        this(System.out, DEFAULT_REFRESH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Creates a reporter.
+     *
+     * @param out                   the console to write to
+     * @param refreshIntervalMillis time between two refreshes of the status line
+     */
+    public ProgressReporter(@NotNull PrintStream out, long refreshIntervalMillis) {
+        if (refreshIntervalMillis <= 0) {
+            throw new IllegalArgumentException("The refresh interval must be positive, got " + refreshIntervalMillis);
+        }
+        this.out = out;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    /**
+     * Resets the counters and starts refreshing the status line. Does nothing if it is already started.
+     */
+    public synchronized void start() {
+        if (renderer != null) {
+            return;
+        }
+        filesProcessed.reset();
+        bytesProcessed.reset();
+        filesMatched.reset();
+        errors.reset();
+        totalFiles = -1;
+        startNanos = System.nanoTime();
+        synchronized (renderLock) {
+            lastLineLength = 0;
+        }
+
+        renderer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "universal-string-replacer-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        renderer.scheduleAtFixedRate(this::render, refreshIntervalMillis, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops refreshing, and prints the final status line followed by a line break. Does nothing if it is not started.
+     */
+    public void stop() {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = renderer;
+            renderer = null;
+        }
+        if (running == null) {
+            return;
+        }
+        running.shutdownNow();
+        try {
+            // let a refresh in progress finish, so it can't print after the final line
+            running.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (renderLock) {
+            render();
+            out.println();
+        }
+    }
+
+    /**
+     * Same as {@link #stop()}.
+     */
+    @Override
+    public void close() {
+        stop();
+    }
+
+    /**
+     * Sets the number of files to process, used for the percentage and the ETA. Unknown by default.
+     *
+     * @param totalFiles the number of files
+     */
+    public void setTotalFiles(long totalFiles) {
+        this.totalFiles = totalFiles;
+    }
+
+    /**
+     * Counts a processed file, searched, replaced or skipped.
+     *
+     * @param bytes size of the file
+     */
+    public void fileProcessed(long bytes) {
+        filesProcessed.increment();
+        bytesProcessed.add(bytes);
+    }
+
+    /**
+     * Counts a file with at least one occurrence.
+     */
+    public void fileMatched() {
+        filesMatched.increment();
+    }
+
+    /**
+     * Counts a file that failed.
+     */
+    public void error() {
+        errors.increment();
+    }
+
+    /**
+     * @return the number of processed files
+     */
+    public long getFilesProcessed() {
+        return filesProcessed.sum();
+    }
+
+    /**
+     * @return the number of files with at least one occurrence
+     */
+    public long getFilesMatched() {
+        return filesMatched.sum();
+    }
+
+    /**
+     * @return the number of files that failed
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * Renders the status line for the current counters.
+     *
+     * @return the status line, without line break
+     */
+    public @NotNull String getStatusLine() {
+        long processed = filesProcessed.sum();
+        long total = totalFiles;
+        double seconds = Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+        double filesPerSecond = processed / seconds;
+
+        StringBuilder line = new StringBuilder(96);
+        line.append("files ").append(processed);
+        if (total >= 0) {
+            line.append('/').append(total);
+            if (total > 0) {
+                line.append(" (").append(Math.min(100, processed * 100 / total)).append("%)");
+            }
+        }
+        line.append(" | ").append(String.format(Locale.ROOT, "%.1f", filesPerSecond)).append(" files/s");
+        line.append(" | ").append(String.format(Locale.ROOT, "%.1f", bytesProcessed.sum() / seconds / (1024 * 1024))).append(" MB/s");
+        line.append(" | matched ").append(filesMatched.sum());
+        line.append(" | errors ").append(errors.sum());
+        if (total >= 0) {
+            line.append(" | ETA ");
+            long remaining = Math.max(0, total - processed);
+            if (remaining == 0) {
+                line.append("00:00:00");
+            } else if (processed == 0) {
+                line.append("--:--:--");
+            } else {
+                appendDuration(line, (long) (remaining / filesPerSecond));
+            }
+        }
+        return line.toString();
+    }
+
+    // rewrites the status line in place, called by the renderer thread and by stop()
+    private void render() {
+        synchronized (renderLock) {
+            String line = getStatusLine();
+            StringBuilder output = new StringBuilder(line.length() + lastLineLength + 1);
+            output.append('\r').append(line);
+            for (int i = line.length(); i < lastLineLength; i++) {
+                output.append(' ');
+            }
+            lastLineLength = line.length();
+            out.print(output);
+            out.flush();
+        }
+    }
+
+    private static void appendDuration(StringBuilder line, long seconds) {
+        long hours = seconds / 3600;
+        long minutes = seconds / 60 % 60;
+        long rest = seconds % 60;
+        line.append(String.format(Locale.ROOT, "%02d:%02d:%02d", hours, minutes, rest));
+    }
+}
@@ -1,6 +1,7 @@
 package javadev.stringcollections.textreplacor.filesquery;
 
 
+import javadev.stringcollections.textreplacor.jfr.DirectoryWalkEvent;
 import lombok.Getter;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -176,6 +177,8 @@ public class DirectoryReader {
      * @return List of a file
      */
     public List<File> listAllFiles() {
+        DirectoryWalkEvent event = new DirectoryWalkEvent();
+        event.begin();
 
         File[] files = listAllFilesAndDirectories();
 
@@ -192,6 +195,12 @@ public class DirectoryReader {
             }
         }
 
+        event.end();
+        if (event.shouldCommit()) {
+            event.setDirectory(directoryPath);
+            event.setFileCount(fileList.size());
+            event.commit();
+        }
         return fileList;
 
     }
@@ -0,0 +1,136 @@
+package javadev.stringcollections.textreplacor.filesquery;
+
+import javadev.stringcollections.textreplacor.io.FileHashDriver;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote Groups byte-identical files, so a search or a replacement runs once per unique content.
+ * <p>
+ * Files are first grouped by size, only files that share their size with another file are hashed, with the fast {@link FileHashDriver#XXH3_128}.
+ * Files with the same size and hash are one group. The first file of a group, in the order of the input, is its representative.
+ * Set <code>verifyContent</code> to compare the bytes of every duplicate with its representative before it is trusted,
+ * when a duplicate gets the bytes of its representative written to it.
+ * @since 2.1.0
+ */
+public final class DuplicateFileGrouper {
+
+    // files of the same size and partition, candidates for the same content
+    private record SizeKey(long size, Object partition) {
+    }
+
+    private record ContentKey(long size, Object partition, String hash) {
+    }
+
+    /**
+     * Suppress default constructor for noninstantiability
+     */
+    private DuplicateFileGrouper() {
+        throw new AssertionError("No " + this.getClass().getName() + " instances for you!");
+    }
+
+    /**
+     * Groups the identical files.
+     *
+     * @param files         the files to group
+     * @param verifyContent if true, duplicates are compared byte by byte with their representative
+     * @return the groups, every file is in exactly one group
+     * @throws IOException if a file can't be read
+     */
+    public static @NotNull List<List<File>> group(@NotNull List<File> files, boolean verifyContent) throws IOException {
+        return group(files, file -> Boolean.TRUE, verifyContent);
+    }
+
+    /**
+     * Groups the identical files that are in the same partition. Use the partition when files with the same content can be handled differently,
+     * for example because of their file extension.
+     *
+     * @param files         the files to group
+     * @param partition     the partition of a file, files are only grouped within a partition. Null keeps the file alone, without reading it
+     * @param verifyContent if true, duplicates are compared byte by byte with their representative
+     * @return the groups, every file is in exactly one group
+     * @throws IOException if a file can't be read
+     */
+    public static @NotNull List<List<File>> group(@NotNull List<File> files, @NotNull Function<File, Object> partition,
+                                                  boolean verifyContent) throws IOException {
+        // first pass, by size, without reading the files
+        Map<File, SizeKey> sizeKeys = new HashMap<>();
+        Map<SizeKey, Integer> sizeCounts = new HashMap<>();
+        for (File file : files) {
+            Object filePartition = partition.apply(file);
+            // empty files are skipped by the pipelines, nothing to share
+            if (filePartition == null || !file.isFile() || file.length() == 0 || !file.canRead()) {
+                continue;
+            }
+            SizeKey key = new SizeKey(file.length(), filePartition);
+            sizeKeys.put(file, key);
+            sizeCounts.merge(key, 1, Integer::sum);
+        }
+
+        List<Path> candidates = new ArrayList<>();
+        for (File file : files) {
+            SizeKey key = sizeKeys.get(file);
+            if (key != null && sizeCounts.get(key) > 1) {
+                candidates.add(file.toPath());
+            }
+        }
+
+        // second pass, hash the files that share their size
+        Map<Path, String> hashes;
+        try {
+            hashes = FileHashDriver.hashAll(candidates, FileHashDriver.XXH3_128);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("Hash algorithm not found: " + FileHashDriver.XXH3_128, e);
+        }
+
+        Map<Object, List<File>> groups = new LinkedHashMap<>();
+        for (File file : files) {
+            String hash = hashes.get(file.toPath());
+            SizeKey sizeKey = sizeKeys.get(file);
+            // a file without a hash is alone, keyed by itself
+            Object key = hash == null ? file : new ContentKey(sizeKey.size(), sizeKey.partition(), hash);
+            groups.computeIfAbsent(key, k -> new ArrayList<>(1)).add(file);
+        }
+
+        List<List<File>> result = new ArrayList<>(groups.size());
+        for (List<File> group : groups.values()) {
+            if (verifyContent && group.size() > 1) {
+                splitMismatches(group, result);
+            } else {
+                result.add(group);
+            }
+        }
+        return result;
+    }
+
+    // keeps the duplicates that have the bytes of the representative, any other file gets its own group
+    private static void splitMismatches(List<File> group, List<List<File>> result) throws IOException {
+        File representative = group.get(0);
+        List<File> verified = new ArrayList<>(group.size());
+        verified.add(representative);
+        List<List<File>> mismatches = new ArrayList<>();
+        for (int i = 1; i < group.size(); i++) {
+            File duplicate = group.get(i);
+            if (Files.mismatch(representative.toPath(), duplicate.toPath()) == -1) {
+                verified.add(duplicate);
+            } else {
+                mismatches.add(new ArrayList<>(List.of(duplicate)));
+            }
+        }
+        result.add(verified);
+        result.addAll(mismatches);
+    }
+}
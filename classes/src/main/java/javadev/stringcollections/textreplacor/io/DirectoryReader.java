@@ -298,6 +298,7 @@
 package javadev.stringcollections.textreplacor.io;
 
 import javadev.stringcollections.textreplacor.console.ColoredConsoleOutput;
+import javadev.stringcollections.textreplacor.jfr.DirectoryWalkEvent;
 import lombok.Getter;
 import lombok.Setter;
 import org.jetbrains.annotations.NotNull;
@@ -363,8 +364,11 @@ public class DirectoryReader {
      * @return A `List` of `File` objects.
      */
     public List<File> listAllFiles() {
+        DirectoryWalkEvent event = new DirectoryWalkEvent();
+        event.begin();
         List<File> fileList = new ArrayList<>();
         collectFilesRecursively(new File(directoryPath), fileList, null, false);
+        commitWalkEvent(event, fileList);
         return fileList;
     }
 
@@ -373,11 +377,24 @@ public class DirectoryReader {
      * @param directoriesToIgnore List of directory names to ignore (e.g., ".git", "node_modules").
      */
     public List<File> listAllFilesIgnoring(List<String> directoriesToIgnore) {
+        DirectoryWalkEvent event = new DirectoryWalkEvent();
+        event.begin();
         List<File> fileList = new ArrayList<>();
         collectFilesRecursivelyIgnoring(new File(directoryPath), fileList, directoriesToIgnore);
+        commitWalkEvent(event, fileList);
         return fileList;
     }
 
+    // ends the walk event, and commits it if it is recorded
+    private void commitWalkEvent(DirectoryWalkEvent event, List<File> files) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setDirectory(directoryPath);
+            event.setFileCount(files.size());
+            event.commit();
+        }
+    }
+
     /**
      * Recursively traverses directories and collects files, ignoring specified directory names.
      * This method only collects files, not directories.
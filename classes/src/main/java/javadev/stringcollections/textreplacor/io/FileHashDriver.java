@@ -8,19 +8,71 @@ import org.jetbrains.annotations.Nullable;
 
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @author nurujjamanpollob
  * @version 1.0
  * @apiNote This class is intended to generate and validate SHA hash.
+ * <p>
+ * To hash many files, use {@link #hashAll(Collection, String)}. The files are hashed in parallel by a shared pool of daemon threads,
+ * each thread reuses its own {@link MessageDigest} and direct read buffer across calls. Files are read with {@link FileChannel} into that buffer whatever their size, not memory-mapped,
+ * so nothing stays mapped, or locked on Windows, after a file is hashed.
+ * <p>
+ * Besides the algorithms of the security providers, {@value #XXH3_64} and {@value #XXH3_128} select the non-cryptographic {@link XXH3Digest},
+ * much faster when the hash only tells if a file changed.
  * @since 1.0
  */
 public class FileHashDriver {
 
+    /**
+     * Algorithm name of the 64-bit {@link XXH3Digest}.
+     */
+    public static final String XXH3_64 = "XXH3-64";
+
+    /**
+     * Algorithm name of the 128-bit {@link XXH3Digest}.
+     */
+    public static final String XXH3_128 = "XXH3-128";
+
+    // size of the direct read buffer of each thread
+    private static final int READ_BUFFER_SIZE = 1024 * 1024;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    // digests by algorithm, reset after every file, so a thread creates each algorithm only once
+    private static final ThreadLocal<Map<String, MessageDigest>> DIGESTS = ThreadLocal.withInitial(HashMap::new);
+
+    private static final ThreadLocal<ByteBuffer> READ_BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(READ_BUFFER_SIZE));
+
+    // created on the first use, lives as long as the class, so the digests and buffers of its threads are reused by every call
+    private static final class SharedPool {
+        // hashing is bound by the disk or by the digest, more threads than cores don't help
+        private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), runnable -> {
+            Thread thread = new Thread(runnable, "universal-string-replacer-hash");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     /**
      * Method to generate SHA hash. The algorithm is used is MD5.
      * May return null if the md5 algorithm is not found in the security provider.
@@ -54,26 +106,193 @@ public class FileHashDriver {
         }
     }
 
+    /**
+     * Method to generate a 128-bit XXH3 hash, to detect changed files. It is not a cryptographic hash.
+     * May return null if the file can't be read.
+     * @param filePath file path to generate the hash
+     */
+    public static @Nullable String generateXXH3(String filePath) {
+        try {
+            return generateHash(filePath, XXH3_128);
+        } catch (NoSuchAlgorithmException e) {
+            ColoredConsoleOutput.printRedText(e.toString());
+
+            return null;
+        }
+    }
+
     protected static @NotNull String generateHash(String filePath, String algorithm) throws NoSuchAlgorithmException {
         File f = new File(PathResolver.convertAndCleanPaths(filePath));
-        byte[] bytes = new byte[4096];
-        MessageDigest md = MessageDigest.getInstance(algorithm);
-        try (FileInputStream fis = new FileInputStream(f)) {
-            while (true) {
-                int len = fis.read(bytes);
-                if (len == -1) {
-                    break;
-                }
-                md.update(bytes, 0, len);
-            }
+        try {
+            return toHexString(hash(f.toPath(), algorithm));
         } catch (IOException e) {
             throw new NoSuchAlgorithmException("Error generating MD5 for: " + e.getMessage());
         }
-        byte[] hashed_bytes = md.digest();
-        StringBuilder sb = new StringBuilder();
-        for (byte hashedByte : hashed_bytes) {
-            sb.append(String.format("%02x", hashedByte));
+    }
+
+    /**
+     * Hashes files in parallel, with the shared pool of one thread per available core.
+     *
+     * @param paths     the files to hash
+     * @param algorithm the digest algorithm, for example SHA-256
+     * @return the lowercase hex hash of every file, in the order of the paths
+     * @throws NoSuchAlgorithmException if the algorithm is not found in the security providers
+     * @throws IOException              if a file can't be read
+     */
+    public static @NotNull Map<Path, String> hashAll(@NotNull Collection<Path> paths, @NotNull String algorithm) throws NoSuchAlgorithmException, IOException {
+        return hashAll(paths, algorithm, SharedPool.EXECUTOR);
+    }
+
+    /**
+     * Hashes the files of a stream in parallel, with one thread per available core. The stream is consumed before hashing starts.
+     *
+     * @param paths     the files to hash, for example from {@link java.nio.file.Files#walk(Path, java.nio.file.FileVisitOption...)}
+     * @param algorithm the digest algorithm, for example SHA-256
+     * @return the lowercase hex hash of every file, in the order of the stream
+     * @throws NoSuchAlgorithmException if the algorithm is not found in the security providers
+     * @throws IOException              if a file can't be read
+     */
+    public static @NotNull Map<Path, String> hashAll(@NotNull Stream<Path> paths, @NotNull String algorithm) throws NoSuchAlgorithmException, IOException {
+        return hashAll(paths.collect(Collectors.toList()), algorithm);
+    }
+
+    /**
+     * Hashes files in parallel, with threads created for this call. Their digests and read buffers end with the call,
+     * use {@link #hashAll(Collection, String, ExecutorService)} to hash many batches with the same threads.
+     *
+     * @param paths       the files to hash
+     * @param algorithm   the digest algorithm, for example SHA-256
+     * @param threadCount number of hashing threads
+     * @return the lowercase hex hash of every file, in the order of the paths
+     * @throws NoSuchAlgorithmException if the algorithm is not found in the security providers
+     * @throws IOException              if a file can't be read
+     */
+    public static @NotNull Map<Path, String> hashAll(@NotNull Collection<Path> paths, @NotNull String algorithm, int threadCount) throws NoSuchAlgorithmException, IOException {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("The thread count must be positive, got " + threadCount);
+        }
+        // fail before starting the threads
+        newDigest(algorithm);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threadCount, Math.max(1, paths.size())));
+        try {
+            return hashAll(paths, algorithm, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Hashes files in parallel, with the threads of an executor, which is not shut down. Each thread keeps its digests and read buffer
+     * for the next files, of this call and of the next ones.
+     *
+     * @param paths     the files to hash
+     * @param algorithm the digest algorithm, for example SHA-256
+     * @param executor  the executor that runs the hashing tasks
+     * @return the lowercase hex hash of every file, in the order of the paths
+     * @throws NoSuchAlgorithmException if the algorithm is not found in the security providers
+     * @throws IOException              if a file can't be read
+     */
+    public static @NotNull Map<Path, String> hashAll(@NotNull Collection<Path> paths, @NotNull String algorithm, @NotNull ExecutorService executor) throws NoSuchAlgorithmException, IOException {
+        // fail before submitting any task
+        newDigest(algorithm);
+
+        List<Future<String>> futures = new ArrayList<>(paths.size());
+        try {
+            for (Path path : paths) {
+                futures.add(executor.submit(() -> toHexString(hash(path, algorithm))));
+            }
+
+            Map<Path, String> hashes = new LinkedHashMap<>();
+            int index = 0;
+            for (Path path : paths) {
+                try {
+                    hashes.put(path, futures.get(index++).get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while hashing: " + path, e);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException ioException) {
+                        throw ioException;
+                    }
+                    throw new IOException("Error hashing: " + path, e.getCause());
+                }
+            }
+            return hashes;
+        } finally {
+            // the executor is not ours, stop only the tasks of this call if one failed
+            for (Future<String> future : futures) {
+                future.cancel(true);
+            }
         }
-        return sb.toString();
+    }
+
+    /**
+     * Hashes a file with the digest and read buffer of the current thread.
+     *
+     * @param path      the file to hash
+     * @param algorithm the digest algorithm, for example SHA-256
+     * @return the hash bytes
+     * @throws NoSuchAlgorithmException if the algorithm is not found in the security providers
+     * @throws IOException              if the file can't be read
+     */
+    public static @NotNull byte[] hash(@NotNull Path path, @NotNull String algorithm) throws NoSuchAlgorithmException, IOException {
+        MessageDigest digest = threadDigest(algorithm);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // the direct buffer of the thread is reused for every file, no file region stays mapped after the hash
+            ByteBuffer buffer = READ_BUFFERS.get();
+            buffer.clear();
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+            return digest.digest();
+        } finally {
+            // a failed file must not leak into the next hash of this thread
+            digest.reset();
+        }
+    }
+
+    /**
+     * Encodes bytes as lowercase hex.
+     *
+     * @param bytes the bytes to encode
+     * @return two hex digits per byte
+     */
+    public static @NotNull String toHexString(@NotNull byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int value = bytes[i] & 0xFF;
+            hex[i * 2] = HEX_DIGITS[value >>> 4];
+            hex[i * 2 + 1] = HEX_DIGITS[value & 0x0F];
+        }
+        return new String(hex);
+    }
+
+    // the digest of the current thread for the algorithm
+    private static MessageDigest threadDigest(String algorithm) throws NoSuchAlgorithmException {
+        Map<String, MessageDigest> digests = DIGESTS.get();
+        MessageDigest digest = digests.get(algorithm);
+        if (digest == null) {
+            digest = newDigest(algorithm);
+            digests.put(algorithm, digest);
+        }
+        return digest;
+    }
+
+    /**
+     * Creates a digest, the XXH3 names are resolved before the security providers.
+     *
+     * @param algorithm the digest algorithm, for example SHA-256 or {@link #XXH3_128}
+     * @return a new digest
+     * @throws NoSuchAlgorithmException if the algorithm is not found
+     */
+    public static @NotNull MessageDigest newDigest(@NotNull String algorithm) throws NoSuchAlgorithmException {
+        return switch (algorithm) {
+            case XXH3_64 -> XXH3Digest.xxh3_64();
+            case XXH3_128 -> XXH3Digest.xxh3_128();
+            default -> MessageDigest.getInstance(algorithm);
+        };
     }
 }
@@ -0,0 +1,533 @@
+package javadev.stringcollections.textreplacor.io;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote A Merkle tree of a directory: every file has the hash of its content, every directory a hash of the names, types and hashes of its entries.
+ * Two manifests of the same tree have the same root digest if nothing changed, and {@link #compare(MerkleManifest)} only descends into
+ * the directories whose digests differ, so finding the changes of a mostly unchanged tree costs O(changed) instead of O(tree).
+ * <pre>
+ *     <code>
+ * MerkleManifest previous = MerkleManifest.load(Path.of("tree.manifest"));
+ * MerkleManifest current = MerkleManifest.build(Path.of("src"), FileHashDriver.XXH3_128, previous);
+ * MerkleManifest.Changes changes = previous.compare(current);
+ * // search or replace in changes.changedFiles() only
+ * current.save(Path.of("tree.manifest"));
+ *     </code>
+ * </pre>
+ * When a previous manifest is given to {@link #build(Path, String, MerkleManifest)}, files with the size and modification time they had then
+ * keep their hash without being read, so only new and modified files are hashed. The files are hashed in parallel by {@link FileHashDriver#hashAll(java.util.Collection, String)}.
+ * Symbolic links are not followed.
+ * <p>
+ * File layout of {@link #save(Path)}, fixed size numbers are big-endian:
+ * <pre>
+ * header  magic "USMM" (int), version (int), algorithm (modified UTF-8), build time in milliseconds (long), digest length (varint)
+ * nodes   the root directory, then every entry depth first, in name order
+ *         file:      type 0 (byte), name, size (varint), modification time (zigzag varint), digest
+ *         directory: type 1 (byte), name, entry count (varint), digest
+ *         a name is its UTF-8 byte length (varint) and its UTF-8 bytes
+ * </pre>
+ * @since 2.1.0
+ */
+public final class MerkleManifest {
+
+    static final int MAGIC = 0x55534D4D; // "USMM"
+    static final int VERSION = 1;
+
+    private static final byte FILE = 0;
+    private static final byte DIRECTORY = 1;
+    // longer than the digest of any algorithm, a larger length means a corrupted file
+    private static final int MAX_DIGEST_LENGTH = 1024;
+
+    // files modified this close to the previous build may have changed again within the same timestamp, they are hashed again
+    private static final long TIMESTAMP_GRANULARITY_MILLIS = 2000;
+
+    /**
+     * An entry of the tree.
+     */
+    public sealed interface Node permits FileNode, DirectoryNode {
+
+        /**
+         * @return the name of the entry, empty for the root directory
+         */
+        @NotNull String name();
+
+        /**
+         * @return the digest of the content of a file, or of the entries of a directory
+         */
+        @NotNull byte[] digest();
+    }
+
+    /**
+     * A file of the tree.
+     *
+     * @param name         the file name
+     * @param size         the size in bytes
+     * @param lastModified the modification time in milliseconds
+     * @param digest       the digest of the content
+     */
+    public record FileNode(@NotNull String name, long size, long lastModified, @NotNull byte[] digest) implements Node {
+
+        // the digest is compared by content, not by array identity
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof FileNode file && name.equals(file.name) && size == file.size
+                    && lastModified == file.lastModified && Arrays.equals(digest, file.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hash(name, size, lastModified) + Arrays.hashCode(digest);
+        }
+    }
+
+    /**
+     * A directory of the tree.
+     *
+     * @param name     the directory name, empty for the root directory
+     * @param digest   the digest of the names, types and digests of the entries
+     * @param children the entries, sorted by name
+     */
+    public record DirectoryNode(@NotNull String name, @NotNull byte[] digest, @NotNull List<Node> children) implements Node {
+
+        // the digest is compared by content, not by array identity
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof DirectoryNode directory && name.equals(directory.name)
+                    && Arrays.equals(digest, directory.digest) && children.equals(directory.children);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hash(name, children) + Arrays.hashCode(digest);
+        }
+    }
+
+    /**
+     * The differences between two manifests. The paths are relative to the root, with <code>/</code> separators, in name order.
+     *
+     * @param added    files only in the newer manifest
+     * @param modified files in both manifests, with different content
+     * @param removed  files only in the older manifest
+     */
+    public record Changes(@NotNull List<String> added, @NotNull List<String> modified, @NotNull List<String> removed) {
+
+        /**
+         * @return true if the trees have the same files with the same content
+         */
+        public boolean isEmpty() {
+            return added.isEmpty() && modified.isEmpty() && removed.isEmpty();
+        }
+
+        /**
+         * @return the added and modified files, the ones to search or replace again
+         */
+        public @NotNull List<String> changedFiles() {
+            List<String> changed = new ArrayList<>(added.size() + modified.size());
+            changed.addAll(added);
+            changed.addAll(modified);
+            Collections.sort(changed);
+            return changed;
+        }
+    }
+
+    private final String algorithm;
+    private final long buildTime;
+    private final DirectoryNode root;
+
+    private MerkleManifest(String algorithm, long buildTime, DirectoryNode root) {
+        this.algorithm = algorithm;
+        this.buildTime = buildTime;
+        this.root = root;
+    }
+
+    /**
+     * Builds the manifest of a directory, hashing every file with {@link FileHashDriver#XXH3_128}.
+     *
+     * @param directory the root directory
+     * @return the manifest
+     * @throws IOException if the directory or a file can't be read
+     */
+    public static @NotNull MerkleManifest build(@NotNull Path directory) throws IOException {
+        return build(directory, FileHashDriver.XXH3_128, null);
+    }
+
+    /**
+     * Builds the manifest of a directory.
+     *
+     * @param directory the root directory
+     * @param algorithm the digest algorithm, any algorithm of {@link FileHashDriver#newDigest(String)}
+     * @param previous  an earlier manifest of the same directory, its hashes are reused for unchanged files. Null to hash every file
+     * @return the manifest
+     * @throws IOException if the directory or a file can't be read, or the algorithm is not found
+     */
+    public static @NotNull MerkleManifest build(@NotNull Path directory, @NotNull String algorithm, @Nullable MerkleManifest previous) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            throw new IOException("Not a directory: " + directory);
+        }
+        long buildTime = System.currentTimeMillis();
+        // the previous hashes are only comparable if they were made with the same algorithm
+        DirectoryNode previousRoot = previous != null && previous.algorithm.equals(algorithm) ? previous.root : null;
+        long trustedBefore = previous != null ? previous.buildTime - TIMESTAMP_GRANULARITY_MILLIS : Long.MIN_VALUE;
+
+        // first the structure, then the files to hash all at once, in parallel
+        Map<Path, byte[]> digests = new HashMap<>();
+        List<Path> toHash = new ArrayList<>();
+        PendingDirectory tree = scan(directory, "", previousRoot, trustedBefore, digests, toHash);
+
+        try {
+            for (Map.Entry<Path, String> hash : FileHashDriver.hashAll(toHash, algorithm).entrySet()) {
+                digests.put(hash.getKey(), fromHexString(hash.getValue()));
+            }
+            return new MerkleManifest(algorithm, buildTime, tree.complete(algorithm, digests));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("Digest algorithm not found: " + algorithm, e);
+        }
+    }
+
+    /**
+     * @return the digest algorithm of the manifest
+     */
+    public @NotNull String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * @return the time the manifest was built, in milliseconds
+     */
+    public long getBuildTime() {
+        return buildTime;
+    }
+
+    /**
+     * @return the root directory
+     */
+    public @NotNull DirectoryNode getRoot() {
+        return root;
+    }
+
+    /**
+     * @return the digest of the whole tree
+     */
+    public @NotNull String getRootDigest() {
+        return FileHashDriver.toHexString(root.digest());
+    }
+
+    /**
+     * Finds an entry.
+     *
+     * @param relativePath the path relative to the root, with <code>/</code> separators, empty for the root
+     * @return the entry, or null if there is none
+     */
+    public @Nullable Node find(@NotNull String relativePath) {
+        Node node = root;
+        for (String name : relativePath.split("/")) {
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!(node instanceof DirectoryNode directory)) {
+                return null;
+            }
+            node = child(directory, name);
+            if (node == null) {
+                return null;
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Compares this manifest with a newer manifest of the same tree. Directories with the same digest are skipped without looking at their entries.
+     *
+     * @param newer the newer manifest
+     * @return the changed files
+     */
+    public @NotNull Changes compare(@NotNull MerkleManifest newer) {
+        if (!algorithm.equals(newer.algorithm)) {
+            throw new IllegalArgumentException("Manifests with different algorithms can't be compared: " + algorithm + " and " + newer.algorithm);
+        }
+        Changes changes = new Changes(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        compare(root, newer.root, "", changes);
+        return changes;
+    }
+
+    /**
+     * Saves the manifest in its compact binary form, an existing file is replaced.
+     *
+     * @param saveLocation the file to write
+     * @throws IOException if the file can't be written
+     */
+    public void save(@NotNull Path saveLocation) throws IOException {
+        Path parent = saveLocation.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(saveLocation), 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(algorithm);
+            out.writeLong(buildTime);
+            VarInt.writeUnsigned(out, root.digest().length);
+            writeNode(out, root);
+        }
+    }
+
+    /**
+     * Loads a manifest written by {@link #save(Path)}.
+     *
+     * @param path the file to read
+     * @return the manifest
+     * @throws IOException if the file can't be read or is not a manifest
+     */
+    public static @NotNull MerkleManifest load(@NotNull Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 64 * 1024))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a manifest file: " + path);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported manifest version " + version + ": " + path);
+            }
+            String algorithm = in.readUTF();
+            long buildTime = in.readLong();
+            long fileSize = Files.size(path);
+            int digestLength = readLength(in, MAX_DIGEST_LENGTH, "digest length");
+            Node root = readNode(in, digestLength, fileSize);
+            if (!(root instanceof DirectoryNode directory)) {
+                throw new IOException("Corrupted manifest file: " + path);
+            }
+            return new MerkleManifest(algorithm, buildTime, directory);
+        } catch (EOFException e) {
+            throw new IOException("Truncated manifest file: " + path, e);
+        }
+    }
+
+    // a directory whose file digests are not known yet
+    private record PendingDirectory(String name, List<Object> entries) {
+
+        DirectoryNode complete(String algorithm, Map<Path, byte[]> digests) throws NoSuchAlgorithmException {
+            List<Node> children = new ArrayList<>(entries.size());
+            for (Object entry : entries) {
+                if (entry instanceof PendingDirectory directory) {
+                    children.add(directory.complete(algorithm, digests));
+                } else {
+                    PendingFile file = (PendingFile) entry;
+                    children.add(new FileNode(file.name(), file.size(), file.lastModified(), digests.get(file.path())));
+                }
+            }
+            return new DirectoryNode(name, directoryDigest(algorithm, children), children);
+        }
+    }
+
+    private record PendingFile(String name, Path path, long size, long lastModified) {
+    }
+
+    private static PendingDirectory scan(Path directory, String name, @Nullable DirectoryNode previous, long trustedBefore,
+                                         Map<Path, byte[]> digests, List<Path> toHash) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                paths.add(path);
+            }
+        }
+        paths.sort((a, b) -> a.getFileName().toString().compareTo(b.getFileName().toString()));
+
+        List<Object> entries = new ArrayList<>(paths.size());
+        for (Path path : paths) {
+            String entryName = path.getFileName().toString();
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            Node previousEntry = previous != null ? child(previous, entryName) : null;
+            if (attributes.isDirectory()) {
+                entries.add(scan(path, entryName, previousEntry instanceof DirectoryNode previousDirectory ? previousDirectory : null,
+                        trustedBefore, digests, toHash));
+            } else if (attributes.isRegularFile()) {
+                long size = attributes.size();
+                long lastModified = attributes.lastModifiedTime().toMillis();
+                if (previousEntry instanceof FileNode previousFile && previousFile.size() == size
+                        && previousFile.lastModified() == lastModified && lastModified < trustedBefore) {
+                    digests.put(path, previousFile.digest());
+                } else {
+                    toHash.add(path);
+                }
+                entries.add(new PendingFile(entryName, path, size, lastModified));
+            }
+        }
+        return new PendingDirectory(name, entries);
+    }
+
+    // hash of the entries of a directory: type, name and digest of each entry, in name order
+    private static byte[] directoryDigest(String algorithm, List<Node> children) throws NoSuchAlgorithmException {
+        MessageDigest digest = FileHashDriver.newDigest(algorithm);
+        byte[] length = new byte[4];
+        for (Node child : children) {
+            digest.update(child instanceof DirectoryNode ? DIRECTORY : FILE);
+            byte[] name = child.name().getBytes(StandardCharsets.UTF_8);
+            length[0] = (byte) (name.length >>> 24);
+            length[1] = (byte) (name.length >>> 16);
+            length[2] = (byte) (name.length >>> 8);
+            length[3] = (byte) name.length;
+            digest.update(length);
+            digest.update(name);
+            digest.update(child.digest());
+        }
+        return digest.digest();
+    }
+
+    private static void compare(DirectoryNode older, DirectoryNode newer, String prefix, Changes changes) {
+        if (Arrays.equals(older.digest(), newer.digest())) {
+            return;
+        }
+        // both lists are sorted by name, merge them
+        List<Node> olderChildren = older.children();
+        List<Node> newerChildren = newer.children();
+        int i = 0;
+        int j = 0;
+        while (i < olderChildren.size() || j < newerChildren.size()) {
+            Node olderChild = i < olderChildren.size() ? olderChildren.get(i) : null;
+            Node newerChild = j < newerChildren.size() ? newerChildren.get(j) : null;
+            int order = olderChild == null ? 1 : newerChild == null ? -1 : olderChild.name().compareTo(newerChild.name());
+            if (order < 0) {
+                collectFiles(olderChild, prefix, changes.removed());
+                i++;
+            } else if (order > 0) {
+                collectFiles(newerChild, prefix, changes.added());
+                j++;
+            } else {
+                String path = prefix + olderChild.name();
+                if (olderChild instanceof DirectoryNode olderDirectory && newerChild instanceof DirectoryNode newerDirectory) {
+                    compare(olderDirectory, newerDirectory, path + "/", changes);
+                } else if (olderChild instanceof FileNode && newerChild instanceof FileNode) {
+                    if (!Arrays.equals(olderChild.digest(), newerChild.digest())) {
+                        changes.modified().add(path);
+                    }
+                } else {
+                    // a file replaced by a directory, or the opposite
+                    collectFiles(olderChild, prefix, changes.removed());
+                    collectFiles(newerChild, prefix, changes.added());
+                }
+                i++;
+                j++;
+            }
+        }
+    }
+
+    private static void collectFiles(Node node, String prefix, List<String> files) {
+        String path = prefix + node.name();
+        if (node instanceof DirectoryNode directory) {
+            for (Node child : directory.children()) {
+                collectFiles(child, path + "/", files);
+            }
+        } else {
+            files.add(path);
+        }
+    }
+
+    // binary search, the children are sorted by name
+    private static @Nullable Node child(DirectoryNode directory, String name) {
+        List<Node> children = directory.children();
+        int low = 0;
+        int high = children.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int order = children.get(middle).name().compareTo(name);
+            if (order < 0) {
+                low = middle + 1;
+            } else if (order > 0) {
+                high = middle - 1;
+            } else {
+                return children.get(middle);
+            }
+        }
+        return null;
+    }
+
+    private static void writeNode(DataOutputStream out, Node node) throws IOException {
+        byte[] name = node.name().getBytes(StandardCharsets.UTF_8);
+        if (node instanceof FileNode file) {
+            out.writeByte(FILE);
+            VarInt.writeUnsigned(out, name.length);
+            out.write(name);
+            VarInt.writeUnsigned(out, file.size());
+            VarInt.writeUnsigned(out, VarInt.encodeZigZag(file.lastModified()));
+            out.write(file.digest());
+        } else {
+            DirectoryNode directory = (DirectoryNode) node;
+            out.writeByte(DIRECTORY);
+            VarInt.writeUnsigned(out, name.length);
+            out.write(name);
+            VarInt.writeUnsigned(out, directory.children().size());
+            out.write(directory.digest());
+            for (Node child : directory.children()) {
+                writeNode(out, child);
+            }
+        }
+    }
+
+    // the bounds keep a corrupted file from allocating huge arrays, fileSize bounds anything stored in the file
+    private static Node readNode(DataInputStream in, int digestLength, long fileSize) throws IOException {
+        byte type = in.readByte();
+        byte[] nameBytes = new byte[readLength(in, fileSize, "name length")];
+        in.readFully(nameBytes);
+        String name = new String(nameBytes, StandardCharsets.UTF_8);
+        if (type == FILE) {
+            long size = VarInt.readUnsigned(in);
+            long lastModified = VarInt.decodeZigZag(VarInt.readUnsigned(in));
+            byte[] digest = new byte[digestLength];
+            in.readFully(digest);
+            return new FileNode(name, size, lastModified, digest);
+        }
+        if (type != DIRECTORY) {
+            throw new IOException("Corrupted manifest, unknown entry type " + type);
+        }
+        int count = readLength(in, fileSize, "entry count");
+        byte[] digest = new byte[digestLength];
+        in.readFully(digest);
+        List<Node> children = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            children.add(readNode(in, digestLength, fileSize));
+        }
+        return new DirectoryNode(name, digest, children);
+    }
+
+    // a varint used as an array size or a count, between 0 and max
+    private static int readLength(DataInputStream in, long max, String field) throws IOException {
+        long value = VarInt.readUnsigned(in);
+        if (value < 0 || value > Math.min(max, Integer.MAX_VALUE)) {
+            throw new IOException("Malformed manifest, invalid " + field + ": " + Long.toUnsignedString(value));
+        }
+        return (int) value;
+    }
+
+    private static byte[] fromHexString(String hex) {
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) ((Character.digit(hex.charAt(i * 2), 16) << 4) | Character.digit(hex.charAt(i * 2 + 1), 16));
+        }
+        return bytes;
+    }
+}
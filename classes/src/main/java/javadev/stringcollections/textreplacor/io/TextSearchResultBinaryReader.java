@@ -0,0 +1,271 @@
+package javadev.stringcollections.textreplacor.io;
+
+import javadev.stringcollections.textreplacor.object.Line;
+import javadev.stringcollections.textreplacor.object.TextSearchResult;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote Reads search results written by {@link TextSearchResultBinaryWriter}.
+ * <p>
+ * The file is memory-mapped, and opening it only reads the header. A result is decoded when it is requested, through the offset index,
+ * so an archive of any size opens instantly and the heap only holds the results the caller keeps. {@link #asList()} gives a list view
+ * whose elements are decoded on each {@link List#get(int)}.
+ * <p>
+ * Instances are thread-safe. The mapping stays valid until the garbage collector frees it, even after {@link #close()}.
+ * @since 2.1.0
+ */
+public class TextSearchResultBinaryReader implements Closeable {
+
+    // a mapping can't be larger than 2 GiB, bigger files are mapped in segments
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long size;
+
+    private final long resultCount;
+    private final long stringCount;
+    private final long resultIndexOffset;
+    private final long stringIndexOffset;
+    private final String rootDirectory;
+    private final String searchPhrase;
+
+    /**
+     * Opens an archive.
+     *
+     * @param path the archive file
+     * @throws IOException if the file can't be read or is not a valid archive
+     */
+    public TextSearchResultBinaryReader(@NotNull Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            this.size = channel.size();
+            if (size < TextSearchResultBinaryWriter.HEADER_SIZE) {
+                throw new IOException("Not a search result archive, the file is too small: " + path);
+            }
+
+            int segmentCount = (int) ((size + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT);
+            this.segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long start = (long) i << SEGMENT_SHIFT;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, size - start));
+            }
+
+            if (readInt(0) != TextSearchResultBinaryWriter.MAGIC) {
+                throw new IOException("Not a search result archive: " + path);
+            }
+            int version = readInt(4);
+            if (version != TextSearchResultBinaryWriter.VERSION) {
+                throw new IOException("Unsupported search result archive version " + version + ": " + path);
+            }
+            this.resultCount = readLong(8);
+            this.stringCount = readLong(16);
+            this.resultIndexOffset = readLong(24);
+            this.stringIndexOffset = readLong(32);
+            if (resultCount < 0 || stringCount < 0
+                    || stringIndexOffset < TextSearchResultBinaryWriter.HEADER_SIZE || stringIndexOffset + stringCount * 8 > size
+                    || resultIndexOffset < TextSearchResultBinaryWriter.HEADER_SIZE || resultIndexOffset + resultCount * 8 > size) {
+                throw new IOException("Corrupted search result archive: " + path);
+            }
+            this.rootDirectory = getString(readLong(40));
+            this.searchPhrase = getString(readLong(48));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of results in the archive
+     */
+    public int size() {
+        if (resultCount > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Too many results for an int index: " + resultCount);
+        }
+        return (int) resultCount;
+    }
+
+    /**
+     * @return the root directory of the search, or null if it was not stored
+     */
+    public @Nullable String getRootDirectory() {
+        return rootDirectory;
+    }
+
+    /**
+     * @return the search phrase, or null if it was not stored
+     */
+    public @Nullable String getSearchPhrase() {
+        return searchPhrase;
+    }
+
+    /**
+     * Reads the file of a result, without decoding its lines.
+     *
+     * @param index the result index
+     * @return the file
+     */
+    public @NotNull File getFile(int index) {
+        Cursor cursor = new Cursor(resultOffset(index));
+        return new File(getString(cursor.readVarLong() - 1));
+    }
+
+    /**
+     * Reads the number of lines of a result, without decoding them.
+     *
+     * @param index the result index
+     * @return the number of lines
+     */
+    public int getLineCount(int index) {
+        Cursor cursor = new Cursor(resultOffset(index));
+        cursor.readVarLong();
+        return (int) cursor.readVarLong();
+    }
+
+    /**
+     * Decodes a result.
+     *
+     * @param index the result index
+     * @return the result
+     */
+    public @NotNull TextSearchResult get(int index) {
+        Cursor cursor = new Cursor(resultOffset(index));
+        File file = new File(getString(cursor.readVarLong() - 1));
+        int lineCount = (int) cursor.readVarLong();
+
+        Line[] lines = new Line[lineCount];
+        for (int i = 0; i < lineCount; i++) {
+            int lineNumber = (int) VarInt.decodeZigZag(cursor.readVarLong());
+            int startIndex = (int) VarInt.decodeZigZag(cursor.readVarLong());
+            int endIndex = (int) VarInt.decodeZigZag(cursor.readVarLong());
+            String lineContent = getString(cursor.readVarLong() - 1);
+            lines[i] = new Line(lineNumber, lineContent, startIndex, endIndex);
+        }
+        return new TextSearchResult(lines, file);
+    }
+
+    /**
+     * @return a read-only list view of the results, an element is decoded each time it is requested
+     */
+    public @NotNull List<TextSearchResult> asList() {
+        return new ResultList();
+    }
+
+    /**
+     * Closes the file channel.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long resultOffset(int index) {
+        if (index < 0 || index >= resultCount) {
+            throw new IndexOutOfBoundsException("Result index " + index + " out of range, size is " + resultCount);
+        }
+        return readLong(resultIndexOffset + (long) index * 8);
+    }
+
+    // string by id, null for -1
+    private @Nullable String getString(long id) {
+        if (id == -1) {
+            return null;
+        }
+        if (id < 0 || id >= stringCount) {
+            throw new IllegalStateException("Corrupted search result archive, string id out of range: " + id);
+        }
+        Cursor cursor = new Cursor(readLong(stringIndexOffset + id * 8));
+        int length = (int) cursor.readVarLong();
+        byte[] bytes = new byte[length];
+        readBytes(cursor.position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private byte readByte(long position) {
+        if (position < 0 || position >= size) {
+            throw new IllegalStateException("Corrupted search result archive, offset out of range: " + position);
+        }
+        return segments[(int) (position >>> SEGMENT_SHIFT)].get((int) (position & (SEGMENT_SIZE - 1)));
+    }
+
+    private void readBytes(long position, byte[] destination) {
+        int copied = 0;
+        while (copied < destination.length) {
+            long current = position + copied;
+            if (current >= size) {
+                throw new IllegalStateException("Corrupted search result archive, string ends after the file");
+            }
+            MappedByteBuffer segment = segments[(int) (current >>> SEGMENT_SHIFT)];
+            int offset = (int) (current & (SEGMENT_SIZE - 1));
+            int length = Math.min(destination.length - copied, segment.capacity() - offset);
+            // absolute bulk get doesn't move the shared buffer's position
+            segment.get(offset, destination, copied, length);
+            copied += length;
+        }
+    }
+
+    private int readInt(long position) {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            value = (value << 8) | (readByte(position + i) & 0xFF);
+        }
+        return value;
+    }
+
+    private long readLong(long position) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (readByte(position + i) & 0xFF);
+        }
+        return value;
+    }
+
+    // reading position in the mapped file, one per decode so readers don't share state
+    private final class Cursor {
+        private long position;
+
+        private Cursor(long position) {
+            this.position = position;
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte(position++);
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalStateException("Corrupted search result archive, malformed varint");
+        }
+    }
+
+    private final class ResultList extends AbstractList<TextSearchResult> implements RandomAccess {
+        @Override
+        public TextSearchResult get(int index) {
+            return TextSearchResultBinaryReader.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return TextSearchResultBinaryReader.this.size();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package javadev.stringcollections.textreplacor.io;
+
+import javadev.stringcollections.textreplacor.object.Line;
+import javadev.stringcollections.textreplacor.object.TextSearchResult;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote Writes search results in a compact binary format, read back with {@link TextSearchResultBinaryReader}.
+ * <p>
+ * File layout, all fixed size numbers are big-endian:
+ * <pre>
+ * header      magic "TSRB" (int), version (int), result count (long), string count (long),
+ *             result index offset (long), string index offset (long), root directory string id (long), search phrase string id (long)
+ * body        strings and results, in the order they are written
+ *             string: UTF-8 byte length (varint), UTF-8 bytes
+ *             result: file string ref (varint), line count (varint), then per line
+ *                     line number, start index, end index (zigzag varints) and line content string ref (varint)
+ * indexes     string offsets (long per string), then result offsets (long per result)
+ * </pre>
+ * A string ref is the string id plus one, 0 is null. The header ids are -1 for null. Strings are deduplicated within a window of
+ * recently written strings, which covers repeated line contents of a file and repeated search phrases without keeping all strings in memory.
+ * <p>
+ * Results are written as they arrive, so this writer can be passed to
+ * {@link javadev.stringcollections.textreplacor.search.StringMatcherInFiles#search(javadev.stringcollections.textreplacor.search.SearchResultListener)}.
+ * The indexes and the header are written by {@link #close()}, a file that was not closed is not readable.
+ * <p>
+ * The methods are synchronized, so results can be written from several threads.
+ * @since 2.1.0
+ */
+public class TextSearchResultBinaryWriter implements Closeable {
+
+    static final int MAGIC = 0x54535242; // "TSRB"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 56;
+
+    private static final int DEDUPLICATION_WINDOW = 8192;
+
+    private final FileChannel channel;
+    private final OutputStream out;
+    private final String rootDirectory;
+    private final String searchPhrase;
+    private long position = HEADER_SIZE;
+
+    // offsets of the written strings and results, grown on demand
+    private long[] stringOffsets = new long[1024];
+    private long stringCount = 0;
+    private long[] resultOffsets = new long[1024];
+    private long resultCount = 0;
+
+    // recently written strings and their ids
+    private final Map<String, Long> recentStrings = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > DEDUPLICATION_WINDOW;
+        }
+    };
+
+    private boolean closed = false;
+
+    /**
+     * Creates the file, an existing file is replaced.
+     *
+     * @param path          the file to write
+     * @param rootDirectory the root directory of the search, stored in the header
+     * @param searchPhrase  the search phrase, stored in the header
+     * @throws IOException if the file can't be created
+     */
+    public TextSearchResultBinaryWriter(@NotNull Path path, @Nullable String rootDirectory, @Nullable String searchPhrase) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.out = new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024);
+        this.rootDirectory = rootDirectory;
+        this.searchPhrase = searchPhrase;
+
+        // placeholder, the header is written by close() when the counts and offsets are known
+        out.write(new byte[HEADER_SIZE]);
+    }
+
+    /**
+     * Writes one result.
+     *
+     * @param result the result to write
+     * @throws IOException if writing fails
+     */
+    public synchronized void write(@NotNull TextSearchResult result) throws IOException {
+        if (closed) {
+            throw new IOException("The writer is closed");
+        }
+
+        // the strings go before the record, so a record only refers to strings that are already written
+        Line[] lines = result.lines();
+        long fileRef = stringRef(result.file().getAbsolutePath());
+        long[] contentRefs = new long[lines.length];
+        for (int i = 0; i < lines.length; i++) {
+            contentRefs[i] = stringRef(lines[i].lineContent());
+        }
+
+        resultOffsets = ensureCapacity(resultOffsets, resultCount);
+        resultOffsets[(int) resultCount++] = position;
+
+        writeVarLong(fileRef);
+        writeVarLong(lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            Line line = lines[i];
+            writeVarLong(VarInt.encodeZigZag(line.lineNumber()));
+            writeVarLong(VarInt.encodeZigZag(line.startIndex()));
+            writeVarLong(VarInt.encodeZigZag(line.endIndex()));
+            writeVarLong(contentRefs[i]);
+        }
+    }
+
+    /**
+     * @return the number of results written so far
+     */
+    public synchronized long getResultCount() {
+        return resultCount;
+    }
+
+    /**
+     * Writes the indexes and the header, and closes the file.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            long rootDirectoryId = stringRef(rootDirectory) - 1;
+            long searchPhraseId = stringRef(searchPhrase) - 1;
+
+            long stringIndexOffset = position;
+            writeLongs(stringOffsets, stringCount);
+            long resultIndexOffset = position;
+            writeLongs(resultOffsets, resultCount);
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC);
+            header.putInt(VERSION);
+            header.putLong(resultCount);
+            header.putLong(stringCount);
+            header.putLong(resultIndexOffset);
+            header.putLong(stringIndexOffset);
+            header.putLong(rootDirectoryId);
+            header.putLong(searchPhraseId);
+            header.flip();
+            long headerPosition = 0;
+            while (header.hasRemaining()) {
+                headerPosition += channel.write(header, headerPosition);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    // returns the string ref, writing the string if it is not in the window
+    private long stringRef(@Nullable String value) throws IOException {
+        if (value == null) {
+            return 0;
+        }
+        Long id = recentStrings.get(value);
+        if (id != null) {
+            return id + 1;
+        }
+
+        stringOffsets = ensureCapacity(stringOffsets, stringCount);
+        stringOffsets[(int) stringCount] = position;
+        id = stringCount++;
+        recentStrings.put(value, id);
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length);
+        out.write(bytes);
+        position += bytes.length;
+        return id + 1;
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        position += VarInt.writeUnsigned(out, value);
+    }
+
+    private void writeLongs(long[] values, long count) throws IOException {
+        byte[] bytes = new byte[8];
+        for (int i = 0; i < count; i++) {
+            long value = values[i];
+            for (int b = 7; b >= 0; b--) {
+                bytes[b] = (byte) value;
+                value >>>= 8;
+            }
+            out.write(bytes);
+        }
+        position += count * 8;
+    }
+
+    private static long[] ensureCapacity(long[] array, long count) {
+        if (count == Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Too many entries for one archive");
+        }
+        if (count < array.length) {
+            return array;
+        }
+        return Arrays.copyOf(array, (int) Math.min(Integer.MAX_VALUE - 8, (long) array.length * 2));
+    }
+}
@@ -0,0 +1,252 @@
+package javadev.stringcollections.textreplacor.io;
+
+import javadev.stringcollections.textreplacor.object.Line;
+import javadev.stringcollections.textreplacor.object.TextSearchResult;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote Compares two search runs, like yesterday's and today's results of the same search, and reports the hits that changed.
+ * <p>
+ * Both inputs must be sorted by file path (see {@link javadev.stringcollections.textreplacor.search.StringMatcherInFiles#setSortResultsByPath(boolean)}).
+ * They are merge-joined in a single pass, so only the hits of the current file of each input are in memory. Consecutive results
+ * of the same file are merged, so per hit JSON Lines input works too.
+ * <p>
+ * Within a file, a hit is:
+ * <ul>
+ *     <li>unchanged if the other run has a hit with the same line number, columns and line content,</li>
+ *     <li>moved if it is not unchanged, and the other run has a hit with the same columns and the same non-empty line content on another line,</li>
+ *     <li>added or removed otherwise.</li>
+ * </ul>
+ * Line content is only saved when the search includes the matched text, without it hits are never reported as moved.
+ * @since 2.1.0
+ */
+public final class TextSearchResultDiff {
+
+    /**
+     * Receives the changes, file by file in path order.
+     */
+    public interface Listener {
+        /**
+         * A hit that is only in the new run.
+         */
+        void onAdded(@NotNull File file, @NotNull Line line) throws IOException;
+
+        /**
+         * A hit that is only in the old run.
+         */
+        void onRemoved(@NotNull File file, @NotNull Line line) throws IOException;
+
+        /**
+         * A hit that moved to another line.
+         */
+        void onMoved(@NotNull File file, @NotNull Line from, @NotNull Line to) throws IOException;
+    }
+
+    /**
+     * Totals of a comparison.
+     *
+     * @param added     number of added hits
+     * @param removed   number of removed hits
+     * @param moved     number of moved hits
+     * @param unchanged number of unchanged hits
+     */
+    public record Summary(long added, long removed, long moved, long unchanged) {
+    }
+
+    // orders hits by position in the file
+    private static final Comparator<Line> POSITION_ORDER = Comparator.comparingInt(Line::lineNumber)
+            .thenComparingInt(Line::startIndex)
+            .thenComparingInt(Line::endIndex);
+
+    /**
+     * Suppress default constructor for noninstantiability
+     */
+    private TextSearchResultDiff() {
+        throw new AssertionError("Cannot instantiate TextSearchResultDiff class with default constructor");
+    }
+
+    /**
+     * Compares two saved runs.
+     *
+     * @param before   the old run
+     * @param after    the new run
+     * @param listener receives the changes
+     * @return the totals
+     * @throws IOException if reading fails, an input is not sorted by file path or the listener throws
+     */
+    public static @NotNull Summary diff(@NotNull TextSearchResultReader before, @NotNull TextSearchResultReader after, @NotNull Listener listener) throws IOException {
+        return diff(new ResultSource(before::hasNext, before::next, "old"), new ResultSource(after::hasNext, after::next, "new"), listener);
+    }
+
+    /**
+     * Compares two runs given as iterators, for example lists or {@link TextSearchResultBinaryReader#asList()}.
+     *
+     * @param before   the old run
+     * @param after    the new run
+     * @param listener receives the changes
+     * @return the totals
+     * @throws IOException if an input is not sorted by file path or the listener throws
+     */
+    public static @NotNull Summary diff(@NotNull Iterator<TextSearchResult> before, @NotNull Iterator<TextSearchResult> after, @NotNull Listener listener) throws IOException {
+        return diff(new ResultSource(before::hasNext, before::next, "old"), new ResultSource(after::hasNext, after::next, "new"), listener);
+    }
+
+    private static Summary diff(ResultSource before, ResultSource after, Listener listener) throws IOException {
+        Counter counter = new Counter();
+        FileGroup old = before.nextGroup();
+        FileGroup current = after.nextGroup();
+
+        while (old != null || current != null) {
+            int order = old == null ? 1 : current == null ? -1 : old.path.compareTo(current.path);
+            if (order < 0) {
+                // file only in the old run
+                for (Line line : old.lines) {
+                    listener.onRemoved(old.file, line);
+                    counter.removed++;
+                }
+                old = before.nextGroup();
+            } else if (order > 0) {
+                // file only in the new run
+                for (Line line : current.lines) {
+                    listener.onAdded(current.file, line);
+                    counter.added++;
+                }
+                current = after.nextGroup();
+            } else {
+                diffFile(current.file, old.lines, current.lines, listener, counter);
+                old = before.nextGroup();
+                current = after.nextGroup();
+            }
+        }
+        return new Summary(counter.added, counter.removed, counter.moved, counter.unchanged);
+    }
+
+    // compares the hits of one file
+    private static void diffFile(File file, List<Line> oldLines, List<Line> newLines, Listener listener, Counter counter) throws IOException {
+        oldLines.sort(POSITION_ORDER);
+        newLines.sort(POSITION_ORDER);
+
+        // merge-join on position, equal hits are unchanged
+        List<Line> removed = new ArrayList<>();
+        List<Line> added = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < oldLines.size() || j < newLines.size()) {
+            int order = i == oldLines.size() ? 1 : j == newLines.size() ? -1 : POSITION_ORDER.compare(oldLines.get(i), newLines.get(j));
+            if (order == 0 && Objects.equals(oldLines.get(i).lineContent(), newLines.get(j).lineContent())) {
+                counter.unchanged++;
+                i++;
+                j++;
+            } else if (order <= 0) {
+                removed.add(oldLines.get(i++));
+            } else {
+                added.add(newLines.get(j++));
+            }
+        }
+        if (removed.isEmpty() && added.isEmpty()) {
+            return;
+        }
+
+        // pair removed and added hits with the same content and columns, in line order
+        Map<MoveKey, ArrayDeque<Line>> movable = new HashMap<>();
+        for (Line line : removed) {
+            if (line.lineContent() != null && !line.lineContent().isEmpty()) {
+                movable.computeIfAbsent(new MoveKey(line), key -> new ArrayDeque<>()).add(line);
+            }
+        }
+        Set<Line> movedFrom = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Line line : added) {
+            ArrayDeque<Line> candidates = movable.isEmpty() ? null : movable.get(new MoveKey(line));
+            Line from = candidates == null ? null : candidates.poll();
+            if (from != null) {
+                listener.onMoved(file, from, line);
+                movedFrom.add(from);
+                counter.moved++;
+            } else {
+                listener.onAdded(file, line);
+                counter.added++;
+            }
+        }
+        for (Line line : removed) {
+            if (!movedFrom.contains(line)) {
+                listener.onRemoved(file, line);
+                counter.removed++;
+            }
+        }
+    }
+
+    private record MoveKey(String lineContent, int startIndex, int endIndex) {
+        private MoveKey(Line line) {
+            this(line.lineContent(), line.startIndex(), line.endIndex());
+        }
+    }
+
+    private static final class Counter {
+        private long added;
+        private long removed;
+        private long moved;
+        private long unchanged;
+    }
+
+    // hits of one file
+    private record FileGroup(String path, File file, List<Line> lines) {
+    }
+
+    private interface HasNext {
+        boolean hasNext() throws IOException;
+    }
+
+    private interface Next {
+        TextSearchResult next() throws IOException;
+    }
+
+    /**
+     * Reads the results of one run, grouped by file, and checks that they are sorted.
+     */
+    private static final class ResultSource {
+        private final HasNext hasNext;
+        private final Next next;
+        private final String name;
+        private TextSearchResult pending;
+        private String previousPath;
+
+        private ResultSource(HasNext hasNext, Next next, String name) {
+            this.hasNext = hasNext;
+            this.next = next;
+            this.name = name;
+        }
+
+        private @Nullable FileGroup nextGroup() throws IOException {
+            TextSearchResult first = pending != null ? pending : (hasNext.hasNext() ? next.next() : null);
+            pending = null;
+            if (first == null) {
+                return null;
+            }
+
+            String path = first.file().getAbsolutePath();
+            if (previousPath != null && previousPath.compareTo(path) >= 0) {
+                throw new IOException("The " + name + " results are not sorted by file path: " + path + " after " + previousPath);
+            }
+            previousPath = path;
+
+            List<Line> lines = new ArrayList<>(Arrays.asList(first.lines()));
+            // merge the following results of the same file
+            while (hasNext.hasNext()) {
+                TextSearchResult result = next.next();
+                if (!result.file().getAbsolutePath().equals(path)) {
+                    pending = result;
+                    break;
+                }
+                lines.addAll(Arrays.asList(result.lines()));
+            }
+            return new FileGroup(path, first.file(), lines);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package javadev.stringcollections.textreplacor.io;
+
+import javadev.stringcollections.textreplacor.io.json.JSONStreamWriter;
+import javadev.stringcollections.textreplacor.object.Line;
+import javadev.stringcollections.textreplacor.object.TextSearchResult;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote Writes search results as JSON Lines (NDJSON): one compact JSON object per line, appended as soon as a result is written.
+ * <p>
+ * With {@link Granularity#FILE} each record is a whole result, like the elements of the <code>results</code> array of
+ * {@link TextSearchResultSaver#saveResultsToJsonFile(java.util.List, String, String, String)}:
+ * <pre>
+ *     <code>
+ * {"file":"/projects/root/File1.txt","lines":[{"lineNumber":10,"lineContent":"","startIndex":5,"endIndex":12}]}
+ *     </code>
+ * </pre>
+ * With {@link Granularity#HIT} each record is one occurrence with its file path. A result without lines (from a search with
+ * <code>skipLineCollection</code>) still gets one record with the file path only:
+ * <pre>
+ *     <code>
+ * {"file":"/projects/root/File1.txt","lineNumber":10,"lineContent":"","startIndex":5,"endIndex":12}
+ *     </code>
+ * </pre>
+ * The output is flushed after every <code>flushBatchSize</code> records and on {@link #close()}, so a consumer tailing the file
+ * sees complete records during a long search, and the records written before a crash are kept. Only the last line may be incomplete.
+ * <p>
+ * The methods are synchronized, so results can be written from several threads.
+ * @since 2.1.0
+ */
+public class TextSearchResultNdjsonWriter implements Closeable {
+
+    /**
+     * What a record holds.
+     */
+    public enum Granularity {
+        /**
+         * One record per file, with all of its lines.
+         */
+        FILE,
+        /**
+         * One record per occurrence.
+         */
+        HIT
+    }
+
+    /**
+     * Default number of records between two flushes.
+     */
+    public static final int DEFAULT_FLUSH_BATCH_SIZE = 64;
+
+    private final JSONStreamWriter json;
+    private final Granularity granularity;
+    private final int flushBatchSize;
+    private long recordCount = 0;
+    private int unflushedRecords = 0;
+
+    /**
+     * Opens a file for appending records, the file is created if it does not exist.
+     *
+     * @param path           the file to append to
+     * @param granularity    per file or per hit records
+     * @param flushBatchSize the number of records between two flushes, 1 to flush every record
+     * @throws IOException if the file can't be opened
+     */
+    public TextSearchResultNdjsonWriter(@NotNull Path path, @NotNull Granularity granularity, int flushBatchSize) throws IOException {
+        this(openForAppend(path), granularity, flushBatchSize);
+    }
+
+    /**
+     * Writes records to an output stream, the stream is closed by {@link #close()}.
+     *
+     * @param outputStream   the stream to write to
+     * @param granularity    per file or per hit records
+     * @param flushBatchSize the number of records between two flushes, 1 to flush every record
+     */
+    public TextSearchResultNdjsonWriter(@NotNull OutputStream outputStream, @NotNull Granularity granularity, int flushBatchSize) {
+        if (flushBatchSize < 1) {
+            throw new IllegalArgumentException("Flush batch size must be at least 1, found: " + flushBatchSize);
+        }
+        this.json = new JSONStreamWriter(outputStream, false);
+        this.granularity = granularity;
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    private static OutputStream openForAppend(Path path) throws IOException {
+        // create the parent directories, like TextSearchResultSaver does
+        PathResolver.resolvePathIfNotExists(path.toAbsolutePath().toString());
+        return Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Writes the records of one result.
+     *
+     * @param result the result to write
+     * @throws IOException if writing fails
+     */
+    public synchronized void write(@NotNull TextSearchResult result) throws IOException {
+        if (granularity == Granularity.FILE) {
+            TextSearchResultStreamWriter.writeResult(json, result);
+            endRecord();
+            return;
+        }
+
+        String file = result.file().getAbsolutePath();
+        Line[] lines = result.lines();
+        if (lines.length == 0) {
+            json.beginObject();
+            json.name("file").value(file);
+            json.endObject();
+            endRecord();
+            return;
+        }
+        for (Line line : lines) {
+            json.beginObject();
+            json.name("file").value(file);
+            json.name("lineNumber").value(line.lineNumber());
+            json.name("lineContent").value(line.lineContent());
+            json.name("startIndex").value(line.startIndex());
+            json.name("endIndex").value(line.endIndex());
+            json.endObject();
+            endRecord();
+        }
+    }
+
+    private void endRecord() throws IOException {
+        json.endRecord();
+        recordCount++;
+        if (++unflushedRecords >= flushBatchSize) {
+            json.flush();
+            unflushedRecords = 0;
+        }
+    }
+
+    /**
+     * @return the number of records written so far
+     */
+    public synchronized long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Writes the records that are not flushed yet.
+     *
+     * @throws IOException if writing fails
+     */
+    public synchronized void flush() throws IOException {
+        json.flush();
+        unflushedRecords = 0;
+    }
+
+    /**
+     * Flushes the records and closes the underlying stream.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        json.close();
+    }
+}
@@ -0,0 +1,282 @@
+package javadev.stringcollections.textreplacor.io;
+
+import javadev.stringcollections.textreplacor.io.json.JSONStreamReader;
+import javadev.stringcollections.textreplacor.object.Line;
+import javadev.stringcollections.textreplacor.object.TextSearchResult;
+import javadev.stringcollections.textreplacor.search.SearchResultListener;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote Reads saved search results back one {@link TextSearchResult} at a time, without loading the file.
+ * <p>
+ * Accepted input:
+ * <ul>
+ *     <li>The JSON document of {@link TextSearchResultSaver#saveResultsToJsonFile(List, String, String, String)}, pretty-printed or not.
+ *     {@link #getRootDirectory()} and {@link #getSearchPhrase()} are available once the first result is read.</li>
+ *     <li>JSON Lines written by {@link TextSearchResultNdjsonWriter}, with per file or per hit records. A per hit record is read as a result with one line.</li>
+ * </ul>
+ * Unknown fields are skipped, so files with extra fields can be read.
+ * <pre>
+ *     <code>
+ * try (TextSearchResultReader reader = new TextSearchResultReader(Path.of("results.json"))) {
+ *     while (reader.hasNext()) {
+ *         TextSearchResult result = reader.next();
+ *     }
+ * }
+ *     </code>
+ * </pre>
+ * @since 2.1.0
+ */
+public class TextSearchResultReader implements Closeable {
+
+    private final JSONStreamReader json;
+
+    private String rootDirectory;
+    private String searchPhrase;
+
+    // true while inside the top-level document object, and inside its results array
+    private boolean inDocument = false;
+    private boolean inResults = false;
+    private TextSearchResult next = null;
+
+    /**
+     * Reads results from a reader, the reader is closed by {@link #close()}.
+     *
+     * @param reader the saved results
+     */
+    public TextSearchResultReader(@NotNull Reader reader) {
+        this.json = new JSONStreamReader(reader);
+    }
+
+    /**
+     * Reads results from a UTF-8 file.
+     *
+     * @param path the saved results
+     * @throws IOException if the file can't be opened
+     */
+    public TextSearchResultReader(@NotNull Path path) throws IOException {
+        this(Files.newBufferedReader(path, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the root directory of the search, null if the input has none or it is not read yet
+     */
+    public @Nullable String getRootDirectory() {
+        return rootDirectory;
+    }
+
+    /**
+     * @return the search phrase, null if the input has none or it is not read yet
+     */
+    public @Nullable String getSearchPhrase() {
+        return searchPhrase;
+    }
+
+    /**
+     * @return true if there is another result
+     * @throws IOException if reading fails or the input is malformed
+     */
+    public boolean hasNext() throws IOException {
+        if (next == null) {
+            next = readNext();
+        }
+        return next != null;
+    }
+
+    /**
+     * @return the next result
+     * @throws IOException            if reading fails or the input is malformed
+     * @throws NoSuchElementException if there are no more results
+     */
+    public @NotNull TextSearchResult next() throws IOException {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more results");
+        }
+        TextSearchResult result = next;
+        next = null;
+        return result;
+    }
+
+    /**
+     * Passes every remaining result to a listener.
+     *
+     * @param listener receives the results in file order
+     * @return the number of results
+     * @throws IOException if reading fails, the input is malformed or the listener throws
+     */
+    public long forEach(@NotNull SearchResultListener listener) throws IOException {
+        long count = 0;
+        while (hasNext()) {
+            listener.onResult(next());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Closes the underlying reader.
+     */
+    @Override
+    public void close() throws IOException {
+        json.close();
+    }
+
+    private @Nullable TextSearchResult readNext() throws IOException {
+        while (true) {
+            if (inResults) {
+                if (json.hasNext()) {
+                    json.beginObject();
+                    return readResult(new ResultFields());
+                }
+                json.endArray();
+                inResults = false;
+            }
+
+            if (inDocument) {
+                // remaining members of the document after the results array
+                if (readDocumentMembers(null)) {
+                    continue;
+                }
+                json.endObject();
+                inDocument = false;
+            }
+
+            if (json.peek() == JSONStreamReader.Token.END_DOCUMENT) {
+                return null;
+            }
+
+            // a top-level object is the document, or a JSON Lines record
+            json.beginObject();
+            ResultFields fields = new ResultFields();
+            inDocument = true;
+            if (readDocumentMembers(fields)) {
+                continue;
+            }
+            json.endObject();
+            inDocument = false;
+            if (fields.file != null) {
+                return fields.toResult();
+            }
+        }
+    }
+
+    // reads members of the top-level object until the results array starts (true) or the object ends (false)
+    private boolean readDocumentMembers(@Nullable ResultFields record) throws IOException {
+        while (json.hasNext()) {
+            String name = json.nextName();
+            switch (name) {
+                case "rootDirectory" -> rootDirectory = json.nextStringOrNull();
+                case "searchPhrase" -> searchPhrase = json.nextStringOrNull();
+                case "results" -> {
+                    json.beginArray();
+                    inResults = true;
+                    return true;
+                }
+                default -> {
+                    if (record == null || !record.read(name, json)) {
+                        json.skipValue();
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    // reads a result object after its start
+    private TextSearchResult readResult(ResultFields fields) throws IOException {
+        while (json.hasNext()) {
+            String name = json.nextName();
+            if (!fields.read(name, json)) {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+        if (fields.file == null) {
+            throw new IOException("Malformed search result, a result has no file");
+        }
+        return fields.toResult();
+    }
+
+    /**
+     * Fields of a result, or of a per hit record with the line fields inline.
+     */
+    private static final class ResultFields {
+        private String file;
+        private final List<Line> lines = new ArrayList<>();
+        private final LineFields inlineLine = new LineFields();
+
+        // true if the name is a result field and its value was read
+        private boolean read(String name, JSONStreamReader json) throws IOException {
+            switch (name) {
+                case "file" -> file = json.nextString();
+                case "lines" -> {
+                    json.beginArray();
+                    while (json.hasNext()) {
+                        json.beginObject();
+                        LineFields line = new LineFields();
+                        while (json.hasNext()) {
+                            String lineField = json.nextName();
+                            if (!line.read(lineField, json)) {
+                                json.skipValue();
+                            }
+                        }
+                        json.endObject();
+                        lines.add(line.toLine());
+                    }
+                    json.endArray();
+                }
+                default -> {
+                    return inlineLine.read(name, json);
+                }
+            }
+            return true;
+        }
+
+        private TextSearchResult toResult() {
+            if (inlineLine.present) {
+                lines.add(inlineLine.toLine());
+            }
+            return new TextSearchResult(lines.toArray(new Line[0]), new File(file));
+        }
+    }
+
+    private static final class LineFields {
+        private boolean present = false;
+        private int lineNumber;
+        private String lineContent = "";
+        private int startIndex;
+        private int endIndex;
+
+        private boolean read(String name, JSONStreamReader json) throws IOException {
+            switch (name) {
+                case "lineNumber" -> lineNumber = json.nextInt();
+                case "lineContent" -> lineContent = json.nextStringOrNull();
+                case "startIndex" -> startIndex = json.nextInt();
+                case "endIndex" -> endIndex = json.nextInt();
+                default -> {
+                    return false;
+                }
+            }
+            present = true;
+            return true;
+        }
+
+        private Line toLine() {
+            return new Line(lineNumber, lineContent, startIndex, endIndex);
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package javadev.stringcollections.textreplacor.io;
 
 import javadev.stringcollections.textreplacor.io.json.JSONObjectUtility;
+import javadev.stringcollections.textreplacor.io.json.JSONStreamWriter;
 import javadev.stringcollections.textreplacor.object.Line;
+import javadev.stringcollections.textreplacor.object.OccurrenceCount;
 import javadev.stringcollections.textreplacor.object.TextSearchResult;
 
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
@@ -97,8 +101,64 @@ public class TextSearchResultSaver {
         // Create the directory if it does not exist
         PathResolver.resolvePathIfNotExists(saveLocation);
 
-        // Now we can create the JSON structure and save it to a file
-        String jsonStructure = JSONObjectUtility.formatJson(getJsonStructure(results, rootDirectory, searchPhrase));
+        // check if file is exists, so abandon the operation
+        if (PathResolver.isPathExists(saveLocation)) {
+            throw new IOException("File already exists at the specified location: " + saveLocation +
+                    ". Please provide a different file name or location.");
+        }
+
+        if (rootDirectory == null || rootDirectory.isEmpty()) {
+            throw new IllegalArgumentException("Results or root directory cannot be null or empty.");
+        }
+
+        // stream the results to the file, the document is never built in memory
+        try (TextSearchResultStreamWriter writer = new TextSearchResultStreamWriter(
+                new FileOutputStream(ByteWriter.convertAndCleanPaths(saveLocation)), rootDirectory, searchPhrase)) {
+            for (TextSearchResult result : results) {
+                writer.write(result);
+            }
+        }
+    }
+
+    /**
+     * Appends the search results to a JSON Lines (NDJSON) file, one compact JSON object per file or per hit.
+     * Unlike {@link #saveResultsToJsonFile(List, String, String, String)}, an existing file is not an error, the records are appended to it.
+     * To write the records while a search is running, use {@link TextSearchResultNdjsonWriter} directly.
+     *
+     * @param results      the list of TextSearchResult objects to save
+     * @param saveLocation the file path to append to. The paths will be created if they do not exist.
+     * @param granularity  one record per file, or one record per hit
+     * @throws java.io.IOException if an I/O error occurs while saving the file.
+     */
+    public void saveResultsToNdjsonFile(List<TextSearchResult> results, String saveLocation, TextSearchResultNdjsonWriter.Granularity granularity) throws IOException {
+        if (results == null || saveLocation == null || saveLocation.isEmpty()) {
+            throw new IOException("Results or save location cannot be null or empty. Please provide valid inputs.");
+        }
+
+        try (TextSearchResultNdjsonWriter writer = new TextSearchResultNdjsonWriter(
+                Path.of(ByteWriter.convertAndCleanPaths(saveLocation)), granularity, TextSearchResultNdjsonWriter.DEFAULT_FLUSH_BATCH_SIZE)) {
+            for (TextSearchResult result : results) {
+                writer.write(result);
+            }
+        }
+    }
+
+    /**
+     * Saves the search results to a compact binary file, read it back with {@link TextSearchResultBinaryReader}.
+     * The file is much smaller than the JSON file, and can be opened without loading it, see {@link TextSearchResultBinaryWriter} for the format.
+     *
+     * @param results       the list of TextSearchResult objects to save
+     * @param saveLocation  the file path where the binary file will be saved. The paths will be created if they do not exist.
+     * @param rootDirectory the root directory path to be included in the file.
+     * @param searchPhrase  the search phrase used to find the results, which will be included in the file.
+     * @throws java.io.IOException if an I/O error occurs while saving the file, or the file already exists.
+     */
+    public void saveResultsToBinaryFile(List<TextSearchResult> results, String saveLocation, String rootDirectory, String searchPhrase) throws IOException {
+        if (results == null || saveLocation == null || saveLocation.isEmpty()) {
+            throw new IOException("Results or save location cannot be null or empty. Please provide valid inputs.");
+        }
+        // Create the directory if it does not exist
+        PathResolver.resolvePathIfNotExists(saveLocation);
 
         // check if file is exists, so abandon the operation
         if (PathResolver.isPathExists(saveLocation)) {
@@ -106,8 +166,12 @@ public class TextSearchResultSaver {
                     ". Please provide a different file name or location.");
         }
 
-        // now save the JSON structure to a file
-        ByteWriter.writeToPath(jsonStructure, saveLocation);
+        try (TextSearchResultBinaryWriter writer = new TextSearchResultBinaryWriter(
+                Path.of(ByteWriter.convertAndCleanPaths(saveLocation)), rootDirectory, searchPhrase)) {
+            for (TextSearchResult result : results) {
+                writer.write(result);
+            }
+        }
     }
 
     /**
@@ -166,4 +230,74 @@ public class TextSearchResultSaver {
         return jsonBuilder.toString();
     }
 
+    /**
+     * Saves the result of a count-only search to a JSON file. Only the number of occurrences per file is written, no lines.
+     * JSON Format:
+     * <pre>
+     *     <code>
+     * {
+     *   "rootDirectory": "C:/projects/my-root-dir",
+     *   "searchPhrase": "TODO",
+     *   "totalOccurrences": 7,
+     *   "results": [
+     *     {
+     *       "file": "C:/projects/my-root-dir/src/File1.txt",
+     *       "count": 5
+     *     },
+     *     {
+     *       "file": "C:/projects/my-root-dir/src/File2.txt",
+     *       "count": 2
+     *     }
+     *   ]
+     * }
+     *     </code>
+     * </pre>
+     *
+     * @param counts        the list of OccurrenceCount objects to save
+     * @param saveLocation  the file path where the JSON file will be saved. The paths will be created if they do not exist.
+     * @param rootDirectory the root directory path to be included in the JSON file.
+     * @param searchPhrase  the search phrase used to count the occurrences, which will be included in the JSON file.
+     * @throws java.io.IOException if an I/O error occurs while saving the file.
+     */
+    public void saveCountsToJsonFile(List<OccurrenceCount> counts, String saveLocation, String rootDirectory, String searchPhrase) throws IOException {
+        // check if the path is existing or not
+        if (counts == null || counts.isEmpty() || saveLocation == null || saveLocation.isEmpty()) {
+            throw new IOException("Counts or save location cannot be null or empty. Please provide valid inputs.");
+        }
+        // Create the directory if it does not exist
+        PathResolver.resolvePathIfNotExists(saveLocation);
+
+        // check if file is exists, so abandon the operation
+        if (PathResolver.isPathExists(saveLocation)) {
+            throw new IOException("File already exists at the specified location: " + saveLocation +
+                    ". Please provide a different file name or location.");
+        }
+
+        if (rootDirectory == null || rootDirectory.isEmpty()) {
+            throw new IllegalArgumentException("Counts or root directory cannot be null or empty.");
+        }
+
+        long totalOccurrences = 0;
+        for (OccurrenceCount count : counts) {
+            totalOccurrences += count.count();
+        }
+
+        // stream the counts to the file, the document is never built in memory
+        try (JSONStreamWriter json = new JSONStreamWriter(new FileOutputStream(ByteWriter.convertAndCleanPaths(saveLocation)), true)) {
+            json.beginObject();
+            json.name("rootDirectory").value(rootDirectory);
+            json.name("searchPhrase").value(searchPhrase);
+            json.name("totalOccurrences").value(totalOccurrences);
+            json.name("results").beginArray();
+            for (OccurrenceCount count : counts) {
+                json.beginObject();
+                json.name("file").value(count.file().getAbsolutePath());
+                json.name("count").value(count.count());
+                json.endObject();
+            }
+            json.endArray();
+            json.endObject();
+        }
+    }
+
 }
@@ -0,0 +1,148 @@
+package javadev.stringcollections.textreplacor.io;
+
+import javadev.stringcollections.textreplacor.io.json.JSONStreamWriter;
+import javadev.stringcollections.textreplacor.object.Line;
+import javadev.stringcollections.textreplacor.object.TextSearchResult;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote Writes search results as the JSON document of {@link TextSearchResultSaver#saveResultsToJsonFile(java.util.List, String, String, String)},
+ * one result at a time, while the search is still running. Only the result being written is held in memory.
+ * <p>
+ * The header is written by the constructor, and {@link #close()} ends the document. Results can be passed directly from
+ * {@link javadev.stringcollections.textreplacor.search.StringMatcherInFiles#search(javadev.stringcollections.textreplacor.search.SearchResultListener)}:
+ * <pre>
+ *     <code>
+ * try (TextSearchResultStreamWriter writer = new TextSearchResultStreamWriter(outputStream, rootDirectory, searchPhrase)) {
+ *     stringMatcherInFiles.search(writer::write);
+ * }
+ *     </code>
+ * </pre>
+ * The methods are synchronized, so results can be written from several threads.
+ * @since 2.1.0
+ */
+public class TextSearchResultStreamWriter implements Closeable {
+
+    private final JSONStreamWriter json;
+    private long resultCount = 0;
+    private boolean closed = false;
+
+    /**
+     * Starts a pretty-printed JSON document on an output stream. The stream is closed by {@link #close()}.
+     *
+     * @param outputStream  the stream to write to
+     * @param rootDirectory the root directory path to be included in the JSON document
+     * @param searchPhrase  the search phrase to be included in the JSON document
+     * @throws IOException if writing the header fails
+     */
+    public TextSearchResultStreamWriter(@NotNull OutputStream outputStream, String rootDirectory, String searchPhrase) throws IOException {
+        this(new JSONStreamWriter(outputStream, true), rootDirectory, searchPhrase);
+    }
+
+    /**
+     * Starts a pretty-printed JSON document on a channel. The channel is closed by {@link #close()}.
+     *
+     * @param channel       the channel to write to
+     * @param rootDirectory the root directory path to be included in the JSON document
+     * @param searchPhrase  the search phrase to be included in the JSON document
+     * @throws IOException if writing the header fails
+     */
+    public TextSearchResultStreamWriter(@NotNull WritableByteChannel channel, String rootDirectory, String searchPhrase) throws IOException {
+        this(new JSONStreamWriter(channel, true), rootDirectory, searchPhrase);
+    }
+
+    private TextSearchResultStreamWriter(JSONStreamWriter json, String rootDirectory, String searchPhrase) throws IOException {
+        // Null and empty checks, same as TextSearchResultSaver.getJsonStructure()
+        if (rootDirectory == null || rootDirectory.isEmpty()) {
+            json.close();
+            throw new IllegalArgumentException("Root directory cannot be null or empty.");
+        }
+        this.json = json;
+
+        json.beginObject();
+        json.name("rootDirectory").value(rootDirectory);
+        json.name("searchPhrase").value(searchPhrase);
+        json.name("results").beginArray();
+    }
+
+    /**
+     * Writes one result to the document.
+     *
+     * @param result the result to write
+     * @throws IOException if writing fails
+     */
+    public synchronized void write(@NotNull TextSearchResult result) throws IOException {
+        if (closed) {
+            throw new IOException("The writer is closed");
+        }
+        writeResult(json, result);
+        resultCount++;
+    }
+
+    /**
+     * @return the number of results written so far
+     */
+    public synchronized long getResultCount() {
+        return resultCount;
+    }
+
+    /**
+     * Ends the JSON document and closes the underlying stream.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            json.endArray();
+            json.endObject();
+        } finally {
+            json.close();
+        }
+    }
+
+    /**
+     * Writes a {@link TextSearchResult} as a JSON object, with the file path and the lines.
+     *
+     * @param json   the writer, positioned where a value is expected
+     * @param result the result to write
+     * @throws IOException if writing fails
+     */
+    public static void writeResult(@NotNull JSONStreamWriter json, @NotNull TextSearchResult result) throws IOException {
+        json.beginObject();
+        json.name("file").value(result.file().getAbsolutePath());
+        json.name("lines").beginArray();
+        for (Line line : result.lines()) {
+            writeLine(json, line);
+        }
+        json.endArray();
+        json.endObject();
+    }
+
+    /**
+     * Writes a {@link Line} as a JSON object.
+     *
+     * @param json the writer, positioned where a value is expected
+     * @param line the line to write
+     * @throws IOException if writing fails
+     */
+    public static void writeLine(@NotNull JSONStreamWriter json, @NotNull Line line) throws IOException {
+        json.beginObject();
+        json.name("lineNumber").value(line.lineNumber());
+        json.name("lineContent").value(line.lineContent());
+        json.name("startIndex").value(line.startIndex());
+        json.name("endIndex").value(line.endIndex());
+        json.endObject();
+    }
+}
@@ -0,0 +1,122 @@
+package javadev.stringcollections.textreplacor.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote Variable length encoding of integers, 7 bits per byte with the high bit set on all bytes but the last (LEB128).
+ * Small values take one byte, a long takes at most 10 bytes. Signed values are zigzag encoded first, so small negative values stay small.
+ * @since 2.1.0
+ */
+public final class VarInt {
+
+    /**
+     * The maximum number of bytes of an encoded long.
+     */
+    public static final int MAX_LENGTH = 10;
+
+    /**
+     * Suppress default constructor for noninstantiability
+     */
+    private VarInt() {
+        throw new AssertionError("Cannot instantiate VarInt class with default constructor");
+    }
+
+    /**
+     * Writes a value as unsigned varint. Negative values take 10 bytes, zigzag encode them with {@link #encodeZigZag(long)}.
+     *
+     * @param out   the stream to write to
+     * @param value the value
+     * @return the number of bytes written
+     * @throws IOException if writing fails
+     */
+    public static int writeUnsigned(@NotNull OutputStream out, long value) throws IOException {
+        int length = 1;
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+            length++;
+        }
+        out.write((int) value);
+        return length;
+    }
+
+    /**
+     * Writes a value as unsigned varint to a buffer.
+     *
+     * @param buffer the buffer to write to, at its position
+     * @param value  the value
+     * @return the number of bytes written
+     */
+    public static int writeUnsigned(@NotNull ByteBuffer buffer, long value) {
+        int length = 1;
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+            length++;
+        }
+        buffer.put((byte) value);
+        return length;
+    }
+
+    /**
+     * Reads an unsigned varint from a buffer.
+     *
+     * @param buffer the buffer to read from, at its position
+     * @return the value
+     * @throws IllegalArgumentException if the encoding is longer than {@link #MAX_LENGTH} bytes
+     */
+    public static long readUnsigned(@NotNull ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    /**
+     * Reads an unsigned varint from a stream.
+     *
+     * @param in the stream to read from
+     * @return the value
+     * @throws IOException if reading fails, the stream ends inside the value or the encoding is too long
+     */
+    public static long readUnsigned(@NotNull InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new IOException("Unexpected end of stream inside a varint");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    /**
+     * Maps signed values to unsigned ones: 0, -1, 1, -2 ... become 0, 1, 2, 3 ...
+     */
+    public static long encodeZigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Reverse of {@link #encodeZigZag(long)}.
+     */
+    public static long decodeZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,510 @@
+package javadev.stringcollections.textreplacor.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote The XXH3 hash of xxHash 0.8, in its 64-bit and 128-bit variants with the default secret and seed 0, as a {@link MessageDigest}.
+ * <p>
+ * XXH3 is not a cryptographic hash, it can't protect against a modified file, but it is many times faster than MD5 or SHA-256,
+ * so it fits change detection, deduplication and manifests. The digest is the canonical big-endian form, its hex string is the one printed by
+ * <code>xxhsum -H3</code> and <code>xxhsum -H2</code>. Use it with {@link FileHashDriver}:
+ * <pre>
+ *     <code>
+ * Map&lt;Path, String&gt; hashes = FileHashDriver.hashAll(paths, FileHashDriver.XXH3_128);
+ *     </code>
+ * </pre>
+ * Input is read with little-endian {@link ByteBuffer} views, so heap arrays and mapped files are hashed without copying them.
+ * Not thread-safe, like any {@link MessageDigest}.
+ * @since 2.1.0
+ */
+public final class XXH3Digest extends MessageDigest {
+
+    private static final long PRIME32_1 = 0x9E3779B1L;
+    private static final long PRIME32_2 = 0x85EBCA77L;
+    private static final long PRIME32_3 = 0xC2B2AE3DL;
+    private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME64_3 = 0x165667B19E3779F9L;
+    private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+    private static final long PRIME_MX1 = 0x165667919E3779F9L;
+    private static final long PRIME_MX2 = 0x9FB21C651E98DF25L;
+
+    // the default secret of xxHash
+    private static final ByteBuffer SECRET = ByteBuffer.wrap(new byte[]{
+            (byte) 0xb8, (byte) 0xfe, (byte) 0x6c, (byte) 0x39, (byte) 0x23, (byte) 0xa4, (byte) 0x4b, (byte) 0xbe,
+            (byte) 0x7c, (byte) 0x01, (byte) 0x81, (byte) 0x2c, (byte) 0xf7, (byte) 0x21, (byte) 0xad, (byte) 0x1c,
+            (byte) 0xde, (byte) 0xd4, (byte) 0x6d, (byte) 0xe9, (byte) 0x83, (byte) 0x90, (byte) 0x97, (byte) 0xdb,
+            (byte) 0x72, (byte) 0x40, (byte) 0xa4, (byte) 0xa4, (byte) 0xb7, (byte) 0xb3, (byte) 0x67, (byte) 0x1f,
+            (byte) 0xcb, (byte) 0x79, (byte) 0xe6, (byte) 0x4e, (byte) 0xcc, (byte) 0xc0, (byte) 0xe5, (byte) 0x78,
+            (byte) 0x82, (byte) 0x5a, (byte) 0xd0, (byte) 0x7d, (byte) 0xcc, (byte) 0xff, (byte) 0x72, (byte) 0x21,
+            (byte) 0xb8, (byte) 0x08, (byte) 0x46, (byte) 0x74, (byte) 0xf7, (byte) 0x43, (byte) 0x24, (byte) 0x8e,
+            (byte) 0xe0, (byte) 0x35, (byte) 0x90, (byte) 0xe6, (byte) 0x81, (byte) 0x3a, (byte) 0x26, (byte) 0x4c,
+            (byte) 0x3c, (byte) 0x28, (byte) 0x52, (byte) 0xbb, (byte) 0x91, (byte) 0xc3, (byte) 0x00, (byte) 0xcb,
+            (byte) 0x88, (byte) 0xd0, (byte) 0x65, (byte) 0x8b, (byte) 0x1b, (byte) 0x53, (byte) 0x2e, (byte) 0xa3,
+            (byte) 0x71, (byte) 0x64, (byte) 0x48, (byte) 0x97, (byte) 0xa2, (byte) 0x0d, (byte) 0xf9, (byte) 0x4e,
+            (byte) 0x38, (byte) 0x19, (byte) 0xef, (byte) 0x46, (byte) 0xa9, (byte) 0xde, (byte) 0xac, (byte) 0xd8,
+            (byte) 0xa8, (byte) 0xfa, (byte) 0x76, (byte) 0x3f, (byte) 0xe3, (byte) 0x9c, (byte) 0x34, (byte) 0x3f,
+            (byte) 0xf9, (byte) 0xdc, (byte) 0xbb, (byte) 0xc7, (byte) 0xc7, (byte) 0x0b, (byte) 0x4f, (byte) 0x1d,
+            (byte) 0x8a, (byte) 0x51, (byte) 0xe0, (byte) 0x4b, (byte) 0xcd, (byte) 0xb4, (byte) 0x59, (byte) 0x31,
+            (byte) 0xc8, (byte) 0x9f, (byte) 0x7e, (byte) 0xc9, (byte) 0xd9, (byte) 0x78, (byte) 0x73, (byte) 0x64,
+            (byte) 0xea, (byte) 0xc5, (byte) 0xac, (byte) 0x83, (byte) 0x34, (byte) 0xd3, (byte) 0xeb, (byte) 0xc3,
+            (byte) 0xc5, (byte) 0x81, (byte) 0xa0, (byte) 0xff, (byte) 0xfa, (byte) 0x13, (byte) 0x63, (byte) 0xeb,
+            (byte) 0x17, (byte) 0x0d, (byte) 0xdd, (byte) 0x51, (byte) 0xb7, (byte) 0xf0, (byte) 0xda, (byte) 0x49,
+            (byte) 0xd3, (byte) 0x16, (byte) 0x55, (byte) 0x26, (byte) 0x29, (byte) 0xd4, (byte) 0x68, (byte) 0x9e,
+            (byte) 0x2b, (byte) 0x16, (byte) 0xbe, (byte) 0x58, (byte) 0x7d, (byte) 0x47, (byte) 0xa1, (byte) 0xfc,
+            (byte) 0x8f, (byte) 0xf8, (byte) 0xb8, (byte) 0xd1, (byte) 0x7a, (byte) 0xd0, (byte) 0x31, (byte) 0xce,
+            (byte) 0x45, (byte) 0xcb, (byte) 0x3a, (byte) 0x8f, (byte) 0x95, (byte) 0x16, (byte) 0x04, (byte) 0x28,
+            (byte) 0xaf, (byte) 0xd7, (byte) 0xfb, (byte) 0xca, (byte) 0xbb, (byte) 0x4b, (byte) 0x40, (byte) 0x7e,
+    }).order(ByteOrder.LITTLE_ENDIAN);
+
+    // the secret as longs at every multiple of 8, the offsets used by the stripes and the scramble
+    private static final long[] SECRET_LONGS = new long[24];
+
+    static {
+        for (int i = 0; i < SECRET_LONGS.length; i++) {
+            SECRET_LONGS[i] = SECRET.getLong(i * 8);
+        }
+    }
+
+    private static final int SECRET_SIZE = 192;
+    private static final int STRIPE_LENGTH = 64;
+    private static final int STRIPES_PER_BLOCK = (SECRET_SIZE - STRIPE_LENGTH) / 8;
+    // inputs up to this length are hashed by the short paths, from the buffered input
+    private static final int MID_SIZE_MAX = 240;
+
+    private final boolean wide;
+
+    // input while the length is at most MID_SIZE_MAX
+    private final byte[] shortInput = new byte[MID_SIZE_MAX];
+    private long totalLength;
+
+    // state of the long hash, once the length is above MID_SIZE_MAX
+    private final long[] accumulators = new long[8];
+    private int stripesInBlock;
+    // the 1 to 64 bytes not accumulated yet, the last stripe is accumulated differently
+    private final byte[] pending = new byte[STRIPE_LENGTH];
+    private final ByteBuffer pendingBuffer = ByteBuffer.wrap(pending).order(ByteOrder.LITTLE_ENDIAN);
+    private int pendingLength;
+    // the last accumulated stripe, the final stripe may overlap it
+    private final byte[] lastStripe = new byte[STRIPE_LENGTH];
+
+    private XXH3Digest(String algorithm, boolean wide) {
+        super(algorithm);
+        this.wide = wide;
+        engineReset();
+    }
+
+    /**
+     * @return a new 64-bit XXH3 digest
+     */
+    public static @NotNull XXH3Digest xxh3_64() {
+        return new XXH3Digest(FileHashDriver.XXH3_64, false);
+    }
+
+    /**
+     * @return a new 128-bit XXH3 digest
+     */
+    public static @NotNull XXH3Digest xxh3_128() {
+        return new XXH3Digest(FileHashDriver.XXH3_128, true);
+    }
+
+    @Override
+    protected int engineGetDigestLength() {
+        return wide ? 16 : 8;
+    }
+
+    @Override
+    protected void engineUpdate(byte input) {
+        engineUpdate(new byte[]{input}, 0, 1);
+    }
+
+    @Override
+    protected void engineUpdate(byte[] input, int offset, int length) {
+        update(ByteBuffer.wrap(input).order(ByteOrder.LITTLE_ENDIAN), offset, length);
+    }
+
+    @Override
+    protected void engineUpdate(ByteBuffer input) {
+        // read in place, mapped and direct buffers are not copied to an array
+        ByteBuffer view = input.slice().order(ByteOrder.LITTLE_ENDIAN);
+        update(view, 0, view.remaining());
+        input.position(input.limit());
+    }
+
+    @Override
+    protected byte[] engineDigest() {
+        long low;
+        long high = 0;
+        if (totalLength > MID_SIZE_MAX) {
+            finishLongHash();
+            low = mergeAccumulators(11, totalLength * PRIME64_1);
+            if (wide) {
+                high = mergeAccumulators(SECRET_SIZE - STRIPE_LENGTH - 11, ~(totalLength * PRIME64_2));
+            }
+        } else {
+            ByteBuffer input = ByteBuffer.wrap(shortInput).order(ByteOrder.LITTLE_ENDIAN);
+            int length = (int) totalLength;
+            if (wide) {
+                long[] hash = shortHash128(input, length);
+                low = hash[0];
+                high = hash[1];
+            } else {
+                low = shortHash64(input, length);
+            }
+        }
+
+        ByteBuffer digest = ByteBuffer.allocate(engineGetDigestLength());
+        if (wide) {
+            digest.putLong(high);
+        }
+        digest.putLong(low);
+        engineReset();
+        return digest.array();
+    }
+
+    @Override
+    protected void engineReset() {
+        totalLength = 0;
+        accumulators[0] = PRIME32_3;
+        accumulators[1] = PRIME64_1;
+        accumulators[2] = PRIME64_2;
+        accumulators[3] = PRIME64_3;
+        accumulators[4] = PRIME64_4;
+        accumulators[5] = PRIME32_2;
+        accumulators[6] = PRIME64_5;
+        accumulators[7] = PRIME32_1;
+        stripesInBlock = 0;
+        pendingLength = 0;
+    }
+
+    private void update(ByteBuffer input, int offset, int length) {
+        if (length <= 0) {
+            return;
+        }
+        long previousLength = totalLength;
+        totalLength += length;
+        if (totalLength <= MID_SIZE_MAX) {
+            input.get(offset, shortInput, (int) previousLength, length);
+            return;
+        }
+        if (previousLength <= MID_SIZE_MAX) {
+            // the input just became long, accumulate what was buffered first
+            longUpdate(ByteBuffer.wrap(shortInput).order(ByteOrder.LITTLE_ENDIAN), 0, (int) previousLength);
+        }
+        longUpdate(input, offset, length);
+    }
+
+    // accumulates every stripe that is followed by more input, and keeps the rest pending
+    private void longUpdate(ByteBuffer input, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+        if (pendingLength > 0) {
+            int fill = Math.min(length, STRIPE_LENGTH - pendingLength);
+            input.get(offset, pending, pendingLength, fill);
+            pendingLength += fill;
+            offset += fill;
+            length -= fill;
+            if (length == 0) {
+                return;
+            }
+            accumulateStripes(pendingBuffer, 0, 1);
+            System.arraycopy(pending, 0, lastStripe, 0, STRIPE_LENGTH);
+            pendingLength = 0;
+        }
+
+        int stripes = (length - 1) / STRIPE_LENGTH;
+        if (stripes > 0) {
+            accumulateStripes(input, offset, stripes);
+            offset += stripes * STRIPE_LENGTH;
+            length -= stripes * STRIPE_LENGTH;
+            input.get(offset - STRIPE_LENGTH, lastStripe, 0, STRIPE_LENGTH);
+        }
+        input.get(offset, pending, 0, length);
+        pendingLength = length;
+    }
+
+    // the hot loop, the accumulators are kept in locals so they stay in registers
+    private void accumulateStripes(ByteBuffer input, int offset, int stripes) {
+        long[] secret = SECRET_LONGS;
+        long acc0 = accumulators[0];
+        long acc1 = accumulators[1];
+        long acc2 = accumulators[2];
+        long acc3 = accumulators[3];
+        long acc4 = accumulators[4];
+        long acc5 = accumulators[5];
+        long acc6 = accumulators[6];
+        long acc7 = accumulators[7];
+        int stripe = stripesInBlock;
+        for (int n = 0; n < stripes; n++, offset += STRIPE_LENGTH) {
+            long data0 = input.getLong(offset);
+            long data1 = input.getLong(offset + 8);
+            long data2 = input.getLong(offset + 16);
+            long data3 = input.getLong(offset + 24);
+            long data4 = input.getLong(offset + 32);
+            long data5 = input.getLong(offset + 40);
+            long data6 = input.getLong(offset + 48);
+            long data7 = input.getLong(offset + 56);
+            long key0 = data0 ^ secret[stripe];
+            long key1 = data1 ^ secret[stripe + 1];
+            long key2 = data2 ^ secret[stripe + 2];
+            long key3 = data3 ^ secret[stripe + 3];
+            long key4 = data4 ^ secret[stripe + 4];
+            long key5 = data5 ^ secret[stripe + 5];
+            long key6 = data6 ^ secret[stripe + 6];
+            long key7 = data7 ^ secret[stripe + 7];
+            acc0 += data1 + (key0 & 0xFFFFFFFFL) * (key0 >>> 32);
+            acc1 += data0 + (key1 & 0xFFFFFFFFL) * (key1 >>> 32);
+            acc2 += data3 + (key2 & 0xFFFFFFFFL) * (key2 >>> 32);
+            acc3 += data2 + (key3 & 0xFFFFFFFFL) * (key3 >>> 32);
+            acc4 += data5 + (key4 & 0xFFFFFFFFL) * (key4 >>> 32);
+            acc5 += data4 + (key5 & 0xFFFFFFFFL) * (key5 >>> 32);
+            acc6 += data7 + (key6 & 0xFFFFFFFFL) * (key6 >>> 32);
+            acc7 += data6 + (key7 & 0xFFFFFFFFL) * (key7 >>> 32);
+
+            if (++stripe == STRIPES_PER_BLOCK) {
+                // scramble with the last 64 bytes of the secret, at the end of every block
+                acc0 = (acc0 ^ (acc0 >>> 47) ^ secret[16]) * PRIME32_1;
+                acc1 = (acc1 ^ (acc1 >>> 47) ^ secret[17]) * PRIME32_1;
+                acc2 = (acc2 ^ (acc2 >>> 47) ^ secret[18]) * PRIME32_1;
+                acc3 = (acc3 ^ (acc3 >>> 47) ^ secret[19]) * PRIME32_1;
+                acc4 = (acc4 ^ (acc4 >>> 47) ^ secret[20]) * PRIME32_1;
+                acc5 = (acc5 ^ (acc5 >>> 47) ^ secret[21]) * PRIME32_1;
+                acc6 = (acc6 ^ (acc6 >>> 47) ^ secret[22]) * PRIME32_1;
+                acc7 = (acc7 ^ (acc7 >>> 47) ^ secret[23]) * PRIME32_1;
+                stripe = 0;
+            }
+        }
+        stripesInBlock = stripe;
+        accumulators[0] = acc0;
+        accumulators[1] = acc1;
+        accumulators[2] = acc2;
+        accumulators[3] = acc3;
+        accumulators[4] = acc4;
+        accumulators[5] = acc5;
+        accumulators[6] = acc6;
+        accumulators[7] = acc7;
+    }
+
+    // accumulates the last 64 bytes of the input, which may overlap the last accumulated stripe
+    private void finishLongHash() {
+        byte[] stripe = new byte[STRIPE_LENGTH];
+        int fromLastStripe = STRIPE_LENGTH - pendingLength;
+        System.arraycopy(lastStripe, pendingLength, stripe, 0, fromLastStripe);
+        System.arraycopy(pending, 0, stripe, fromLastStripe, pendingLength);
+        accumulate512(ByteBuffer.wrap(stripe).order(ByteOrder.LITTLE_ENDIAN), 0, SECRET_SIZE - STRIPE_LENGTH - 7);
+    }
+
+    // one stripe at any secret offset, for the final stripe
+    private void accumulate512(ByteBuffer input, int offset, int secretOffset) {
+        long[] acc = accumulators;
+        for (int i = 0; i < 8; i++) {
+            long dataValue = input.getLong(offset + i * 8);
+            long dataKey = dataValue ^ SECRET.getLong(secretOffset + i * 8);
+            acc[i ^ 1] += dataValue;
+            acc[i] += (dataKey & 0xFFFFFFFFL) * (dataKey >>> 32);
+        }
+    }
+
+    private long mergeAccumulators(int secretOffset, long start) {
+        long result = start;
+        for (int i = 0; i < 4; i++) {
+            result += multiplyFold64(accumulators[2 * i] ^ SECRET.getLong(secretOffset + 16 * i),
+                    accumulators[2 * i + 1] ^ SECRET.getLong(secretOffset + 16 * i + 8));
+        }
+        return avalanche(result);
+    }
+
+    private static long shortHash64(ByteBuffer input, int length) {
+        if (length == 0) {
+            return avalanche64(SECRET.getLong(56) ^ SECRET.getLong(64));
+        }
+        if (length <= 3) {
+            long combined = combine1To3(input, length);
+            long bitflip = readInt(SECRET, 0) ^ readInt(SECRET, 4);
+            return avalanche64(combined ^ bitflip);
+        }
+        if (length <= 8) {
+            long input1 = readInt(input, 0);
+            long input2 = readInt(input, length - 4);
+            long bitflip = SECRET.getLong(8) ^ SECRET.getLong(16);
+            long keyed = (input2 + (input1 << 32)) ^ bitflip;
+            return rrmxmx(keyed, length);
+        }
+        if (length <= 16) {
+            long bitflip1 = SECRET.getLong(24) ^ SECRET.getLong(32);
+            long bitflip2 = SECRET.getLong(40) ^ SECRET.getLong(48);
+            long inputLow = input.getLong(0) ^ bitflip1;
+            long inputHigh = input.getLong(length - 8) ^ bitflip2;
+            long acc = length + Long.reverseBytes(inputLow) + inputHigh + multiplyFold64(inputLow, inputHigh);
+            return avalanche(acc);
+        }
+        long acc = length * PRIME64_1;
+        if (length <= 128) {
+            if (length > 32) {
+                if (length > 64) {
+                    if (length > 96) {
+                        acc += mix16(input, 48, 96);
+                        acc += mix16(input, length - 64, 112);
+                    }
+                    acc += mix16(input, 32, 64);
+                    acc += mix16(input, length - 48, 80);
+                }
+                acc += mix16(input, 16, 32);
+                acc += mix16(input, length - 32, 48);
+            }
+            acc += mix16(input, 0, 0);
+            acc += mix16(input, length - 16, 16);
+            return avalanche(acc);
+        }
+        int rounds = length / 16;
+        for (int i = 0; i < 8; i++) {
+            acc += mix16(input, 16 * i, 16 * i);
+        }
+        acc = avalanche(acc);
+        for (int i = 8; i < rounds; i++) {
+            acc += mix16(input, 16 * i, 16 * (i - 8) + 3);
+        }
+        acc += mix16(input, length - 16, 136 - 17);
+        return avalanche(acc);
+    }
+
+    // returns {low, high}
+    private static long[] shortHash128(ByteBuffer input, int length) {
+        if (length == 0) {
+            return new long[]{
+                    avalanche64(SECRET.getLong(64) ^ SECRET.getLong(72)),
+                    avalanche64(SECRET.getLong(80) ^ SECRET.getLong(88))};
+        }
+        if (length <= 3) {
+            long combinedLow = combine1To3(input, length);
+            long combinedHigh = Integer.rotateLeft(Integer.reverseBytes((int) combinedLow), 13) & 0xFFFFFFFFL;
+            long bitflipLow = readInt(SECRET, 0) ^ readInt(SECRET, 4);
+            long bitflipHigh = readInt(SECRET, 8) ^ readInt(SECRET, 12);
+            return new long[]{avalanche64(combinedLow ^ bitflipLow), avalanche64(combinedHigh ^ bitflipHigh)};
+        }
+        if (length <= 8) {
+            long inputLow = readInt(input, 0);
+            long inputHigh = readInt(input, length - 4);
+            long bitflip = SECRET.getLong(16) ^ SECRET.getLong(24);
+            long keyed = (inputLow + (inputHigh << 32)) ^ bitflip;
+            long multiplier = PRIME64_1 + ((long) length << 2);
+            long low = keyed * multiplier;
+            long high = multiplyHigh(keyed, multiplier);
+            high += low << 1;
+            low ^= high >>> 3;
+            low ^= low >>> 35;
+            low *= PRIME_MX2;
+            low ^= low >>> 28;
+            return new long[]{low, avalanche(high)};
+        }
+        if (length <= 16) {
+            long bitflipLow = SECRET.getLong(32) ^ SECRET.getLong(40);
+            long bitflipHigh = SECRET.getLong(48) ^ SECRET.getLong(56);
+            long inputLow = input.getLong(0);
+            long inputHigh = input.getLong(length - 8);
+            long keyed = inputLow ^ inputHigh ^ bitflipLow;
+            long low = keyed * PRIME64_1;
+            long high = multiplyHigh(keyed, PRIME64_1);
+            low += (long) (length - 1) << 54;
+            inputHigh ^= bitflipHigh;
+            high += inputHigh + (inputHigh & 0xFFFFFFFFL) * (PRIME32_2 - 1);
+            low ^= Long.reverseBytes(high);
+            long resultLow = low * PRIME64_2;
+            long resultHigh = multiplyHigh(low, PRIME64_2) + high * PRIME64_2;
+            return new long[]{avalanche(resultLow), avalanche(resultHigh)};
+        }
+
+        long[] acc = {length * PRIME64_1, 0};
+        if (length <= 128) {
+            if (length > 32) {
+                if (length > 64) {
+                    if (length > 96) {
+                        mix32(acc, input, 48, length - 64, 96);
+                    }
+                    mix32(acc, input, 32, length - 48, 64);
+                }
+                mix32(acc, input, 16, length - 32, 32);
+            }
+            mix32(acc, input, 0, length - 16, 0);
+        } else {
+            int rounds = length / 32;
+            for (int i = 0; i < 4; i++) {
+                mix32(acc, input, 32 * i, 32 * i + 16, 32 * i);
+            }
+            acc[0] = avalanche(acc[0]);
+            acc[1] = avalanche(acc[1]);
+            for (int i = 4; i < rounds; i++) {
+                mix32(acc, input, 32 * i, 32 * i + 16, 3 + 32 * (i - 4));
+            }
+            mix32(acc, input, length - 16, length - 32, 136 - 17 - 16);
+        }
+        long low = acc[0] + acc[1];
+        long high = acc[0] * PRIME64_1 + acc[1] * PRIME64_4 + length * PRIME64_2;
+        return new long[]{avalanche(low), -avalanche(high)};
+    }
+
+    // the 3 bytes and the length of a 1 to 3 bytes input, in one int
+    private static long combine1To3(ByteBuffer input, int length) {
+        long c1 = input.get(0) & 0xFF;
+        long c2 = input.get(length >> 1) & 0xFF;
+        long c3 = input.get(length - 1) & 0xFF;
+        return (c1 << 16) | (c2 << 24) | c3 | ((long) length << 8);
+    }
+
+    private static long mix16(ByteBuffer input, int offset, int secretOffset) {
+        return multiplyFold64(input.getLong(offset) ^ SECRET.getLong(secretOffset),
+                input.getLong(offset + 8) ^ SECRET.getLong(secretOffset + 8));
+    }
+
+    // the 128-bit accumulator {low, high} takes 32 bytes, at two offsets
+    private static void mix32(long[] acc, ByteBuffer input, int offset1, int offset2, int secretOffset) {
+        acc[0] += mix16(input, offset1, secretOffset);
+        acc[0] ^= input.getLong(offset2) + input.getLong(offset2 + 8);
+        acc[1] += mix16(input, offset2, secretOffset + 16);
+        acc[1] ^= input.getLong(offset1) + input.getLong(offset1 + 8);
+    }
+
+    private static long readInt(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset) & 0xFFFFFFFFL;
+    }
+
+    // low and high 64 bits of the unsigned 128-bit product, folded with xor
+    private static long multiplyFold64(long a, long b) {
+        return (a * b) ^ multiplyHigh(a, b);
+    }
+
+    // high 64 bits of the unsigned 128-bit product
+    private static long multiplyHigh(long a, long b) {
+        return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+
+    private static long avalanche(long h) {
+        h ^= h >>> 37;
+        h *= PRIME_MX1;
+        return h ^ (h >>> 32);
+    }
+
+    private static long avalanche64(long h) {
+        h ^= h >>> 33;
+        h *= PRIME64_2;
+        h ^= h >>> 29;
+        h *= PRIME64_3;
+        return h ^ (h >>> 32);
+    }
+
+    private static long rrmxmx(long h, int length) {
+        h ^= Long.rotateLeft(h, 49) ^ Long.rotateLeft(h, 24);
+        h *= PRIME_MX2;
+        h ^= (h >>> 35) + length;
+        h *= PRIME_MX2;
+        return h ^ (h >>> 28);
+    }
+}
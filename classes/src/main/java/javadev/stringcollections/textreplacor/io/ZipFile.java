@@ -1,10 +1,14 @@
 package javadev.stringcollections.textreplacor.io;
 
 
+import javadev.stringcollections.textreplacor.io.zip.ParallelUnzipper;
+import javadev.stringcollections.textreplacor.io.zip.ParallelZipper;
+
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -56,6 +60,36 @@ public class ZipFile {
         fos.close();
     }
 
+    /**
+     * Same as {@link #zipDirectory(String, String)}, with the files deflated in parallel, one thread per core.
+     * Files that are already compressed, like jpg, png, zip or jar, are stored without compression.
+     * @param sourceFile the source file
+     * @param destinationFile the destination file. If file extension is not .zip, it will be appended with .zip
+     * @throws IOException if an error occurs
+     * @since 2.1.0
+     */
+    public static void zipDirectoryParallel(String sourceFile, String destinationFile) throws IOException {
+
+        zipDirectoryParallel(sourceFile, destinationFile, Math.max(2, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Same as {@link #zipDirectory(String, String)}, with the files deflated in parallel, see {@link ParallelZipper}.
+     * @param sourceFile the source file
+     * @param destinationFile the destination file. If file extension is not .zip, it will be appended with .zip
+     * @param threadCount number of deflating threads
+     * @throws IOException if an error occurs
+     * @since 2.1.0
+     */
+    public static void zipDirectoryParallel(String sourceFile, String destinationFile, int threadCount) throws IOException {
+
+        if (!destinationFile.endsWith(".zip")) {
+            destinationFile = destinationFile + ".zip";
+        }
+
+        ParallelZipper.zip(new File(sourceFile), Path.of(destinationFile), threadCount);
+    }
+
 
 
     /**
@@ -135,6 +169,32 @@ public class ZipFile {
         zis.close();
     }
 
+    /**
+     * Same as {@link #unzipFile(String, String)}, with the entries extracted in parallel, one thread per core.
+     * The entries are read from the central directory, so the archive must be complete.
+     * @param zipFile the zip file
+     * @param destDir the destination directory
+     * @throws IOException if an error occurs, or an entry is outside of the destination directory
+     * @since 2.1.0
+     */
+    public static void unzipFileParallel(String zipFile, String destDir) throws IOException {
+
+        unzipFileParallel(zipFile, destDir, Math.max(2, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Same as {@link #unzipFile(String, String)}, with the entries extracted in parallel, see {@link ParallelUnzipper}.
+     * @param zipFile the zip file
+     * @param destDir the destination directory
+     * @param threadCount number of extracting threads
+     * @throws IOException if an error occurs, or an entry is outside of the destination directory
+     * @since 2.1.0
+     */
+    public static void unzipFileParallel(String zipFile, String destDir, int threadCount) throws IOException {
+
+        ParallelUnzipper.unzip(new File(zipFile), new File(destDir), threadCount);
+    }
+
     public static File newFile(File destinationDir, ZipEntry zipEntry) throws IOException {
         File destFile = new File(destinationDir, zipEntry.getName());
 
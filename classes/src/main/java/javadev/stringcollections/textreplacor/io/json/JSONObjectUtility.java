@@ -1,7 +1,17 @@
 package javadev.stringcollections.textreplacor.io.json;
 
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
 /**
  * @author nurujjamanpollob
  * @version 1.0
@@ -9,8 +19,25 @@ import org.jetbrains.annotations.Nullable;
  */
 public class JSONObjectUtility {
 
+    // escape sequence for each char below 128 that needs one, null for the chars that are written as they are
+    private static final String[] ESCAPES = new String[128];
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            ESCAPES[c] = String.format("\\u%04x", c);
+        }
+        ESCAPES['\\'] = "\\\\";
+        ESCAPES['"'] = "\\\"";
+        ESCAPES['\b'] = "\\b";
+        ESCAPES['\f'] = "\\f";
+        ESCAPES['\n'] = "\\n";
+        ESCAPES['\r'] = "\\r";
+        ESCAPES['\t'] = "\\t";
+    }
+
     /**
      * Escapes special characters in a string to make it safe for JSON. Support full Unicode characters.
+     * If nothing needs escaping, the input string itself is returned and nothing is allocated.
      * @param input the string to escape
      * @return the escaped string
      */
@@ -18,87 +45,232 @@ public class JSONObjectUtility {
         if (input == null) {
             return null;
         }
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < input.length(); i++) {
+        int first = indexOfEscape(input, 0, input.length());
+        if (first < 0) {
+            return input;
+        }
+        StringBuilder sb = new StringBuilder(input.length() + 16);
+        sb.append(input, 0, first);
+        appendEscaped(sb, input, first, input.length());
+        return sb.toString();
+    }
+
+    /**
+     * Writes the escaped form of a string slice, like {@link #escapeSpecialCharacters(String)}, straight into an output.
+     * Runs of chars that don't need escaping are written as slices of the input, without copying them first.
+     * @param out   the output, a {@link Writer} or {@link StringBuilder} gets the slices without intermediate strings
+     * @param input the string to escape
+     * @param start the index of the first char to write
+     * @param end   the index after the last char to write
+     * @throws IOException if the output fails
+     */
+    public static void writeEscaped(@NotNull Appendable out, @NotNull String input, int start, int end) throws IOException {
+        if (out instanceof StringBuilder sb) {
+            appendEscaped(sb, input, start, end);
+            return;
+        }
+        int runStart = start;
+        for (int i = start; i < end; i++) {
             char c = input.charAt(i);
-            switch (c) {
-                case '\\': sb.append("\\\\"); break;
-                case '"': sb.append("\\\""); break;
-                case '\b': sb.append("\\b"); break;
-                case '\f': sb.append("\\f"); break;
-                case '\n': sb.append("\\n"); break;
-                case '\r': sb.append("\\r"); break;
-                case '\t': sb.append("\\t"); break;
-                default:
-                    if (c < 0x20) {
-                        sb.append(String.format("\\u%04x", (int) c));
-                    } else {
-                        sb.append(c);
-                    }
+            if (c < 128 && ESCAPES[c] != null) {
+                writeSlice(out, input, runStart, i);
+                out.append(ESCAPES[c]);
+                runStart = i + 1;
             }
         }
-        return sb.toString();
+        writeSlice(out, input, runStart, end);
+    }
+
+    /**
+     * Writes the escaped form of a string, see {@link #writeEscaped(Appendable, String, int, int)}.
+     */
+    public static void writeEscaped(@NotNull Appendable out, @NotNull String input) throws IOException {
+        writeEscaped(out, input, 0, input.length());
+    }
+
+    // same as writeEscaped, without IOException
+    private static void appendEscaped(StringBuilder sb, String input, int start, int end) {
+        int runStart = start;
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            if (c < 128 && ESCAPES[c] != null) {
+                sb.append(input, runStart, i).append(ESCAPES[c]);
+                runStart = i + 1;
+            }
+        }
+        sb.append(input, runStart, end);
+    }
+
+    private static void writeSlice(Appendable out, String input, int start, int end) throws IOException {
+        if (start == end) {
+            return;
+        }
+        if (out instanceof Writer writer) {
+            // Writer.append(CharSequence, int, int) would create a substring
+            writer.write(input, start, end - start);
+        } else {
+            out.append(input, start, end);
+        }
+    }
+
+    // index of the first char that needs escaping, -1 if none
+    private static int indexOfEscape(String input, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            if (c < 128 && ESCAPES[c] != null) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     /**
      * Formats a JSON string to be more readable, by adding indentation and new lines.
-     * @param jsonString the JSON string to format
+     * @param json the JSON string to format
      * @return formatted JSON string
      */
     public static String formatJson(String json) {
         if (json == null || json.isEmpty()) return json;
-        StringBuilder sb = new StringBuilder();
-        int indent = 0;
-        boolean inQuotes = false;
-        boolean escape = false;
-        for (int i = 0; i < json.length(); i++) {
-            char c = json.charAt(i);
+        StringWriter writer = new StringWriter(json.length() + json.length() / 2);
+        try {
+            formatJson(new StringReader(json), writer, true);
+        } catch (IOException e) {
+            // StringReader and StringWriter don't throw
+            throw new IllegalStateException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Removes the whitespace outside of strings from a JSON string.
+     * @param json the JSON string to minify
+     * @return minified JSON string
+     */
+    public static String minifyJson(String json) {
+        if (json == null || json.isEmpty()) return json;
+        StringWriter writer = new StringWriter(json.length());
+        try {
+            formatJson(new StringReader(json), writer, false);
+        } catch (IOException e) {
+            // StringReader and StringWriter don't throw
+            throw new IllegalStateException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Formats JSON text from a reader to a writer, with constant memory. The result is the same as {@link #formatJson(String)} in pretty mode,
+     * and {@link #minifyJson(String)} in compact mode. The writer is flushed, neither stream is closed.
+     * @param reader the JSON text
+     * @param writer the output
+     * @param pretty true to indent, false to remove all whitespace outside of strings
+     * @throws IOException if reading or writing fails
+     */
+    public static void formatJson(@NotNull Reader reader, @NotNull Writer writer, boolean pretty) throws IOException {
+        Writer out = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer, 64 * 1024);
+        JsonFormatter formatter = new JsonFormatter(out, pretty);
+        char[] buffer = new char[8192];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                formatter.accept(buffer[i]);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Formats UTF-8 JSON text from a channel to another channel, see {@link #formatJson(Reader, Writer, boolean)}. Neither channel is closed.
+     * @param input  the JSON text
+     * @param output the output
+     * @param pretty true to indent, false to remove all whitespace outside of strings
+     * @throws IOException if reading or writing fails
+     */
+    public static void formatJson(@NotNull ReadableByteChannel input, @NotNull WritableByteChannel output, boolean pretty) throws IOException {
+        formatJson(Channels.newReader(input, StandardCharsets.UTF_8), Channels.newWriter(output, StandardCharsets.UTF_8), pretty);
+    }
+
+    /**
+     * Formats a UTF-8 JSON file into another file, see {@link #formatJson(Reader, Writer, boolean)}. An existing output file is replaced.
+     * @param input  the JSON file
+     * @param output the file to write
+     * @param pretty true to indent, false to remove all whitespace outside of strings
+     * @throws IOException if reading or writing fails
+     */
+    public static void formatJsonFile(@NotNull Path input, @NotNull Path output, boolean pretty) throws IOException {
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            formatJson(in, out, pretty);
+        }
+    }
+
+    /**
+     * Formatting state, fed one char at a time, so the input never has to be in memory.
+     */
+    private static final class JsonFormatter {
+        private final Writer out;
+        private final boolean pretty;
+        private int indent = 0;
+        private boolean inQuotes = false;
+        private boolean escape = false;
+
+        private JsonFormatter(Writer out, boolean pretty) {
+            this.out = out;
+            this.pretty = pretty;
+        }
+
+        private void accept(char c) throws IOException {
             if (c == '\\' && !escape) {
                 escape = true;
-                sb.append(c);
-                continue;
+                out.write(c);
+                return;
             }
             if (c == '"' && !escape) {
                 inQuotes = !inQuotes;
             }
             escape = false;
-            if (!inQuotes) {
-                switch (c) {
-                    case '{':
-                    case '[':
-                        sb.append(c).append('\n');
-                        indent++;
-                        appendIndent(sb, indent);
-                        break;
-                    case '}':
-                    case ']':
-                        sb.append('\n');
-                        indent--;
-                        appendIndent(sb, indent);
-                        sb.append(c);
-                        break;
-                    case ',':
-                        sb.append(c).append('\n');
-                        appendIndent(sb, indent);
-                        break;
-                    case ':':
-                        sb.append(c).append(' ');
-                        break;
-                    default:
-                        if (!Character.isWhitespace(c)) {
-                            sb.append(c);
-                        }
-                }
-            } else {
-                sb.append(c);
+            if (inQuotes) {
+                out.write(c);
+                return;
+            }
+            switch (c) {
+                case '{':
+                case '[':
+                    out.write(c);
+                    indent++;
+                    newLine();
+                    break;
+                case '}':
+                case ']':
+                    indent--;
+                    newLine();
+                    out.write(c);
+                    break;
+                case ',':
+                    out.write(c);
+                    newLine();
+                    break;
+                case ':':
+                    out.write(c);
+                    if (pretty) {
+                        out.write(' ');
+                    }
+                    break;
+                default:
+                    if (!Character.isWhitespace(c)) {
+                        out.write(c);
+                    }
             }
         }
-        return sb.toString();
-    }
 
-    private static void appendIndent(StringBuilder sb, int indent) {
-        for (int i = 0; i < indent; i++) {
-            sb.append("    "); // 4 spaces per indent
+        private void newLine() throws IOException {
+            if (!pretty) {
+                return;
+            }
+            out.write('\n');
+            for (int i = 0; i < indent; i++) {
+                out.write("    "); // 4 spaces per indent
+            }
         }
     }
 }
@@ -0,0 +1,531 @@
+package javadev.stringcollections.textreplacor.io.json;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote Pull parser for JSON text, the reading counterpart of {@link JSONStreamWriter}.
+ * <p>
+ * The caller asks for the next token with {@link #peek()} and consumes it with the matching method, like {@link #beginObject()},
+ * {@link #nextName()} or {@link #nextString()}. Values that are not needed are passed over with {@link #skipValue()}.
+ * Only the current token is held in memory, so documents of any size can be read.
+ * <p>
+ * Several top-level values may follow each other, separated by whitespace, so JSON Lines (NDJSON) input is read the same way
+ * as a single document. {@link Token#END_DOCUMENT} is returned at the end of the input.
+ * <p>
+ * Malformed input is reported with an {@link IOException} that has the line and column. This class is not thread-safe.
+ * @since 2.1.0
+ */
+public class JSONStreamReader implements Closeable {
+
+    /**
+     * Token types returned by {@link #peek()}.
+     */
+    public enum Token {
+        BEGIN_OBJECT,
+        END_OBJECT,
+        BEGIN_ARRAY,
+        END_ARRAY,
+        NAME,
+        STRING,
+        NUMBER,
+        BOOLEAN,
+        NULL,
+        END_DOCUMENT
+    }
+
+    // scopes of the containers that are open, and what is expected next in them
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_ARRAY = 2;
+    private static final int NONEMPTY_ARRAY = 3;
+    private static final int EMPTY_OBJECT = 4;
+    private static final int NONEMPTY_OBJECT = 5;
+    private static final int DANGLING_NAME = 6;
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position = 0;
+    private int limit = 0;
+
+    // for error messages
+    private long line = 1;
+    private long lineStart = 0;
+    private long consumed = 0;
+
+    private int[] scopes = new int[32];
+    private int depth = 1;
+
+    private Token peeked = null;
+    // literal of a peeked number or boolean
+    private String peekedLiteral = null;
+    private final StringBuilder stringBuilder = new StringBuilder();
+
+    /**
+     * Creates a parser, the reader is closed by {@link #close()}.
+     *
+     * @param reader the JSON text
+     */
+    public JSONStreamReader(@NotNull Reader reader) {
+        this.reader = reader;
+        scopes[0] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Returns the type of the next token without consuming it.
+     *
+     * @return the next token
+     * @throws IOException if reading fails or the input is malformed
+     */
+    public @NotNull Token peek() throws IOException {
+        if (peeked == null) {
+            peeked = doPeek();
+        }
+        return peeked;
+    }
+
+    /**
+     * @return true if the current array or object has another element
+     * @throws IOException if reading fails or the input is malformed
+     */
+    public boolean hasNext() throws IOException {
+        Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    /**
+     * Consumes the start of an object.
+     */
+    public void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+    }
+
+    /**
+     * Consumes the end of the current object.
+     */
+    public void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+        depth--;
+    }
+
+    /**
+     * Consumes the start of an array.
+     */
+    public void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+    }
+
+    /**
+     * Consumes the end of the current array.
+     */
+    public void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+        depth--;
+    }
+
+    /**
+     * Consumes the name of the next member of the current object.
+     *
+     * @return the name
+     */
+    public @NotNull String nextName() throws IOException {
+        expect(Token.NAME);
+        return readString();
+    }
+
+    /**
+     * Consumes a string value. Numbers and booleans are returned as their literal text.
+     *
+     * @return the string
+     */
+    public @NotNull String nextString() throws IOException {
+        Token token = peek();
+        if (token == Token.NUMBER || token == Token.BOOLEAN) {
+            peeked = null;
+            return peekedLiteral;
+        }
+        expect(Token.STRING);
+        return readString();
+    }
+
+    /**
+     * Consumes a string value or null.
+     *
+     * @return the string, or null
+     */
+    public @Nullable String nextStringOrNull() throws IOException {
+        if (peek() == Token.NULL) {
+            nextNull();
+            return null;
+        }
+        return nextString();
+    }
+
+    /**
+     * Consumes a number value as long.
+     *
+     * @return the number
+     * @throws IOException if the value is not an integer in the long range
+     */
+    public long nextLong() throws IOException {
+        Token token = peek();
+        String literal = token == Token.STRING ? null : peekedLiteral;
+        if (token == Token.STRING) {
+            peeked = null;
+            literal = readString();
+        } else {
+            expect(Token.NUMBER);
+        }
+        try {
+            return Long.parseLong(literal);
+        } catch (NumberFormatException e) {
+            throw syntaxError("Expected an integer but was " + literal);
+        }
+    }
+
+    /**
+     * Consumes a number value as int.
+     *
+     * @return the number
+     * @throws IOException if the value is not an integer in the int range
+     */
+    public int nextInt() throws IOException {
+        long value = nextLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw syntaxError("Expected an int but was " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Consumes a boolean value.
+     *
+     * @return the boolean
+     */
+    public boolean nextBoolean() throws IOException {
+        expect(Token.BOOLEAN);
+        return peekedLiteral.equals("true");
+    }
+
+    /**
+     * Consumes a null value.
+     */
+    public void nextNull() throws IOException {
+        expect(Token.NULL);
+    }
+
+    /**
+     * Skips the next value, with everything nested in it. A name is skipped with its value.
+     */
+    public void skipValue() throws IOException {
+        int skipDepth = 0;
+        while (true) {
+            Token token = peek();
+            switch (token) {
+                case BEGIN_OBJECT -> {
+                    beginObject();
+                    skipDepth++;
+                }
+                case BEGIN_ARRAY -> {
+                    beginArray();
+                    skipDepth++;
+                }
+                case END_OBJECT -> {
+                    endObject();
+                    skipDepth--;
+                }
+                case END_ARRAY -> {
+                    endArray();
+                    skipDepth--;
+                }
+                case NAME -> {
+                    peeked = null;
+                    skipString();
+                    // the value of the name follows, skip it too
+                    continue;
+                }
+                case STRING -> {
+                    peeked = null;
+                    skipString();
+                }
+                case END_DOCUMENT -> throw syntaxError("No value to skip");
+                default -> peeked = null;
+            }
+            if (skipDepth <= 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Closes the underlying reader.
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void expect(Token expected) throws IOException {
+        Token token = peek();
+        if (token != expected) {
+            throw syntaxError("Expected " + expected + " but was " + token);
+        }
+        peeked = null;
+    }
+
+    private void push(int scope) {
+        if (depth == scopes.length) {
+            scopes = Arrays.copyOf(scopes, depth * 2);
+        }
+        scopes[depth++] = scope;
+    }
+
+    private Token doPeek() throws IOException {
+        int scope = scopes[depth - 1];
+        int c;
+        switch (scope) {
+            case EMPTY_ARRAY -> {
+                scopes[depth - 1] = NONEMPTY_ARRAY;
+                if (peekNonWhitespace() == ']') {
+                    read();
+                    return Token.END_ARRAY;
+                }
+            }
+            case NONEMPTY_ARRAY -> {
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    return Token.END_ARRAY;
+                }
+                if (c != ',') {
+                    throw syntaxError("Expected ',' or ']' in array");
+                }
+            }
+            case EMPTY_OBJECT, NONEMPTY_OBJECT -> {
+                c = nextNonWhitespace();
+                if (c == '}') {
+                    return Token.END_OBJECT;
+                }
+                if (scope == NONEMPTY_OBJECT) {
+                    if (c != ',') {
+                        throw syntaxError("Expected ',' or '}' in object");
+                    }
+                    c = nextNonWhitespace();
+                }
+                if (c != '"') {
+                    throw syntaxError("Expected a name in object");
+                }
+                scopes[depth - 1] = DANGLING_NAME;
+                return Token.NAME;
+            }
+            case DANGLING_NAME -> {
+                c = nextNonWhitespace();
+                if (c != ':') {
+                    throw syntaxError("Expected ':' after name");
+                }
+                scopes[depth - 1] = NONEMPTY_OBJECT;
+            }
+            default -> {
+                // top level, one or more values
+                if (peekNonWhitespace() == -1) {
+                    return Token.END_DOCUMENT;
+                }
+                scopes[depth - 1] = NONEMPTY_DOCUMENT;
+            }
+        }
+        return readValueToken();
+    }
+
+    private Token readValueToken() throws IOException {
+        int c = nextNonWhitespace();
+        switch (c) {
+            case '{':
+                return Token.BEGIN_OBJECT;
+            case '[':
+                return Token.BEGIN_ARRAY;
+            case '"':
+                return Token.STRING;
+            case 't':
+            case 'f':
+            case 'n':
+                String literal = readLiteral((char) c);
+                if (literal.equals("null")) {
+                    return Token.NULL;
+                }
+                if (!literal.equals("true") && !literal.equals("false")) {
+                    throw syntaxError("Unexpected literal " + literal);
+                }
+                peekedLiteral = literal;
+                return Token.BOOLEAN;
+            case -1:
+                throw syntaxError("Unexpected end of input");
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    peekedLiteral = readLiteral((char) c);
+                    return Token.NUMBER;
+                }
+                throw syntaxError("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    // reads the rest of a number or keyword
+    private String readLiteral(char first) throws IOException {
+        stringBuilder.setLength(0);
+        stringBuilder.append(first);
+        while (true) {
+            int c = peekChar();
+            if (c == -1 || !(Character.isLetterOrDigit(c) || c == '-' || c == '+' || c == '.')) {
+                break;
+            }
+            stringBuilder.append((char) read());
+        }
+        return stringBuilder.toString();
+    }
+
+    // reads a string after its opening quote
+    private String readString() throws IOException {
+        stringBuilder.setLength(0);
+        while (true) {
+            // copy the run up to the next quote or backslash in one step
+            int runStart = position;
+            while (position < limit) {
+                char c = buffer[position];
+                if (c == '"' || c == '\\') {
+                    break;
+                }
+                if (c == '\n') {
+                    newLine(consumed + position + 1 - runStart);
+                }
+                position++;
+            }
+            stringBuilder.append(buffer, runStart, position - runStart);
+            consumed += position - runStart;
+
+            int c = read();
+            if (c == -1) {
+                throw syntaxError("Unterminated string");
+            }
+            if (c == '"') {
+                return stringBuilder.toString();
+            }
+            if (c == '\\') {
+                stringBuilder.append(readEscape());
+            }
+        }
+    }
+
+    private void skipString() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw syntaxError("Unterminated string");
+            }
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                readEscape();
+            }
+        }
+    }
+
+    private char readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case '"':
+                return '"';
+            case '\\':
+                return '\\';
+            case '/':
+                return '/';
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(read(), 16);
+                    if (digit < 0) {
+                        throw syntaxError("Malformed unicode escape");
+                    }
+                    value = (value << 4) | digit;
+                }
+                return (char) value;
+            default:
+                throw syntaxError("Invalid escape sequence");
+        }
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        while (true) {
+            int c = read();
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                return c;
+            }
+        }
+    }
+
+    private int peekNonWhitespace() throws IOException {
+        while (true) {
+            int c = peekChar();
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                return c;
+            }
+            read();
+        }
+    }
+
+    // the next char without consuming it, -1 at the end of the input
+    private int peekChar() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        limit = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit <= 0) {
+            limit = 0;
+            return false;
+        }
+        return true;
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        char c = buffer[position++];
+        consumed++;
+        if (c == '\n') {
+            newLine(consumed);
+        }
+        return c;
+    }
+
+    private void newLine(long offsetAfterBreak) {
+        line++;
+        lineStart = offsetAfterBreak;
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException("Malformed JSON: " + message + " at line " + line + " column " + (consumed - lineStart + 1));
+    }
+}
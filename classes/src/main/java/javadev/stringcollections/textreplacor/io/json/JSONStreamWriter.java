@@ -0,0 +1,252 @@
+package javadev.stringcollections.textreplacor.io.json;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote Writes a JSON document token by token to a stream, so a large document never has to be built in memory.
+ * <p>
+ * In pretty mode the output is the same as {@link JSONObjectUtility#formatJson(String)} produces for the same document:
+ * 4 spaces per indent level, one element per line and <code>": "</code> after names. In compact mode no whitespace is written.
+ * <p>
+ * The output is buffered and encoded as UTF-8. Call {@link #close()} (or {@link #flush()}) to write the buffered data.
+ * This class is not thread-safe.
+ * @since 2.1.0
+ */
+public class JSONStreamWriter implements Closeable, Flushable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer writer;
+    private final boolean pretty;
+
+    // per open container: true if it is an object, and true until its first element is written
+    private boolean[] isObject = new boolean[16];
+    private boolean[] isEmpty = new boolean[16];
+    private int depth = 0;
+    private boolean afterName = false;
+
+    /**
+     * Creates a writer over an output stream, the stream is closed by {@link #close()}.
+     *
+     * @param outputStream the stream to write to
+     * @param pretty       true to indent the output like {@link JSONObjectUtility#formatJson(String)}, false for compact output
+     */
+    public JSONStreamWriter(@NotNull OutputStream outputStream, boolean pretty) {
+        this(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), pretty);
+    }
+
+    /**
+     * Creates a writer over a channel, the channel is closed by {@link #close()}.
+     *
+     * @param channel the channel to write to
+     * @param pretty  true to indent the output like {@link JSONObjectUtility#formatJson(String)}, false for compact output
+     */
+    public JSONStreamWriter(@NotNull WritableByteChannel channel, boolean pretty) {
+        this(Channels.newOutputStream(channel), pretty);
+    }
+
+    /**
+     * Creates a writer over a character writer, the writer is closed by {@link #close()}.
+     *
+     * @param writer the writer to write to
+     * @param pretty true to indent the output like {@link JSONObjectUtility#formatJson(String)}, false for compact output
+     */
+    public JSONStreamWriter(@NotNull Writer writer, boolean pretty) {
+        this.writer = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer, BUFFER_SIZE);
+        this.pretty = pretty;
+    }
+
+    /**
+     * Starts an object, as a value or as an element of an array.
+     */
+    public JSONStreamWriter beginObject() throws IOException {
+        return open(true, '{');
+    }
+
+    /**
+     * Ends the current object.
+     */
+    public JSONStreamWriter endObject() throws IOException {
+        return close(true, '}');
+    }
+
+    /**
+     * Starts an array, as a value or as an element of an array.
+     */
+    public JSONStreamWriter beginArray() throws IOException {
+        return open(false, '[');
+    }
+
+    /**
+     * Ends the current array.
+     */
+    public JSONStreamWriter endArray() throws IOException {
+        return close(false, ']');
+    }
+
+    /**
+     * Writes the name of the next member of the current object, must be followed by a value, an object or an array.
+     *
+     * @param name the member name, escaped by this method
+     */
+    public JSONStreamWriter name(@NotNull String name) throws IOException {
+        if (depth == 0 || !isObject[depth - 1] || afterName) {
+            throw new IllegalStateException("A name can only be written inside an object, before a value");
+        }
+        separate();
+        writeString(name);
+        writer.write(pretty ? ": " : ":");
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * Writes a string value, or null.
+     *
+     * @param value the value, escaped by this method
+     */
+    public JSONStreamWriter value(@Nullable String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    /**
+     * Writes a number value.
+     */
+    public JSONStreamWriter value(long value) throws IOException {
+        beforeValue();
+        writer.write(Long.toString(value));
+        return this;
+    }
+
+    /**
+     * Writes a boolean value.
+     */
+    public JSONStreamWriter value(boolean value) throws IOException {
+        beforeValue();
+        writer.write(value ? "true" : "false");
+        return this;
+    }
+
+    /**
+     * Writes a null value.
+     */
+    public JSONStreamWriter nullValue() throws IOException {
+        beforeValue();
+        writer.write("null");
+        return this;
+    }
+
+    /**
+     * Writes a line break after a complete top-level value, so the next value starts a new record (JSON Lines output).
+     */
+    public JSONStreamWriter endRecord() throws IOException {
+        if (depth != 0) {
+            throw new IllegalStateException("A record can only end after a complete top-level value");
+        }
+        writer.write('\n');
+        return this;
+    }
+
+    /**
+     * @return the number of containers that are started and not ended yet
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Writes the buffered data to the underlying stream and flushes it.
+     */
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Flushes and closes the underlying stream. Open containers are not ended.
+     */
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private JSONStreamWriter open(boolean object, char bracket) throws IOException {
+        beforeValue();
+        if (depth == isObject.length) {
+            isObject = Arrays.copyOf(isObject, depth * 2);
+            isEmpty = Arrays.copyOf(isEmpty, depth * 2);
+        }
+        isObject[depth] = object;
+        isEmpty[depth] = true;
+        depth++;
+
+        writer.write(bracket);
+        // formatJson breaks the line after every opening bracket, even for an empty container
+        newLine();
+        return this;
+    }
+
+    private JSONStreamWriter close(boolean object, char bracket) throws IOException {
+        if (depth == 0 || isObject[depth - 1] != object || afterName) {
+            throw new IllegalStateException("Nothing to end with '" + bracket + "'");
+        }
+        depth--;
+        newLine();
+        writer.write(bracket);
+        return this;
+    }
+
+    // writes the separator before a value, unless it follows a name
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth == 0) {
+            return;
+        }
+        if (isObject[depth - 1]) {
+            throw new IllegalStateException("A value inside an object needs a name");
+        }
+        separate();
+    }
+
+    private void separate() throws IOException {
+        if (isEmpty[depth - 1]) {
+            isEmpty[depth - 1] = false;
+        } else {
+            writer.write(',');
+            newLine();
+        }
+    }
+
+    private void newLine() throws IOException {
+        if (!pretty) {
+            return;
+        }
+        writer.write('\n');
+        for (int i = 0; i < depth; i++) {
+            writer.write("    "); // 4 spaces per indent, like formatJson
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        writer.write('"');
+        JSONObjectUtility.writeEscaped(writer, value);
+        writer.write('"');
+    }
+}
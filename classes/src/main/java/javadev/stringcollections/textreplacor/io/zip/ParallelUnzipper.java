@@ -0,0 +1,138 @@
+package javadev.stringcollections.textreplacor.io.zip;
+
+import javadev.stringcollections.textreplacor.io.ZipFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote Extracts a zip archive with the entries inflated in parallel.
+ * <p>
+ * The entries are read from the central directory with {@link java.util.zip.ZipFile}, which opens every entry at its own offset,
+ * so they don't have to be read in order like with {@link java.util.zip.ZipInputStream}. Every entry path is checked by
+ * {@link ZipFile#newFile(File, ZipEntry)} against zip slip before anything is written, then all directories are created,
+ * and the files are extracted by a thread pool, the largest first so one big entry doesn't finish alone at the end.
+ * @since 2.1.0
+ */
+public final class ParallelUnzipper {
+
+    // the largest read buffer of an entry, smaller entries get a buffer of their size
+    private static final int MAX_BUFFER_SIZE = 1024 * 1024;
+
+    // an entry, and the file it is extracted to
+    private record Target(ZipEntry entry, File file) {
+    }
+
+    /**
+     * Suppress default constructor for noninstantiability
+     */
+    private ParallelUnzipper() {
+        throw new AssertionError("No " + this.getClass().getName() + " instances for you!");
+    }
+
+    /**
+     * Extracts an archive to a directory. Existing files are replaced.
+     *
+     * @param zipFile     the archive
+     * @param destination the directory to extract to
+     * @param threadCount number of extracting threads
+     * @throws IOException if an entry is outside the destination, or the archive can't be read, or a file can't be written
+     */
+    public static void unzip(@NotNull File zipFile, @NotNull File destination, int threadCount) throws IOException {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("The thread count must be positive, got " + threadCount);
+        }
+        try (java.util.zip.ZipFile zip = new java.util.zip.ZipFile(zipFile)) {
+            // resolve and check every entry first, the last entry of a file wins like with the streaming unzip.
+            // Keyed by the canonical file, so names like a/b.txt and a//b.txt never have two writers
+            Map<File, Target> files = new LinkedHashMap<>();
+            TreeSet<File> directories = new TreeSet<>();
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                File file = ZipFile.newFile(destination, entry);
+                File canonicalFile = file.getCanonicalFile();
+                if (entry.isDirectory()) {
+                    files.remove(canonicalFile);
+                    directories.add(file);
+                } else {
+                    files.put(canonicalFile, new Target(entry, file));
+                    directories.add(file.getParentFile());
+                }
+            }
+
+            // before the workers start, so they never race on a parent
+            for (File directory : directories) {
+                if (!directory.isDirectory() && !directory.mkdirs()) {
+                    throw new IOException("Failed to create directory " + directory);
+                }
+            }
+
+            List<Target> targets = new ArrayList<>(files.values());
+            targets.sort(Comparator.comparingLong((Target target) -> target.entry().getSize()).reversed());
+            extract(zip, targets, threadCount);
+        }
+    }
+
+    private static void extract(java.util.zip.ZipFile zip, List<Target> targets, int threadCount) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threadCount, Math.max(1, targets.size())));
+        try {
+            List<Future<?>> futures = new ArrayList<>(targets.size());
+            for (Target target : targets) {
+                futures.add(executor.submit(() -> {
+                    extract(zip, target);
+                    return null;
+                }));
+            }
+            int index = 0;
+            for (Future<?> future : futures) {
+                Target target = targets.get(index++);
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while extracting: " + target.entry().getName(), e);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException ioException) {
+                        throw ioException;
+                    }
+                    throw new IOException("Error extracting: " + target.entry().getName(), e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // runs on a worker thread
+    private static void extract(java.util.zip.ZipFile zip, Target target) throws IOException {
+        long size = target.entry().getSize();
+        // the size is unknown (-1) for some archives
+        byte[] buffer = new byte[(int) (size < 0 ? MAX_BUFFER_SIZE : Math.max(1, Math.min(size, MAX_BUFFER_SIZE)))];
+        try (InputStream in = zip.getInputStream(target.entry());
+             OutputStream out = Files.newOutputStream(target.file().toPath())) {
+            int length;
+            while ((length = in.read(buffer)) > 0) {
+                out.write(buffer, 0, length);
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package javadev.stringcollections.textreplacor.io.zip;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote Zips a directory with the files deflated in parallel, like pigz does for gzip.
+ * <p>
+ * Every file is deflated by a worker thread into its own {@link SpillBuffer}, in memory up to {@link #SPILL_THRESHOLD} bytes and in a temporary
+ * file above it. The writer thread puts the entries in the archive in the order of the serial {@link javadev.stringcollections.textreplacor.io.ZipFile#zipDirectory(String, String)},
+ * so both produce the same entry names, in the same order. Only a window of files ahead of the writer is deflated at once, which bounds the memory and temporary files in use.
+ * <p>
+ * Files that are already compressed, by their extension ({@link #STORED_EXTENSIONS}) or because deflating didn't make them smaller, are stored without compression.
+ * @since 2.1.0
+ */
+public final class ParallelZipper {
+
+    /**
+     * Bytes of deflated data kept in memory per file, more is written to a temporary file.
+     */
+    public static final int SPILL_THRESHOLD = 1024 * 1024;
+
+    /**
+     * File extensions of compressed formats, stored as they are instead of being deflated again.
+     */
+    public static final Set<String> STORED_EXTENSIONS = Set.of(
+            "jpg", "jpeg", "png", "gif", "webp",
+            "zip", "jar", "war", "ear", "apk", "docx", "xlsx", "pptx",
+            "gz", "tgz", "bz2", "xz", "zst", "lz4", "7z", "rar",
+            "mp3", "mp4", "mkv", "avi", "mov", "woff", "woff2");
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    // a file to put in the archive, in archive order
+    private record Item(File file, String name, boolean directory) {
+    }
+
+    // the result of a worker, null buffer means the file is stored
+    private record Deflated(long crc, long size, SpillBuffer buffer) {
+    }
+
+    private record Pending(Item item, Future<Deflated> future) {
+    }
+
+    /**
+     * Suppress default constructor for noninstantiability
+     */
+    private ParallelZipper() {
+        throw new AssertionError("No " + this.getClass().getName() + " instances for you!");
+    }
+
+    /**
+     * Zips a file or a directory with all files and subdirectories. Hidden files are skipped.
+     *
+     * @param source      the file or directory to zip, its name is the root of the entry names
+     * @param destination the archive to write, replaced if it exists, deleted if zipping fails
+     * @param threadCount number of deflating threads
+     * @throws IOException if a file can't be read or the archive can't be written
+     */
+    public static void zip(@NotNull File source, @NotNull Path destination, int threadCount) throws IOException {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("The thread count must be positive, got " + threadCount);
+        }
+        List<Item> items = new ArrayList<>();
+        collect(source, source.getName(), items);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        // files deflated ahead of the writer
+        int window = threadCount * 4;
+        Deque<Pending> pending = new ArrayDeque<>();
+        boolean completed = false;
+        try (ZipArchiveWriter writer = new ZipArchiveWriter(destination)) {
+            for (Item item : items) {
+                Future<Deflated> future = null;
+                if (!item.directory() && !isStoredExtension(item.file())) {
+                    future = executor.submit(() -> deflate(item.file()));
+                }
+                pending.addLast(new Pending(item, future));
+                if (pending.size() >= window) {
+                    write(pending.removeFirst(), writer);
+                }
+            }
+            while (!pending.isEmpty()) {
+                write(pending.removeFirst(), writer);
+            }
+            completed = true;
+        } finally {
+            executor.shutdownNow();
+            if (!completed) {
+                discard(executor, pending);
+                Files.deleteIfExists(destination);
+            }
+        }
+    }
+
+    /**
+     * @param file the file
+     * @return true if the file extension is one of {@link #STORED_EXTENSIONS}
+     */
+    public static boolean isStoredExtension(@NotNull File file) {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 && STORED_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    // same traversal as ZipFile.zipFile
+    private static void collect(File file, String name, List<Item> items) {
+        if (file.isHidden()) {
+            return;
+        }
+        if (file.isDirectory()) {
+            items.add(new Item(file, name.endsWith("/") ? name : name + "/", true));
+            File[] children = file.listFiles();
+            if (children != null) {
+                for (File child : children) {
+                    collect(child, name + "/" + child.getName(), items);
+                }
+            }
+            return;
+        }
+        items.add(new Item(file, name, false));
+    }
+
+    private static void write(Pending pending, ZipArchiveWriter writer) throws IOException {
+        Item item = pending.item();
+        long lastModified = item.file().lastModified();
+        if (item.directory()) {
+            writer.putDirectory(item.name(), lastModified);
+            return;
+        }
+        Deflated deflated = pending.future() == null ? null : await(pending.future(), item);
+        if (deflated == null || deflated.buffer() == null) {
+            writer.putStored(item.name(), lastModified, item.file().toPath());
+            return;
+        }
+        try (SpillBuffer buffer = deflated.buffer()) {
+            writer.putDeflated(item.name(), lastModified, deflated.crc(), deflated.size(), buffer);
+        }
+    }
+
+    private static Deflated await(Future<Deflated> future, Item item) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while zipping: " + item.file(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Error zipping: " + item.file(), e.getCause());
+        }
+    }
+
+    // runs on a worker thread
+    private static Deflated deflate(File file) throws IOException {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        SpillBuffer buffer = new SpillBuffer(SPILL_THRESHOLD);
+        boolean kept = false;
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            CRC32 crc = new CRC32();
+            byte[] input = new byte[READ_BUFFER_SIZE];
+            byte[] output = new byte[READ_BUFFER_SIZE];
+            long size = 0;
+            int length;
+            while ((length = in.read(input)) >= 0) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new IOException("Interrupted while zipping: " + file);
+                }
+                crc.update(input, 0, length);
+                size += length;
+                deflater.setInput(input, 0, length);
+                while (!deflater.needsInput()) {
+                    int count = deflater.deflate(output);
+                    buffer.write(output, 0, count);
+                }
+            }
+            deflater.finish();
+            while (!deflater.finished()) {
+                int count = deflater.deflate(output);
+                buffer.write(output, 0, count);
+            }
+            // not smaller, store it
+            if (buffer.size() >= size) {
+                return new Deflated(crc.getValue(), size, null);
+            }
+            kept = true;
+            return new Deflated(crc.getValue(), size, buffer);
+        } finally {
+            deflater.end();
+            if (!kept) {
+                buffer.close();
+            }
+        }
+    }
+
+    // after a failure, deletes the temporary files of the files deflated ahead of the writer
+    private static void discard(ExecutorService executor, Deque<Pending> pending) {
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Pending entry : pending) {
+            Future<Deflated> future = entry.future();
+            if (future == null || !future.isDone() || future.isCancelled()) {
+                continue;
+            }
+            try {
+                Deflated deflated = future.get();
+                if (deflated.buffer() != null) {
+                    deflated.buffer().close();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | IOException ignored) {
+                // nothing to delete
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package javadev.stringcollections.textreplacor.io.zip;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote Holds bytes in memory up to a threshold, and spills them to a temporary file above it, so many buffers can be filled at once
+ * with a bounded memory use. {@link #close()} discards the content and deletes the temporary file.
+ * @since 2.1.0
+ */
+public final class SpillBuffer implements Closeable {
+
+    private final int threshold;
+    private byte[] memory = new byte[0];
+    private int memoryCount;
+    private Path spillFile;
+    private OutputStream spillOut;
+    private long size;
+
+    /**
+     * Creates an empty buffer.
+     *
+     * @param threshold the number of bytes kept in memory, more bytes are written to a temporary file
+     */
+    public SpillBuffer(int threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Appends bytes.
+     *
+     * @param bytes  the bytes
+     * @param offset the offset of the first byte
+     * @param length the number of bytes
+     * @throws IOException if the temporary file can't be written
+     */
+    public void write(@NotNull byte[] bytes, int offset, int length) throws IOException {
+        if (spillOut == null && memoryCount + length <= threshold) {
+            if (memoryCount + length > memory.length) {
+                memory = Arrays.copyOf(memory, Math.min(threshold, Math.max(memoryCount + length, memory.length * 2)));
+            }
+            System.arraycopy(bytes, offset, memory, memoryCount, length);
+            memoryCount += length;
+        } else {
+            if (spillOut == null) {
+                spillFile = Files.createTempFile("universal-string-replacer-", ".spill");
+                spillOut = new BufferedOutputStream(Files.newOutputStream(spillFile), 64 * 1024);
+                spillOut.write(memory, 0, memoryCount);
+                memory = null;
+            }
+            spillOut.write(bytes, offset, length);
+        }
+        size += length;
+    }
+
+    /**
+     * @return the number of bytes written
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Writes the content to a channel.
+     *
+     * @param channel the channel to write to
+     * @throws IOException if the content can't be read or written
+     */
+    public void writeTo(@NotNull WritableByteChannel channel) throws IOException {
+        if (spillOut == null) {
+            ByteBuffer buffer = ByteBuffer.wrap(memory, 0, memoryCount);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            return;
+        }
+        spillOut.flush();
+        try (FileChannel in = FileChannel.open(spillFile, StandardOpenOption.READ)) {
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, channel);
+            }
+        }
+    }
+
+    /**
+     * Discards the content, and deletes the temporary file if there is one.
+     *
+     * @throws IOException if the temporary file can't be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        memory = null;
+        if (spillOut != null) {
+            try {
+                spillOut.close();
+            } finally {
+                Files.deleteIfExists(spillFile);
+                spillOut = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package javadev.stringcollections.textreplacor.io.zip;
+
+import javadev.stringcollections.textreplacor.mimedetector.TextFileDetector;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote Opens decompressed content, a zip entry or a gzip file, only if it is text.
+ * The first decompressed bytes are classified with {@link TextFileDetector#isTextSample(byte[], int)}, and a text stream is returned
+ * from its first byte, so the content is decompressed once, while it is searched.
+ * @since 2.1.0
+ */
+public final class TextStreams {
+
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Suppress default constructor for noninstantiability
+     */
+    private TextStreams() {
+        throw new AssertionError("No " + this.getClass().getName() + " instances for you!");
+    }
+
+    /**
+     * Classifies a stream by its first bytes.
+     *
+     * @param in the stream, closed if it is not text
+     * @return a buffered stream from the first byte, or null if the content is binary or empty
+     * @throws IOException if the stream can't be read
+     */
+    public static @Nullable InputStream openIfText(@NotNull InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, STREAM_BUFFER_SIZE);
+        boolean text = false;
+        try {
+            buffered.mark(TextFileDetector.SAMPLE_SIZE);
+            byte[] sample = buffered.readNBytes(TextFileDetector.SAMPLE_SIZE);
+            buffered.reset();
+            text = TextFileDetector.isTextSample(sample, sample.length);
+            return text ? buffered : null;
+        } finally {
+            if (!text) {
+                buffered.close();
+            }
+        }
+    }
+
+    /**
+     * Opens the decompressed content of a gzip file, see {@link TextFileDetector#isGzipFile(java.nio.file.Path)}.
+     * Files with many gzip members, like concatenated logs, are read as one stream.
+     *
+     * @param file the gzip file
+     * @return the decompressed text, or null if it is binary or empty
+     * @throws IOException if the file can't be read or is not gzip
+     */
+    public static @Nullable InputStream openGzipIfText(@NotNull File file) throws IOException {
+        InputStream raw = Files.newInputStream(file.toPath());
+        try {
+            return openIfText(new GZIPInputStream(raw, STREAM_BUFFER_SIZE));
+        } catch (IOException e) {
+            raw.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package javadev.stringcollections.textreplacor.io.zip;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote Reads the text entries of a zip archive, like a jar, without extracting them.
+ * <p>
+ * The entries are listed from the central directory with {@link java.util.zip.ZipFile}, so they can be opened in any order and by many threads at once.
+ * {@link #openTextEntry(ZipEntry)} inflates the first bytes of an entry and classifies them with {@link TextStreams#openIfText(InputStream)},
+ * a text entry is then read on from the same stream, so nothing is inflated twice.
+ * An entry is reported as <code>archive!/entry</code>, see {@link #entryFile(File, String)}.
+ * @since 2.1.0
+ */
+public final class ZipArchiveReader implements Closeable {
+
+    /**
+     * File extensions of the zip archives that are read.
+     */
+    public static final Set<String> ARCHIVE_EXTENSIONS = Set.of("zip", "jar", "war", "ear");
+
+    /**
+     * Separator between the archive path and the entry name.
+     */
+    public static final String ENTRY_SEPARATOR = "!/";
+
+    private final java.util.zip.ZipFile zip;
+
+    /**
+     * Opens an archive and reads its central directory.
+     *
+     * @param archive the archive
+     * @throws IOException if the file is not a zip archive, or can't be read
+     */
+    public ZipArchiveReader(@NotNull File archive) throws IOException {
+        this.zip = new java.util.zip.ZipFile(archive);
+    }
+
+    /**
+     * @param file the file
+     * @return true if the file extension is one of {@link #ARCHIVE_EXTENSIONS}
+     */
+    public static boolean isArchive(@NotNull File file) {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 && ARCHIVE_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @param archive   the archive
+     * @param entryName the entry name
+     * @return the file an entry is reported as, <code>archive!/entry</code> with the absolute path of the archive
+     */
+    public static @NotNull File entryFile(@NotNull File archive, @NotNull String entryName) {
+        return new File(archive.getAbsolutePath() + ENTRY_SEPARATOR + entryName);
+    }
+
+    /**
+     * @return the entries that are not directories and not empty, in the order of the central directory
+     */
+    public @NotNull List<ZipEntry> fileEntries() {
+        List<ZipEntry> entries = new ArrayList<>();
+        Enumeration<? extends ZipEntry> enumeration = zip.entries();
+        while (enumeration.hasMoreElements()) {
+            ZipEntry entry = enumeration.nextElement();
+            // empty files are skipped like on disk
+            if (!entry.isDirectory() && entry.getSize() != 0) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Opens an entry if it is text. Safe to call from many threads at once.
+     *
+     * @param entry an entry of this archive
+     * @return the inflated content from its first byte, or null if the entry is binary
+     * @throws IOException if the entry can't be read
+     */
+    public @Nullable InputStream openTextEntry(@NotNull ZipEntry entry) throws IOException {
+        return TextStreams.openIfText(zip.getInputStream(entry));
+    }
+
+    /**
+     * Closes the archive, the streams opened from it are closed too.
+     *
+     * @throws IOException if the archive can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        zip.close();
+    }
+}
@@ -0,0 +1,499 @@
+package javadev.stringcollections.textreplacor.io.zip;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote Writes a zip archive from entries that are already compressed. {@link java.util.zip.ZipOutputStream} compresses what is written to it,
+ * so it can't take entries deflated by other threads, this writer takes the CRC-32, the sizes and the deflated bytes of each entry instead.
+ * <p>
+ * Entries are written in the order they are put, with UTF-8 names. ZIP64 records are added only when a size, an offset or the number of entries
+ * needs them, so small archives are readable by every zip tool.
+ * Entries of another archive can be copied compressed with {@link #putRaw(ZipCentralDirectory.Entry, FileChannel)}, with their original headers,
+ * comments and central directory order. Their ZIP64 extra fields are dropped when they are read, and added again from the sizes and the offset
+ * they have in this archive.
+ * @since 2.1.0
+ */
+public final class ZipArchiveWriter implements Closeable {
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+    private static final int ZIP64_MAGIC_COUNT = 0xFFFF;
+    // names are UTF-8
+    private static final int FLAG_UTF8 = 0x0800;
+    private static final int VERSION_DEFAULT = 20;
+    private static final int VERSION_ZIP64 = 45;
+    private static final int COPY_BUFFER_SIZE = 1024 * 1024;
+
+    private static final int DATA_DESCRIPTOR_SIGNATURE = 0x08074b50;
+    // sizes in a data descriptor after the data
+    private static final int FLAG_DATA_DESCRIPTOR = 0x0008;
+    private static final byte[] NO_EXTRA = new byte[0];
+    // the entries written by this writer are listed after the copied ones, in the order they are put
+    private static final int ORDER_PUT = Integer.MAX_VALUE;
+
+    // the fields of an entry, written in its local header and in the central directory, which is sorted by order
+    private record CentralEntry(byte[] name, int versionMadeBy, int versionNeeded, int flags, int method, int dosTime, long crc,
+                                long compressedSize, long size, long offset, int internalAttributes, int externalAttributes,
+                                byte[] localExtra, byte[] centralExtra, byte[] comment, int order) {
+
+        // an entry written by this writer
+        CentralEntry(byte[] name, int method, int dosTime, long crc, long compressedSize, long size, long offset, boolean directory) {
+            this(name, VERSION_DEFAULT, VERSION_DEFAULT, FLAG_UTF8, method, dosTime, crc, compressedSize, size, offset,
+                    0, directory ? 0x10 : 0, NO_EXTRA, NO_EXTRA, NO_EXTRA, ORDER_PUT);
+        }
+
+        // an entry of another archive, at its position there
+        CentralEntry(ZipCentralDirectory.Entry entry, int flags, long crc, long compressedSize, long size, long offset, byte[] localExtra) {
+            this(entry.rawName(), entry.versionMadeBy(), entry.versionNeeded(), flags, entry.method(), entry.dosTime(), crc,
+                    compressedSize, size, offset, entry.internalAttributes(), entry.externalAttributes(),
+                    localExtra, entry.extra(), entry.comment(), entry.index());
+        }
+
+        CentralEntry withData(long crc, long compressedSize, long size) {
+            return new CentralEntry(name, versionMadeBy, versionNeeded, flags, method, dosTime, crc, compressedSize, size, offset,
+                    internalAttributes, externalAttributes, localExtra, centralExtra, comment, order);
+        }
+    }
+
+    private final FileChannel channel;
+    // the channel everything is written to, it updates the digest if there is one
+    private final WritableByteChannel out;
+    private final List<CentralEntry> entries = new ArrayList<>();
+    // a central header with a name, extra fields and a comment of up to 64 KB each
+    private final ByteBuffer header = ByteBuffer.allocate(256 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+    private byte[] comment = NO_EXTRA;
+    private boolean closed;
+
+    /**
+     * Creates the archive, an existing file is replaced.
+     *
+     * @param destination the archive to write
+     * @throws IOException if the file can't be created
+     */
+    public ZipArchiveWriter(@NotNull Path destination) throws IOException {
+        this(destination, null);
+    }
+
+    /**
+     * Creates the archive, an existing file is replaced. The digest is updated with every byte of the archive, in order,
+     * so the archive doesn't need to be read again to digest it. {@link #putStored(String, long, Path)} can't be used with a digest.
+     *
+     * @param destination the archive to write
+     * @param digest      the digest of the archive, or null
+     * @throws IOException if the file can't be created
+     */
+    public ZipArchiveWriter(@NotNull Path destination, @Nullable MessageDigest digest) throws IOException {
+        this.channel = FileChannel.open(destination, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.out = digest == null ? channel : new DigestChannel(channel, digest);
+    }
+
+    /**
+     * Sets the comment of the archive, written after the central directory. Default is no comment.
+     *
+     * @param comment the comment bytes, up to 65535
+     * @throws IllegalArgumentException if the comment is too long
+     */
+    public void setComment(@NotNull byte[] comment) {
+        if (comment.length > 0xFFFF) {
+            throw new IllegalArgumentException("The archive comment is too long: " + comment.length);
+        }
+        this.comment = comment;
+    }
+
+    /**
+     * Adds a directory entry.
+     *
+     * @param name         the entry name, a trailing / is added if missing
+     * @param lastModified the modification time, in milliseconds since the epoch
+     * @throws IOException if the archive can't be written
+     */
+    public void putDirectory(@NotNull String name, long lastModified) throws IOException {
+        String directoryName = name.endsWith("/") ? name : name + "/";
+        long offset = channel.position();
+        CentralEntry entry = new CentralEntry(directoryName.getBytes(StandardCharsets.UTF_8), ZipEntry.STORED, toDosTime(lastModified),
+                0, 0, 0, offset, true);
+        writeLocalHeader(entry);
+        entries.add(entry);
+    }
+
+    /**
+     * Adds an entry deflated by the caller, with a raw {@link java.util.zip.Deflater} (<code>nowrap</code> true).
+     *
+     * @param name         the entry name
+     * @param lastModified the modification time, in milliseconds since the epoch
+     * @param crc          the CRC-32 of the uncompressed bytes
+     * @param size         the number of uncompressed bytes
+     * @param deflated     the deflated bytes
+     * @throws IOException if the archive can't be written
+     */
+    public void putDeflated(@NotNull String name, long lastModified, long crc, long size, @NotNull SpillBuffer deflated) throws IOException {
+        long offset = channel.position();
+        CentralEntry entry = new CentralEntry(name.getBytes(StandardCharsets.UTF_8), ZipEntry.DEFLATED, toDosTime(lastModified),
+                crc, deflated.size(), size, offset, false);
+        writeLocalHeader(entry);
+        deflated.writeTo(out);
+        entries.add(entry);
+    }
+
+    /**
+     * Adds a file without compression, for content that doesn't get smaller. The CRC-32 is computed while the file is copied.
+     *
+     * @param name         the entry name
+     * @param lastModified the modification time, in milliseconds since the epoch
+     * @param file         the file to store
+     * @throws IOException if the file can't be read, if its size changes while it is copied, or if the archive can't be written
+     * @throws IllegalStateException if the archive is digested, the CRC-32 is written after the data
+     */
+    public void putStored(@NotNull String name, long lastModified, @NotNull Path file) throws IOException {
+        if (out != channel) {
+            throw new IllegalStateException("A stored file can't be put in a digested archive: " + file);
+        }
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+            long offset = channel.position();
+            // stored, so both sizes are known, only the CRC is patched after the copy
+            CentralEntry entry = new CentralEntry(name.getBytes(StandardCharsets.UTF_8), ZipEntry.STORED, toDosTime(lastModified),
+                    0, size, size, offset, false);
+            writeLocalHeader(entry);
+
+            CRC32 crc = new CRC32();
+            ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(COPY_BUFFER_SIZE, Math.max(1, size)));
+            long copied = 0;
+            while (in.read(buffer) > 0) {
+                buffer.flip();
+                copied += buffer.remaining();
+                if (copied > size) {
+                    throw new IOException("File changed while it was zipped: " + file);
+                }
+                crc.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                buffer.clear();
+            }
+            if (copied != size) {
+                throw new IOException("File changed while it was zipped: " + file);
+            }
+
+            long end = channel.position();
+            ByteBuffer crcBytes = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt((int) crc.getValue()).flip();
+            channel.write(crcBytes, offset + 14);
+            channel.position(end);
+            entries.add(entry.withData(crc.getValue(), size, size));
+        }
+    }
+
+    /**
+     * Copies an entry of another archive as it is, compressed, so it is not inflated and deflated again.
+     * The name, time, versions, attributes, extra fields and comment are kept, and the entry is listed in the central directory
+     * at its {@link ZipCentralDirectory.Entry#index()}.
+     *
+     * @param entry  the entry, from {@link ZipCentralDirectory#read(FileChannel)} of the source
+     * @param source the archive the entry is read from
+     * @throws IOException if the source can't be read or the archive can't be written
+     */
+    public void putRaw(@NotNull ZipCentralDirectory.Entry entry, @NotNull FileChannel source) throws IOException {
+        ZipCentralDirectory.LocalHeader localHeader = ZipCentralDirectory.readLocalHeader(source, entry);
+        CentralEntry centralEntry = writeRawHeader(entry, localHeader);
+        long position = localHeader.dataOffset();
+        long end = position + entry.compressedSize();
+        while (position < end) {
+            long transferred = source.transferTo(position, end - position, out);
+            if (transferred <= 0) {
+                throw new IOException("Unexpected end of the archive in entry: " + entry.name());
+            }
+            position += transferred;
+        }
+        writeRawEnd(centralEntry);
+    }
+
+    /**
+     * Copies an entry of another archive as it is, like {@link #putRaw(ZipCentralDirectory.Entry, FileChannel)},
+     * from a channel that is read in order, so the source archive can be read once.
+     *
+     * @param entry       the entry, from {@link ZipCentralDirectory#read(FileChannel)} of the source
+     * @param localHeader the local header of the entry, from {@link ZipCentralDirectory#readLocalHeader(FileChannel, ZipCentralDirectory.Entry)}
+     * @param data        the compressed bytes of the entry, the next {@link ZipCentralDirectory.Entry#compressedSize()} bytes are read
+     * @throws IOException if the data can't be read or the archive can't be written
+     */
+    public void putRaw(@NotNull ZipCentralDirectory.Entry entry, @NotNull ZipCentralDirectory.LocalHeader localHeader,
+                       @NotNull ReadableByteChannel data) throws IOException {
+        CentralEntry centralEntry = writeRawHeader(entry, localHeader);
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(COPY_BUFFER_SIZE, Math.max(1, entry.compressedSize())));
+        long remaining = entry.compressedSize();
+        while (remaining > 0) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), remaining));
+            if (data.read(buffer) < 0) {
+                throw new IOException("Unexpected end of the archive in entry: " + entry.name());
+            }
+            buffer.flip();
+            remaining -= buffer.remaining();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        }
+        writeRawEnd(centralEntry);
+    }
+
+    // the header of a copied entry, its offset and ZIP64 field are the ones of this archive
+    private CentralEntry writeRawHeader(ZipCentralDirectory.Entry entry, ZipCentralDirectory.LocalHeader localHeader) throws IOException {
+        CentralEntry centralEntry = new CentralEntry(entry, entry.flags(), entry.crc(), entry.compressedSize(), entry.size(), channel.position(),
+                localHeader.extra());
+        writeLocalHeader(centralEntry);
+        return centralEntry;
+    }
+
+    private void writeRawEnd(CentralEntry centralEntry) throws IOException {
+        // encrypted entries may need it, keep it
+        if ((centralEntry.flags() & FLAG_DATA_DESCRIPTOR) != 0) {
+            writeDataDescriptor(centralEntry);
+        }
+        entries.add(centralEntry);
+    }
+
+    /**
+     * Puts new content for an entry of another archive, with its name, time, versions, attributes, extra fields and comment,
+     * listed in the central directory at its {@link ZipCentralDirectory.Entry#index()}.
+     *
+     * @param entry       the entry, from {@link ZipCentralDirectory#read(FileChannel)} of the source
+     * @param localHeader the local header of the entry, from {@link ZipCentralDirectory#readLocalHeader(FileChannel, ZipCentralDirectory.Entry)}
+     * @param crc         the CRC-32 of the new uncompressed bytes
+     * @param size        the number of new uncompressed bytes
+     * @param data        the new bytes, deflated with a raw {@link java.util.zip.Deflater} if the entry is deflated, as they are if it is stored
+     * @throws IOException if the archive can't be written
+     */
+    public void putRewritten(@NotNull ZipCentralDirectory.Entry entry, @NotNull ZipCentralDirectory.LocalHeader localHeader,
+                             long crc, long size, @NotNull SpillBuffer data) throws IOException {
+        // the sizes are known, no data descriptor
+        CentralEntry centralEntry = new CentralEntry(entry, entry.flags() & ~FLAG_DATA_DESCRIPTOR, crc, data.size(), size, channel.position(),
+                localHeader.extra());
+        writeLocalHeader(centralEntry);
+        data.writeTo(out);
+        entries.add(centralEntry);
+    }
+
+    /**
+     * Writes the central directory and closes the archive.
+     *
+     * @throws IOException if the archive can't be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (channel) {
+            long centralOffset = channel.position();
+            // stable, the entries written by this writer keep their order
+            entries.sort(Comparator.comparingInt(CentralEntry::order));
+            for (CentralEntry entry : entries) {
+                writeCentralHeader(entry);
+            }
+            long centralSize = channel.position() - centralOffset;
+            writeEnd(centralOffset, centralSize);
+        }
+    }
+
+    private void writeLocalHeader(CentralEntry entry) throws IOException {
+        boolean zip64 = isLocalZip64(entry);
+        header.clear();
+        header.putInt(LOCAL_HEADER_SIGNATURE);
+        header.putShort((short) (zip64 ? Math.max(VERSION_ZIP64, entry.versionNeeded()) : entry.versionNeeded()));
+        header.putShort((short) entry.flags());
+        header.putShort((short) entry.method());
+        header.putInt(entry.dosTime());
+        header.putInt((int) entry.crc());
+        header.putInt((int) (zip64 ? ZIP64_MAGIC : entry.compressedSize()));
+        header.putInt((int) (zip64 ? ZIP64_MAGIC : entry.size()));
+        header.putShort((short) entry.name().length);
+        header.putShort((short) ((zip64 ? 20 : 0) + entry.localExtra().length));
+        header.put(entry.name());
+        if (zip64) {
+            // the local ZIP64 extra has both sizes
+            header.putShort((short) ZIP64_EXTRA_ID);
+            header.putShort((short) 16);
+            header.putLong(entry.size());
+            header.putLong(entry.compressedSize());
+        }
+        header.put(entry.localExtra());
+        flushHeader();
+    }
+
+    private void writeDataDescriptor(CentralEntry entry) throws IOException {
+        header.clear();
+        header.putInt(DATA_DESCRIPTOR_SIGNATURE);
+        header.putInt((int) entry.crc());
+        if (isLocalZip64(entry)) {
+            header.putLong(entry.compressedSize());
+            header.putLong(entry.size());
+        } else {
+            header.putInt((int) entry.compressedSize());
+            header.putInt((int) entry.size());
+        }
+        flushHeader();
+    }
+
+    private static boolean isLocalZip64(CentralEntry entry) {
+        return entry.size() >= ZIP64_MAGIC || entry.compressedSize() >= ZIP64_MAGIC;
+    }
+
+    private void writeCentralHeader(CentralEntry entry) throws IOException {
+        boolean sizeOverflow = entry.size() >= ZIP64_MAGIC;
+        boolean compressedOverflow = entry.compressedSize() >= ZIP64_MAGIC;
+        boolean offsetOverflow = entry.offset() >= ZIP64_MAGIC;
+        // the central ZIP64 extra has only the fields that overflow, in this order
+        int extraLength = (sizeOverflow ? 8 : 0) + (compressedOverflow ? 8 : 0) + (offsetOverflow ? 8 : 0);
+        int version = extraLength > 0 ? Math.max(VERSION_ZIP64, entry.versionNeeded()) : entry.versionNeeded();
+
+        header.clear();
+        header.putInt(CENTRAL_HEADER_SIGNATURE);
+        // the host system of the attributes is in the high byte
+        header.putShort((short) ((entry.versionMadeBy() & 0xFF00) | Math.max(version, entry.versionMadeBy() & 0xFF)));
+        header.putShort((short) version);
+        header.putShort((short) entry.flags());
+        header.putShort((short) entry.method());
+        header.putInt(entry.dosTime());
+        header.putInt((int) entry.crc());
+        header.putInt((int) (compressedOverflow ? ZIP64_MAGIC : entry.compressedSize()));
+        header.putInt((int) (sizeOverflow ? ZIP64_MAGIC : entry.size()));
+        header.putShort((short) entry.name().length);
+        header.putShort((short) ((extraLength > 0 ? extraLength + 4 : 0) + entry.centralExtra().length));
+        header.putShort((short) entry.comment().length);
+        // disk number
+        header.putShort((short) 0);
+        header.putShort((short) entry.internalAttributes());
+        header.putInt(entry.externalAttributes());
+        header.putInt((int) (offsetOverflow ? ZIP64_MAGIC : entry.offset()));
+        header.put(entry.name());
+        if (extraLength > 0) {
+            header.putShort((short) ZIP64_EXTRA_ID);
+            header.putShort((short) extraLength);
+            if (sizeOverflow) {
+                header.putLong(entry.size());
+            }
+            if (compressedOverflow) {
+                header.putLong(entry.compressedSize());
+            }
+            if (offsetOverflow) {
+                header.putLong(entry.offset());
+            }
+        }
+        header.put(entry.centralExtra());
+        header.put(entry.comment());
+        flushHeader();
+    }
+
+    private void writeEnd(long centralOffset, long centralSize) throws IOException {
+        long count = entries.size();
+        boolean zip64 = count >= ZIP64_MAGIC_COUNT || centralOffset >= ZIP64_MAGIC || centralSize >= ZIP64_MAGIC;
+        header.clear();
+        if (zip64) {
+            long zip64EndOffset = centralOffset + centralSize;
+            header.putInt(ZIP64_END_SIGNATURE);
+            // size of the rest of the record
+            header.putLong(44);
+            header.putShort((short) VERSION_ZIP64);
+            header.putShort((short) VERSION_ZIP64);
+            header.putInt(0);
+            header.putInt(0);
+            header.putLong(count);
+            header.putLong(count);
+            header.putLong(centralSize);
+            header.putLong(centralOffset);
+
+            header.putInt(ZIP64_LOCATOR_SIGNATURE);
+            header.putInt(0);
+            header.putLong(zip64EndOffset);
+            header.putInt(1);
+        }
+        header.putInt(END_SIGNATURE);
+        header.putShort((short) 0);
+        header.putShort((short) 0);
+        header.putShort((short) Math.min(count, ZIP64_MAGIC_COUNT));
+        header.putShort((short) Math.min(count, ZIP64_MAGIC_COUNT));
+        header.putInt((int) Math.min(centralSize, ZIP64_MAGIC));
+        header.putInt((int) Math.min(centralOffset, ZIP64_MAGIC));
+        header.putShort((short) comment.length);
+        header.put(comment);
+        flushHeader();
+    }
+
+    private void flushHeader() throws IOException {
+        header.flip();
+        while (header.hasRemaining()) {
+            out.write(header);
+        }
+    }
+
+    // MS-DOS date and time, local time with a two seconds precision, the date in the high 16 bits
+    private static int toDosTime(long lastModified) {
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(lastModified), ZoneId.systemDefault());
+        if (time.getYear() < 1980) {
+            return (1 << 21) | (1 << 16);
+        }
+        if (time.getYear() > 2107) {
+            time = LocalDateTime.of(2107, 12, 31, 23, 59, 58);
+        }
+        return (time.getYear() - 1980) << 25 | time.getMonthValue() << 21 | time.getDayOfMonth() << 16
+                | time.getHour() << 11 | time.getMinute() << 5 | time.getSecond() >> 1;
+    }
+
+    // writes to the archive, and digests what is written
+    private static final class DigestChannel implements WritableByteChannel {
+
+        private final FileChannel channel;
+        private final MessageDigest digest;
+
+        DigestChannel(FileChannel channel, MessageDigest digest) {
+            this.channel = channel;
+            this.digest = digest;
+        }
+
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            ByteBuffer written = source.duplicate();
+            int count = channel.write(source);
+            digest.update(written.limit(written.position() + count));
+            return count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
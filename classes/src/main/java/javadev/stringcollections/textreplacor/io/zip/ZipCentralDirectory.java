@@ -0,0 +1,283 @@
+package javadev.stringcollections.textreplacor.io.zip;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipException;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote Reads the central directory of a zip archive, with the raw header fields of every entry and the offset of its compressed data.
+ * {@link java.util.zip.ZipFile} only gives the inflated content of an entry, this gives what is needed to copy an entry to another archive
+ * with {@link ZipArchiveWriter#putRaw(Entry, FileChannel)}, without inflating and deflating it again. ZIP64 archives are supported.
+ * @since 2.1.0
+ */
+public final class ZipCentralDirectory {
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+    private static final int END_SIZE = 22;
+    private static final int LOCATOR_SIZE = 20;
+    private static final int LOCAL_HEADER_SIZE = 30;
+
+    /**
+     * An entry of the central directory.
+     *
+     * @param name               the entry name, decoded as UTF-8 like {@link java.util.zip.ZipFile} does
+     * @param rawName            the entry name bytes
+     * @param versionMadeBy      the version made by field, with the host system in the high byte
+     * @param versionNeeded      the version needed to extract
+     * @param flags              the general purpose flags
+     * @param method             the compression method, {@link java.util.zip.ZipEntry#STORED} or {@link java.util.zip.ZipEntry#DEFLATED} for the common ones
+     * @param dosTime            the MS-DOS time and date, the date in the high 16 bits
+     * @param crc                the CRC-32 of the uncompressed bytes
+     * @param compressedSize     the number of compressed bytes
+     * @param size               the number of uncompressed bytes
+     * @param internalAttributes the internal attributes, bit 0 is set for text
+     * @param externalAttributes the external attributes, for example unix permissions
+     * @param localHeaderOffset  the offset of the local header
+     * @param extra              the extra fields of the central header, without the ZIP64 field
+     * @param comment            the entry comment bytes
+     * @param index              the position of the entry in the central directory
+     */
+    public record Entry(@NotNull String name, @NotNull byte[] rawName, int versionMadeBy, int versionNeeded, int flags, int method, int dosTime,
+                        long crc, long compressedSize, long size, int internalAttributes, int externalAttributes, long localHeaderOffset,
+                        @NotNull byte[] extra, @NotNull byte[] comment, int index) {
+
+        /**
+         * @return true if the entry is a directory
+         */
+        public boolean isDirectory() {
+            return name.endsWith("/");
+        }
+
+        /**
+         * @return true if the entry is encrypted
+         */
+        public boolean isEncrypted() {
+            return (flags & 1) != 0;
+        }
+    }
+
+    /**
+     * The local header of an entry.
+     *
+     * @param dataOffset the offset of the compressed data
+     * @param extra      the extra fields of the local header, without the ZIP64 field
+     */
+    public record LocalHeader(long dataOffset, @NotNull byte[] extra) {
+    }
+
+    /**
+     * Suppress default constructor for noninstantiability
+     */
+    private ZipCentralDirectory() {
+        throw new AssertionError("No " + this.getClass().getName() + " instances for you!");
+    }
+
+    /**
+     * Reads the entries of an archive.
+     *
+     * @param channel the archive
+     * @return the entries, in the order of the central directory
+     * @throws IOException if the archive can't be read, or is not a zip archive
+     */
+    public static @NotNull List<Entry> read(@NotNull FileChannel channel) throws IOException {
+        long fileSize = channel.size();
+        int tailSize = (int) Math.min(fileSize, END_SIZE + 0xFFFF);
+        ByteBuffer tail = readFully(channel, fileSize - tailSize, tailSize);
+        int endPosition = findEnd(tail);
+
+        long count = Short.toUnsignedInt(tail.getShort(endPosition + 10));
+        long centralSize = Integer.toUnsignedLong(tail.getInt(endPosition + 12));
+        long centralOffset = Integer.toUnsignedLong(tail.getInt(endPosition + 16));
+        long endOffset = fileSize - tailSize + endPosition;
+        if (endOffset >= LOCATOR_SIZE) {
+            ByteBuffer locator = readFully(channel, endOffset - LOCATOR_SIZE, LOCATOR_SIZE);
+            if (locator.getInt(0) == ZIP64_LOCATOR_SIGNATURE) {
+                ByteBuffer zip64End = readFully(channel, locator.getLong(8), 56);
+                if (zip64End.getInt(0) != ZIP64_END_SIGNATURE) {
+                    throw new ZipException("Invalid ZIP64 end of central directory");
+                }
+                count = zip64End.getLong(32);
+                centralSize = zip64End.getLong(40);
+                centralOffset = zip64End.getLong(48);
+            }
+        }
+        if (centralSize > Integer.MAX_VALUE || centralOffset + centralSize > fileSize) {
+            throw new ZipException("Invalid central directory");
+        }
+
+        ByteBuffer central = readFully(channel, centralOffset, (int) centralSize);
+        List<Entry> entries = new ArrayList<>((int) Math.min(count, 1 << 16));
+        int position = 0;
+        for (long i = 0; i < count; i++) {
+            if (position + 46 > central.limit() || central.getInt(position) != CENTRAL_HEADER_SIGNATURE) {
+                throw new ZipException("Invalid central directory header");
+            }
+            int nameLength = Short.toUnsignedInt(central.getShort(position + 28));
+            int extraLength = Short.toUnsignedInt(central.getShort(position + 30));
+            int commentLength = Short.toUnsignedInt(central.getShort(position + 32));
+            if (position + 46 + nameLength + extraLength + commentLength > central.limit()) {
+                throw new ZipException("Invalid central directory header");
+            }
+            byte[] rawName = new byte[nameLength];
+            central.get(position + 46, rawName);
+            byte[] extra = new byte[extraLength];
+            central.get(position + 46 + nameLength, extra);
+            byte[] comment = new byte[commentLength];
+            central.get(position + 46 + nameLength + extraLength, comment);
+
+            long compressedSize = Integer.toUnsignedLong(central.getInt(position + 20));
+            long size = Integer.toUnsignedLong(central.getInt(position + 24));
+            long offset = Integer.toUnsignedLong(central.getInt(position + 42));
+            // the ZIP64 field has the values that overflow, in this order
+            ByteBuffer zip64 = findExtra(extra, ZIP64_EXTRA_ID);
+            if (zip64 != null) {
+                if (size == ZIP64_MAGIC && zip64.remaining() >= 8) {
+                    size = zip64.getLong();
+                }
+                if (compressedSize == ZIP64_MAGIC && zip64.remaining() >= 8) {
+                    compressedSize = zip64.getLong();
+                }
+                if (offset == ZIP64_MAGIC && zip64.remaining() >= 8) {
+                    offset = zip64.getLong();
+                }
+            }
+
+            entries.add(new Entry(new String(rawName, StandardCharsets.UTF_8), rawName,
+                    Short.toUnsignedInt(central.getShort(position + 4)),
+                    Short.toUnsignedInt(central.getShort(position + 6)),
+                    Short.toUnsignedInt(central.getShort(position + 8)),
+                    Short.toUnsignedInt(central.getShort(position + 10)),
+                    central.getInt(position + 12),
+                    Integer.toUnsignedLong(central.getInt(position + 16)),
+                    compressedSize, size,
+                    Short.toUnsignedInt(central.getShort(position + 36)),
+                    central.getInt(position + 38),
+                    offset,
+                    removeExtra(extra, ZIP64_EXTRA_ID), comment, entries.size()));
+            position += 46 + nameLength + extraLength + commentLength;
+        }
+        return entries;
+    }
+
+    /**
+     * Reads the comment of an archive.
+     *
+     * @param channel the archive
+     * @return the comment bytes, empty if there is none
+     * @throws IOException if the archive can't be read, or is not a zip archive
+     */
+    public static @NotNull byte[] readComment(@NotNull FileChannel channel) throws IOException {
+        long fileSize = channel.size();
+        int tailSize = (int) Math.min(fileSize, END_SIZE + 0xFFFF);
+        ByteBuffer tail = readFully(channel, fileSize - tailSize, tailSize);
+        int endPosition = findEnd(tail);
+        byte[] comment = new byte[Short.toUnsignedInt(tail.getShort(endPosition + 20))];
+        tail.get(endPosition + END_SIZE, comment);
+        return comment;
+    }
+
+    // the position of the end record in the tail of an archive, the end record is followed by a comment of up to 64 KB
+    private static int findEnd(ByteBuffer tail) throws ZipException {
+        for (int i = tail.limit() - END_SIZE; i >= 0; i--) {
+            if (tail.getInt(i) == END_SIGNATURE && i + END_SIZE + Short.toUnsignedInt(tail.getShort(i + 20)) <= tail.limit()) {
+                return i;
+            }
+        }
+        throw new ZipException("End of central directory not found");
+    }
+
+    /**
+     * Reads the local header of an entry.
+     *
+     * @param channel the archive
+     * @param entry   an entry of the archive
+     * @return the local header
+     * @throws IOException if the archive can't be read, or the local header is invalid
+     */
+    public static @NotNull LocalHeader readLocalHeader(@NotNull FileChannel channel, @NotNull Entry entry) throws IOException {
+        ByteBuffer header = readFully(channel, entry.localHeaderOffset(), LOCAL_HEADER_SIZE);
+        if (header.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+            throw new ZipException("Invalid local header: " + entry.name());
+        }
+        int nameLength = Short.toUnsignedInt(header.getShort(26));
+        int extraLength = Short.toUnsignedInt(header.getShort(28));
+        long extraOffset = entry.localHeaderOffset() + LOCAL_HEADER_SIZE + nameLength;
+        ByteBuffer extra = readFully(channel, extraOffset, extraLength);
+        byte[] extraBytes = new byte[extraLength];
+        extra.get(0, extraBytes);
+        // the sizes are the ones of the central directory, a writer adds its own ZIP64 field for the new offset
+        return new LocalHeader(extraOffset + extraLength, removeExtra(extraBytes, ZIP64_EXTRA_ID));
+    }
+
+    /**
+     * Removes an extra field.
+     *
+     * @param extra the extra fields
+     * @param id    the header id of the field to remove
+     * @return the other extra fields
+     */
+    static @NotNull byte[] removeExtra(@NotNull byte[] extra, int id) {
+        ByteBuffer in = ByteBuffer.wrap(extra).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer out = ByteBuffer.allocate(extra.length);
+        while (in.remaining() >= 4) {
+            int start = in.position();
+            int fieldId = Short.toUnsignedInt(in.getShort());
+            int length = Short.toUnsignedInt(in.getShort());
+            if (length > in.remaining()) {
+                // malformed, keep the rest as it is
+                in.position(start);
+                break;
+            }
+            if (fieldId != id) {
+                out.put(extra, start, 4 + length);
+            }
+            in.position(in.position() + length);
+        }
+        out.put(extra, in.position(), in.remaining());
+        byte[] result = new byte[out.position()];
+        out.get(0, result);
+        return result;
+    }
+
+    // the data of an extra field, or null if there is none
+    private static ByteBuffer findExtra(byte[] extra, int id) {
+        ByteBuffer in = ByteBuffer.wrap(extra).order(ByteOrder.LITTLE_ENDIAN);
+        while (in.remaining() >= 4) {
+            int fieldId = Short.toUnsignedInt(in.getShort());
+            int length = Short.toUnsignedInt(in.getShort());
+            if (length > in.remaining()) {
+                return null;
+            }
+            if (fieldId == id) {
+                return in.slice(in.position(), length).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            in.position(in.position() + length);
+        }
+        return null;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new ZipException("Unexpected end of the archive");
+            }
+        }
+        return buffer.flip();
+    }
+}
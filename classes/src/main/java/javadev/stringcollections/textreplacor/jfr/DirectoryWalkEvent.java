@@ -0,0 +1,28 @@
+package javadev.stringcollections.textreplacor.jfr;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote JFR event for listing the files of a directory tree, emitted by the directory readers.
+ * <p>
+ * Only walks that take at least 100 ms are recorded by default.
+ * @since 2.1.0
+ */
+@Name("javadev.stringcollections.textreplacor.DirectoryWalk")
+@Label("Directory Walk")
+@Description("Recursive listing of the files of a directory")
+@Category({"Universal String Replacer", "Walk"})
+@Threshold("100 ms")
+@StackTrace(false)
+@Setter
+public final class DirectoryWalkEvent extends Event {
+
+    @Label("Directory")
+    private String directory;
+
+    @Label("File Count")
+    private long fileCount;
+}
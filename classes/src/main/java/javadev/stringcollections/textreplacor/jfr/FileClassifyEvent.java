@@ -0,0 +1,37 @@
+package javadev.stringcollections.textreplacor.jfr;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote JFR event for detecting if a file is a text file, emitted by {@link javadev.stringcollections.textreplacor.mimedetector.TextFileDetector}.
+ * <p>
+ * Only detections that take at least 10 ms are recorded by default, a slow detection usually means slow storage.
+ * @since 2.1.0
+ */
+@Name("javadev.stringcollections.textreplacor.FileClassify")
+@Label("File Classify")
+@Description("Text or binary detection of one file")
+@Category({"Universal String Replacer", "Classify"})
+@Threshold("10 ms")
+@StackTrace(false)
+@Setter
+public final class FileClassifyEvent extends Event {
+
+    @Label("Path")
+    private String path;
+
+    @Label("Size")
+    @DataAmount
+    private long size;
+
+    @Label("Bytes Processed")
+    @Description("Size of the sample that was read")
+    @DataAmount
+    private long bytesProcessed;
+
+    @Label("Text")
+    private boolean text;
+}
@@ -0,0 +1,43 @@
+package javadev.stringcollections.textreplacor.jfr;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote JFR event for replacing the content of one file, emitted by {@link javadev.stringcollections.textreplacor.writer.ReplaceStringInAFile}.
+ * The duration covers reading, writing the temporary file and renaming it.
+ * <p>
+ * Only replacements that take at least 20 ms are recorded by default.
+ * @since 2.1.0
+ */
+@Name("javadev.stringcollections.textreplacor.FileReplace")
+@Label("File Replace")
+@Description("Replacement of a string in one file")
+@Category({"Universal String Replacer", "Replace"})
+@Threshold("20 ms")
+@StackTrace(false)
+@Setter
+public final class FileReplaceEvent extends Event {
+
+    @Label("Path")
+    private String path;
+
+    @Label("Size")
+    @Description("Size of the original file")
+    @DataAmount
+    private long size;
+
+    @Label("Bytes Written")
+    @DataAmount
+    private long bytesWritten;
+
+    @Label("Match Count")
+    @Description("Number of replaced occurrences")
+    private long matchCount;
+
+    @Label("Buffer Size")
+    @Description("Number of chars read per chunk")
+    private int bufferSize;
+}
@@ -0,0 +1,47 @@
+package javadev.stringcollections.textreplacor.jfr;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote JFR event for searching or counting in one file, emitted by {@link javadev.stringcollections.textreplacor.search.FindOccurrencesInAString}.
+ * <p>
+ * Only searches that take at least 20 ms are recorded by default, change the threshold in the recording settings to see more.
+ * @since 2.1.0
+ */
+@Name("javadev.stringcollections.textreplacor.FileSearch")
+@Label("File Search")
+@Description("Search or count of the occurrences in one file")
+@Category({"Universal String Replacer", "Search"})
+@Threshold("20 ms")
+@StackTrace(false)
+@Setter
+public final class FileSearchEvent extends Event {
+
+    @Label("Path")
+    @Description("The searched file, empty when a string is searched")
+    private String path;
+
+    @Label("Size")
+    @DataAmount
+    private long size;
+
+    @Label("Bytes Processed")
+    @Description("Characters read until the search stopped, the same as the bytes for single-byte text")
+    @DataAmount
+    private long bytesProcessed;
+
+    @Label("Match Count")
+    @Description("Number of occurrences found, 0 or 1 when only the existence of a match is checked")
+    private long matchCount;
+
+    @Label("Engine")
+    @Description("literal, literal-ignore-case or regex")
+    private String engine;
+
+    @Label("Mode")
+    @Description("search, exists or count")
+    private String mode;
+}
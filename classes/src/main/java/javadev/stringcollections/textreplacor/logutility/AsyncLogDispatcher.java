@@ -0,0 +1,126 @@
+package javadev.stringcollections.textreplacor.logutility;
+
+import org.apache.logging.log4j.Level;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote Hands log messages from the calling threads to a single daemon thread, which writes them to Log4j2.
+ * <p>
+ * The messages are kept in a bounded ring buffer. Adding a message never waits, when the buffer is full the message is dropped and counted,
+ * so a slow appender can't slow down the search and replace threads. The drop count is logged as a warning once the buffer has room again.
+ * @since 2.1.0
+ */
+final class AsyncLogDispatcher {
+
+    private final ArrayBlockingQueue<LogEvent> queue;
+    private final LongAdder droppedCount = new LongAdder();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    // drops that are already reported, only used by the worker thread
+    private long reportedDrops = 0;
+
+    /**
+     * @param capacity maximum number of pending messages
+     */
+    AsyncLogDispatcher(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The log buffer capacity must be at least 1, got " + capacity);
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.worker = new Thread(this::drain, "universal-string-replacer-log");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Adds a message without waiting, the message is dropped if the buffer is full.
+     * After {@link #close(long)}, the message is written by the calling thread instead.
+     *
+     * @return true if the message is added or written, false if it is dropped
+     */
+    boolean offer(org.apache.logging.log4j.Logger logger, Level level, String pattern, Object[] parameters) {
+        if (!running) {
+            logger.log(level, pattern, parameters);
+            return true;
+        }
+        LogEvent event = new LogEvent(logger, level, pattern, parameters);
+        if (!queue.offer(event)) {
+            droppedCount.increment();
+            return false;
+        }
+        // closed meanwhile, the final drain may have missed it, write it here unless it is already taken
+        if (!running && queue.remove(event)) {
+            logger.log(level, pattern, parameters);
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of messages dropped since this dispatcher started
+     */
+    long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Stops queueing messages, and waits for the pending messages to be written.
+     * If the worker doesn't finish in time, the messages still pending are counted as dropped.
+     *
+     * @param timeoutMillis maximum time to wait
+     */
+    void close(long timeoutMillis) {
+        running = false;
+        try {
+            worker.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        boolean finished = !worker.isAlive();
+        LogEvent event;
+        while ((event = queue.poll()) != null) {
+            if (finished) {
+                // added while the worker was exiting, write it here
+                event.logger.log(event.level, event.pattern, event.parameters);
+            } else {
+                droppedCount.increment();
+            }
+        }
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            LogEvent event;
+            try {
+                event = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // keep draining until closed
+                continue;
+            }
+            if (event != null) {
+                event.logger.log(event.level, event.pattern, event.parameters);
+            }
+            reportDrops();
+        }
+        reportDrops();
+    }
+
+    // logs the drops since the last report, once the buffer is less than half full
+    private void reportDrops() {
+        long dropped = droppedCount.sum();
+        if (dropped == reportedDrops || queue.size() > queue.remainingCapacity()) {
+            return;
+        }
+        Logger.getLogger(AsyncLogDispatcher.class).warn("{} [WARN] - {} log messages were dropped, the log buffer was full",
+                "drain()", dropped - reportedDrops);
+        reportedDrops = dropped;
+    }
+
+    private record LogEvent(org.apache.logging.log4j.Logger logger, Level level, String pattern, Object[] parameters) {
+    }
+}
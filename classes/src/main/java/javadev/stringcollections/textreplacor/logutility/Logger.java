@@ -1,7 +1,11 @@
 package javadev.stringcollections.textreplacor.logutility;
 
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
 /**
  * @apiNote
  * Logger class that logs messages in a beautiful way. It usages the Log4j2 library to log messages.
@@ -21,12 +25,31 @@ import org.apache.logging.log4j.LogManager;
  *         <p>
  *             <br>
  * If you use this class, a log file will create in this path: <b>current_working_directory/logs/universal-file-replacer-logs/file_replace.log</b>
+ * <p>
+ * For hot paths, use {@link #log(Class, Level, String, Supplier)} or the parameterized <code>log</code> methods. They check the level first,
+ * so nothing is built when the level is disabled.
+ * <p>
+ * The Log4j2 loggers are cached per class. By default, messages are written by the calling thread. After {@link #enableAsyncLogging(int)},
+ * messages are queued in a bounded ring buffer and written by a background thread, so the calling threads never wait for the log I/O.
+ * If the buffer is full, messages are dropped, see {@link #getDroppedMessageCount()}.
  * @since 1.0
  * @version 1.0
  * @author nurujjamanpollob
  */
 public class Logger {
 
+    /**
+     * Default number of pending messages in asynchronous mode.
+     */
+    public static final int DEFAULT_ASYNC_BUFFER_SIZE = 8192;
+
+    private static final ConcurrentHashMap<Class<?>, org.apache.logging.log4j.Logger> LOGGERS = new ConcurrentHashMap<>();
+
+    // set while asynchronous logging is enabled
+    private static volatile AsyncLogDispatcher asyncDispatcher = null;
+    // drops of the dispatchers that are already closed
+    private static long previousDroppedCount = 0;
+
     /**
      * Log warning message.
      * @param className class name
@@ -34,10 +57,7 @@ public class Logger {
      * @param message message
      */
     public static void logWarning(Class<?> className, String methodName, String message) {
-       org.apache.logging.log4j.Logger logger = LogManager.getLogger(className);
-
-
-        logger.warn("{} [WARN] - {}", methodName, message);
+        write(getLogger(className), Level.WARN, "{} [WARN] - {}", methodName, message);
 
 
     }
@@ -49,9 +69,7 @@ public class Logger {
      * @param message message
      */
     public static void logError(Class<?> className, String methodName, String message) {
-        org.apache.logging.log4j.Logger logger = LogManager.getLogger(className);
-
-        logger.error("{} [ERROR] - {}", methodName, message);
+        write(getLogger(className), Level.ERROR, "{} [ERROR] - {}", methodName, message);
     }
 
     /**
@@ -61,9 +79,7 @@ public class Logger {
      * @param message message
      */
     public static void logInfo(Class<?> className, String methodName, String message) {
-        org.apache.logging.log4j.Logger logger = LogManager.getLogger(className);
-
-        logger.info("{} [INFO] - {}", methodName, message);
+        write(getLogger(className), Level.INFO, "{} [INFO] - {}", methodName, message);
     }
 
     /**
@@ -73,9 +89,7 @@ public class Logger {
      * @param message message
      */
     public static void logDebug(Class<?> className, String methodName, String message) {
-        org.apache.logging.log4j.Logger logger = LogManager.getLogger(className);
-
-        logger.debug("{} [DEBUG] - {}", methodName, message);
+        write(getLogger(className), Level.DEBUG, "{} [DEBUG] - {}", methodName, message);
     }
 
     /**
@@ -85,9 +99,7 @@ public class Logger {
      * @param message message
      */
     public static void logFatal(Class<?> className, String methodName, String message) {
-        org.apache.logging.log4j.Logger logger = LogManager.getLogger(className);
-
-        logger.fatal("{} [FATAL] - {}", methodName, message);
+        write(getLogger(className), Level.FATAL, "{} [FATAL] - {}", methodName, message);
     }
 
     /**
@@ -97,9 +109,7 @@ public class Logger {
      * @param message message
      */
     public static void logTrace(Class<?> className, String methodName, String message) {
-        org.apache.logging.log4j.Logger logger = LogManager.getLogger(className);
-
-        logger.trace("{} [TRACE] - {}", methodName, message);
+        write(getLogger(className), Level.TRACE, "{} [TRACE] - {}", methodName, message);
     }
 
     /**
@@ -109,9 +119,7 @@ public class Logger {
      * @param message message
      */
     public static void logException(Class<?> className, String methodName, String message) {
-        org.apache.logging.log4j.Logger logger = LogManager.getLogger(className);
-
-        logger.error("{} [EXCEPTION] - {}", methodName, message);
+        write(getLogger(className), Level.ERROR, "{} [EXCEPTION] - {}", methodName, message);
     }
 
     /**
@@ -121,11 +129,145 @@ public class Logger {
      * @param message message
      */
     public static void logCustom(Class<?> className, String methodName, String message) {
-        org.apache.logging.log4j.Logger logger = LogManager.getLogger(className);
+        write(getLogger(className), Level.INFO, "{} [CUSTOM] - {}", methodName, message);
+    }
+
+    /**
+     * Check if a level is enabled for a class.
+     * @param className class name
+     * @param level log level
+     * @return true if a message of this level would be logged
+     */
+    public static boolean isEnabled(Class<?> className, Level level) {
+        return getLogger(className).isEnabled(level);
+    }
+
+    /**
+     * Log a message that is built only if the level is enabled.
+     * @param className class name
+     * @param level log level
+     * @param methodName method name
+     * @param message supplies the message, not called if the level is disabled
+     */
+    public static void log(Class<?> className, Level level, String methodName, Supplier<String> message) {
+        org.apache.logging.log4j.Logger logger = getLogger(className);
+
+        if (logger.isEnabled(level)) {
+            dispatch(logger, level, "{} [{}] - {}", methodName, level.name(), message.get());
+        }
+    }
+
+    /**
+     * Log a parameterized message, each <code>{}</code> in the pattern is replaced by an argument. The message is formatted only if the level is enabled.
+     * @param className class name
+     * @param level log level
+     * @param methodName method name
+     * @param pattern message pattern
+     * @param argument the argument
+     */
+    public static void log(Class<?> className, Level level, String methodName, String pattern, Object argument) {
+        org.apache.logging.log4j.Logger logger = getLogger(className);
+
+        if (logger.isEnabled(level)) {
+            dispatch(logger, level, "{} [{}] - " + pattern, methodName, level.name(), argument);
+        }
+    }
+
+    /**
+     * Log a parameterized message with two arguments, see {@link #log(Class, Level, String, String, Object)}.
+     * @param className class name
+     * @param level log level
+     * @param methodName method name
+     * @param pattern message pattern
+     * @param argument1 the first argument
+     * @param argument2 the second argument
+     */
+    public static void log(Class<?> className, Level level, String methodName, String pattern, Object argument1, Object argument2) {
+        org.apache.logging.log4j.Logger logger = getLogger(className);
+
+        if (logger.isEnabled(level)) {
+            dispatch(logger, level, "{} [{}] - " + pattern, methodName, level.name(), argument1, argument2);
+        }
+    }
+
+    /**
+     * Get the Log4j2 logger of a class, the logger is looked up once and cached.
+     * @param className class name
+     * @return the logger
+     */
+    public static org.apache.logging.log4j.Logger getLogger(Class<?> className) {
+        org.apache.logging.log4j.Logger logger = LOGGERS.get(className);
+        if (logger == null) {
+            logger = LOGGERS.computeIfAbsent(className, LogManager::getLogger);
+        }
+        return logger;
+    }
 
-        logger.info("{} [CUSTOM] - {}", methodName, message);
+    /**
+     * Enable asynchronous logging with a buffer of {@link #DEFAULT_ASYNC_BUFFER_SIZE} messages, see {@link #enableAsyncLogging(int)}.
+     */
+    public static void enableAsyncLogging() {
+        enableAsyncLogging(DEFAULT_ASYNC_BUFFER_SIZE);
     }
 
+    /**
+     * Enable asynchronous logging. Messages are queued and written by a background thread, the calling thread never waits.
+     * If the buffer is full, the message is dropped and counted. Message arguments are formatted by the background thread.
+     * If asynchronous logging is already enabled, the current buffer is drained and replaced.
+     * @param bufferSize maximum number of pending messages
+     */
+    public static synchronized void enableAsyncLogging(int bufferSize) {
+        AsyncLogDispatcher previous = asyncDispatcher;
+        asyncDispatcher = new AsyncLogDispatcher(bufferSize);
+        closeDispatcher(previous);
+    }
 
+    /**
+     * Disable asynchronous logging, the pending messages are written before this method returns.
+     */
+    public static synchronized void disableAsyncLogging() {
+        AsyncLogDispatcher previous = asyncDispatcher;
+        asyncDispatcher = null;
+        closeDispatcher(previous);
+    }
+
+    /**
+     * @return true if asynchronous logging is enabled
+     */
+    public static boolean isAsyncLogging() {
+        return asyncDispatcher != null;
+    }
+
+    /**
+     * @return the number of messages dropped because the asynchronous log buffer was full
+     */
+    public static synchronized long getDroppedMessageCount() {
+        AsyncLogDispatcher dispatcher = asyncDispatcher;
+        return previousDroppedCount + (dispatcher == null ? 0 : dispatcher.getDroppedCount());
+    }
+
+    private static void closeDispatcher(AsyncLogDispatcher dispatcher) {
+        if (dispatcher != null) {
+            dispatcher.close(5000);
+            previousDroppedCount += dispatcher.getDroppedCount();
+        }
+    }
+
+    // checks the level and writes the message
+    private static void write(org.apache.logging.log4j.Logger logger, Level level, String pattern, Object... parameters) {
+        if (logger.isEnabled(level)) {
+            dispatch(logger, level, pattern, parameters);
+        }
+    }
+
+    // writes the message to the logger, or to the asynchronous buffer if enabled
+    private static void dispatch(org.apache.logging.log4j.Logger logger, Level level, String pattern, Object... parameters) {
+        AsyncLogDispatcher dispatcher = asyncDispatcher;
+        if (dispatcher != null) {
+            dispatcher.offer(logger, level, pattern, parameters);
+        } else {
+            logger.log(level, pattern, parameters);
+        }
+    }
 
 }
@@ -0,0 +1,97 @@
+package javadev.stringcollections.textreplacor.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote Keeps the metrics of the pipelines in memory, with a {@link LongAdder} per counter and a {@link LatencyHistogram} per stage.
+ * <pre>
+ *     <code>
+ * InProcessMetricsRecorder metrics = new InProcessMetricsRecorder();
+ * StringMatcherInFiles matcher = new StringMatcherInFiles("src", "TODO");
+ * matcher.setMetricsRecorder(metrics);
+ * matcher.search();
+ * metrics.snapshot().saveToJsonFile(Path.of("search-metrics.json"));
+ *     </code>
+ * </pre>
+ * One recorder can be shared by several runs, call {@link #reset()} between them to keep the runs apart.
+ * @since 2.1.0
+ */
+public class InProcessMetricsRecorder implements MetricsRecorder {
+
+    private final LongAdder[] counters = new LongAdder[Counter.values().length];
+    private final LatencyHistogram[] latencies = new LatencyHistogram[Stage.values().length];
+
+    /**
+     * Creates a recorder with every counter and histogram empty.
+     */
+    public InProcessMetricsRecorder() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    @Override
+    public void add(@NotNull Counter counter, long amount) {
+        counters[counter.ordinal()].add(amount);
+    }
+
+    @Override
+    public void recordLatency(@NotNull Stage stage, long nanos) {
+        latencies[stage.ordinal()].record(nanos);
+    }
+
+    /**
+     * @param counter the counter
+     * @return the current value of the counter
+     */
+    public long getCount(@NotNull Counter counter) {
+        return counters[counter.ordinal()].sum();
+    }
+
+    /**
+     * @param stage the stage
+     * @return the live histogram of the stage
+     */
+    public @NotNull LatencyHistogram getLatency(@NotNull Stage stage) {
+        return latencies[stage.ordinal()];
+    }
+
+    /**
+     * Copies the current values. Values recorded while the copy is made may or may not be included.
+     *
+     * @return the snapshot
+     */
+    public @NotNull MetricsSnapshot snapshot() {
+        Map<Counter, Long> counterValues = new EnumMap<>(Counter.class);
+        for (Counter counter : Counter.values()) {
+            counterValues.put(counter, getCount(counter));
+        }
+        Map<Stage, MetricsSnapshot.Latency> latencyValues = new EnumMap<>(Stage.class);
+        for (Stage stage : Stage.values()) {
+            latencyValues.put(stage, MetricsSnapshot.Latency.of(getLatency(stage)));
+        }
+        return new MetricsSnapshot(Collections.unmodifiableMap(counterValues), Collections.unmodifiableMap(latencyValues));
+    }
+
+    /**
+     * Clears every counter and histogram.
+     */
+    public void reset() {
+        for (LongAdder counter : counters) {
+            counter.reset();
+        }
+        for (LatencyHistogram latency : latencies) {
+            latency.reset();
+        }
+    }
+}
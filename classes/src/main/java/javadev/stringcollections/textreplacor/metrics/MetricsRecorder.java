@@ -0,0 +1,130 @@
+package javadev.stringcollections.textreplacor.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote Receives the counters and stage latencies of the search and replace pipelines.
+ * <p>
+ * {@link javadev.stringcollections.textreplacor.ReplaceStringInFiles} and {@link javadev.stringcollections.textreplacor.search.StringMatcherInFiles}
+ * use {@link #NO_OP} by default. Set an {@link InProcessMetricsRecorder} to collect the data of a run, or implement this interface to forward
+ * it to another metrics system. Methods are called from the worker threads, implementations must be thread-safe and should not block.
+ * @since 2.1.0
+ */
+public interface MetricsRecorder {
+
+    /**
+     * A recorder that ignores everything.
+     */
+    MetricsRecorder NO_OP = new MetricsRecorder() {
+        @Override
+        public void add(@NotNull Counter counter, long amount) {
+        }
+
+        @Override
+        public void recordLatency(@NotNull Stage stage, long nanos) {
+        }
+    };
+
+    /**
+     * Counted events.
+     */
+    enum Counter {
+        /**
+         * Files found by walking the directory.
+         */
+        FILES_WALKED,
+        /**
+         * Files classified as text.
+         */
+        FILES_TEXT,
+        /**
+         * Files classified as binary, empty or unreadable.
+         */
+        FILES_BINARY,
+        /**
+         * Files with at least one occurrence.
+         */
+        FILES_MATCHED,
+        /**
+         * Files replaced with new content.
+         */
+        FILES_REWRITTEN,
+        /**
+         * Bytes of the files that are searched or rewritten.
+         */
+        BYTES_READ,
+        /**
+         * Bytes of the rewritten files.
+         */
+        BYTES_WRITTEN,
+        /**
+         * Files not read, because they have the content of another file of the run.
+         */
+        FILES_DEDUPLICATED,
+        /**
+         * Text entries of zip archives searched without extracting them.
+         */
+        ARCHIVE_ENTRIES_SEARCHED,
+        /**
+         * Gzip files searched through their decompressed text.
+         */
+        GZIP_FILES_SEARCHED,
+        /**
+         * Entries of zip archives rewritten by a replacement, the other entries are copied compressed.
+         */
+        ARCHIVE_ENTRIES_REWRITTEN
+    }
+
+    /**
+     * Timed pipeline stages.
+     */
+    enum Stage {
+        /**
+         * Listing the files of the directory tree, once per run.
+         */
+        WALK,
+        /**
+         * Detecting if a file is a text file.
+         */
+        CLASSIFY,
+        /**
+         * Searching or counting in a file.
+         */
+        SCAN,
+        /**
+         * Reading a file and writing the replaced content to a temporary file.
+         */
+        WRITE,
+        /**
+         * Replacing the original file with the temporary file.
+         */
+        RENAME
+    }
+
+    /**
+     * Adds to a counter.
+     *
+     * @param counter the counter
+     * @param amount  the amount to add
+     */
+    void add(@NotNull Counter counter, long amount);
+
+    /**
+     * Adds one to a counter.
+     *
+     * @param counter the counter
+     */
+    default void increment(@NotNull Counter counter) {
+        add(counter, 1);
+    }
+
+    /**
+     * Records the duration of one execution of a stage.
+     *
+     * @param stage the stage
+     * @param nanos the duration in nanoseconds
+     */
+    void recordLatency(@NotNull Stage stage, long nanos);
+}
@@ -0,0 +1,105 @@
+package javadev.stringcollections.textreplacor.metrics;
+
+import javadev.stringcollections.textreplacor.io.json.JSONStreamWriter;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote The counters and stage latencies of an {@link InProcessMetricsRecorder} at one point in time.
+ *
+ * @param counters  the value of every counter
+ * @param latencies the latency summary of every stage
+ * @since 2.1.0
+ */
+public record MetricsSnapshot(@NotNull Map<MetricsRecorder.Counter, Long> counters,
+                              @NotNull Map<MetricsRecorder.Stage, Latency> latencies) {
+
+    /**
+     * Latency summary of a stage, in nanoseconds.
+     *
+     * @param count      number of executions
+     * @param totalNanos sum of the durations
+     * @param minNanos   shortest duration
+     * @param maxNanos   longest duration
+     * @param p50Nanos   median
+     * @param p90Nanos   90th percentile
+     * @param p99Nanos   99th percentile
+     * @param p999Nanos  99.9th percentile
+     */
+    public record Latency(long count, long totalNanos, long minNanos, long maxNanos,
+                          long p50Nanos, long p90Nanos, long p99Nanos, long p999Nanos) {
+
+        static Latency of(LatencyHistogram histogram) {
+            return new Latency(histogram.getCount(), histogram.getTotal(), histogram.getMin(), histogram.getMax(),
+                    histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90),
+                    histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9));
+        }
+    }
+
+    /**
+     * @param counter the counter
+     * @return the value of the counter
+     */
+    public long get(@NotNull MetricsRecorder.Counter counter) {
+        return counters.getOrDefault(counter, 0L);
+    }
+
+    /**
+     * @param stage the stage
+     * @return the latency summary of the stage
+     */
+    public @NotNull Latency get(@NotNull MetricsRecorder.Stage stage) {
+        return latencies.get(stage);
+    }
+
+    /**
+     * Saves this snapshot as a pretty-printed JSON file, an existing file is replaced.
+     * <p>
+     * The document has a <code>counters</code> object with one number per counter, and a <code>latencies</code> object with one object per stage,
+     * holding the fields of {@link Latency}.
+     *
+     * @param saveLocation the file to write
+     * @throws IOException if the file can't be written
+     */
+    public void saveToJsonFile(@NotNull Path saveLocation) throws IOException {
+        Path parent = saveLocation.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (OutputStream outputStream = Files.newOutputStream(saveLocation);
+             JSONStreamWriter json = new JSONStreamWriter(outputStream, true)) {
+            json.beginObject();
+
+            json.name("counters").beginObject();
+            for (Map.Entry<MetricsRecorder.Counter, Long> counter : counters.entrySet()) {
+                json.name(counter.getKey().name()).value(counter.getValue());
+            }
+            json.endObject();
+
+            json.name("latencies").beginObject();
+            for (Map.Entry<MetricsRecorder.Stage, Latency> stage : latencies.entrySet()) {
+                Latency latency = stage.getValue();
+                json.name(stage.getKey().name()).beginObject();
+                json.name("count").value(latency.count());
+                json.name("totalNanos").value(latency.totalNanos());
+                json.name("minNanos").value(latency.minNanos());
+                json.name("maxNanos").value(latency.maxNanos());
+                json.name("p50Nanos").value(latency.p50Nanos());
+                json.name("p90Nanos").value(latency.p90Nanos());
+                json.name("p99Nanos").value(latency.p99Nanos());
+                json.name("p999Nanos").value(latency.p999Nanos());
+                json.endObject();
+            }
+            json.endObject();
+
+            json.endObject();
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package javadev.stringcollections.textreplacor.mimedetector;
 
+import javadev.stringcollections.textreplacor.jfr.FileClassifyEvent;
+
 import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 
 /**
  * @author nurujjamanpollob
@@ -39,6 +43,12 @@ public final class TextFileDetector {
      */
     private static final int BUFFER_SIZE = 4096; // 4 KB
 
+    /**
+     * The number of bytes {@link #isTextSample(byte[], int)} needs to classify content like {@link #isTextFile(Path)} classifies a file:
+     * the BOM and the heuristic sample.
+     */
+    public static final int SAMPLE_SIZE = BUFFER_SIZE + 4;
+
     /**
      * The minimum ratio of "text" characters (printable ASCII plus common
      * whitespace) for a file to be considered a text file.
@@ -69,11 +79,71 @@ public final class TextFileDetector {
      *    high ratio of printable characters.[10, 11, 12]
      * 3. Perform a deeper statistical analysis (entropy) if heuristics are inconclusive.
      *
+     * <p>
+     * A {@link FileClassifyEvent} is emitted for a slow detection when a JFR recording is running.
+     *
      * @param path The path to the file to analyze.
      * @return {@code true} if the file is likely a text file, {@code false} otherwise.
      * @throws IOException If an I/O error occurs while reading the file.
      */
     public static boolean isTextFile(Path path) throws IOException {
+        FileClassifyEvent event = new FileClassifyEvent();
+        event.begin();
+        boolean isText = detectTextFile(path);
+        event.end();
+        if (event.shouldCommit()) {
+            long size = sizeForEvent(path);
+            event.setPath(path.toAbsolutePath().toString());
+            event.setSize(size);
+            // small files are read whole, larger ones up to the BOM and the sample
+            event.setBytesProcessed(size < BUFFER_SIZE ? size : Math.min(size, BUFFER_SIZE + 4));
+            event.setText(isText);
+            event.commit();
+        }
+        return isText;
+    }
+
+    /**
+     * Determines if content that is not a file, like a zip entry or a decompressed stream, is text, with the heuristics of {@link #isTextFile(Path)}.
+     *
+     * @param bytes  The first bytes of the content, up to {@link #SAMPLE_SIZE}.
+     * @param length The number of valid bytes in the array.
+     * @return {@code true} if the content is likely text, {@code false} otherwise.
+     */
+    public static boolean isTextSample(byte[] bytes, int length) {
+        if (length <= 0) {
+            return false;
+        }
+        return isTextFileHeuristics(length == bytes.length ? bytes : Arrays.copyOf(bytes, length));
+    }
+
+    /**
+     * Determines if the given file is gzip compressed, by its magic number (1F 8B), whatever its extension.
+     * Gzip files are high-entropy binaries for {@link #isTextFile(Path)}, their decompressed content can still be text.
+     *
+     * @param path The path to the file to analyze.
+     * @return {@code true} if the file starts with the gzip magic number, {@code false} otherwise or if it can't be read.
+     */
+    public static boolean isGzipFile(Path path) {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] magic = in.readNBytes(2);
+            return magic.length == 2 && magic[0] == (byte) 0x1F && magic[1] == (byte) 0x8B;
+        } catch (IOException e) {
+            // like detectTextFile, a file that can't be read is not classified
+            return false;
+        }
+    }
+
+    // the size for the classify event, an error here must not fail a detection that succeeded
+    private static long sizeForEvent(Path path) {
+        try {
+            return Files.isRegularFile(path) ? Files.size(path) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static boolean detectTextFile(Path path) throws IOException {
         // Handle basic file system checks first.
         if (Files.isDirectory(path) || !Files.exists(path)) {
             return false;
@@ -0,0 +1,31 @@
+package javadev.stringcollections.textreplacor.object;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote Number of occurrences of the search string in a single file, the result of a count-only search. No {@link Line} objects are created for a count.
+ * @since 2.1.0
+ */
+public record OccurrenceCount(File file, long count) {
+
+    /**
+     * Constructor to initialize an OccurrenceCount object.
+     *
+     * @param file  the file in which the search was performed
+     * @param count the number of occurrences found in the file
+     */
+    public OccurrenceCount {
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "OccurrenceCount{" +
+                "file=" + file.getAbsolutePath() +
+                ", count=" + count +
+                '}';
+    }
+}
@@ -0,0 +1,35 @@
+package javadev.stringcollections.textreplacor.object;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote The outcome of a replacement in a single file. The digests are computed while the file is read and the replaced content is written,
+ * in the same pass, so auditing a replacement needs no extra read of the file.
+ * @since 2.1.0
+ */
+public record ReplaceResult(@NotNull String path, boolean matched, long bytesRead, long bytesWritten,
+                            @Nullable String inputDigest, @Nullable String outputDigest) {
+
+    /**
+     * Constructor to initialize a ReplaceResult object.
+     *
+     * @param path         absolute path of the replaced file
+     * @param matched      true if the old string was found in the file
+     * @param bytesRead    size of the file before the replacement
+     * @param bytesWritten size of the file after the replacement
+     * @param inputDigest  hex digest of the original content, null if no digest algorithm is set
+     * @param outputDigest hex digest of the replaced content, null if no digest algorithm is set
+     */
+    public ReplaceResult {
+    }
+
+    /**
+     * @return true if the content of the file changed, false if it is unchanged or no digest algorithm is set
+     */
+    public boolean isContentChanged() {
+        return inputDigest != null && !inputDigest.equals(outputDigest);
+    }
+}
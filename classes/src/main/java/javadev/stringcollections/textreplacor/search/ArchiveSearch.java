@@ -0,0 +1,148 @@
+package javadev.stringcollections.textreplacor.search;
+
+import javadev.stringcollections.textreplacor.io.zip.ZipArchiveReader;
+import javadev.stringcollections.textreplacor.metrics.MetricsRecorder;
+import javadev.stringcollections.textreplacor.object.TextSearchResult;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote Searches the text entries of a zip archive in parallel, streaming each entry from the archive, nothing is extracted to disk.
+ * Used by {@link StringMatcherInFiles} when {@link StringMatcherInFiles#setSearchArchives(boolean)} is enabled.
+ * The entries run on their own executor, so an archive searched by a worker of the file pool never waits for that same pool.
+ * @since 2.1.0
+ */
+final class ArchiveSearch {
+
+    // searches one entry, null if it has no occurrence
+    @FunctionalInterface
+    private interface EntrySearch<T> {
+        @Nullable T search(@NotNull FindOccurrencesInAString finder) throws IOException;
+    }
+
+    private final String searchString;
+    private final boolean includeTextWhereMatched;
+    private final boolean skipLineCollection;
+    private final RegexSearchPattern regexSearchPattern;
+    private final MetricsRecorder metrics;
+    private final ExecutorService entryExecutor;
+
+    ArchiveSearch(@NotNull String searchString, boolean includeTextWhereMatched, boolean skipLineCollection,
+                  @Nullable RegexSearchPattern regexSearchPattern, @NotNull MetricsRecorder metrics, @NotNull ExecutorService entryExecutor) {
+        this.searchString = searchString;
+        this.includeTextWhereMatched = includeTextWhereMatched;
+        this.skipLineCollection = skipLineCollection;
+        this.regexSearchPattern = regexSearchPattern;
+        this.metrics = metrics;
+        this.entryExecutor = entryExecutor;
+    }
+
+    /**
+     * @param archive the archive
+     * @return the result of every entry with occurrences by entry name, in the order of the archive. Null if the file is not a zip archive
+     * @throws IOException if an entry can't be read
+     */
+    @Nullable Map<String, TextSearchResult> search(@NotNull File archive) throws IOException {
+        return searchEntries(archive, finder -> {
+            finder.setIncludeTextWhereMatched(includeTextWhereMatched);
+            finder.setSkipLineCollection(skipLineCollection);
+            TextSearchResult result = finder.findOccurrences();
+            return result != null && (skipLineCollection || result.lines().length > 0) ? result : null;
+        });
+    }
+
+    /**
+     * @param archive the archive
+     * @return the number of occurrences of every entry with occurrences by entry name, in the order of the archive. Null if the file is not a zip archive
+     * @throws IOException if an entry can't be read
+     */
+    @Nullable Map<String, Long> count(@NotNull File archive) throws IOException {
+        return searchEntries(archive, finder -> {
+            long count = finder.countOccurrences();
+            return count > 0 ? count : null;
+        });
+    }
+
+    private <T> Map<String, T> searchEntries(File archive, EntrySearch<T> entrySearch) throws IOException {
+        ZipArchiveReader reader;
+        try {
+            reader = new ZipArchiveReader(archive);
+        } catch (ZipException e) {
+            // only named like an archive, searched like any other file
+            return null;
+        }
+
+        try (reader) {
+            List<ZipEntry> entries = reader.fileEntries();
+            List<Future<T>> futures = new ArrayList<>(entries.size());
+            for (ZipEntry entry : entries) {
+                futures.add(entryExecutor.submit(() -> searchEntry(reader, archive, entry, entrySearch)));
+            }
+
+            Map<String, T> results = new LinkedHashMap<>();
+            try {
+                for (int i = 0; i < entries.size(); i++) {
+                    T result = futures.get(i).get();
+                    if (result != null) {
+                        results.put(entries.get(i).getName(), result);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while searching archive: " + archive.getAbsolutePath(), e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException ioException) {
+                    throw ioException;
+                }
+                throw new IOException("Error searching archive: " + archive.getAbsolutePath(), e.getCause());
+            } finally {
+                // the archive is closed next, stop the entries still running
+                for (Future<T> future : futures) {
+                    future.cancel(true);
+                }
+            }
+            return results;
+        }
+    }
+
+    // runs on an entry thread
+    private <T> T searchEntry(ZipArchiveReader reader, File archive, ZipEntry entry, EntrySearch<T> entrySearch) throws IOException {
+        long classifyStart = System.nanoTime();
+        InputStream in = reader.openTextEntry(entry);
+        metrics.recordLatency(MetricsRecorder.Stage.CLASSIFY, System.nanoTime() - classifyStart);
+        if (in == null) {
+            return null;
+        }
+        metrics.increment(MetricsRecorder.Counter.ARCHIVE_ENTRIES_SEARCHED);
+
+        // decoded with the default charset, like a file on disk
+        Reader text = new InputStreamReader(in, Charset.defaultCharset());
+        FindOccurrencesInAString finder = new FindOccurrencesInAString(text, ZipArchiveReader.entryFile(archive, entry.getName()), searchString);
+        if (regexSearchPattern != null) {
+            finder.setRegexSearchPattern(regexSearchPattern);
+        }
+        long scanStart = System.nanoTime();
+        T result = entrySearch.search(finder);
+        metrics.recordLatency(MetricsRecorder.Stage.SCAN, System.nanoTime() - scanStart);
+        metrics.add(MetricsRecorder.Counter.BYTES_READ, Math.max(0, entry.getSize()));
+        return result;
+    }
+}
@@ -0,0 +1,402 @@
+package javadev.stringcollections.textreplacor.search;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote A boolean query over string terms, like <code>"password" AND "http://" AND NOT "@Deprecated"</code>, evaluated in a single pass over a text.
+ * <p>
+ * Query syntax:
+ * <ul>
+ *     <li>Terms are double-quoted strings (<code>\"</code> and <code>\\</code> are escapes inside quotes), or bare words without spaces, quotes or parentheses.</li>
+ *     <li>A term prefixed with <code>cs:</code> is matched case-sensitively, a term prefixed with <code>ci:</code> ignoring case. Other terms use the default passed to {@link #parse(String, boolean)}.</li>
+ *     <li>Operators are <code>AND</code>, <code>OR</code> and <code>NOT</code> (upper case), with parentheses for grouping. NOT binds tighter than AND, AND tighter than OR.
+ *     Two terms next to each other without operator are joined by AND.</li>
+ * </ul>
+ * All terms are compiled into one {@link MultiPatternAutomaton}. The text is scanned once, line by line, and the scan stops as soon as the
+ * found terms decide the result: for example <code>A OR B</code> is true at the first A, and <code>A AND NOT B</code> is false at the first B.
+ * Like the rest of the search classes, terms are matched within a line.
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ * @since 2.1.0
+ */
+public final class BooleanQuery {
+
+    // three-valued evaluation results
+    private static final int FALSE = 0;
+    private static final int TRUE = 1;
+    private static final int UNKNOWN = 2;
+
+    private final String query;
+    private final Node root;
+    private final MultiPatternAutomaton automaton;
+
+    private BooleanQuery(String query, Node root, List<String> terms, List<Boolean> caseSensitive) {
+        this.query = query;
+        this.root = root;
+
+        String[] patterns = terms.toArray(new String[0]);
+        boolean[] flags = new boolean[patterns.length];
+        for (int i = 0; i < flags.length; i++) {
+            flags[i] = caseSensitive.get(i);
+        }
+        this.automaton = new MultiPatternAutomaton(patterns, flags);
+    }
+
+    /**
+     * Parse and compile a query.
+     *
+     * @param query                the query text
+     * @param defaultCaseSensitive case sensitivity of the terms without <code>cs:</code> or <code>ci:</code> prefix
+     * @return the compiled query
+     * @throws IllegalArgumentException if the query is empty or has a syntax error
+     */
+    public static @NotNull BooleanQuery parse(@NotNull String query, boolean defaultCaseSensitive) {
+        Parser parser = new Parser(query, defaultCaseSensitive);
+        Node root = parser.parseExpression();
+        if (parser.peek() != null) {
+            throw new IllegalArgumentException("Unexpected '" + parser.peek() + "' in query: " + query);
+        }
+        return new BooleanQuery(query, root, parser.terms, parser.termCaseSensitive);
+    }
+
+    /**
+     * @return the query text
+     */
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * @return the number of distinct terms in the query
+     */
+    public int getTermCount() {
+        return automaton.patternCount();
+    }
+
+    /**
+     * Evaluates the query on a string.
+     *
+     * @param text the text to test
+     * @return true if the text satisfies the query
+     */
+    public boolean matches(@NotNull String text) {
+        try {
+            return matches(new StringReader(text));
+        } catch (IOException e) {
+            // StringReader doesn't throw
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Evaluates the query on a text, reading it line by line until the result is decided. The reader is not closed.
+     *
+     * @param reader the text to test
+     * @return true if the text satisfies the query
+     * @throws IOException if reading fails
+     */
+    public boolean matches(@NotNull Reader reader) throws IOException {
+        BufferedReader bufferedReader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+
+        boolean[] found = new boolean[automaton.patternCount()];
+        int remaining = found.length;
+
+        String line;
+        while ((line = bufferedReader.readLine()) != null) {
+            int state = automaton.initialState();
+
+            for (int i = 0; i < line.length(); i++) {
+                state = automaton.next(state, line.charAt(i));
+                int[] ids = automaton.outputs(state);
+                for (int id : ids) {
+                    if (!found[id] && automaton.confirm(id, line, i)) {
+                        found[id] = true;
+                        remaining--;
+
+                        // the result may be decided by this term, stop scanning then
+                        int verdict = root.evaluate(found, false);
+                        if (verdict != UNKNOWN) {
+                            return verdict == TRUE;
+                        }
+                    }
+                }
+            }
+
+            // all terms found and the result is still not decided, nothing more to learn from the text
+            if (remaining == 0) {
+                break;
+            }
+        }
+
+        return root.evaluate(found, true) == TRUE;
+    }
+
+    @Override
+    public String toString() {
+        return "BooleanQuery{" + root + "}";
+    }
+
+    /**
+     * Query tree node, evaluated with three-valued logic so that a partial scan can decide the result early.
+     */
+    private interface Node {
+        /**
+         * @param found    terms found so far
+         * @param complete true if the whole text was scanned, so terms not found are absent
+         */
+        int evaluate(boolean[] found, boolean complete);
+    }
+
+    private record Term(int id, String text, boolean caseSensitive) implements Node {
+        @Override
+        public int evaluate(boolean[] found, boolean complete) {
+            if (found[id]) {
+                return TRUE;
+            }
+            return complete ? FALSE : UNKNOWN;
+        }
+
+        @Override
+        public @NotNull String toString() {
+            return (caseSensitive ? "cs:" : "ci:") + '"' + text + '"';
+        }
+    }
+
+    private record Not(Node operand) implements Node {
+        @Override
+        public int evaluate(boolean[] found, boolean complete) {
+            int value = operand.evaluate(found, complete);
+            return value == UNKNOWN ? UNKNOWN : (value == TRUE ? FALSE : TRUE);
+        }
+
+        @Override
+        public @NotNull String toString() {
+            return "NOT " + operand;
+        }
+    }
+
+    private record And(Node[] operands) implements Node {
+        @Override
+        public int evaluate(boolean[] found, boolean complete) {
+            int result = TRUE;
+            for (Node operand : operands) {
+                int value = operand.evaluate(found, complete);
+                if (value == FALSE) {
+                    return FALSE;
+                }
+                if (value == UNKNOWN) {
+                    result = UNKNOWN;
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public @NotNull String toString() {
+            return join(operands, " AND ");
+        }
+    }
+
+    private record Or(Node[] operands) implements Node {
+        @Override
+        public int evaluate(boolean[] found, boolean complete) {
+            int result = FALSE;
+            for (Node operand : operands) {
+                int value = operand.evaluate(found, complete);
+                if (value == TRUE) {
+                    return TRUE;
+                }
+                if (value == UNKNOWN) {
+                    result = UNKNOWN;
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public @NotNull String toString() {
+            return join(operands, " OR ");
+        }
+    }
+
+    private static String join(Node[] operands, String operator) {
+        StringBuilder sb = new StringBuilder("(");
+        for (int i = 0; i < operands.length; i++) {
+            if (i > 0) {
+                sb.append(operator);
+            }
+            sb.append(operands[i]);
+        }
+        return sb.append(')').toString();
+    }
+
+    /**
+     * Recursive descent parser. Tokens are "(", ")", "AND", "OR", "NOT" and terms, which are kept as {@link Term} objects.
+     */
+    private static final class Parser {
+
+        private final String query;
+        private final boolean defaultCaseSensitive;
+        private final List<Object> tokens = new ArrayList<>();
+        private int position = 0;
+
+        // distinct terms, the index is the pattern id in the automaton
+        private final List<String> terms = new ArrayList<>();
+        private final List<Boolean> termCaseSensitive = new ArrayList<>();
+
+        Parser(String query, boolean defaultCaseSensitive) {
+            this.query = query;
+            this.defaultCaseSensitive = defaultCaseSensitive;
+            tokenize();
+            if (tokens.isEmpty()) {
+                throw new IllegalArgumentException("Query is empty");
+            }
+        }
+
+        Object peek() {
+            return position < tokens.size() ? tokens.get(position) : null;
+        }
+
+        Node parseExpression() {
+            List<Node> operands = new ArrayList<>();
+            operands.add(parseAnd());
+            while ("OR".equals(peek())) {
+                position++;
+                operands.add(parseAnd());
+            }
+            return operands.size() == 1 ? operands.get(0) : new Or(operands.toArray(new Node[0]));
+        }
+
+        private Node parseAnd() {
+            List<Node> operands = new ArrayList<>();
+            operands.add(parseNot());
+            while (true) {
+                Object token = peek();
+                if ("AND".equals(token)) {
+                    position++;
+                    operands.add(parseNot());
+                } else if (token instanceof Term || "NOT".equals(token) || "(".equals(token)) {
+                    // implicit AND
+                    operands.add(parseNot());
+                } else {
+                    break;
+                }
+            }
+            return operands.size() == 1 ? operands.get(0) : new And(operands.toArray(new Node[0]));
+        }
+
+        private Node parseNot() {
+            if ("NOT".equals(peek())) {
+                position++;
+                return new Not(parseNot());
+            }
+            return parsePrimary();
+        }
+
+        private Node parsePrimary() {
+            Object token = peek();
+            if (token == null) {
+                throw new IllegalArgumentException("Unexpected end of query: " + query);
+            }
+            position++;
+            if ("(".equals(token)) {
+                Node node = parseExpression();
+                if (!")".equals(peek())) {
+                    throw new IllegalArgumentException("Missing ')' in query: " + query);
+                }
+                position++;
+                return node;
+            }
+            if (token instanceof Term) {
+                return (Term) token;
+            }
+            throw new IllegalArgumentException("Unexpected '" + token + "' in query: " + query);
+        }
+
+        private void tokenize() {
+            int i = 0;
+            while (i < query.length()) {
+                char c = query.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                    continue;
+                }
+                if (c == '(' || c == ')') {
+                    tokens.add(String.valueOf(c));
+                    i++;
+                    continue;
+                }
+
+                boolean caseSensitive = defaultCaseSensitive;
+                if (query.startsWith("cs:", i)) {
+                    caseSensitive = true;
+                    i += 3;
+                } else if (query.startsWith("ci:", i)) {
+                    caseSensitive = false;
+                    i += 3;
+                }
+
+                StringBuilder text = new StringBuilder();
+                boolean quoted = i < query.length() && query.charAt(i) == '"';
+                if (quoted) {
+                    i++;
+                    boolean closed = false;
+                    while (i < query.length()) {
+                        char q = query.charAt(i++);
+                        if (q == '\\' && i < query.length()) {
+                            text.append(query.charAt(i++));
+                        } else if (q == '"') {
+                            closed = true;
+                            break;
+                        } else {
+                            text.append(q);
+                        }
+                    }
+                    if (!closed) {
+                        throw new IllegalArgumentException("Missing closing quote in query: " + query);
+                    }
+                } else {
+                    while (i < query.length()) {
+                        char w = query.charAt(i);
+                        if (Character.isWhitespace(w) || w == '(' || w == ')' || w == '"') {
+                            break;
+                        }
+                        text.append(w);
+                        i++;
+                    }
+                    String word = text.toString();
+                    if (word.equals("AND") || word.equals("OR") || word.equals("NOT")) {
+                        tokens.add(word);
+                        continue;
+                    }
+                }
+
+                if (text.length() == 0) {
+                    throw new IllegalArgumentException("Empty term in query: " + query);
+                }
+                tokens.add(term(text.toString(), caseSensitive));
+            }
+        }
+
+        // the same term twice shares one pattern id
+        private Term term(String text, boolean caseSensitive) {
+            for (int id = 0; id < terms.size(); id++) {
+                if (terms.get(id).equals(text) && termCaseSensitive.get(id) == caseSensitive) {
+                    return new Term(id, text, caseSensitive);
+                }
+            }
+            terms.add(text);
+            termCaseSensitive.add(caseSensitive);
+            return new Term(terms.size() - 1, text, caseSensitive);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package javadev.stringcollections.textreplacor.search;
+
+import javadev.stringcollections.textreplacor.ReplaceStringInFiles;
+import javadev.stringcollections.textreplacor.filesquery.DirectoryReader;
+import javadev.stringcollections.textreplacor.object.Line;
+import javadev.stringcollections.textreplacor.object.TextSearchResult;
+import javadev.stringcollections.textreplacor.writer.ReplaceStringInAFile;
+import lombok.Getter;
+import lombok.Setter;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * @author nurujjamanpollob
+ * @apiNote Finds the files in a directory that satisfy a {@link BooleanQuery}, like <code>"password" AND "http://" AND NOT "@Deprecated"</code>.
+ * <p>
+ * Each text file is read once, and reading stops as soon as the file's result is decided. This replaces running
+ * {@link StringMatcherInFiles} once per term and combining the result lists.
+ * <p>
+ * The result is a list of {@link javadev.stringcollections.textreplacor.object.TextSearchResult} objects with empty line arrays,
+ * the same shape {@link StringMatcherInFiles} returns with <code>skipLineCollection</code> enabled.
+ * @since 2.1.0
+ */
+@Getter
+public class BooleanQueryMatcherInFiles {
+
+    /**
+     * -- GETTER --
+     *  Returns the directory path where the search will be performed.
+     */
+    private final String directoryPath;
+    /**
+     * -- GETTER --
+     *  Returns the query text.
+     */
+    private final String query;
+    @Setter
+    private boolean caseSensitive = false; // Case sensitivity of the terms without cs: or ci: prefix. Default is false, like FindOccurrencesInAString.
+    @Setter
+    private boolean useLogging = false; // If true, the class will log data using ReplaceStringInAFile.logData() method
+
+    /**
+     * Constructor to initialize a BooleanQueryMatcherInFiles object.
+     *
+     * @param directoryPath the path of the directory to search in
+     * @param query         the boolean query, see {@link BooleanQuery} for the syntax
+     */
+    public BooleanQueryMatcherInFiles(String directoryPath, String query) {
+        this.directoryPath = directoryPath;
+        this.query = query;
+    }
+
+    /**
+     * Constructor to initialize a BooleanQueryMatcherInFiles object with a directory file object.
+     *
+     * @param file  the File object representing the directory to search in
+     * @param query the boolean query, see {@link BooleanQuery} for the syntax
+     */
+    public BooleanQueryMatcherInFiles(File file, String query) {
+        this.directoryPath = file.getAbsolutePath();
+        this.query = query;
+    }
+
+    /**
+     * Evaluates the query on all text files of the directory.
+     *
+     * @return a list of TextSearchResult objects, one per matching file, with empty line arrays. Null if no file matches!
+     * @throws IOException if the arguments are invalid or an I/O error occurs while reading the files
+     */
+    public @Nullable List<TextSearchResult> search() throws IOException {
+        BooleanQuery booleanQuery = validateArguments();
+
+        DirectoryReader directoryReader = new DirectoryReader(directoryPath);
+        List<File> files = directoryReader.listAllFiles();
+
+        int availableCores = Runtime.getRuntime().availableProcessors();
+        int threadCount = Math.max(2, availableCores * 5); // same sizing as StringMatcherInFiles, classification and reading are I/O bound
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        ConcurrentLinkedQueue<TextSearchResult> results = new ConcurrentLinkedQueue<>();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (File file : files) {
+            futures.add(executor.submit(() -> {
+                if (!StringMatcherInFiles.isTextFile(file)) {
+                    return;
+                }
+                try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+                    if (booleanQuery.matches(reader)) {
+                        results.add(new TextSearchResult(new Line[]{}, file));
+                    }
+                } catch (IOException e) {
+                    logData("search", "Error searching file: " + file.getAbsolutePath(), ReplaceStringInFiles.LogType.ERROR);
+                    throw new RuntimeException("Error occurred while searching file: " + file.getAbsolutePath(), e);
+                }
+            }));
+        }
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            // log the error
+            logData("search", "Thread interrupted or failed: " + e.getMessage(), ReplaceStringInFiles.LogType.ERROR);
+            executor.shutdownNow();
+
+            // throw IOException to indicate failure
+            throw new IOException("Error occurred while searching files: " + e.getMessage(), e);
+        }
+        executor.shutdown();
+
+        if (results.isEmpty()) {
+            logData("search", "No file matches '" + query + "' in directory: " + directoryPath, ReplaceStringInFiles.LogType.INFO);
+            return null;
+        }
+        return new ArrayList<>(results);
+    }
+
+    // validate passed arguments and compile the query, throw IOException if any error found
+    private BooleanQuery validateArguments() throws IOException {
+        if (directoryPath == null || directoryPath.isEmpty()) {
+            logData("validateArguments", "Directory path is null or empty", ReplaceStringInFiles.LogType.ERROR);
+            throw new IOException("Directory path is null or empty");
+        }
+        if (!new File(directoryPath).isDirectory()) {
+            logData("validateArguments", "Path is not a directory at " + directoryPath, ReplaceStringInFiles.LogType.ERROR);
+            throw new IOException("Path is not a directory at " + directoryPath);
+        }
+        if (query == null || query.isBlank()) {
+            logData("validateArguments", "Query is null or empty", ReplaceStringInFiles.LogType.ERROR);
+            throw new IOException("Query is null or empty");
+        }
+        try {
+            return BooleanQuery.parse(query, caseSensitive);
+        } catch (IllegalArgumentException e) {
+            logData("validateArguments", "Invalid query: " + e.getMessage(), ReplaceStringInFiles.LogType.ERROR);
+            throw new IOException("Invalid query: " + e.getMessage(), e);
+        }
+    }
+
+    // logger method to log when useLogging is true
+    public void logData(String methodName, String message, ReplaceStringInFiles.LogType logType) {
+        if (useLogging) {
+            ReplaceStringInAFile.logData(this.getClass(), methodName, message, logType);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package javadev.stringcollections.textreplacor.search;
 
 import javadev.stringcollections.textreplacor.ReplaceStringInFiles;
+import javadev.stringcollections.textreplacor.jfr.FileSearchEvent;
 import javadev.stringcollections.textreplacor.object.Line;
 import javadev.stringcollections.textreplacor.object.TextSearchResult;
 import javadev.stringcollections.textreplacor.writer.ReplaceStringInAFile;
@@ -10,9 +11,13 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
+import java.io.FilterReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
 
 /**
  * @apiNote Class that finds occurrences of a string in another string. can be loaded from a file or passed as a parameter.
@@ -27,6 +32,7 @@ public class FindOccurrencesInAString {
     private final String inputString;
     private final String searchString;
     private final File inputFilePath;
+    private final Reader inputReader; // content that is not a file, reported as inputFilePath. Null when reading the file
     /**
      * -- SETTER --
      * * @param includeTextWhereMatched if true, the text where the search string matched will be included in the result. If false empty string will be added in the {@link javadev.stringcollections.textreplacor.object.Line} object.
@@ -54,6 +60,17 @@ public class FindOccurrencesInAString {
     @Setter
     private boolean caseSensitive = false;
 
+    /**
+     * -- GETTER --
+     * @return true if the search string is treated as a regular expression.
+     */
+    @Getter
+    private boolean useRegex = false; // If true, the search string is a java.util.regex expression. Default is false.
+
+    private RegexSearchPattern regexSearchPattern; // compiled lazily from the search string, or shared by the caller
+    private Matcher regexMatcher; // created on the first line that passes the literal prefilter, then reset for each line
+    private long charsRead = 0; // characters read from the file or reader by the last search, for the search event
+
     /**
      * /**
      * Constructor to initialize the input string and search string.
@@ -65,6 +82,7 @@ public class FindOccurrencesInAString {
         this.inputString = inputString;
         this.searchString = searchString;
         this.inputFilePath = null; // No file path provided in this constructor
+        this.inputReader = null;
         this.isInitilizedWithFile = false; // Indicates that this instance is not initialized with a file
     }
 
@@ -80,9 +98,51 @@ public class FindOccurrencesInAString {
         this.inputString = null;
         this.searchString = searchString;
         this.inputFilePath = inputFilePath;
+        this.inputReader = null;
         this.isInitilizedWithFile = true; // Indicates that this instance is initialized with a file
     }
 
+    /**
+     * Constructor to search content that is not a file, like an entry of a zip archive, without copying it to disk.
+     * The content is read once, line by line, and the reader is closed by the search.
+     *
+     * @param inputReader  the content to search in
+     * @param reportedFile the file set in the result, for example <code>lib.jar!/config/app.properties</code>
+     * @param searchString the string to search for
+     * @since 2.1.0
+     */
+    public FindOccurrencesInAString(@NotNull Reader inputReader, @NotNull File reportedFile, @NotNull String searchString) {
+        this.inputString = null;
+        this.searchString = searchString;
+        this.inputFilePath = reportedFile;
+        this.inputReader = inputReader;
+        this.isInitilizedWithFile = true; // reported like a file
+    }
+
+    /**
+     * Enable or disable regular expression search. When enabled, the search string is compiled as a {@link java.util.regex.Pattern}
+     * and the regex engine runs only on lines that contain one of the literals required by the pattern, see {@link RegexSearchPattern}.
+     *
+     * @param useRegex if true, the search string is treated as a regular expression.
+     */
+    public void setUseRegex(boolean useRegex) {
+        this.useRegex = useRegex;
+        this.regexSearchPattern = null;
+        this.regexMatcher = null;
+    }
+
+    /**
+     * Use an already compiled {@link RegexSearchPattern}, and enable regular expression search. Used to share one compiled pattern between many files.
+     * The case sensitivity of the passed pattern is used, and the search string is ignored.
+     *
+     * @param regexSearchPattern the compiled pattern
+     */
+    public void setRegexSearchPattern(@NotNull RegexSearchPattern regexSearchPattern) {
+        this.useRegex = true;
+        this.regexSearchPattern = regexSearchPattern;
+        this.regexMatcher = null;
+    }
+
     /**
      * Suppress default constructor for noninstantiability
      */
@@ -144,6 +204,11 @@ public class FindOccurrencesInAString {
             return null; // Return null if input is invalid
         }
 
+        // regex search, the passed search string is the expression
+        if (useRegex) {
+            return findAndReturnRegexOccurrence(buffer, lineNumber);
+        }
+
         String searchBuffer = caseSensitive ? buffer : buffer.toLowerCase();
         String searchTarget = caseSensitive ? searchString : searchString.toLowerCase();
 
@@ -159,7 +224,8 @@ public class FindOccurrencesInAString {
             // log all object by toString() method
             logData(
                     "findAndReturnOccurrence()",
-                    "Found occurrence: " + occurrence,
+                    "Found occurrence: {}",
+                    occurrence,
                     ReplaceStringInFiles.LogType.INFO
             );
             // Create a Line object for the found occurrence
@@ -180,6 +246,93 @@ public class FindOccurrencesInAString {
 
     }
 
+    /**
+     * Performs regular expression search on a buffer, works like {@link #findAndReturnOccurrence(String, String, int)}.
+     * The buffer is tested for the required literals of the pattern first, and the {@link Matcher} only runs if one of them is found.
+     * Empty matches are not reported.
+     *
+     * @param buffer     the string to search within
+     * @param lineNumber the line number in the text
+     * @return a {@link javadev.stringcollections.textreplacor.object.Line} array of found occurrences, or null if no occurrences are found.
+     */
+    private @Nullable Line[] findAndReturnRegexOccurrence(@NotNull String buffer, int lineNumber) {
+        RegexSearchPattern regexPattern = getRegexSearchPattern();
+
+        // literal prefilter, most lines are rejected here
+        if (!regexPattern.mayMatch(buffer)) {
+            return null;
+        }
+
+        Matcher matcher = resetMatcher(buffer);
+        List<Line> occurrences = null;
+        while (matcher.find()) {
+            // skip empty matches, they can't be highlighted or replaced
+            if (matcher.end() == matcher.start()) {
+                continue;
+            }
+            Line occurrence = includeTextWhereMatched ? new Line(lineNumber, buffer, matcher.start(), matcher.end() - 1) : new Line(lineNumber, "", matcher.start(), matcher.end() - 1);
+
+            // log all object by toString() method
+            logData(
+                    "findAndReturnRegexOccurrence()",
+                    "Found occurrence: {}",
+                    occurrence,
+                    ReplaceStringInFiles.LogType.INFO
+            );
+
+            if (occurrences == null) {
+                occurrences = new ArrayList<>();
+            }
+            occurrences.add(occurrence);
+        }
+
+        return occurrences == null ? null : occurrences.toArray(new Line[0]);
+    }
+
+    /**
+     * Tests if a text contains at least one (non-empty) occurrence of the search string, or of the pattern in regex mode.
+     *
+     * @param text the line or string to test
+     * @return true if an occurrence exists
+     */
+    private boolean containsOccurrence(@NotNull String text) {
+        if (useRegex) {
+            RegexSearchPattern regexPattern = getRegexSearchPattern();
+            if (!regexPattern.mayMatch(text)) {
+                return false;
+            }
+            Matcher matcher = resetMatcher(text);
+            while (matcher.find()) {
+                if (matcher.end() > matcher.start()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        String textToSearch = caseSensitive ? text : text.toLowerCase();
+        String stringToFind = caseSensitive ? searchString : searchString.toLowerCase();
+        return textToSearch.contains(stringToFind);
+    }
+
+    // returns the compiled pattern, compile it from the search string on first use
+    private RegexSearchPattern getRegexSearchPattern() {
+        if (regexSearchPattern == null) {
+            regexSearchPattern = RegexSearchPattern.compile(searchString, caseSensitive);
+        }
+        return regexSearchPattern;
+    }
+
+    // reuse one matcher per instance, it is created only when a line passes the prefilter
+    private Matcher resetMatcher(String text) {
+        if (regexMatcher == null) {
+            regexMatcher = getRegexSearchPattern().getPattern().matcher(text);
+        } else {
+            regexMatcher.reset(text);
+        }
+        return regexMatcher;
+    }
+
     /**
      * This method perform search on the file or string in line by line and return a {@link javadev.stringcollections.textreplacor.object.TextSearchResult} object containing the search results for each line.
      * If this class initialized with file, the file path included, otherwise file path will be empty in the {@link javadev.stringcollections.textreplacor.object.TextSearchResult} object.
@@ -354,7 +507,25 @@ public class FindOccurrencesInAString {
 //
 //    }
 
+    /**
+     * Finds the occurrences of the search string (or of the pattern in regex mode) in the file or string, line by line.
+     * A {@link FileSearchEvent} is emitted for a slow search when a JFR recording is running.
+     *
+     * @return the occurrences, or null if none found. With {@link #setSkipLineCollection(boolean)}, a result without lines if there is a match.
+     * @throws IOException if an I/O error occurs while reading the file.
+     */
     public @Nullable TextSearchResult findOccurrences() throws IOException {
+        FileSearchEvent event = new FileSearchEvent();
+        event.begin();
+        TextSearchResult result = findOccurrencesInInput();
+        event.end();
+        if (event.shouldCommit()) {
+            commitEvent(event, skipLineCollection ? "exists" : "search", result == null ? 0 : Math.max(1, result.lines().length));
+        }
+        return result;
+    }
+
+    private @Nullable TextSearchResult findOccurrencesInInput() throws IOException {
 
         // if no line collection is needed, We will skip the line collection
         if (skipLineCollection) {
@@ -367,18 +538,18 @@ public class FindOccurrencesInAString {
             if (isInitilizedWithFile) {
                 logData(
                         "findOccurrences()",
-                        "Reading file: " + inputFilePath.getAbsolutePath() + " for string: " + searchString,
+                        "Reading file: {} for string: {}",
+                        inputFilePath,
+                        searchString,
                         ReplaceStringInFiles.LogType.INFO
                 );
                 // create bufferedReader to read the file, we only match first match, so whole file reading is not needed, we can improve reading performance by skipping unnecessary lines reading
                 boolean isMatchExits = false; // Flag to check if any match exists
-                try (java.io.BufferedReader reader = new java.io.BufferedReader(new java.io.FileReader(inputFilePath))) {
+                try (java.io.BufferedReader reader = openReader()) {
                     String line;
                     while ((line = reader.readLine()) != null) {
                         // Check if the line contains the search string
-                        String lineToSearch = caseSensitive ? line : line.toLowerCase();
-                        String stringToFind = caseSensitive ? searchString : searchString.toLowerCase();
-                        if (lineToSearch.contains(stringToFind)) {
+                        if (containsOccurrence(line)) {
                             isMatchExits = true; // Set the flag to true if a match is found
                             break; // Exit the loop if a match is found
                         }
@@ -386,7 +557,9 @@ public class FindOccurrencesInAString {
                 } catch (IOException e) {
                     logData(
                             "findOccurrences()",
-                            "Error reading file: " + inputFilePath.getAbsolutePath() + " - " + e.getMessage(),
+                            "Error reading file: {} - {}",
+                            inputFilePath,
+                            e.getMessage(),
                             ReplaceStringInFiles.LogType.ERROR
                     );
                     throw e; // Rethrow the exception to indicate an error occurred
@@ -394,15 +567,18 @@ public class FindOccurrencesInAString {
                 if (!isMatchExits) {
                     logData(
                             "findOccurrences()",
-                            "No occurrences found in file: " + inputFilePath.getAbsolutePath() + " " +
-                                    "for string: " + searchString,
+                            "No occurrences found in file: {} for string: {}",
+                            inputFilePath,
+                            searchString,
                             ReplaceStringInFiles.LogType.INFO
                     );
                     return null; // Return null if no occurrences found
                 } else {
                     logData(
                             "findOccurrences()",
-                            "Occurrences found in file: " + inputFilePath.getAbsolutePath() + " for string: " + searchString,
+                            "Occurrences found in file: {} for string: {}",
+                            inputFilePath,
+                            searchString,
                             ReplaceStringInFiles.LogType.INFO
                     );
 
@@ -411,24 +587,25 @@ public class FindOccurrencesInAString {
             } else {
                 logData(
                         "findOccurrences()",
-                        "Searching in provided string for: " + searchString,
+                        "Searching in provided string for: {}",
+                        searchString,
                         ReplaceStringInFiles.LogType.INFO
                 );
                 // If initialized with a string, check if the string contains the search string
-                String stringToSearch = caseSensitive ? inputString : inputString.toLowerCase();
-                String stringToFind = caseSensitive ? searchString : searchString.toLowerCase();
-                boolean isMatchExits = stringToSearch.contains(stringToFind);
+                boolean isMatchExits = containsOccurrence(inputString);
                 if (!isMatchExits) {
                     logData(
                             "findOccurrences()",
-                            "No occurrences found in provided string for: " + searchString,
+                            "No occurrences found in provided string for: {}",
+                            searchString,
                             ReplaceStringInFiles.LogType.INFO
                     );
                     return null; // Return null if no occurrences found
                 } else {
                     logData(
                             "findOccurrences()",
-                            "Occurrences found in provided string for: " + searchString,
+                            "Occurrences found in provided string for: {}",
+                            searchString,
                             ReplaceStringInFiles.LogType.INFO
                     );
                     return new TextSearchResult(new Line[]{}, new File("")); // Return empty file path if initialized with string
@@ -437,19 +614,21 @@ public class FindOccurrencesInAString {
         } else {
 
             // create a ArrayList to hold the search results
-            java.util.List<Line> searchResults = new ArrayList<>();
+            List<Line> searchResults = new ArrayList<>();
 
             // if this class initialized
             if (isInitilizedWithFile) {
                 // log the start of the search if logging is enabled
                 logData(
                         "findOccurrences()",
-                        "Starting search in file: " + inputFilePath.getAbsolutePath() + " for string: " + searchString,
+                        "Starting search in file: {} for string: {}",
+                        inputFilePath,
+                        searchString,
                         ReplaceStringInFiles.LogType.INFO
                 );
 
                 // read the file line by line
-                try (java.io.BufferedReader reader = new java.io.BufferedReader(new java.io.FileReader(inputFilePath))) {
+                try (java.io.BufferedReader reader = openReader()) {
                     String line;
                     int lineNumber = 1; // Start line number from 1
                     while ((line = reader.readLine()) != null) {
@@ -460,7 +639,9 @@ public class FindOccurrencesInAString {
                             // log the occurrences if logging is enabled
                             logData(
                                     "findOccurrences()",
-                                    "Found occurrences in line " + lineNumber + ": " + Arrays.toString(occurrences),
+                                    "Found occurrences in line {}: {}",
+                                    lineNumber,
+                                    occurrences,
                                     ReplaceStringInFiles.LogType.INFO
                             );
 
@@ -474,7 +655,8 @@ public class FindOccurrencesInAString {
                 // log the start of the search if logging is enabled
                 logData(
                         "findOccurrences()",
-                        "Starting search in string for: " + searchString,
+                        "Starting search in string for: {}",
+                        searchString,
                         ReplaceStringInFiles.LogType.INFO
                 );
                 // If initialized with a string, split it into lines and search each line
@@ -486,7 +668,9 @@ public class FindOccurrencesInAString {
                         // log the occurrences if logging is enabled
                         logData(
                                 "findOccurrences()",
-                                "Found occurrences in line " + (i + 1) + ": " + Arrays.toString(occurrences),
+                                "Found occurrences in line {}: {}",
+                                i + 1,
+                                occurrences,
                                 ReplaceStringInFiles.LogType.INFO
                         );
 
@@ -499,7 +683,9 @@ public class FindOccurrencesInAString {
 
                 logData(
                         "findOccurrences()",
-                        "No occurrences found for search string: " + searchString + " in " + (isInitilizedWithFile ? inputFilePath.getAbsolutePath() : "the provided string"),
+                        "No occurrences found for search string: {} in {}",
+                        searchString,
+                        isInitilizedWithFile ? inputFilePath : "the provided string",
                         ReplaceStringInFiles.LogType.INFO
                 );
 
@@ -511,7 +697,8 @@ public class FindOccurrencesInAString {
             // log processing completion if logging is enabled
             logData(
                     "findOccurrences()",
-                    "Search completed. Total occurrences found: " + resultArray.length,
+                    "Search completed. Total occurrences found: {}",
+                    resultArray.length,
                     ReplaceStringInFiles.LogType.INFO
             );
             // Return a TextSearchResult object containing the search results and the file path (if applicable)
@@ -521,6 +708,108 @@ public class FindOccurrencesInAString {
     }
 
 
+    /**
+     * Counts the occurrences of the search string (or of the pattern in regex mode) in the file or string, line by line.
+     * Unlike {@link #findOccurrences()}, no {@link javadev.stringcollections.textreplacor.object.Line} object is created for a hit,
+     * and the count equals the number of Line objects {@link #findOccurrences()} would return.
+     *
+     * @return the number of occurrences, 0 if none found.
+     * @throws IOException if an I/O error occurs while reading the file.
+     */
+    public long countOccurrences() throws IOException {
+        FileSearchEvent event = new FileSearchEvent();
+        event.begin();
+        long count = countOccurrencesInInput();
+        event.end();
+        if (event.shouldCommit()) {
+            commitEvent(event, "count", count);
+        }
+        return count;
+    }
+
+    private long countOccurrencesInInput() throws IOException {
+        long count = 0;
+
+        if (isInitilizedWithFile) {
+            try (java.io.BufferedReader reader = openReader()) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    count += countOccurrencesInLine(line);
+                }
+            }
+        } else {
+            for (String line : inputString.split("\n")) {
+                count += countOccurrencesInLine(line);
+            }
+        }
+
+        logData(
+                "countOccurrences()",
+                "Count completed. Total occurrences found: {}",
+                count,
+                ReplaceStringInFiles.LogType.INFO
+        );
+        return count;
+    }
+
+    // the file, or the reader passed instead of it, counting the characters read for the search event
+    private java.io.BufferedReader openReader() throws IOException {
+        charsRead = 0;
+        Reader reader = inputReader != null ? inputReader : new java.io.FileReader(inputFilePath);
+        return new java.io.BufferedReader(new FilterReader(reader) {
+            @Override
+            public int read(@NotNull char[] buffer, int offset, int length) throws IOException {
+                int read = super.read(buffer, offset, length);
+                if (read > 0) {
+                    charsRead += read;
+                }
+                return read;
+            }
+        });
+    }
+
+    // fills and commits a search event, only called for events that are recorded
+    private void commitEvent(FileSearchEvent event, String mode, long matchCount) {
+        event.setPath(isInitilizedWithFile ? inputFilePath.getAbsolutePath() : "");
+        event.setSize(isInitilizedWithFile ? inputFilePath.length() : inputString.length());
+        event.setBytesProcessed(isInitilizedWithFile ? charsRead : inputString.length());
+        event.setMatchCount(matchCount);
+        event.setEngine(useRegex ? "regex" : caseSensitive ? "literal" : "literal-ignore-case");
+        event.setMode(mode);
+        event.commit();
+    }
+
+    // count occurrences in a line, non-overlapping like findAndReturnOccurrence
+    private int countOccurrencesInLine(@NotNull String line) {
+        if (searchString.isEmpty()) {
+            return 0;
+        }
+
+        int count = 0;
+        if (useRegex) {
+            RegexSearchPattern regexPattern = getRegexSearchPattern();
+            if (!regexPattern.mayMatch(line)) {
+                return 0;
+            }
+            Matcher matcher = resetMatcher(line);
+            while (matcher.find()) {
+                if (matcher.end() > matcher.start()) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        String searchBuffer = caseSensitive ? line : line.toLowerCase();
+        String searchTarget = caseSensitive ? searchString : searchString.toLowerCase();
+        int index = searchBuffer.indexOf(searchTarget);
+        while (index != -1) {
+            count++;
+            index = searchBuffer.indexOf(searchTarget, index + searchString.length());
+        }
+        return count;
+    }
+
     // logger method to log when useLogging is true
     public void logData(String methodName, String message, ReplaceStringInFiles.LogType logType) {
         if (useLogging) {
@@ -528,4 +817,18 @@ public class FindOccurrencesInAString {
         }
     }
 
+    // parameterized logger method, nothing is formatted when useLogging is false or the level is disabled
+    public void logData(String methodName, String pattern, Object argument, ReplaceStringInFiles.LogType logType) {
+        if (useLogging) {
+            ReplaceStringInAFile.logData(this.getClass(), methodName, pattern, argument, logType);
+        }
+    }
+
+    // parameterized logger method with two arguments
+    public void logData(String methodName, String pattern, Object argument1, Object argument2, ReplaceStringInFiles.LogType logType) {
+        if (useLogging) {
+            ReplaceStringInAFile.logData(this.getClass(), methodName, pattern, argument1, argument2, logType);
+        }
+    }
+
 }
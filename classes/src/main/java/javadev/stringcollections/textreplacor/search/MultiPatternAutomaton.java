@@ -0,0 +1,224 @@
+package javadev.stringcollections.textreplacor.search;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote Aho-Corasick automaton that finds many strings in one pass over a text.
+ * <p>
+ * All patterns are stored case-folded (each char is passed through {@link Character#toLowerCase(char)}), and the text is folded the same way
+ * while scanning, so one automaton serves both case-insensitive and case-sensitive patterns. A hit of a case-sensitive pattern
+ * is confirmed against the original text by the caller, see {@link #isCaseSensitive(int)}.
+ * <p>
+ * Transitions for ASCII chars are precomputed into a dense table, so scanning usual source text costs one array read per char.
+ * Other chars follow the sparse goto map and failure links.
+ * <p>
+ * Instances are immutable after construction and can be shared between threads.
+ * @since 2.1.0
+ */
+public final class MultiPatternAutomaton {
+
+    private static final int ASCII_SIZE = 128;
+
+    private final String[] patterns;
+    private final boolean[] caseSensitive;
+
+    // dense ASCII transition table, state * ASCII_SIZE + char
+    private final int[] asciiTransitions;
+    // sparse transitions for non-ASCII chars, goto function only
+    private final List<Map<Character, Integer>> sparseTransitions;
+    private final int[] failure;
+    // pattern ids that end at each state, including the ones reached by failure links
+    private final int[][] outputs;
+
+    /**
+     * Builds the automaton.
+     *
+     * @param patterns      the patterns to find, must not be empty strings
+     * @param caseSensitive case sensitivity per pattern, same length as patterns
+     * @throws IllegalArgumentException if a pattern is empty or the arrays have different lengths
+     */
+    public MultiPatternAutomaton(@NotNull String[] patterns, @NotNull boolean[] caseSensitive) {
+        if (patterns.length != caseSensitive.length) {
+            throw new IllegalArgumentException("Each pattern needs a case sensitivity flag");
+        }
+        this.patterns = patterns.clone();
+        this.caseSensitive = caseSensitive.clone();
+
+        // build the trie on folded chars
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> stateOutputs = new ArrayList<>();
+        trie.add(new HashMap<>());
+        stateOutputs.add(new ArrayList<>());
+
+        for (int id = 0; id < patterns.length; id++) {
+            String pattern = patterns[id];
+            if (pattern == null || pattern.isEmpty()) {
+                throw new IllegalArgumentException("Pattern can't be null or empty");
+            }
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = Character.toLowerCase(pattern.charAt(i));
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new HashMap<>());
+                    stateOutputs.add(new ArrayList<>());
+                    trie.get(state).put(c, next);
+                }
+                state = next;
+            }
+            stateOutputs.get(state).add(id);
+        }
+
+        int stateCount = trie.size();
+        this.failure = new int[stateCount];
+        this.asciiTransitions = new int[stateCount * ASCII_SIZE];
+        this.sparseTransitions = trie;
+
+        // breadth first, failure links and the dense table of each state only depend on shallower states
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < ASCII_SIZE; c++) {
+            Integer next = trie.get(0).get((char) c);
+            asciiTransitions[c] = next == null ? 0 : next;
+        }
+        for (Integer child : trie.get(0).values()) {
+            failure[child] = 0;
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int fail = failure[state];
+
+            stateOutputs.get(state).addAll(stateOutputs.get(fail));
+
+            for (int c = 0; c < ASCII_SIZE; c++) {
+                Integer next = trie.get(state).get((char) c);
+                asciiTransitions[state * ASCII_SIZE + c] = next == null ? asciiTransitions[fail * ASCII_SIZE + c] : next;
+            }
+
+            for (Map.Entry<Character, Integer> entry : trie.get(state).entrySet()) {
+                int child = entry.getValue();
+                failure[child] = state == 0 ? 0 : step(fail, entry.getKey());
+                queue.add(child);
+            }
+        }
+
+        this.outputs = new int[stateCount][];
+        for (int state = 0; state < stateCount; state++) {
+            List<Integer> ids = stateOutputs.get(state);
+            int[] array = new int[ids.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = ids.get(i);
+            }
+            Arrays.sort(array);
+            outputs[state] = array;
+        }
+    }
+
+    /**
+     * @return the initial state, use it at the start of each text (or line).
+     */
+    public int initialState() {
+        return 0;
+    }
+
+    /**
+     * Moves the automaton by one char of the text.
+     *
+     * @param state the current state
+     * @param c     the next char of the text, not folded
+     * @return the next state
+     */
+    public int next(int state, char c) {
+        char folded = Character.toLowerCase(c);
+        if (folded < ASCII_SIZE) {
+            return asciiTransitions[state * ASCII_SIZE + folded];
+        }
+        return step(state, folded);
+    }
+
+    // goto with failure links, for chars without dense table
+    private int step(int state, char folded) {
+        while (true) {
+            if (folded < ASCII_SIZE) {
+                return asciiTransitions[state * ASCII_SIZE + folded];
+            }
+            Integer next = sparseTransitions.get(state).get(folded);
+            if (next != null) {
+                return next;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = failure[state];
+        }
+    }
+
+    /**
+     * Returns the ids of the patterns that end at a state. Don't modify the returned array.
+     *
+     * @param state the state after consuming a char
+     * @return pattern ids, empty array if no pattern ends here
+     */
+    public int[] outputs(int state) {
+        return outputs[state];
+    }
+
+    /**
+     * @return the number of patterns
+     */
+    public int patternCount() {
+        return patterns.length;
+    }
+
+    /**
+     * @param id pattern id
+     * @return the pattern as it was passed to the constructor
+     */
+    public String pattern(int id) {
+        return patterns[id];
+    }
+
+    /**
+     * @param id pattern id
+     * @return true if the pattern must be confirmed against the original text
+     */
+    public boolean isCaseSensitive(int id) {
+        return caseSensitive[id];
+    }
+
+    /**
+     * Confirms a hit of a pattern that ends at an index of the original text. Case-insensitive hits are always confirmed.
+     *
+     * @param id       pattern id
+     * @param text     the original text
+     * @param endIndex index of the last char of the hit
+     * @return true if the text contains the pattern at that position with the pattern's case sensitivity
+     */
+    public boolean confirm(int id, @NotNull CharSequence text, int endIndex) {
+        if (!caseSensitive[id]) {
+            return true;
+        }
+        String pattern = patterns[id];
+        int start = endIndex - pattern.length() + 1;
+        if (start < 0) {
+            return false;
+        }
+        for (int i = 0; i < pattern.length(); i++) {
+            if (text.charAt(start + i) != pattern.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,430 @@
+package javadev.stringcollections.textreplacor.search;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote A compiled regular expression together with the literal substrings that every match of it must contain.
+ * <p>
+ * Before a {@link java.util.regex.Matcher} is run over a line, the line is tested with {@link String#indexOf(String)} for
+ * one of the required literals. For the expression <code>password\s*=\s*"[^"]+"</code> the required literal is
+ * <code>password</code>, so lines (and files) without that word are rejected by the literal kernel and never reach the regex engine.
+ * <p>
+ * Literal extraction is conservative: groups, character classes and optional atoms end a literal run, and an
+ * alternation at top level yields one literal per branch. If any branch has no required literal, or the expression uses
+ * inline flags or back references, no prefilter is used and every line goes to the matcher.
+ * <p>
+ * Case-insensitive patterns are compiled with {@link Pattern#CASE_INSENSITIVE} (ASCII folding), so lower-casing both the line and the
+ * literals never rejects a line the matcher would accept.
+ * <p>
+ * Instances are immutable and can be shared between threads, {@link Matcher} instances cannot.
+ * @since 2.1.0
+ */
+public final class RegexSearchPattern {
+
+    private final String regex;
+    private final Pattern pattern;
+    private final boolean caseSensitive;
+    private final String[] requiredLiterals;
+
+    private RegexSearchPattern(String regex, Pattern pattern, boolean caseSensitive, String[] requiredLiterals) {
+        this.regex = regex;
+        this.pattern = pattern;
+        this.caseSensitive = caseSensitive;
+        this.requiredLiterals = requiredLiterals;
+    }
+
+    /**
+     * Compile a regular expression and extract its required literals.
+     *
+     * @param regex         the regular expression, in {@link java.util.regex.Pattern} syntax
+     * @param caseSensitive if false, the expression is matched ignoring (ASCII) case
+     * @return the compiled search pattern
+     * @throws PatternSyntaxException if the expression is invalid
+     */
+    public static @NotNull RegexSearchPattern compile(@NotNull String regex, boolean caseSensitive) {
+        Pattern pattern = caseSensitive ? Pattern.compile(regex) : Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+
+        String[] literals = extractRequiredLiterals(regex);
+        if (!caseSensitive) {
+            for (int i = 0; i < literals.length; i++) {
+                literals[i] = literals[i].toLowerCase(Locale.ROOT);
+            }
+        }
+
+        return new RegexSearchPattern(regex, pattern, caseSensitive, literals);
+    }
+
+    /**
+     * @return the source expression
+     */
+    public String getRegex() {
+        return regex;
+    }
+
+    /**
+     * @return the compiled {@link Pattern}
+     */
+    public Pattern getPattern() {
+        return pattern;
+    }
+
+    /**
+     * @return true if the pattern is matched case-sensitively
+     */
+    public boolean isCaseSensitive() {
+        return caseSensitive;
+    }
+
+    /**
+     * @return a copy of the required literals (lower-cased when the pattern is case-insensitive). Empty if no prefilter is used.
+     */
+    public String[] getRequiredLiterals() {
+        return requiredLiterals.clone();
+    }
+
+    /**
+     * @return true if lines are prefiltered by literal search before the regex engine runs
+     */
+    public boolean hasPrefilter() {
+        return requiredLiterals.length > 0;
+    }
+
+    /**
+     * Tests if a text may contain a match, using only literal search. A false result is definitive, a true result must be confirmed by the matcher.
+     *
+     * @param text the line or region to test
+     * @return false if the text contains none of the required literals
+     */
+    public boolean mayMatch(@NotNull String text) {
+        if (requiredLiterals.length == 0) {
+            return true;
+        }
+
+        String haystack = caseSensitive ? text : text.toLowerCase(Locale.ROOT);
+        for (String literal : requiredLiterals) {
+            if (haystack.contains(literal)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Extracts the literal substrings required by a regular expression. Every match of the expression contains at least one of the returned strings.
+     *
+     * @param regex the regular expression
+     * @return the required literals, one per top-level alternative. Empty array if the expression has no usable literal.
+     */
+    public static String[] extractRequiredLiterals(@NotNull String regex) {
+
+        // inline flags (?i), (?x) ... and back references change how literals must be read, so don't prefilter
+        if (containsInlineFlags(regex)) {
+            return new String[0];
+        }
+
+        List<String> literals = new ArrayList<>();
+        for (String branch : splitTopLevelAlternatives(regex)) {
+            String literal = longestRequiredLiteral(branch);
+
+            // one branch without literal means any line may match
+            if (literal == null || literal.isEmpty()) {
+                return new String[0];
+            }
+            literals.add(literal);
+        }
+
+        return literals.toArray(new String[0]);
+    }
+
+    // tests if the expression has inline flag groups like (?i) or (?x:...), named groups and look arounds are fine
+    private static boolean containsInlineFlags(String regex) {
+        for (int i = 0; i < regex.length() - 2; i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+                continue;
+            }
+            if (c == '(' && regex.charAt(i + 1) == '?') {
+                char flag = regex.charAt(i + 2);
+                if (Character.isLetter(flag) || flag == '-') {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // split the expression on '|' that is not inside a group, a class or an escape
+    private static List<String> splitTopLevelAlternatives(String regex) {
+        List<String> branches = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        int i = 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == 'Q') {
+                    int end = regex.indexOf("\\E", i + 2);
+                    i = end == -1 ? regex.length() : end + 2;
+                } else {
+                    i += 2;
+                }
+                continue;
+            }
+            if (c == '[') {
+                i = skipCharacterClass(regex, i);
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth == 0) {
+                branches.add(regex.substring(start, i));
+                start = i + 1;
+            }
+            i++;
+        }
+        branches.add(regex.substring(start));
+        return branches;
+    }
+
+    // removes the last atom of a run, a supplementary character is one atom of two chars
+    private static void dropLastCodePoint(StringBuilder run) {
+        run.setLength(run.length() - Character.charCount(run.codePointBefore(run.length())));
+    }
+
+    /**
+     * Returns the longest run of characters that must appear, in order, in every match of a branch without alternation at top level.
+     * Returns null if the branch can't be analyzed.
+     */
+    private static String longestRequiredLiteral(String branch) {
+        String best = "";
+        StringBuilder run = new StringBuilder();
+        boolean lastAtomInRun = false; // true if the last atom parsed is the last char of run
+
+        int i = 0;
+        int length = branch.length();
+        while (i < length) {
+            char c = branch.charAt(i);
+            switch (c) {
+                case '\\': {
+                    if (i + 1 >= length) {
+                        return null;
+                    }
+                    char next = branch.charAt(i + 1);
+                    if (next == 'Q') {
+                        int end = branch.indexOf("\\E", i + 2);
+                        String quoted = end == -1 ? branch.substring(i + 2) : branch.substring(i + 2, end);
+                        run.append(quoted);
+                        // an empty quote is no atom, a quantifier after it applies to the atom before
+                        if (!quoted.isEmpty()) {
+                            lastAtomInRun = true;
+                        }
+                        i = end == -1 ? length : end + 2;
+                        continue;
+                    }
+                    if (next >= '1' && next <= '9') {
+                        // back reference, the digits that follow are ambiguous
+                        return null;
+                    }
+                    if (Character.isLetterOrDigit(next)) {
+                        // predefined class, boundary or escape sequence, not a literal we can rely on
+                        best = longer(best, run);
+                        run.setLength(0);
+                        lastAtomInRun = false;
+                        i = skipEscapeSequence(branch, i);
+                        continue;
+                    }
+                    run.append(next);
+                    lastAtomInRun = true;
+                    i += 2;
+                    continue;
+                }
+                case '[':
+                    best = longer(best, run);
+                    run.setLength(0);
+                    lastAtomInRun = false;
+                    i = skipCharacterClass(branch, i);
+                    continue;
+                case '(':
+                    best = longer(best, run);
+                    run.setLength(0);
+                    lastAtomInRun = false;
+                    i = skipGroup(branch, i);
+                    if (i < 0) {
+                        return null;
+                    }
+                    continue;
+                case ')':
+                    return null;
+                case '.':
+                case '^':
+                case '$':
+                    best = longer(best, run);
+                    run.setLength(0);
+                    lastAtomInRun = false;
+                    i++;
+                    continue;
+                case '?':
+                case '*':
+                    // the previous atom is optional, drop it from the run
+                    if (lastAtomInRun && run.length() > 0) {
+                        dropLastCodePoint(run);
+                    }
+                    best = longer(best, run);
+                    run.setLength(0);
+                    lastAtomInRun = false;
+                    i = skipQuantifierSuffix(branch, i + 1);
+                    continue;
+                case '+':
+                    // the previous atom is required, but what follows is not adjacent to it anymore
+                    best = longer(best, run);
+                    run.setLength(0);
+                    lastAtomInRun = false;
+                    i = skipQuantifierSuffix(branch, i + 1);
+                    continue;
+                case '{': {
+                    int close = branch.indexOf('}', i);
+                    if (close == -1) {
+                        return null;
+                    }
+                    String bounds = branch.substring(i + 1, close);
+                    int comma = bounds.indexOf(',');
+                    String min = (comma == -1 ? bounds : bounds.substring(0, comma)).trim();
+                    if (min.equals("0") && lastAtomInRun && run.length() > 0) {
+                        dropLastCodePoint(run);
+                    }
+                    best = longer(best, run);
+                    run.setLength(0);
+                    lastAtomInRun = false;
+                    i = skipQuantifierSuffix(branch, close + 1);
+                    continue;
+                }
+                default:
+                    run.append(c);
+                    lastAtomInRun = true;
+                    i++;
+            }
+        }
+
+        return longer(best, run);
+    }
+
+    private static String longer(String best, StringBuilder run) {
+        return run.length() > best.length() ? run.toString() : best;
+    }
+
+    // skip lazy '?' or possessive '+' modifier after a quantifier
+    private static int skipQuantifierSuffix(String regex, int i) {
+        if (i < regex.length() && (regex.charAt(i) == '?' || regex.charAt(i) == '+')) {
+            return i + 1;
+        }
+        return i;
+    }
+
+    // returns the index after an escape sequence that starts with a backslash at index i
+    private static int skipEscapeSequence(String regex, int i) {
+        char kind = regex.charAt(i + 1);
+        int j = i + 2;
+        switch (kind) {
+            case 'p':
+            case 'P':
+            case 'N':
+                if (j < regex.length() && regex.charAt(j) == '{') {
+                    int close = regex.indexOf('}', j);
+                    return close == -1 ? regex.length() : close + 1;
+                }
+                return Math.min(j + 1, regex.length());
+            case 'x':
+                if (j < regex.length() && regex.charAt(j) == '{') {
+                    int close = regex.indexOf('}', j);
+                    return close == -1 ? regex.length() : close + 1;
+                }
+                return Math.min(j + 2, regex.length());
+            case 'u':
+                return Math.min(j + 4, regex.length());
+            case '0': {
+                int end = j;
+                while (end < regex.length() && end < j + 3 && regex.charAt(end) >= '0' && regex.charAt(end) <= '7') {
+                    end++;
+                }
+                return end;
+            }
+            case 'c':
+                return Math.min(j + 1, regex.length());
+            case 'k': {
+                int close = regex.indexOf('>', j);
+                return close == -1 ? regex.length() : close + 1;
+            }
+            default:
+                return j;
+        }
+    }
+
+    // returns the index after a character class that starts at index i
+    private static int skipCharacterClass(String regex, int i) {
+        int depth = 0;
+        int j = i;
+        while (j < regex.length()) {
+            char c = regex.charAt(j);
+            if (c == '\\') {
+                j += 2;
+                continue;
+            }
+            if (c == '[') {
+                depth++;
+                // a ']' right after '[' or '[^' is a literal member of the class
+                if (j + 1 < regex.length() && regex.charAt(j + 1) == '^') {
+                    j++;
+                }
+                if (j + 1 < regex.length() && regex.charAt(j + 1) == ']') {
+                    j++;
+                }
+            } else if (c == ']') {
+                depth--;
+                if (depth == 0) {
+                    return j + 1;
+                }
+            }
+            j++;
+        }
+        return regex.length();
+    }
+
+    // returns the index after a group that starts at index i, or -1 if it is not closed
+    private static int skipGroup(String regex, int i) {
+        int depth = 0;
+        int j = i;
+        while (j < regex.length()) {
+            char c = regex.charAt(j);
+            if (c == '\\') {
+                j += 2;
+                continue;
+            }
+            if (c == '[') {
+                j = skipCharacterClass(regex, j);
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth == 0) {
+                    return j + 1;
+                }
+            }
+            j++;
+        }
+        return -1;
+    }
+}
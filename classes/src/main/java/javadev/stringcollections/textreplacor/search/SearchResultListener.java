@@ -0,0 +1,24 @@
+package javadev.stringcollections.textreplacor.search;
+
+import javadev.stringcollections.textreplacor.object.TextSearchResult;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote Receives search results as soon as a file is searched, see {@link StringMatcherInFiles#search(SearchResultListener)}.
+ * @since 2.1.0
+ */
+@FunctionalInterface
+public interface SearchResultListener {
+
+    /**
+     * Called once for each file with occurrences. Calls are never concurrent, so the listener doesn't need to be thread-safe.
+     *
+     * @param result the search result of a file
+     * @throws IOException to stop the search, it is rethrown by the search method
+     */
+    void onResult(@NotNull TextSearchResult result) throws IOException;
+}
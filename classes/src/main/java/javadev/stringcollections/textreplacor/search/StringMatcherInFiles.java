@@ -2,21 +2,36 @@ package javadev.stringcollections.textreplacor.search;
 
 import javadev.stringcollections.textreplacor.ReplaceStringInFiles;
 import javadev.stringcollections.textreplacor.console.ColoredConsoleOutput;
+import javadev.stringcollections.textreplacor.console.ProgressReporter;
 import javadev.stringcollections.textreplacor.filesquery.DirectoryReader;
+import javadev.stringcollections.textreplacor.filesquery.DuplicateFileGrouper;
 import javadev.stringcollections.textreplacor.io.TextSearchResultSaver;
+import javadev.stringcollections.textreplacor.io.zip.TextStreams;
+import javadev.stringcollections.textreplacor.io.zip.ZipArchiveReader;
+import javadev.stringcollections.textreplacor.metrics.MetricsRecorder;
 import javadev.stringcollections.textreplacor.mimedetector.TextFileDetector;
+import javadev.stringcollections.textreplacor.object.OccurrenceCount;
 import javadev.stringcollections.textreplacor.object.TextSearchResult;
 import javadev.stringcollections.textreplacor.writer.ReplaceStringInAFile;
 import lombok.Getter;
 import lombok.Setter;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.PatternSyntaxException;
 
 /**
  * @author nurujjamanpollob
@@ -48,6 +63,60 @@ public class StringMatcherInFiles {
     private boolean useLogging = false; // If true, the class will log data using ReplaceStringInAFile.logData() method
     @Setter
     private boolean skipLineCollection = false; // If true, the class will not collect line information in the result. Default is false.
+    /**
+     * -- SETTER --
+     * If true, the search string is treated as a regular expression. The pattern is compiled once and shared by all files,
+     * and the regex engine only runs on lines that contain a literal required by the pattern. See {@link RegexSearchPattern}.
+     */
+    @Setter
+    private boolean useRegex = false;
+    /**
+     * -- SETTER --
+     * If true, {@link #search()} and {@link #count()} return their results sorted by absolute file path, instead of the order the files were searched in.
+     * Sorted results can be compared with {@link javadev.stringcollections.textreplacor.io.TextSearchResultDiff}.
+     */
+    @Setter
+    private boolean sortResultsByPath = false;
+    /**
+     * -- SETTER --
+     * Receives the counters and stage latencies (walk, classify, scan) of {@link #search()} and {@link #count()}. Default is {@link MetricsRecorder#NO_OP}.
+     */
+    @Setter
+    private MetricsRecorder metricsRecorder = MetricsRecorder.NO_OP;
+    /**
+     * -- SETTER --
+     * Shows the progress of {@link #search()} and {@link #count()} as a status line, the reporter is started and stopped by them. Default is null, no progress is shown.
+     */
+    @Setter
+    private ProgressReporter progressReporter = null;
+    /**
+     * -- SETTER --
+     * If true, byte-identical files are searched once, see {@link DuplicateFileGrouper}. The result of the first file is attached to all its copies,
+     * so every path is still reported. Worth it for trees with many vendored copies of the same files. Default is false.
+     */
+    @Setter
+    private boolean deduplicateFiles = false;
+    /**
+     * -- SETTER --
+     * If true, zip archives ({@link ZipArchiveReader#ARCHIVE_EXTENSIONS}, like jar) are searched inside instead of being skipped as binary.
+     * Their text entries are streamed from the archive and searched in parallel, nothing is extracted to disk.
+     * An entry is reported as <code>archive!/entry</code>, see {@link ZipArchiveReader#entryFile(File, String)}. Default is false.
+     */
+    @Setter
+    private boolean searchArchives = false;
+    /**
+     * -- SETTER --
+     * If true, gzip files, detected by their magic number whatever their extension, are searched through their decompressed text
+     * instead of being skipped as binary. The file is decompressed while it is searched, nothing is written to disk,
+     * and the line numbers are the ones of the decompressed text. Like other files, many gzip files are searched in parallel. Default is false.
+     */
+    @Setter
+    private boolean searchGzipFiles = false;
+    /**
+     * -- GETTER --
+     *  Returns the total number of occurrences found by the last {@link #count()} call, over all files.
+     */
+    private long totalOccurrenceCount = 0;
 
     /**
      * Constructor to initialize a StringMatcherInFiles object.
@@ -82,32 +151,107 @@ public class StringMatcherInFiles {
      */
 
     public @Nullable List<TextSearchResult> search() throws IOException {
-        validateArguments();
+        List<TextSearchResult> results = new ArrayList<>();
+        search(results::add);
+
+        if (results.isEmpty()) {
+            ColoredConsoleOutput.printRedText("No occurrences found for '" + searchString + "' in directory: " + directoryPath);
+            return null;
+        }
+        if (sortResultsByPath) {
+            results.sort(Comparator.comparing(result -> result.file().getAbsolutePath()));
+        }
+        return results;
+    }
 
+    /**
+     * Starts the search for the String in the files of the directory, and passes each result to a listener as soon as its file is searched.
+     * The results are not collected, so they can be written out while the search is running, for example with
+     * {@link javadev.stringcollections.textreplacor.io.TextSearchResultStreamWriter}. The listener calls are serialized.
+     *
+     * @param listener receives the result of each file with occurrences
+     * @return the number of results passed to the listener
+     * @throws IOException if an I/O error occurs while reading the files, or the listener throws
+     */
+    public int search(@NotNull SearchResultListener listener) throws IOException {
+        // the expression is compiled once while validating, every file shares it
+        RegexSearchPattern regexSearchPattern = validateArguments();
+
+        MetricsRecorder metrics = metricsRecorder;
+        long walkStart = System.nanoTime();
         DirectoryReader directoryReader = new DirectoryReader(directoryPath);
         List<File> files = directoryReader.listAllFiles();
+        metrics.recordLatency(MetricsRecorder.Stage.WALK, System.nanoTime() - walkStart);
+        metrics.add(MetricsRecorder.Counter.FILES_WALKED, files.size());
+        List<List<File>> groups = groupFiles(files, metrics);
+        ProgressReporter progress = progressReporter;
+        if (progress != null) {
+            progress.start();
+            progress.setTotalFiles(files.size());
+        }
 
         int availableCores = Runtime.getRuntime().availableProcessors();
         int threadCount = Math.max(2, availableCores * 5); // Use at least 2 threads, or 5 times the number of available cores
         ExecutorService executor = Executors.newFixedThreadPool(threadCount);
-        ConcurrentLinkedQueue<TextSearchResult> results = new ConcurrentLinkedQueue<>();
+        ExecutorService entryExecutor = newEntryExecutor();
+        ArchiveSearch archiveSearch = entryExecutor == null ? null
+                : new ArchiveSearch(searchString, includeTextWhereMatched, skipLineCollection, regexSearchPattern, metrics, entryExecutor);
+        Object listenerLock = new Object();
+        AtomicInteger resultCount = new AtomicInteger();
 
         List<Future<?>> futures = new ArrayList<>();
-        for (File file : files) {
+        for (List<File> group : groups) {
+            File file = group.get(0);
 
             // add isTextFile in a background thread, this is where performance hit may occur
             futures.add(executor.submit(() -> {
-                if (isTextFile(file)) {
-                    FindOccurrencesInAString finder = new FindOccurrencesInAString(file, searchString);
+                if (progress != null) {
+                    for (File copy : group) {
+                        progress.fileProcessed(copy.length());
+                    }
+                }
+                Map<String, TextSearchResult> entryResults = null;
+                if (archiveSearch != null && ZipArchiveReader.isArchive(file)) {
+                    try {
+                        entryResults = archiveSearch.search(file);
+                    } catch (IOException e) {
+                        if (progress != null) {
+                            progress.error();
+                        }
+                        logData("search", "Error searching archive: " + file.getAbsolutePath(), ReplaceStringInFiles.LogType.ERROR);
+
+                        // shut down the executor service
+                        executor.shutdownNow();
+                        throw new RuntimeException("Error occurred while searching archive: " + file.getAbsolutePath(), e);
+                    }
+                }
+                if (entryResults != null) {
+                    for (Map.Entry<String, TextSearchResult> entryResult : entryResults.entrySet()) {
+                        TextSearchResult result = entryResult.getValue();
+                        for (File copy : group) {
+                            // the copies share the lines of the first archive
+                            TextSearchResult copyResult = copy == file ? result
+                                    : new TextSearchResult(result.lines(), ZipArchiveReader.entryFile(copy, entryResult.getKey()));
+                            report(copyResult, listener, listenerLock, resultCount, metrics, progress, executor);
+                        }
+                    }
+                    return;
+                }
+                FindOccurrencesInAString finder = openFinder(file, metrics);
+                if (finder != null) {
                     finder.setIncludeTextWhereMatched(includeTextWhereMatched);
                     finder.setSkipLineCollection(skipLineCollection);
+                    if (regexSearchPattern != null) {
+                        finder.setRegexSearchPattern(regexSearchPattern);
+                    }
                     TextSearchResult result;
+                    long scanStart = System.nanoTime();
                     try {
                         result = finder.findOccurrences();
-                        if (result != null && (skipLineCollection || result.lines().length > 0)) {
-                            results.add(result);
-                        }
                     } catch (IOException e) {
+                        if (progress != null) {
+                            progress.error();
+                        }
                         logData("search", "Error searching file: " + file.getAbsolutePath(), ReplaceStringInFiles.LogType.ERROR);
                         e.printStackTrace();
 
@@ -115,32 +259,257 @@ public class StringMatcherInFiles {
                         executor.shutdownNow();
                         throw new RuntimeException("Error occurred while searching file: " + file.getAbsolutePath(), e);
                     }
+                    metrics.recordLatency(MetricsRecorder.Stage.SCAN, System.nanoTime() - scanStart);
+                    metrics.add(MetricsRecorder.Counter.BYTES_READ, file.length());
+                    if (result != null && (skipLineCollection || result.lines().length > 0)) {
+                        for (File copy : group) {
+                            // the copies share the lines of the first file
+                            TextSearchResult copyResult = copy == file ? result : new TextSearchResult(result.lines(), copy);
+                            report(copyResult, listener, listenerLock, resultCount, metrics, progress, executor);
+                        }
+                    }
                 }
             }));
 
         }
 
-        for (Future<?> future : futures) {
-            try {
-                future.get();
-            } catch (InterruptedException | ExecutionException e) {
-            // log the error
-                logData("search", "Thread interrupted or failed: " + e.getMessage(), ReplaceStringInFiles.LogType.ERROR);
+        try {
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException | ExecutionException e) {
+                // log the error
+                    logData("search", "Thread interrupted or failed: " + e.getMessage(), ReplaceStringInFiles.LogType.ERROR);
 
-                e.printStackTrace();
+                    e.printStackTrace();
 
-                // throw IOException to indicate failure
-                throw new IOException("Error occurred while searching files: " + e.getMessage(), e);
+                    // throw IOException to indicate failure
+                    throw new IOException("Error occurred while searching files: " + e.getMessage(), e);
+                }
+            }
+        } finally {
+            // the tasks are done, or one failed and the others are not needed, and the pool threads are not daemons
+            executor.shutdownNow();
+            if (progress != null) {
+                progress.stop();
+            }
+            if (entryExecutor != null) {
+                entryExecutor.shutdownNow();
             }
         }
-        executor.shutdown();
 
-        if (results.isEmpty()) {
+        if (resultCount.get() == 0) {
             logData("search", "No occurrences found for '" + searchString + "' in directory: " + directoryPath, ReplaceStringInFiles.LogType.INFO);
-            ColoredConsoleOutput.printRedText("No occurrences found for '" + searchString + "' in directory: " + directoryPath);
+        }
+        return resultCount.get();
+    }
+
+    /**
+     * Counts the occurrences of the String in the files of the directory, without collecting lines.
+     * Each file produces a primitive count, and the total over all files is summed with a {@link LongAdder} shared by the worker threads,
+     * available from {@link #getTotalOccurrenceCount()} after this method returns.
+     *
+     * @return a list of {@link OccurrenceCount} objects, one per file with at least one occurrence. Null if not match found!
+     * @throws IOException if an I/O error occurs while reading the files
+     */
+    public @Nullable List<OccurrenceCount> count() throws IOException {
+        // the expression is compiled once while validating, every file shares it
+        RegexSearchPattern regexSearchPattern = validateArguments();
+
+        MetricsRecorder metrics = metricsRecorder;
+        long walkStart = System.nanoTime();
+        DirectoryReader directoryReader = new DirectoryReader(directoryPath);
+        List<File> files = directoryReader.listAllFiles();
+        metrics.recordLatency(MetricsRecorder.Stage.WALK, System.nanoTime() - walkStart);
+        metrics.add(MetricsRecorder.Counter.FILES_WALKED, files.size());
+        List<List<File>> groups = groupFiles(files, metrics);
+        ProgressReporter progress = progressReporter;
+        if (progress != null) {
+            progress.start();
+            progress.setTotalFiles(files.size());
+        }
+
+        int availableCores = Runtime.getRuntime().availableProcessors();
+        int threadCount = Math.max(2, availableCores * 5); // Use at least 2 threads, or 5 times the number of available cores
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        ExecutorService entryExecutor = newEntryExecutor();
+        ArchiveSearch archiveSearch = entryExecutor == null ? null
+                : new ArchiveSearch(searchString, false, false, regexSearchPattern, metrics, entryExecutor);
+        ConcurrentLinkedQueue<OccurrenceCount> results = new ConcurrentLinkedQueue<>();
+        LongAdder totalCount = new LongAdder();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (List<File> group : groups) {
+            File file = group.get(0);
+            futures.add(executor.submit(() -> {
+                if (progress != null) {
+                    for (File copy : group) {
+                        progress.fileProcessed(copy.length());
+                    }
+                }
+                Map<String, Long> entryCounts = null;
+                if (archiveSearch != null && ZipArchiveReader.isArchive(file)) {
+                    try {
+                        entryCounts = archiveSearch.count(file);
+                    } catch (IOException e) {
+                        if (progress != null) {
+                            progress.error();
+                        }
+                        logData("count", "Error counting in archive: " + file.getAbsolutePath(), ReplaceStringInFiles.LogType.ERROR);
+
+                        // shut down the executor service
+                        executor.shutdownNow();
+                        throw new RuntimeException("Error occurred while counting in archive: " + file.getAbsolutePath(), e);
+                    }
+                }
+                if (entryCounts != null) {
+                    for (Map.Entry<String, Long> entryCount : entryCounts.entrySet()) {
+                        for (File copy : group) {
+                            metrics.increment(MetricsRecorder.Counter.FILES_MATCHED);
+                            if (progress != null) {
+                                progress.fileMatched();
+                            }
+                            totalCount.add(entryCount.getValue());
+                            results.add(new OccurrenceCount(ZipArchiveReader.entryFile(copy, entryCount.getKey()), entryCount.getValue()));
+                        }
+                    }
+                    return;
+                }
+                FindOccurrencesInAString finder = openFinder(file, metrics);
+                if (finder != null) {
+                    if (regexSearchPattern != null) {
+                        finder.setRegexSearchPattern(regexSearchPattern);
+                    }
+                    long scanStart = System.nanoTime();
+                    try {
+                        long count = finder.countOccurrences();
+                        metrics.recordLatency(MetricsRecorder.Stage.SCAN, System.nanoTime() - scanStart);
+                        metrics.add(MetricsRecorder.Counter.BYTES_READ, file.length());
+                        if (count > 0) {
+                            for (File copy : group) {
+                                metrics.increment(MetricsRecorder.Counter.FILES_MATCHED);
+                                if (progress != null) {
+                                    progress.fileMatched();
+                                }
+                                totalCount.add(count);
+                                results.add(new OccurrenceCount(copy, count));
+                            }
+                        }
+                    } catch (IOException e) {
+                        if (progress != null) {
+                            progress.error();
+                        }
+                        logData("count", "Error counting in file: " + file.getAbsolutePath(), ReplaceStringInFiles.LogType.ERROR);
+
+                        // shut down the executor service
+                        executor.shutdownNow();
+                        throw new RuntimeException("Error occurred while counting in file: " + file.getAbsolutePath(), e);
+                    }
+                }
+            }));
+        }
+
+        try {
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException | ExecutionException e) {
+                    // log the error
+                    logData("count", "Thread interrupted or failed: " + e.getMessage(), ReplaceStringInFiles.LogType.ERROR);
+
+                    // throw IOException to indicate failure
+                    throw new IOException("Error occurred while counting in files: " + e.getMessage(), e);
+                }
+            }
+        } finally {
+            // the tasks are done, or one failed and the others are not needed, and the pool threads are not daemons
+            executor.shutdownNow();
+            if (progress != null) {
+                progress.stop();
+            }
+            if (entryExecutor != null) {
+                entryExecutor.shutdownNow();
+            }
+        }
+
+        totalOccurrenceCount = totalCount.sum();
+
+        if (results.isEmpty()) {
+            logData("count", "No occurrences found for '" + searchString + "' in directory: " + directoryPath, ReplaceStringInFiles.LogType.INFO);
             return null;
         }
-        return new ArrayList<>(results);
+        List<OccurrenceCount> counts = new ArrayList<>(results);
+        if (sortResultsByPath) {
+            counts.sort(Comparator.comparing(count -> count.file().getAbsolutePath()));
+        }
+        return counts;
+    }
+
+    // passes a result to the listener, the listener calls are serialized by the lock
+    private void report(TextSearchResult result, SearchResultListener listener, Object listenerLock, AtomicInteger resultCount,
+                        MetricsRecorder metrics, ProgressReporter progress, ExecutorService executor) {
+        metrics.increment(MetricsRecorder.Counter.FILES_MATCHED);
+        if (progress != null) {
+            progress.fileMatched();
+        }
+        try {
+            synchronized (listenerLock) {
+                listener.onResult(result);
+            }
+        } catch (IOException e) {
+            logData("search", "Result listener failed for file: " + result.file().getAbsolutePath(), ReplaceStringInFiles.LogType.ERROR);
+
+            // shut down the executor service
+            executor.shutdownNow();
+            throw new RuntimeException("Result listener failed for file: " + result.file().getAbsolutePath(), e);
+        }
+        resultCount.incrementAndGet();
+    }
+
+    // a finder for a text file, or for the decompressed text of a gzip file. Null for a binary file
+    private @Nullable FindOccurrencesInAString openFinder(File file, MetricsRecorder metrics) {
+        if (searchGzipFiles && TextFileDetector.isGzipFile(file.toPath())) {
+            long start = System.nanoTime();
+            InputStream in;
+            try {
+                in = TextStreams.openGzipIfText(file);
+            } catch (IOException e) {
+                // a truncated or corrupt gzip file is binary, like a file that can't be classified
+                logData("openFinder", "Error decompressing file: " + file.getAbsolutePath() + " - " + e.getMessage(), ReplaceStringInFiles.LogType.WARN);
+                in = null;
+            }
+            metrics.recordLatency(MetricsRecorder.Stage.CLASSIFY, System.nanoTime() - start);
+            metrics.increment(in != null ? MetricsRecorder.Counter.FILES_TEXT : MetricsRecorder.Counter.FILES_BINARY);
+            if (in == null) {
+                return null;
+            }
+            metrics.increment(MetricsRecorder.Counter.GZIP_FILES_SEARCHED);
+            // decoded with the default charset, like a file on disk
+            return new FindOccurrencesInAString(new InputStreamReader(in, Charset.defaultCharset()), file, searchString);
+        }
+        return classify(file, metrics) ? new FindOccurrencesInAString(file, searchString) : null;
+    }
+
+    // the entries of the archives are inflated and searched on their own threads, null when archives are not searched
+    private @Nullable ExecutorService newEntryExecutor() {
+        if (!searchArchives) {
+            return null;
+        }
+        return Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+    }
+
+    // one group per file, or per unique content when deduplicating
+    private List<List<File>> groupFiles(List<File> files, MetricsRecorder metrics) throws IOException {
+        if (!deduplicateFiles) {
+            List<List<File>> groups = new ArrayList<>(files.size());
+            for (File file : files) {
+                groups.add(List.of(file));
+            }
+            return groups;
+        }
+        List<List<File>> groups = DuplicateFileGrouper.group(files, false);
+        metrics.add(MetricsRecorder.Counter.FILES_DEDUPLICATED, files.size() - groups.size());
+        return groups;
     }
 
     /**
@@ -164,8 +533,17 @@ public class StringMatcherInFiles {
         }
     }
 
-    // this method validate passed arguments for error and throw IOException if any error found
-    private void validateArguments() throws IOException {
+    // isTextFile, recording the classify latency and the text or binary counter
+    private static boolean classify(File file, MetricsRecorder metrics) {
+        long start = System.nanoTime();
+        boolean isText = isTextFile(file);
+        metrics.recordLatency(MetricsRecorder.Stage.CLASSIFY, System.nanoTime() - start);
+        metrics.increment(isText ? MetricsRecorder.Counter.FILES_TEXT : MetricsRecorder.Counter.FILES_BINARY);
+        return isText;
+    }
+
+    // this method validate passed arguments for error and throw IOException if any error found, returns the compiled pattern in regex mode
+    private RegexSearchPattern validateArguments() throws IOException {
         if (directoryPath == null || directoryPath.isEmpty()) {
             // log
             logData("validateArguments", "Directory path is null or empty", ReplaceStringInFiles.LogType.ERROR);
@@ -186,6 +564,16 @@ public class StringMatcherInFiles {
             logData("validateArguments", "Search string is null or empty", ReplaceStringInFiles.LogType.ERROR);
             throw new IOException("Search string is null or empty");
         }
+        if (useRegex) {
+            try {
+                return RegexSearchPattern.compile(searchString, false);
+            } catch (PatternSyntaxException e) {
+                // log
+                logData("validateArguments", "Search string is not a valid regular expression: " + e.getMessage(), ReplaceStringInFiles.LogType.ERROR);
+                throw new IOException("Search string is not a valid regular expression: " + e.getMessage(), e);
+            }
+        }
+        return null;
     }
 
     // logger method to log when useLogging is true
@@ -3,12 +3,22 @@ package javadev.stringcollections.textreplacor.writer;
 import javadev.stringcollections.textreplacor.ReplaceStringInFiles;
 import javadev.stringcollections.textreplacor.exception.TextReplacerError;
 import javadev.stringcollections.textreplacor.generator.RandomGenerator;
+import javadev.stringcollections.textreplacor.io.FileHashDriver;
+import javadev.stringcollections.textreplacor.jfr.FileReplaceEvent;
 import javadev.stringcollections.textreplacor.logutility.Logger;
+import javadev.stringcollections.textreplacor.metrics.MetricsRecorder;
+import javadev.stringcollections.textreplacor.object.ReplaceResult;
 import librarycollections.nurujjamanpollob.mimedetector.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.apache.logging.log4j.Level;
 
 import java.io.*;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.function.Supplier;
 
 /**
  * @apiNote used to replace a string in a file.
@@ -34,6 +44,28 @@ public class ReplaceStringInAFile {
     @Setter
     @Getter
     boolean useLogger = false;
+    /**
+     * -- SETTER --
+     * Receives the write and rename latencies and the byte counters of this replacement. Default is {@link MetricsRecorder#NO_OP}.
+     */
+    @Setter
+    @Getter
+    private MetricsRecorder metricsRecorder = MetricsRecorder.NO_OP;
+    /**
+     * -- GETTER --
+     * Returns true if the last {@link #replaceString()} call found the old string in the file.
+     */
+    @Getter
+    private boolean matched = false;
+    /**
+     * -- SETTER --
+     * Sets the algorithm of the digests computed over the original and the replaced content, for example SHA-256 or
+     * {@link FileHashDriver#XXH3_128}. The bytes are hashed as they are read and written, without an extra read.
+     * Default is null, no digest is computed.
+     */
+    @Setter
+    @Getter
+    private String digestAlgorithm = null;
 
     /**
      * Constructor to replace a string in a file without any buffer size
@@ -79,6 +111,16 @@ public class ReplaceStringInAFile {
      * @return the path of modified file
      */
     public String replaceString() throws TextReplacerError {
+        return replaceStringWithResult().path();
+    }
+
+    /**
+     * Method that replace a string in a file, like {@link #replaceString()}, and returns the details of the replacement,
+     * with the content digests if a {@link #setDigestAlgorithm(String) digest algorithm} is set.
+     * @throws TextReplacerError if any error occurs. such as file not exists, a file is not a text file, IO error occurs
+     * @return the result of the replacement
+     */
+    public ReplaceResult replaceStringWithResult() throws TextReplacerError {
 
         // if file is null, throw an error
         if (file == null) {
@@ -154,7 +196,7 @@ public class ReplaceStringInAFile {
      * @param newString new string to replace
      * @param bufferSize buffer size to read a file
      */
-    private String readAndReplaceFileContent(File file, String oldString, String newString, int bufferSize) throws IOException {
+    private ReplaceResult readAndReplaceFileContent(File file, String oldString, String newString, int bufferSize) throws IOException {
 
         // create an empty string file content, get an original file path and add a new extension, using random generation
 
@@ -166,17 +208,47 @@ public class ReplaceStringInAFile {
         logMessage(
                 ReplaceStringInAFile.class,
                 "readAndReplaceFileContent(File file, String oldString, String newString, int bufferSize)",
-                "A input file is being read and replaced. The file path is: " + file.getAbsolutePath() +
+                () -> "A input file is being read and replaced. The file path is: " + file.getAbsolutePath() +
                 " meanwhile, A tmp file is created at this location to create the replaced content: "
                         + tmpFile.getAbsolutePath()
                         + " The old string is: " + oldString
                         + " The new string is: " + newString,
                 ReplaceStringInFiles.LogType.INFO);
 
-        BufferedWriter writer = new BufferedWriter(new FileWriter(tmpFile));
+        FileReplaceEvent event = new FileReplaceEvent();
+        event.begin();
+        // occurrences are only counted while the event is recorded
+        boolean countMatches = event.isEnabled();
+        long matchCount = 0;
+
+        // the digests see the raw bytes, under the charset decoder and encoder
+        MessageDigest inputDigest = null;
+        MessageDigest outputDigest = null;
+        if (digestAlgorithm != null) {
+            try {
+                inputDigest = FileHashDriver.newDigest(digestAlgorithm);
+                outputDigest = FileHashDriver.newDigest(digestAlgorithm);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IOException("Digest algorithm not found: " + digestAlgorithm, e);
+            }
+        }
+
+        long writeStart = System.nanoTime();
+        long bytesRead = file.length();
+        boolean matched = false;
+        OutputStream output = new FileOutputStream(tmpFile);
+        if (outputDigest != null) {
+            output = new DigestOutputStream(output, outputDigest);
+        }
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(output));
+
+        InputStream input = new FileInputStream(file);
+        if (inputDigest != null) {
+            input = new DigestInputStream(input, inputDigest);
+        }
 
         // now read in chunks and replace the string if any match found
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input))) {
 
             // if buffer size is -1
             if (bufferSize == -1) {
@@ -186,7 +258,13 @@ public class ReplaceStringInAFile {
             int read;
             while ((read = reader.read(buffer)) != -1) {
                 String chunk = new String(buffer, 0, read);
-                chunk = chunk.replace(oldString, newString);
+                if (countMatches) {
+                    matchCount += countOccurrences(chunk, oldString);
+                }
+                if (chunk.contains(oldString)) {
+                    matched = true;
+                    chunk = chunk.replace(oldString, newString);
+                }
 
                 // write the chunk to the writer
                 writer.write(chunk);
@@ -195,13 +273,23 @@ public class ReplaceStringInAFile {
 
         // close the writer
         writer.close();
+        metricsRecorder.recordLatency(MetricsRecorder.Stage.WRITE, System.nanoTime() - writeStart);
+        metricsRecorder.add(MetricsRecorder.Counter.BYTES_READ, bytesRead);
+        long bytesWritten = tmpFile.length();
+        metricsRecorder.add(MetricsRecorder.Counter.BYTES_WRITTEN, bytesWritten);
+        if (matched) {
+            metricsRecorder.increment(MetricsRecorder.Counter.FILES_MATCHED);
+        }
+        this.matched = matched;
 
+        long renameStart = System.nanoTime();
         // delete the original file
         boolean deleteResult = file.delete();
 
 
         // rename the tmp file to an original file
         boolean renameResult = tmpFile.renameTo(file);
+        metricsRecorder.recordLatency(MetricsRecorder.Stage.RENAME, System.nanoTime() - renameStart);
 
         // if any error occurs, throw an error
         if (!deleteResult) {
@@ -228,15 +316,31 @@ public class ReplaceStringInAFile {
             throw new IOException("Cannot rename the tmp file to original file: " + file.getAbsolutePath());
         }
 
+        metricsRecorder.increment(MetricsRecorder.Counter.FILES_REWRITTEN);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.setPath(file.getAbsolutePath());
+            event.setSize(bytesRead);
+            event.setBytesWritten(bytesWritten);
+            event.setMatchCount(matchCount);
+            event.setBufferSize(bufferSize);
+            event.commit();
+        }
+
         // show log that a file is replaced with new content
         logMessage(
                 ReplaceStringInAFile.class,
                 "readAndReplaceFileContent(File file, String oldString, String newString, int bufferSize)",
-                "A file is replaced with new content. The old string is: " + oldString + " The new string is: " + newString,
+                "A file is replaced with new content. The old string is: {} The new string is: {}",
+                oldString,
+                newString,
                 ReplaceStringInFiles.LogType.INFO);
 
 
-        return file.getAbsolutePath();
+        return new ReplaceResult(file.getAbsolutePath(), matched, bytesRead, bytesWritten,
+                inputDigest == null ? null : FileHashDriver.toHexString(inputDigest.digest()),
+                outputDigest == null ? null : FileHashDriver.toHexString(outputDigest.digest()));
 
 
     }
@@ -259,6 +363,40 @@ public class ReplaceStringInAFile {
 
     }
 
+    /**
+     * This method used to log a message that is built only if logging is enabled
+     * @param clazz class
+     * @param methodName method name
+     * @param message supplies the message
+     * @param logType log type
+     */
+    public void logMessage(Class<?> clazz, String methodName, Supplier<String> message, ReplaceStringInFiles.LogType logType) {
+        // if logging is disabled, return
+        if (!isUseLogger()) {
+            return;
+        }
+
+        logData(clazz, methodName, message, logType);
+    }
+
+    /**
+     * This method used to log a parameterized message, see {@link #logData(Class, String, String, Object, Object, ReplaceStringInFiles.LogType)}
+     * @param clazz class
+     * @param methodName method name
+     * @param pattern message pattern
+     * @param argument1 the first argument
+     * @param argument2 the second argument
+     * @param logType log type
+     */
+    public void logMessage(Class<?> clazz, String methodName, String pattern, Object argument1, Object argument2, ReplaceStringInFiles.LogType logType) {
+        // if logging is disabled, return
+        if (!isUseLogger()) {
+            return;
+        }
+
+        logData(clazz, methodName, pattern, argument1, argument2, logType);
+    }
+
     /**
      * This method used to log the data
      * @param clazz class
@@ -286,6 +424,72 @@ public class ReplaceStringInAFile {
         }
     }
 
+    /**
+     * This method used to log a message that is built only if the level of the log type is enabled,
+     * use it when building the message is not free
+     * @param clazz class
+     * @param methodName method name
+     * @param message supplies the message, not called if the level is disabled
+     * @param logType log type
+     */
+    public static void logData(Class<?> clazz, String methodName, Supplier<String> message, ReplaceStringInFiles.LogType logType) {
+        Logger.log(clazz, toLevel(logType), methodName, message);
+    }
+
+    /**
+     * This method used to log a parameterized message, each <code>{}</code> in the pattern is replaced by the argument.
+     * The message is formatted only if the level of the log type is enabled
+     * @param clazz class
+     * @param methodName method name
+     * @param pattern message pattern
+     * @param argument the argument
+     * @param logType log type
+     */
+    public static void logData(Class<?> clazz, String methodName, String pattern, Object argument, ReplaceStringInFiles.LogType logType) {
+        Logger.log(clazz, toLevel(logType), methodName, pattern, argument);
+    }
+
+    /**
+     * This method used to log a parameterized message with two arguments, see {@link #logData(Class, String, String, Object, ReplaceStringInFiles.LogType)}
+     * @param clazz class
+     * @param methodName method name
+     * @param pattern message pattern
+     * @param argument1 the first argument
+     * @param argument2 the second argument
+     * @param logType log type
+     */
+    public static void logData(Class<?> clazz, String methodName, String pattern, Object argument1, Object argument2, ReplaceStringInFiles.LogType logType) {
+        Logger.log(clazz, toLevel(logType), methodName, pattern, argument1, argument2);
+    }
+
+    // log4j level of a log type
+    private static Level toLevel(ReplaceStringInFiles.LogType logType) {
+        switch (logType) {
+            case WARN:
+                return Level.WARN;
+            case ERROR:
+                return Level.ERROR;
+            case DEBUG:
+                return Level.DEBUG;
+            default:
+                return Level.INFO;
+        }
+    }
+
+    // non-overlapping occurrences, like String.replace
+    private static int countOccurrences(String chunk, String oldString) {
+        if (oldString.isEmpty()) {
+            return 0;
+        }
+        int count = 0;
+        int index = chunk.indexOf(oldString);
+        while (index != -1) {
+            count++;
+            index = chunk.indexOf(oldString, index + oldString.length());
+        }
+        return count;
+    }
+
     /**
      * Get the buffer size according to the old string size
      * @param oldString old string
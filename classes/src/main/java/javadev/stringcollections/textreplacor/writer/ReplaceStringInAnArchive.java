@@ -0,0 +1,515 @@
+package javadev.stringcollections.textreplacor.writer;
+
+import javadev.stringcollections.textreplacor.ReplaceStringInFiles;
+import javadev.stringcollections.textreplacor.exception.TextReplacerError;
+import javadev.stringcollections.textreplacor.generator.RandomGenerator;
+import javadev.stringcollections.textreplacor.io.FileHashDriver;
+import javadev.stringcollections.textreplacor.io.zip.ParallelZipper;
+import javadev.stringcollections.textreplacor.io.zip.SpillBuffer;
+import javadev.stringcollections.textreplacor.io.zip.TextStreams;
+import javadev.stringcollections.textreplacor.io.zip.ZipArchiveWriter;
+import javadev.stringcollections.textreplacor.io.zip.ZipCentralDirectory;
+import javadev.stringcollections.textreplacor.metrics.MetricsRecorder;
+import javadev.stringcollections.textreplacor.object.ReplaceResult;
+import lombok.Getter;
+import lombok.Setter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+/**
+ * @author nurujjamanpollob
+ * @version 1.0
+ * @apiNote used to replace a string in the text entries of a zip archive, like a jar, without extracting it.
+ * <p>
+ * The archive is read once, in order: the text entries are read up to the first occurrence of the old string, and the digest of the archive
+ * is computed on the way. An archive without a match is not written at all. Otherwise, a new archive is started at the first matched entry,
+ * in a tmp file next to the original one, and moved over it: the matched entries are inflated again, replaced and deflated,
+ * the other entries are copied compressed, byte for byte, with {@link ZipArchiveWriter#putRaw(ZipCentralDirectory.Entry, FileChannel)},
+ * so they are never inflated or deflated. The digest of the new archive is computed while it is written.
+ * The archive and entry comments, the versions, attributes and extra fields of the entries and the order of the central directory are kept.
+ * <p>
+ * Directories, encrypted entries, entries with a compression method other than stored or deflated, and entries of compressed or
+ * binary formats by their extension, see {@link #BINARY_EXTENSIONS}, are never inflated. The other entries are read only if they are text,
+ * see {@link TextStreams#openIfText(InputStream)}. The old string is found across buffer boundaries.
+ * @since 2.1.0
+ * @see ReplaceStringInAFile
+ */
+public class ReplaceStringInAnArchive {
+
+    /**
+     * File extensions of the entries that are copied without reading them, besides {@link ParallelZipper#STORED_EXTENSIONS}.
+     */
+    public static final Set<String> BINARY_EXTENSIONS = Set.of("class", "so", "dll", "dylib", "exe", "bin", "pdf");
+
+    private final File archive;
+    private final String oldString;
+    private final String newString;
+    private final int bufferSize;
+    @Setter
+    @Getter
+    boolean useLogger = false;
+    /**
+     * -- SETTER --
+     * Receives the write and rename latencies and the byte counters of this replacement. Default is {@link MetricsRecorder#NO_OP}.
+     */
+    @Setter
+    @Getter
+    private MetricsRecorder metricsRecorder = MetricsRecorder.NO_OP;
+    /**
+     * -- SETTER --
+     * Sets the algorithm of the digests of the original and the new archive, for example SHA-256 or {@link FileHashDriver#XXH3_128}.
+     * Default is null, no digest is computed.
+     */
+    @Setter
+    @Getter
+    private String digestAlgorithm = null;
+    /**
+     * -- SETTER --
+     * Sets the filter of the entry names, an entry rejected by it is copied without reading it. Default accepts every entry.
+     */
+    @Setter
+    @Getter
+    private Predicate<String> entryFilter = name -> true;
+    /**
+     * -- GETTER --
+     * Returns the names of the entries rewritten by the last {@link #replaceStringWithResult()} call, in archive order.
+     */
+    @Getter
+    private final List<String> rewrittenEntries = new ArrayList<>();
+
+    /**
+     * Constructor to replace a string in the entries of an archive
+     * @param archive the zip archive
+     * @param oldString old string to replace
+     * @param newString new string to replace
+     * @param bufferSize buffer size to read an entry, -1 to use {@link ReplaceStringInAFile#getBufferSize(String)}
+     */
+    public ReplaceStringInAnArchive(File archive, String oldString, String newString, int bufferSize) {
+        this.archive = archive;
+        this.oldString = oldString;
+        this.newString = newString;
+        this.bufferSize = bufferSize == -1 ? ReplaceStringInAFile.getBufferSize(oldString) : bufferSize;
+    }
+
+    /**
+     * Suppress default constructor for noninstantiability
+     */
+    private ReplaceStringInAnArchive() {
+        throw new AssertionError("Cannot instantiate this class with default constructor");
+    }
+
+    /**
+     * Method that replace a string in the text entries of the archive, see {@link #getRewrittenEntries()}.
+     * @throws TextReplacerError if the archive doesn't exist, or an IO error occurs
+     * @return the result of the replacement, or null if the file is not a zip archive
+     */
+    public @Nullable ReplaceResult replaceStringWithResult() throws TextReplacerError {
+        rewrittenEntries.clear();
+        if (archive == null || !archive.isFile()) {
+            String message = "Cannot replace String, this archive is invalid or not exists! " + (archive == null ? null : archive.getAbsolutePath());
+            ReplaceStringInAFile.logData(ReplaceStringInAnArchive.class, "replaceStringWithResult()", message, ReplaceStringInFiles.LogType.ERROR);
+            throw new TextReplacerError(message);
+        }
+
+        File tmpFile = new File(archive.getAbsolutePath() + "." + RandomGenerator.generateRandomStringOnlyAlphabetsAndNumbers(10));
+        try {
+            MessageDigest inputDigest = newDigest();
+            MessageDigest outputDigest = newDigest();
+            long bytesRead = archive.length();
+            boolean matched;
+            try {
+                matched = replaceEntries(tmpFile, inputDigest, outputDigest);
+            } catch (ZipException e) {
+                // not a zip, the caller treats it like any other file
+                rewrittenEntries.clear();
+                logMessage("replaceStringWithResult()", "Not a zip archive: " + archive.getAbsolutePath() + " " + e.getMessage(), ReplaceStringInFiles.LogType.WARN);
+                return null;
+            }
+
+            metricsRecorder.add(MetricsRecorder.Counter.BYTES_READ, bytesRead);
+            String inputHash = toHexString(inputDigest);
+            if (!matched) {
+                return new ReplaceResult(archive.getAbsolutePath(), false, bytesRead, bytesRead, inputHash, inputHash);
+            }
+
+            metricsRecorder.increment(MetricsRecorder.Counter.FILES_MATCHED);
+            long bytesWritten = moveOver(tmpFile);
+            metricsRecorder.add(MetricsRecorder.Counter.BYTES_WRITTEN, bytesWritten);
+            metricsRecorder.increment(MetricsRecorder.Counter.FILES_REWRITTEN);
+            metricsRecorder.add(MetricsRecorder.Counter.ARCHIVE_ENTRIES_REWRITTEN, rewrittenEntries.size());
+
+            logMessage("replaceStringWithResult()", "%s entries of the archive %s are replaced, the old string is: %s the new string is: %s"
+                    .formatted(rewrittenEntries.size(), archive.getAbsolutePath(), oldString, newString), ReplaceStringInFiles.LogType.INFO);
+            return new ReplaceResult(archive.getAbsolutePath(), true, bytesRead, bytesWritten, inputHash, toHexString(outputDigest));
+        } catch (IOException e) {
+            throw new TextReplacerError("IO Error Occurred while replacing string in archive: " + archive.getAbsolutePath() + " The error is: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the archive once, in order, and digests it on the way. The new archive is started in the tmp file at the first matched entry,
+     * the entries before it are copied then, from the page cache.
+     *
+     * @return true if the tmp file was written, false if no entry contains the old string
+     */
+    private boolean replaceEntries(File tmpFile, @Nullable MessageDigest inputDigest, @Nullable MessageDigest outputDigest) throws IOException {
+        ZipArchiveWriter writer = null;
+        boolean written = false;
+        long writeStart = 0;
+        try (FileChannel channel = FileChannel.open(archive.toPath(), StandardOpenOption.READ)) {
+            List<ZipCentralDirectory.Entry> entries = new ArrayList<>(ZipCentralDirectory.read(channel));
+            // in the order of their data, so the archive is read forward, the writer lists them in their original order
+            entries.sort(Comparator.comparingLong(ZipCentralDirectory.Entry::localHeaderOffset));
+            SourceCursor cursor = new SourceCursor(channel, inputDigest, 0);
+            for (int i = 0; i < entries.size(); i++) {
+                ZipCentralDirectory.Entry entry = entries.get(i);
+                ZipCentralDirectory.LocalHeader localHeader = ZipCentralDirectory.readLocalHeader(channel, entry);
+                cursor.skipTo(localHeader.dataOffset());
+                boolean candidate = isCandidate(entry);
+                if (candidate && contains(cursor.next(entry.compressedSize()), entry)) {
+                    if (writer == null) {
+                        logMessage("replaceEntries()", "The archive %s is rewritten to the tmp file %s".formatted(archive.getAbsolutePath(), tmpFile.getAbsolutePath()),
+                                ReplaceStringInFiles.LogType.INFO);
+                        writeStart = System.nanoTime();
+                        writer = new ZipArchiveWriter(tmpFile.toPath(), outputDigest);
+                        writer.setComment(ZipCentralDirectory.readComment(channel));
+                        for (int j = 0; j < i; j++) {
+                            writer.putRaw(entries.get(j), channel);
+                        }
+                    }
+                    // read up to the match, so it is inflated again from the start
+                    putReplaced(new SourceCursor(channel, null, localHeader.dataOffset()).next(entry.compressedSize()), entry, localHeader, writer);
+                    rewrittenEntries.add(entry.name());
+                } else if (writer != null && candidate) {
+                    // already read to look for the old string
+                    writer.putRaw(entry, channel);
+                } else if (writer != null) {
+                    try (ReadableByteChannel data = cursor.next(entry.compressedSize())) {
+                        writer.putRaw(entry, localHeader, data);
+                    }
+                }
+            }
+            // the central directory, for the digest
+            cursor.skipTo(channel.size());
+            if (writer == null) {
+                return false;
+            }
+            writer.close();
+            metricsRecorder.recordLatency(MetricsRecorder.Stage.WRITE, System.nanoTime() - writeStart);
+            written = true;
+            return true;
+        } finally {
+            if (writer != null && !written) {
+                try {
+                    writer.close();
+                } finally {
+                    Files.deleteIfExists(tmpFile.toPath());
+                }
+            }
+        }
+    }
+
+    // moves the tmp file over the archive, returns its size
+    private long moveOver(File tmpFile) throws IOException {
+        boolean moved = false;
+        try {
+            long renameStart = System.nanoTime();
+            long bytesWritten = tmpFile.length();
+            Files.move(tmpFile.toPath(), archive.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            metricsRecorder.recordLatency(MetricsRecorder.Stage.RENAME, System.nanoTime() - renameStart);
+            moved = true;
+            return bytesWritten;
+        } finally {
+            if (!moved) {
+                Files.deleteIfExists(tmpFile.toPath());
+            }
+        }
+    }
+
+    // true if the text of an entry contains the old string, it is read up to the first match
+    private boolean contains(ReadableByteChannel data, ZipCentralDirectory.Entry entry) throws IOException {
+        try (data; Reader reader = openTextEntry(data, entry)) {
+            return reader != null && replace(reader, null);
+        }
+    }
+
+    // inflates, replaces and deflates an entry again, with the compression method it had
+    private void putReplaced(ReadableByteChannel data, ZipCentralDirectory.Entry entry, ZipCentralDirectory.LocalHeader localHeader,
+                             ZipArchiveWriter writer) throws IOException {
+        try (SpillBuffer buffer = new SpillBuffer(ParallelZipper.SPILL_THRESHOLD)) {
+            EntrySink sink = new EntrySink(buffer, entry.method() == ZipEntry.DEFLATED);
+            try (data; Reader reader = openTextEntry(data, entry)) {
+                if (reader == null) {
+                    throw new IOException("Entry is not text anymore: " + entry.name());
+                }
+                Writer out = new BufferedWriter(new OutputStreamWriter(sink), bufferSize);
+                replace(reader, out);
+                out.close();
+            } finally {
+                sink.end();
+            }
+            writer.putRewritten(entry, localHeader, sink.crc.getValue(), sink.size, buffer);
+        }
+    }
+
+    // true if the entry may be text, false if it is copied without reading it
+    private boolean isCandidate(ZipCentralDirectory.Entry entry) {
+        if (entry.isDirectory() || entry.isEncrypted() || entry.size() == 0
+                || (entry.method() != ZipEntry.STORED && entry.method() != ZipEntry.DEFLATED)) {
+            return false;
+        }
+        String name = entry.name();
+        int dot = name.lastIndexOf('.');
+        if (dot > name.lastIndexOf('/')) {
+            String extension = name.substring(dot + 1).toLowerCase(Locale.ROOT);
+            if (ParallelZipper.STORED_EXTENSIONS.contains(extension) || BINARY_EXTENSIONS.contains(extension)) {
+                return false;
+            }
+        }
+        return entryFilter.test(name);
+    }
+
+    // the inflated text of an entry, from its compressed bytes, or null if it is binary
+    private static Reader openTextEntry(ReadableByteChannel data, ZipCentralDirectory.Entry entry) throws IOException {
+        InputStream in = Channels.newInputStream(data);
+        if (entry.method() == ZipEntry.DEFLATED) {
+            in = new EntryInflaterInputStream(in);
+        }
+        InputStream text = TextStreams.openIfText(in);
+        return text == null ? null : new InputStreamReader(text);
+    }
+
+    /**
+     * Replaces the old string in a text, in chunks of the buffer size. The last characters of a chunk that may start
+     * an occurrence are kept for the next chunk, so an occurrence across two chunks is replaced too.
+     *
+     * @param reader the text
+     * @param writer receives the replaced text, or null to stop at the first occurrence
+     * @return true if the old string was found
+     */
+    private boolean replace(Reader reader, @Nullable Writer writer) throws IOException {
+        if (oldString.isEmpty()) {
+            return false;
+        }
+        boolean matched = false;
+        StringBuilder pending = new StringBuilder(bufferSize + oldString.length());
+        char[] buffer = new char[bufferSize];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            pending.append(buffer, 0, read);
+            int position = 0;
+            int index;
+            while ((index = pending.indexOf(oldString, position)) != -1) {
+                if (writer == null) {
+                    return true;
+                }
+                matched = true;
+                writer.append(pending, position, index).append(newString);
+                position = index + oldString.length();
+            }
+            // an occurrence may start in the last characters
+            int keep = Math.max(position, pending.length() - oldString.length() + 1);
+            if (writer != null) {
+                writer.append(pending, position, keep);
+            }
+            pending.delete(0, keep);
+        }
+        if (writer != null) {
+            writer.append(pending);
+        }
+        return matched;
+    }
+
+    // a digest of the digest algorithm, or null if no digest algorithm is set
+    private MessageDigest newDigest() throws IOException {
+        if (digestAlgorithm == null) {
+            return null;
+        }
+        try {
+            return FileHashDriver.newDigest(digestAlgorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("Digest algorithm not found: " + digestAlgorithm, e);
+        }
+    }
+
+    private static String toHexString(@Nullable MessageDigest digest) {
+        return digest == null ? null : FileHashDriver.toHexString(digest.digest());
+    }
+
+    private void logMessage(String methodName, String message, ReplaceStringInFiles.LogType logType) {
+        if (useLogger) {
+            ReplaceStringInAFile.logData(ReplaceStringInAnArchive.class, methodName, message, logType);
+        }
+    }
+
+    // computes the CRC-32 and the size of the new bytes, and deflates them if the entry is deflated
+    private static final class EntrySink extends OutputStream {
+
+        private final SpillBuffer buffer;
+        private final Deflater deflater;
+        private final byte[] output = new byte[64 * 1024];
+        private final CRC32 crc = new CRC32();
+        private long size = 0;
+
+        EntrySink(@NotNull SpillBuffer buffer, boolean deflate) {
+            this.buffer = buffer;
+            this.deflater = deflate ? new Deflater(Deflater.DEFAULT_COMPRESSION, true) : null;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(@NotNull byte[] bytes, int offset, int length) throws IOException {
+            crc.update(bytes, offset, length);
+            size += length;
+            if (deflater == null) {
+                buffer.write(bytes, offset, length);
+                return;
+            }
+            deflater.setInput(bytes, offset, length);
+            while (!deflater.needsInput()) {
+                buffer.write(output, 0, deflater.deflate(output));
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (deflater != null && !deflater.finished()) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    buffer.write(output, 0, deflater.deflate(output));
+                }
+            }
+        }
+
+        // releases the native memory of the deflater
+        void end() {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+    }
+
+    // reads an archive forward from a position, and digests every byte it reads or skips
+    private static final class SourceCursor {
+
+        private final FileChannel channel;
+        private final MessageDigest digest;
+        private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        private long position;
+
+        SourceCursor(@NotNull FileChannel channel, @Nullable MessageDigest digest, long position) {
+            this.channel = channel;
+            this.digest = digest;
+            this.position = position;
+        }
+
+        // moves to an offset, the bytes in between are read only to digest them
+        void skipTo(long offset) throws IOException {
+            if (offset < position) {
+                throw new ZipException("Overlapping entries at offset: " + offset);
+            }
+            if (digest == null) {
+                position = offset;
+                return;
+            }
+            while (position < offset) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), offset - position));
+                readNext(buffer);
+            }
+        }
+
+        // the next bytes, the ones that are not read are skipped on close
+        ReadableByteChannel next(long length) {
+            long end = position + length;
+            return new ReadableByteChannel() {
+
+                private boolean open = true;
+
+                @Override
+                public int read(ByteBuffer target) throws IOException {
+                    if (position >= end) {
+                        return -1;
+                    }
+                    int limit = target.limit();
+                    target.limit(target.position() + (int) Math.min(target.remaining(), end - position));
+                    try {
+                        return readNext(target);
+                    } finally {
+                        target.limit(limit);
+                    }
+                }
+
+                @Override
+                public boolean isOpen() {
+                    return open;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    if (open) {
+                        open = false;
+                        skipTo(end);
+                    }
+                }
+            };
+        }
+
+        private int readNext(ByteBuffer target) throws IOException {
+            int start = target.position();
+            int count = channel.read(target, position);
+            if (count < 0) {
+                throw new EOFException("Unexpected end of the archive at offset: " + position);
+            }
+            if (digest != null) {
+                digest.update(target.duplicate().position(start).limit(start + count));
+            }
+            position += count;
+            return count;
+        }
+    }
+
+    // inflates the raw deflated bytes of an entry, and releases the native memory of the inflater on close
+    private static final class EntryInflaterInputStream extends InflaterInputStream {
+
+        EntryInflaterInputStream(@NotNull InputStream in) {
+            // zlib may need a dummy byte after the raw deflated bytes, java.util.zip.ZipFile adds one too
+            super(new SequenceInputStream(in, new ByteArrayInputStream(new byte[1])), new Inflater(true), 64 * 1024);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                inf.end();
+            }
+        }
+    }
+}
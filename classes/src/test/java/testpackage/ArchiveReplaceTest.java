@@ -0,0 +1,230 @@
+package testpackage;
+
+import javadev.stringcollections.textreplacor.ReplaceStringInFiles;
+import javadev.stringcollections.textreplacor.io.FileHashDriver;
+import javadev.stringcollections.textreplacor.io.zip.ZipArchiveWriter;
+import javadev.stringcollections.textreplacor.io.zip.ZipCentralDirectory;
+import javadev.stringcollections.textreplacor.metrics.InProcessMetricsRecorder;
+import javadev.stringcollections.textreplacor.metrics.MetricsRecorder;
+import javadev.stringcollections.textreplacor.object.ReplaceResult;
+import javadev.stringcollections.textreplacor.writer.ReplaceStringInAnArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link ReplaceStringInAnArchive}
+ */
+public class ArchiveReplaceTest {
+
+    // an extra field with an unknown header id, kept as it is
+    private static final byte[] EXTRA = {(byte) 0xFE, (byte) 0xCA, 2, 0, 1, 2};
+
+    @Test
+    public void testReplaceInArchive(@TempDir Path directory) throws Exception {
+        Path jar = directory.resolve("app.jar");
+        byte[] binary = createJar(jar);
+        Map<String, ZipCentralDirectory.Entry> before = entries(jar);
+        String inputDigest = FileHashDriver.toHexString(FileHashDriver.hash(jar, "SHA-256"));
+
+        InProcessMetricsRecorder metrics = new InProcessMetricsRecorder();
+        ReplaceStringInAnArchive replacer = new ReplaceStringInAnArchive(jar.toFile(), "localhost", "example.org", 4);
+        replacer.setMetricsRecorder(metrics);
+        replacer.setDigestAlgorithm("SHA-256");
+        ReplaceResult result = replacer.replaceStringWithResult();
+
+        assertNotNull(result);
+        assertTrue(result.matched());
+        assertTrue(result.isContentChanged());
+        // digested while the archives are read and written
+        assertEquals(inputDigest, result.inputDigest());
+        assertEquals(FileHashDriver.toHexString(FileHashDriver.hash(jar, "SHA-256")), result.outputDigest());
+        assertEquals(Files.size(jar), result.bytesWritten());
+        assertEquals(List.of("config/app.properties", "stored.txt"), replacer.getRewrittenEntries());
+        assertEquals(2, metrics.getCount(MetricsRecorder.Counter.ARCHIVE_ENTRIES_REWRITTEN));
+        assertEquals(1, metrics.getCount(MetricsRecorder.Counter.FILES_REWRITTEN));
+
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            // the small buffer splits occurrences across reads
+            assertEquals("host=example.org\nurl=http://example.org:8080\n", read(zip, "config/app.properties"));
+            assertEquals("example.org example.org", read(zip, "stored.txt"));
+            assertEquals("nothing to replace\n", read(zip, "readme.txt"));
+            assertArrayEquals(binary, zip.getInputStream(zip.getEntry("App.class")).readAllBytes());
+            assertTrue(zip.getEntry("META-INF/").isDirectory());
+        }
+
+        Map<String, ZipCentralDirectory.Entry> after = entries(jar);
+        assertEquals(before.size(), after.size());
+        // the other entries are copied compressed
+        for (String name : List.of("META-INF/", "readme.txt", "App.class")) {
+            assertEquals(before.get(name).method(), after.get(name).method());
+            assertEquals(before.get(name).crc(), after.get(name).crc());
+            assertEquals(before.get(name).compressedSize(), after.get(name).compressedSize());
+        }
+        assertEquals(ZipEntry.STORED, after.get("stored.txt").method());
+        assertEquals(ZipEntry.DEFLATED, after.get("config/app.properties").method());
+    }
+
+    @Test
+    public void testReplaceKeepsMetadata(@TempDir Path directory) throws Exception {
+        Path jar = directory.resolve("app.jar");
+        createJar(jar);
+        // the central directory in the reverse order of the data
+        Path reversed = directory.resolve("reversed.jar");
+        try (FileChannel channel = FileChannel.open(jar, StandardOpenOption.READ);
+             ZipArchiveWriter writer = new ZipArchiveWriter(reversed)) {
+            List<ZipCentralDirectory.Entry> entries = ZipCentralDirectory.read(channel);
+            writer.setComment(ZipCentralDirectory.readComment(channel));
+            for (ZipCentralDirectory.Entry entry : entries) {
+                writer.putRaw(withIndex(entry, entries.size() - 1 - entry.index()), channel);
+            }
+        }
+        List<ZipCentralDirectory.Entry> before = centralDirectory(reversed);
+        List<String> names = new ArrayList<>(centralDirectory(jar).stream().map(ZipCentralDirectory.Entry::name).toList());
+        Collections.reverse(names);
+        assertEquals(names, before.stream().map(ZipCentralDirectory.Entry::name).toList());
+
+        ReplaceStringInAnArchive replacer = new ReplaceStringInAnArchive(reversed.toFile(), "localhost", "example.org", -1);
+        ReplaceResult result = replacer.replaceStringWithResult();
+        assertNotNull(result);
+        assertTrue(result.matched());
+
+        List<ZipCentralDirectory.Entry> after = centralDirectory(reversed);
+        assertEquals(before.stream().map(ZipCentralDirectory.Entry::name).toList(), after.stream().map(ZipCentralDirectory.Entry::name).toList());
+        for (int i = 0; i < before.size(); i++) {
+            assertEquals(before.get(i).versionNeeded(), after.get(i).versionNeeded());
+            assertEquals(before.get(i).internalAttributes(), after.get(i).internalAttributes());
+            assertArrayEquals(before.get(i).comment(), after.get(i).comment());
+        }
+        try (ZipFile zip = new ZipFile(reversed.toFile())) {
+            assertEquals("the archive comment", zip.getComment());
+            assertEquals("the config comment", zip.getEntry("config/app.properties").getComment());
+            assertEquals("host=example.org\nurl=http://example.org:8080\n", read(zip, "config/app.properties"));
+        }
+        // the local extra field of a rewritten entry
+        try (FileChannel channel = FileChannel.open(reversed, StandardOpenOption.READ)) {
+            ZipCentralDirectory.Entry config = after.stream().filter(entry -> entry.name().equals("config/app.properties")).findFirst().orElseThrow();
+            assertArrayEquals(EXTRA, ZipCentralDirectory.readLocalHeader(channel, config).extra());
+            assertArrayEquals(EXTRA, config.extra());
+        }
+    }
+
+    @Test
+    public void testArchiveWithoutMatchIsNotWritten(@TempDir Path directory) throws Exception {
+        Path jar = directory.resolve("app.jar");
+        createJar(jar);
+        byte[] original = Files.readAllBytes(jar);
+
+        ReplaceStringInAnArchive replacer = new ReplaceStringInAnArchive(jar.toFile(), "missing", "found", -1);
+        replacer.setDigestAlgorithm(FileHashDriver.XXH3_128);
+        ReplaceResult result = replacer.replaceStringWithResult();
+        assertNotNull(result);
+        assertFalse(result.matched());
+        assertEquals(FileHashDriver.toHexString(FileHashDriver.hash(jar, FileHashDriver.XXH3_128)), result.inputDigest());
+        assertEquals(result.inputDigest(), result.outputDigest());
+        assertTrue(replacer.getRewrittenEntries().isEmpty());
+        assertArrayEquals(original, Files.readAllBytes(jar));
+
+        // not a zip
+        Path text = directory.resolve("notes.zip");
+        Files.writeString(text, "localhost\n");
+        assertNull(new ReplaceStringInAnArchive(text.toFile(), "localhost", "example.org", -1).replaceStringWithResult());
+    }
+
+    @Test
+    public void testReplaceInArchivesOfDirectory(@TempDir Path directory) throws Exception {
+        createJar(directory.resolve("app.jar"));
+        Files.writeString(directory.resolve("notes.txt"), "localhost\n");
+        // named like an archive, replaced like a text file
+        Files.writeString(directory.resolve("broken.zip"), "localhost\n");
+
+        ReplaceStringInFiles replaceStringInFiles = new ReplaceStringInFiles(new String[]{".txt"}, directory.toString(), "localhost", "example.org");
+        replaceStringInFiles.setReplaceInArchives(true);
+        replaceStringInFiles.setPrintIgnoredFiles(false);
+        replaceStringInFiles.replaceStringInFiles();
+
+        assertEquals("localhost\n", Files.readString(directory.resolve("notes.txt")));
+        assertEquals("example.org\n", Files.readString(directory.resolve("broken.zip")));
+        try (ZipFile zip = new ZipFile(directory.resolve("app.jar").toFile())) {
+            assertEquals("host=example.org\nurl=http://example.org:8080\n", read(zip, "config/app.properties"));
+            // ignored by the extension filter
+            assertEquals("localhost localhost", read(zip, "stored.txt"));
+        }
+    }
+
+    private static byte[] createJar(Path jar) throws Exception {
+        byte[] binary = new byte[8192];
+        new Random(7).nextBytes(binary);
+        // the old string in a binary entry is never replaced
+        System.arraycopy("localhost".getBytes(StandardCharsets.UTF_8), 0, binary, 100, 9);
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(jar))) {
+            out.setComment("the archive comment");
+            out.putNextEntry(new ZipEntry("META-INF/"));
+            out.closeEntry();
+
+            ZipEntry config = new ZipEntry("config/app.properties");
+            config.setComment("the config comment");
+            config.setExtra(EXTRA);
+            out.putNextEntry(config);
+            out.write("host=localhost\nurl=http://localhost:8080\n".getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+            TestFixtures.putEntry(out, "readme.txt", "nothing to replace\n".getBytes(StandardCharsets.UTF_8));
+            TestFixtures.putEntry(out, "App.class", binary);
+
+            byte[] stored = "localhost localhost".getBytes(StandardCharsets.UTF_8);
+            ZipEntry storedEntry = new ZipEntry("stored.txt");
+            storedEntry.setMethod(ZipEntry.STORED);
+            storedEntry.setSize(stored.length);
+            CRC32 crc = new CRC32();
+            crc.update(stored);
+            storedEntry.setCrc(crc.getValue());
+            out.putNextEntry(storedEntry);
+            out.write(stored);
+            out.closeEntry();
+        }
+        return binary;
+    }
+
+    private static String read(ZipFile zip, String name) throws Exception {
+        return new String(zip.getInputStream(zip.getEntry(name)).readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private static List<ZipCentralDirectory.Entry> centralDirectory(Path archive) throws Exception {
+        try (FileChannel channel = FileChannel.open(archive, StandardOpenOption.READ)) {
+            return ZipCentralDirectory.read(channel);
+        }
+    }
+
+    private static ZipCentralDirectory.Entry withIndex(ZipCentralDirectory.Entry entry, int index) {
+        return new ZipCentralDirectory.Entry(entry.name(), entry.rawName(), entry.versionMadeBy(), entry.versionNeeded(), entry.flags(),
+                entry.method(), entry.dosTime(), entry.crc(), entry.compressedSize(), entry.size(), entry.internalAttributes(),
+                entry.externalAttributes(), entry.localHeaderOffset(), entry.extra(), entry.comment(), index);
+    }
+
+    private static Map<String, ZipCentralDirectory.Entry> entries(Path archive) throws Exception {
+        Map<String, ZipCentralDirectory.Entry> entries = new HashMap<>();
+        try (FileChannel channel = FileChannel.open(archive, StandardOpenOption.READ)) {
+            for (ZipCentralDirectory.Entry entry : ZipCentralDirectory.read(channel)) {
+                entries.put(entry.name(), entry);
+            }
+        }
+        return entries;
+    }
+}
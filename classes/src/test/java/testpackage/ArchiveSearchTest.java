@@ -0,0 +1,68 @@
+package testpackage;
+
+import javadev.stringcollections.textreplacor.io.zip.ZipArchiveReader;
+import javadev.stringcollections.textreplacor.metrics.InProcessMetricsRecorder;
+import javadev.stringcollections.textreplacor.metrics.MetricsRecorder;
+import javadev.stringcollections.textreplacor.object.OccurrenceCount;
+import javadev.stringcollections.textreplacor.object.TextSearchResult;
+import javadev.stringcollections.textreplacor.search.StringMatcherInFiles;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the search inside zip archives of {@link StringMatcherInFiles}
+ */
+public class ArchiveSearchTest {
+
+    @Test
+    public void testSearchInsideArchives(@TempDir Path directory) throws Exception {
+        TestFixtures.createArchiveTree(directory);
+        String jar = directory.resolve("lib/app.jar").toAbsolutePath().toString();
+
+        InProcessMetricsRecorder metrics = new InProcessMetricsRecorder();
+        StringMatcherInFiles matcher = new StringMatcherInFiles(directory.toFile(), "endpoint");
+        matcher.setSearchArchives(true);
+        matcher.setSortResultsByPath(true);
+        matcher.setMetricsRecorder(metrics);
+
+        List<TextSearchResult> results = matcher.search();
+        assertNotNull(results);
+        assertEquals(4, results.size());
+        // not a zip, searched like a text file
+        assertEquals(directory.resolve("broken.zip").toAbsolutePath().toString(), results.get(0).file().getPath());
+        assertEquals(jar + "!/META-INF/app.properties", results.get(1).file().getPath());
+        assertEquals(jar + "!/config/settings.yml", results.get(2).file().getPath());
+        assertEquals(directory.resolve("readme.txt").toAbsolutePath().toString(), results.get(3).file().getPath());
+
+        // line numbers are the ones of the entry
+        assertEquals(2, results.get(1).lines().length);
+        assertEquals(1, results.get(1).lines()[0].lineNumber());
+        assertEquals(3, results.get(1).lines()[1].lineNumber());
+        assertEquals(3, metrics.getCount(MetricsRecorder.Counter.ARCHIVE_ENTRIES_SEARCHED));
+
+        List<OccurrenceCount> counts = matcher.count();
+        assertNotNull(counts);
+        assertEquals(4, counts.size());
+        assertEquals(5, matcher.getTotalOccurrenceCount());
+
+        // off by default, the archive is binary
+        StringMatcherInFiles plain = new StringMatcherInFiles(directory.toFile(), "endpoint");
+        List<TextSearchResult> plainResults = plain.search();
+        assertNotNull(plainResults);
+        assertEquals(2, plainResults.size());
+    }
+
+    @Test
+    public void testEntryFile() {
+        Path archive = Path.of("lib", "app.jar").toAbsolutePath();
+        assertEquals(archive + "!/a/b.txt", ZipArchiveReader.entryFile(archive.toFile(), "a/b.txt").getPath());
+        assertTrue(ZipArchiveReader.isArchive(archive.toFile()));
+        assertTrue(ZipArchiveReader.isArchive(Path.of("bundle.ZIP").toFile()));
+        assertFalse(ZipArchiveReader.isArchive(Path.of("notes.txt").toFile()));
+    }
+}
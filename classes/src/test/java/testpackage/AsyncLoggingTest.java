@@ -0,0 +1,52 @@
+package testpackage;
+
+import javadev.stringcollections.textreplacor.logutility.Logger;
+import org.apache.logging.log4j.Level;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the logger cache and the asynchronous mode of {@link Logger}
+ */
+public class AsyncLoggingTest {
+
+    @Test
+    public void testLoggersAreCached() {
+        assertSame(Logger.getLogger(AsyncLoggingTest.class), Logger.getLogger(AsyncLoggingTest.class));
+    }
+
+    @Test
+    public void testFullBufferDropsAndCountsMessages() {
+        assertFalse(Logger.isAsyncLogging());
+        long droppedBefore = Logger.getDroppedMessageCount();
+
+        // a buffer of one message can't keep up with a tight loop
+        Logger.enableAsyncLogging(1);
+        try {
+            assertTrue(Logger.isAsyncLogging());
+            int messages = 20000;
+            for (int i = 0; i < messages; i++) {
+                Logger.log(AsyncLoggingTest.class, Level.TRACE, "testFullBufferDropsAndCountsMessages()", "message {}", i);
+            }
+
+            long dropped = Logger.getDroppedMessageCount() - droppedBefore;
+            assertTrue(dropped > 0, "No message was dropped");
+            assertTrue(dropped < messages, "Every message was dropped");
+        } finally {
+            Logger.disableAsyncLogging();
+        }
+        assertFalse(Logger.isAsyncLogging());
+
+        // synchronous logging doesn't drop
+        long droppedAfter = Logger.getDroppedMessageCount();
+        Logger.logTrace(AsyncLoggingTest.class, "testFullBufferDropsAndCountsMessages()", "synchronous message");
+        assertEquals(droppedAfter, Logger.getDroppedMessageCount());
+    }
+
+    @Test
+    public void testInvalidBufferSize() {
+        assertThrows(IllegalArgumentException.class, () -> Logger.enableAsyncLogging(0));
+        assertFalse(Logger.isAsyncLogging());
+    }
+}
@@ -0,0 +1,113 @@
+package testpackage;
+
+import javadev.stringcollections.textreplacor.io.TextSearchResultBinaryReader;
+import javadev.stringcollections.textreplacor.io.TextSearchResultBinaryWriter;
+import javadev.stringcollections.textreplacor.io.TextSearchResultSaver;
+import javadev.stringcollections.textreplacor.io.VarInt;
+import javadev.stringcollections.textreplacor.object.Line;
+import javadev.stringcollections.textreplacor.object.TextSearchResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link TextSearchResultBinaryWriter}, {@link TextSearchResultBinaryReader} and {@link VarInt}
+ */
+public class BinaryResultFormatTest {
+
+    @Test
+    public void testVarInt() throws IOException {
+        long[] values = {0, 1, 127, 128, 300, Integer.MAX_VALUE, Long.MAX_VALUE, -1, Long.MIN_VALUE};
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * VarInt.MAX_LENGTH);
+        for (long value : values) {
+            VarInt.writeUnsigned(outputStream, value);
+            VarInt.writeUnsigned(buffer, VarInt.encodeZigZag(value));
+        }
+        assertEquals(1, VarInt.writeUnsigned(new ByteArrayOutputStream(), 127));
+        assertEquals(2, VarInt.writeUnsigned(new ByteArrayOutputStream(), 128));
+
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+        buffer.flip();
+        for (long value : values) {
+            assertEquals(value, VarInt.readUnsigned(inputStream));
+            assertEquals(value, VarInt.decodeZigZag(VarInt.readUnsigned(buffer)));
+        }
+    }
+
+    @Test
+    public void testRoundTrip(@TempDir Path directory) throws IOException {
+        List<TextSearchResult> results = new ArrayList<>();
+        results.add(new TextSearchResult(new Line[]{
+                new Line(1, "héllo wörld", 0, 4),
+                new Line(1, "héllo wörld", 6, 10),
+                new Line(70000, "", 3, 5)
+        }, new File("/projects/root/a.txt")));
+        results.add(new TextSearchResult(new Line[]{}, new File("/projects/root/b.txt")));
+        results.add(new TextSearchResult(new Line[]{new Line(2, null, 0, 1)}, new File("/projects/root/c.txt")));
+
+        Path archive = directory.resolve("out/results.tsr");
+        new TextSearchResultSaver().saveResultsToBinaryFile(results, archive.toString(), "/projects/root", "hello");
+
+        try (TextSearchResultBinaryReader reader = new TextSearchResultBinaryReader(archive)) {
+            assertEquals(3, reader.size());
+            assertEquals("/projects/root", reader.getRootDirectory());
+            assertEquals("hello", reader.getSearchPhrase());
+            assertEquals("b.txt", reader.getFile(1).getName());
+            assertEquals(3, reader.getLineCount(0));
+
+            List<TextSearchResult> view = reader.asList();
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(results.get(i).file().getAbsolutePath(), view.get(i).file().getAbsolutePath());
+                assertArrayEquals(results.get(i).lines(), view.get(i).lines());
+            }
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.get(3));
+        }
+
+        // the file already exists
+        assertThrows(IOException.class, () -> new TextSearchResultSaver().saveResultsToBinaryFile(results, archive.toString(), "/projects/root", "hello"));
+    }
+
+    @Test
+    public void testSmallerThanJson(@TempDir Path directory) throws IOException {
+        List<TextSearchResult> results = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Line[] lines = new Line[20];
+            for (int j = 0; j < lines.length; j++) {
+                lines[j] = new Line(j * 10, "", j, j + 4);
+            }
+            results.add(new TextSearchResult(lines, new File("/projects/root/file" + i + ".txt")));
+        }
+        Path archive = directory.resolve("results.tsr");
+        try (TextSearchResultBinaryWriter writer = new TextSearchResultBinaryWriter(archive, null, null)) {
+            for (TextSearchResult result : results) {
+                writer.write(result);
+            }
+        }
+
+        String json = TextSearchResultSaver.getJsonStructure(results, "/projects/root", "test");
+        assertTrue(Files.size(archive) * 10 < json.length());
+        try (TextSearchResultBinaryReader reader = new TextSearchResultBinaryReader(archive)) {
+            assertNull(reader.getRootDirectory());
+            assertEquals(100, reader.size());
+        }
+    }
+
+    @Test
+    public void testInvalidFile(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("invalid.tsr");
+        Files.write(file, new byte[64]);
+        assertThrows(IOException.class, () -> new TextSearchResultBinaryReader(file));
+    }
+}
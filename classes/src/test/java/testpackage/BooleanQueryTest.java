@@ -0,0 +1,85 @@
+package testpackage;
+
+import javadev.stringcollections.textreplacor.object.TextSearchResult;
+import javadev.stringcollections.textreplacor.search.BooleanQuery;
+import javadev.stringcollections.textreplacor.search.BooleanQueryMatcherInFiles;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link BooleanQuery} and {@link BooleanQueryMatcherInFiles}
+ */
+public class BooleanQueryTest {
+
+    @Test
+    public void testAndNot() {
+        BooleanQuery query = BooleanQuery.parse("\"password\" AND \"http://\" AND NOT \"@Deprecated\"", false);
+
+        assertTrue(query.matches("String password = get();\nString url = \"http://example.com\";"));
+        assertFalse(query.matches("String password = get();\n@Deprecated\nString url = \"http://example.com\";"));
+        assertFalse(query.matches("String password = get();"));
+        assertEquals(3, query.getTermCount());
+    }
+
+    @Test
+    public void testOrAndPrecedence() {
+        BooleanQuery query = BooleanQuery.parse("alpha OR beta AND gamma", false);
+
+        assertTrue(query.matches("alpha"));
+        assertTrue(query.matches("beta gamma"));
+        assertFalse(query.matches("beta"));
+
+        BooleanQuery grouped = BooleanQuery.parse("(alpha OR beta) gamma", false);
+        assertFalse(grouped.matches("alpha"));
+        assertTrue(grouped.matches("alpha\ngamma"));
+    }
+
+    @Test
+    public void testPerTermCaseSensitivity() {
+        BooleanQuery query = BooleanQuery.parse("cs:\"Password\" AND token", false);
+
+        assertTrue(query.matches("Password and TOKEN"));
+        assertFalse(query.matches("password and TOKEN"));
+
+        BooleanQuery insensitive = BooleanQuery.parse("ci:Password", true);
+        assertTrue(insensitive.matches("PASSWORD"));
+    }
+
+    @Test
+    public void testOverlappingTerms() {
+        BooleanQuery query = BooleanQuery.parse("\"she\" AND \"he\" AND \"hers\"", false);
+
+        assertTrue(query.matches("ushers"));
+        assertFalse(query.matches("ushe"));
+    }
+
+    @Test
+    public void testInvalidQuery() {
+        assertThrows(IllegalArgumentException.class, () -> BooleanQuery.parse("(a OR b", false));
+        assertThrows(IllegalArgumentException.class, () -> BooleanQuery.parse("a AND", false));
+        assertThrows(IllegalArgumentException.class, () -> BooleanQuery.parse("\"unclosed", false));
+        assertThrows(IllegalArgumentException.class, () -> BooleanQuery.parse("   ", false));
+    }
+
+    @Test
+    public void testSearchInFiles(@TempDir Path directory) throws IOException {
+        Files.writeString(directory.resolve("Client.java"), "class Client {\n  String password;\n  String url = \"http://host\";\n}\n");
+        Files.writeString(directory.resolve("Old.java"), "@Deprecated\nclass Old {\n  String password;\n  String url = \"http://host\";\n}\n");
+        Files.writeString(directory.resolve("Other.java"), "class Other {\n  String url = \"http://host\";\n}\n");
+
+        BooleanQueryMatcherInFiles matcher = new BooleanQueryMatcherInFiles(directory.toFile(), "password AND \"http://\" AND NOT \"@Deprecated\"");
+        List<TextSearchResult> results = matcher.search();
+
+        assertNotNull(results);
+        assertEquals(1, results.size());
+        assertEquals("Client.java", results.get(0).file().getName());
+        assertEquals(0, results.get(0).lines().length);
+    }
+}
@@ -0,0 +1,74 @@
+package testpackage;
+
+import javadev.stringcollections.textreplacor.io.TextSearchResultSaver;
+import javadev.stringcollections.textreplacor.io.json.JSONObjectUtility;
+import javadev.stringcollections.textreplacor.object.OccurrenceCount;
+import javadev.stringcollections.textreplacor.search.FindOccurrencesInAString;
+import javadev.stringcollections.textreplacor.search.StringMatcherInFiles;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the count-only mode of {@link FindOccurrencesInAString} and {@link StringMatcherInFiles}
+ */
+public class CountOccurrencesTest {
+
+    @Test
+    public void testCountMatchesFindOccurrences() throws IOException {
+        String text = "Test one test\nno match here\nTESTtest";
+
+        FindOccurrencesInAString finder = new FindOccurrencesInAString(text, "test");
+        assertEquals(4, finder.countOccurrences());
+        assertEquals(finder.findOccurrences().lines().length, finder.countOccurrences());
+
+        FindOccurrencesInAString caseSensitive = new FindOccurrencesInAString(text, "test");
+        caseSensitive.setCaseSensitive(true);
+        assertEquals(2, caseSensitive.countOccurrences());
+
+        FindOccurrencesInAString regex = new FindOccurrencesInAString(text, "t[a-z]+t");
+        regex.setUseRegex(true);
+        assertEquals(3, regex.countOccurrences());
+        assertEquals(regex.findOccurrences().lines().length, regex.countOccurrences());
+
+        assertEquals(0, new FindOccurrencesInAString(text, "absent").countOccurrences());
+    }
+
+    @Test
+    public void testCountInFiles(@TempDir Path directory) throws IOException {
+        Files.writeString(directory.resolve("a.txt"), "todo\nTODO todo\n");
+        Files.writeString(directory.resolve("b.txt"), "nothing\ntodo\n");
+        Files.writeString(directory.resolve("c.txt"), "nothing here\n");
+
+        StringMatcherInFiles matcher = new StringMatcherInFiles(directory.toFile(), "todo");
+        List<OccurrenceCount> counts = matcher.count();
+
+        assertNotNull(counts);
+        assertEquals(2, counts.size());
+        assertEquals(4, matcher.getTotalOccurrenceCount());
+        for (OccurrenceCount count : counts) {
+            assertEquals(count.file().getName().equals("a.txt") ? 3 : 1, count.count());
+        }
+
+        // streamed to the file
+        Path saved = directory.resolve("out/counts.json");
+        new TextSearchResultSaver().saveCountsToJsonFile(counts, saved.toString(), directory.toString(), "todo");
+        String json = Files.readString(saved);
+        assertEquals(JSONObjectUtility.formatJson(JSONObjectUtility.minifyJson(json)), json);
+        assertTrue(json.contains("\"searchPhrase\": \"todo\""));
+        assertTrue(json.contains("\"totalOccurrences\": 4"));
+        for (OccurrenceCount count : counts) {
+            assertTrue(json.contains("\"file\": \"" + JSONObjectUtility.escapeSpecialCharacters(count.file().getAbsolutePath())
+                    + "\",\n            \"count\": " + count.count()));
+        }
+        assertFalse(json.contains("lines"));
+
+        assertNull(new StringMatcherInFiles(directory.toFile(), "absent").count());
+    }
+}
@@ -0,0 +1,115 @@
+package testpackage;
+
+import javadev.stringcollections.textreplacor.ReplaceStringInFiles;
+import javadev.stringcollections.textreplacor.filesquery.DuplicateFileGrouper;
+import javadev.stringcollections.textreplacor.metrics.InProcessMetricsRecorder;
+import javadev.stringcollections.textreplacor.metrics.MetricsRecorder;
+import javadev.stringcollections.textreplacor.object.OccurrenceCount;
+import javadev.stringcollections.textreplacor.object.TextSearchResult;
+import javadev.stringcollections.textreplacor.search.StringMatcherInFiles;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link DuplicateFileGrouper} and the deduplication of the search and replace pipelines
+ */
+public class DuplicateFileGrouperTest {
+
+    @Test
+    public void testGroups(@TempDir Path directory) throws Exception {
+        File a = write(directory.resolve("a.js"), "var library = 1;\n");
+        File b = write(directory.resolve("b.js"), "var library = 2;\n"); // same size, other content
+        File c = write(directory.resolve("c.js"), "var library = 1;\n");
+        File d = write(directory.resolve("d.txt"), "var library = 1;\n");
+        File empty1 = write(directory.resolve("e1.txt"), "");
+        File empty2 = write(directory.resolve("e2.txt"), "");
+
+        List<File> files = List.of(a, b, c, d, empty1, empty2);
+        List<List<File>> groups = DuplicateFileGrouper.group(files, true);
+        assertEquals(List.of(List.of(a, c, d), List.of(b), List.of(empty1), List.of(empty2)), groups);
+
+        // the partition keeps files apart, null keeps a file alone
+        groups = DuplicateFileGrouper.group(files, file -> file.getName().endsWith(".js") ? "js" : null, false);
+        assertEquals(List.of(List.of(a, c), List.of(b), List.of(d), List.of(empty1), List.of(empty2)), groups);
+    }
+
+    @Test
+    public void testSearchFansOutToCopies(@TempDir Path directory) throws Exception {
+        write(directory.resolve("one.txt"), "todo: first\nnothing\ntodo: second\n");
+        write(directory.resolve("two.txt"), "todo: first\nnothing\ntodo: second\n");
+        write(directory.resolve("three.txt"), "todo: first\nnothing\ntodo: second\n");
+        write(directory.resolve("other.txt"), "todo once\n");
+
+        InProcessMetricsRecorder metrics = new InProcessMetricsRecorder();
+        StringMatcherInFiles matcher = new StringMatcherInFiles(directory.toFile(), "todo");
+        matcher.setDeduplicateFiles(true);
+        matcher.setSortResultsByPath(true);
+        matcher.setMetricsRecorder(metrics);
+
+        List<TextSearchResult> results = matcher.search();
+        assertNotNull(results);
+        assertEquals(4, results.size());
+        Set<String> names = new HashSet<>();
+        for (TextSearchResult result : results) {
+            names.add(result.file().getName());
+            assertEquals(result.file().getName().equals("other.txt") ? 1 : 2, result.lines().length);
+        }
+        assertEquals(Set.of("one.txt", "two.txt", "three.txt", "other.txt"), names);
+        assertEquals(2, metrics.getCount(MetricsRecorder.Counter.FILES_DEDUPLICATED));
+        assertEquals(2, metrics.getCount(MetricsRecorder.Counter.FILES_TEXT));
+        assertEquals(4, metrics.getCount(MetricsRecorder.Counter.FILES_MATCHED));
+
+        List<OccurrenceCount> counts = matcher.count();
+        assertNotNull(counts);
+        assertEquals(4, counts.size());
+        assertEquals(7, matcher.getTotalOccurrenceCount());
+    }
+
+    @Test
+    public void testReplaceCopiesToDuplicates(@TempDir Path directory) throws Exception {
+        for (String name : List.of("a.js", "b.js", "c.js", "d.css")) {
+            write(directory.resolve(name), "var version = 'old';\n");
+        }
+        write(directory.resolve("unique.js"), "no match here\n");
+
+        InProcessMetricsRecorder metrics = new InProcessMetricsRecorder();
+        ReplaceStringInFiles replacer = new ReplaceStringInFiles(new String[]{".css"}, directory.toString(), "old", "new");
+        replacer.setDeduplicateFiles(true);
+        replacer.setPrintIgnoredFiles(false);
+        replacer.setDigestAlgorithm("SHA-256");
+        replacer.setMetricsRecorder(metrics);
+        replacer.replaceStringInFiles();
+
+        for (String name : List.of("a.js", "b.js", "c.js")) {
+            assertEquals("var version = 'new';\n", Files.readString(directory.resolve(name)), name);
+        }
+        // ignored by its extension, although it has the same content
+        assertEquals("var version = 'old';\n", Files.readString(directory.resolve("d.css")));
+        assertEquals("no match here\n", Files.readString(directory.resolve("unique.js")));
+
+        assertEquals(4, replacer.getReplaceResults().size());
+        String digest = replacer.getReplaceResults().stream().filter(result -> result.path().endsWith("a.js")).findFirst().orElseThrow().outputDigest();
+        assertEquals(3, replacer.getReplaceResults().stream().filter(result -> digest.equals(result.outputDigest())).count());
+        assertEquals(2, metrics.getCount(MetricsRecorder.Counter.FILES_DEDUPLICATED));
+        assertEquals(4, metrics.getCount(MetricsRecorder.Counter.FILES_REWRITTEN));
+
+        // no tmp file is left
+        try (var stream = Files.list(directory)) {
+            assertEquals(5, stream.count());
+        }
+    }
+
+    private static File write(Path path, String content) throws Exception {
+        Files.writeString(path, content);
+        return path.toFile();
+    }
+}
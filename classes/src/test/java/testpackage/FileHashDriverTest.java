@@ -0,0 +1,91 @@
+package testpackage;
+
+import javadev.stringcollections.textreplacor.io.FileHashDriver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link FileHashDriver}
+ */
+public class FileHashDriverTest {
+
+    @Test
+    public void testKnownHashes(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("abc.txt");
+        Files.writeString(file, "abc");
+
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", FileHashDriver.generateSHA256(file.toString()));
+        assertEquals("900150983cd24fb0d6963f7d28e17f72", FileHashDriver.generateMd5SHA(file.toString()));
+        assertEquals("00ff10", FileHashDriver.toHexString(new byte[]{0, (byte) 0xFF, 0x10}));
+    }
+
+    @Test
+    public void testHashAllMatchesMessageDigest(@TempDir Path directory) throws Exception {
+        Random random = new Random(41);
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            byte[] content = new byte[random.nextInt(3 * 1024 * 1024)];
+            random.nextBytes(content);
+            Path file = directory.resolve("file" + i + ".bin");
+            Files.write(file, content);
+            files.add(file);
+        }
+        files.add(Files.createFile(directory.resolve("empty.bin")));
+
+        // several read buffers
+        byte[] large = new byte[3 * 1024 * 1024 + 12345];
+        random.nextBytes(large);
+        Path largeFile = directory.resolve("large.bin");
+        Files.write(largeFile, large);
+        files.add(largeFile);
+
+        Map<Path, String> hashes = FileHashDriver.hashAll(files, "SHA-256");
+        assertEquals(files, new ArrayList<>(hashes.keySet()));
+        for (Path file : files) {
+            byte[] expected = MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file));
+            assertEquals(FileHashDriver.toHexString(expected), hashes.get(file), file.toString());
+        }
+
+        // the stream variant, and the digests reused by the threads give the same result
+        try (var stream = Files.list(directory)) {
+            Map<Path, String> again = FileHashDriver.hashAll(stream, "SHA-256");
+            assertEquals(hashes.size(), again.size());
+            for (Map.Entry<Path, String> entry : again.entrySet()) {
+                assertEquals(hashes.get(entry.getKey()), entry.getValue());
+            }
+        }
+
+        // the threads of the caller, which keeps its executor
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 2; i++) {
+                assertEquals(hashes, FileHashDriver.hashAll(files, "SHA-256", executor));
+            }
+            assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testHashAllFailures(@TempDir Path directory) throws IOException {
+        Path missing = directory.resolve("missing.txt");
+        assertThrows(NoSuchFileException.class, () -> FileHashDriver.hashAll(List.of(missing), "SHA-256"));
+        assertThrows(NoSuchAlgorithmException.class, () -> FileHashDriver.hashAll(List.of(missing), "NO-SUCH-HASH"));
+    }
+}
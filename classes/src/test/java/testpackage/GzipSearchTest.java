@@ -0,0 +1,91 @@
+package testpackage;
+
+import javadev.stringcollections.textreplacor.metrics.InProcessMetricsRecorder;
+import javadev.stringcollections.textreplacor.metrics.MetricsRecorder;
+import javadev.stringcollections.textreplacor.mimedetector.TextFileDetector;
+import javadev.stringcollections.textreplacor.object.OccurrenceCount;
+import javadev.stringcollections.textreplacor.object.TextSearchResult;
+import javadev.stringcollections.textreplacor.search.StringMatcherInFiles;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the search in gzip files of {@link StringMatcherInFiles}
+ */
+public class GzipSearchTest {
+
+    @Test
+    public void testSearchGzipFiles(@TempDir Path directory) throws Exception {
+        Files.write(directory.resolve("app.log.gz"), gzip("started\nok\nERROR disk full\nok\nERROR again\n"));
+        // rotated without the extension, found by its magic number
+        Files.write(directory.resolve("app.log.1"), gzip("ERROR first line\n"));
+        // two members, like logs appended with cat
+        try (OutputStream out = Files.newOutputStream(directory.resolve("joined.log.gz"))) {
+            out.write(gzip("one\ntwo\n"));
+            out.write(gzip("three ERROR\n"));
+        }
+        byte[] binary = new byte[8192];
+        new Random(5).nextBytes(binary);
+        Files.write(directory.resolve("data.bin.gz"), gzip(binary));
+        // the magic number, but not gzip
+        Files.write(directory.resolve("broken.gz"), new byte[]{0x1F, (byte) 0x8B, 1, 2, 3});
+        Files.writeString(directory.resolve("current.log"), "ERROR plain\n");
+
+        assertTrue(TextFileDetector.isGzipFile(directory.resolve("app.log.1")));
+        assertFalse(TextFileDetector.isGzipFile(directory.resolve("current.log")));
+
+        InProcessMetricsRecorder metrics = new InProcessMetricsRecorder();
+        StringMatcherInFiles matcher = new StringMatcherInFiles(directory.toFile(), "ERROR");
+        matcher.setSearchGzipFiles(true);
+        matcher.setSortResultsByPath(true);
+        matcher.setMetricsRecorder(metrics);
+
+        List<TextSearchResult> results = matcher.search();
+        assertNotNull(results);
+        assertEquals(4, results.size());
+        assertEquals("app.log.1", results.get(0).file().getName());
+        assertEquals("app.log.gz", results.get(1).file().getName());
+        assertEquals("current.log", results.get(2).file().getName());
+        assertEquals("joined.log.gz", results.get(3).file().getName());
+
+        // line numbers of the decompressed text
+        assertEquals(2, results.get(1).lines().length);
+        assertEquals(3, results.get(1).lines()[0].lineNumber());
+        assertEquals(5, results.get(1).lines()[1].lineNumber());
+        assertEquals(3, results.get(3).lines()[0].lineNumber());
+        assertEquals(3, metrics.getCount(MetricsRecorder.Counter.GZIP_FILES_SEARCHED));
+
+        List<OccurrenceCount> counts = matcher.count();
+        assertNotNull(counts);
+        assertEquals(4, counts.size());
+        assertEquals(5, matcher.getTotalOccurrenceCount());
+
+        // off by default, gzip files are binary
+        List<TextSearchResult> plainResults = new StringMatcherInFiles(directory.toFile(), "ERROR").search();
+        assertNotNull(plainResults);
+        assertEquals(1, plainResults.size());
+    }
+
+    private static byte[] gzip(String text) throws Exception {
+        return gzip(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] gzip(byte[] content) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(content);
+        }
+        return bytes.toByteArray();
+    }
+}
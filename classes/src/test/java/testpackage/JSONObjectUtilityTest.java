@@ -2,6 +2,13 @@ package testpackage;
 
 import javadev.stringcollections.textreplacor.io.json.JSONObjectUtility;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class JSONObjectUtilityTest {
@@ -182,4 +189,50 @@ class JSONObjectUtilityTest {
         String expected = "\\\"Hello \\\\ World\\\""; // Double quotes and backslashes should be escaped
         assertEquals(expected, JSONObjectUtility.escapeSpecialCharacters(input));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testNoEscapeReturnsSameInstance() {
+        String input = "int index = searchBuffer.indexOf(searchTarget);";
+        assertSame(input, JSONObjectUtility.escapeSpecialCharacters(input));
+    }
+
+    @Test
+    void testWriteEscapedSlice() throws IOException {
+        String input = "a\"b\tc\u0001d";
+        StringWriter writer = new StringWriter();
+        JSONObjectUtility.writeEscaped(writer, input, 1, input.length() - 1);
+        assertEquals("\\\"b\\tc\\u0001", writer.toString());
+
+        StringBuilder builder = new StringBuilder();
+        JSONObjectUtility.writeEscaped(builder, input);
+        assertEquals(JSONObjectUtility.escapeSpecialCharacters(input), builder.toString());
+    }
+
+    @Test
+    void testFormatJson() {
+        String json = "{\"a\": [1, {\"b\":\"x, {y}: \\\"z\\\"\"}],\"c\":[]}";
+        String expected = "{\n    \"a\": [\n        1,\n        {\n            \"b\": \"x, {y}: \\\"z\\\"\"\n        }\n    ],\n    \"c\": [\n        \n    ]\n}";
+        assertEquals(expected, JSONObjectUtility.formatJson(json));
+        assertEquals("{\"a\":[1,{\"b\":\"x, {y}: \\\"z\\\"\"}],\"c\":[]}", JSONObjectUtility.minifyJson(expected));
+    }
+
+    @Test
+    void testFormatJsonFile(@TempDir Path directory) throws IOException {
+        Path input = directory.resolve("in.json");
+        Path pretty = directory.resolve("pretty.json");
+        Path compact = directory.resolve("compact.json");
+
+        StringBuilder json = new StringBuilder("{\"results\":[");
+        for (int i = 0; i < 5000; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"file\":\"/dir/f\u00e9").append(i).append("\",\"lines\":[]}");
+        }
+        json.append("]}");
+        Files.writeString(input, json);
+
+        JSONObjectUtility.formatJsonFile(input, pretty, true);
+        assertEquals(JSONObjectUtility.formatJson(json.toString()), Files.readString(pretty));
+
+        JSONObjectUtility.formatJsonFile(pretty, compact, false);
+        assertEquals(json.toString(), Files.readString(compact));
+    }
+}
@@ -0,0 +1,92 @@
+package testpackage;
+
+import javadev.stringcollections.textreplacor.io.TextSearchResultSaver;
+import javadev.stringcollections.textreplacor.io.TextSearchResultStreamWriter;
+import javadev.stringcollections.textreplacor.io.json.JSONObjectUtility;
+import javadev.stringcollections.textreplacor.io.json.JSONStreamWriter;
+import javadev.stringcollections.textreplacor.object.Line;
+import javadev.stringcollections.textreplacor.object.TextSearchResult;
+import javadev.stringcollections.textreplacor.search.StringMatcherInFiles;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link JSONStreamWriter} and {@link TextSearchResultStreamWriter}
+ */
+public class JSONStreamWriterTest {
+
+    private static final List<TextSearchResult> RESULTS = List.of(
+            new TextSearchResult(new Line[]{new Line(10, "Example \"line\"\tcontent", 5, 12), new Line(11, "", 0, 3)}, new File("/projects/root/File1.txt")),
+            new TextSearchResult(new Line[]{}, new File("/projects/root/File2.txt"))
+    );
+
+    @Test
+    public void testPrettyOutputMatchesFormatJson() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (TextSearchResultStreamWriter writer = new TextSearchResultStreamWriter(Channels.newChannel(outputStream), "/projects/root", "test")) {
+            for (TextSearchResult result : RESULTS) {
+                writer.write(result);
+            }
+            assertEquals(2, writer.getResultCount());
+        }
+
+        String expected = JSONObjectUtility.formatJson(TextSearchResultSaver.getJsonStructure(RESULTS, "/projects/root", "test"));
+        assertEquals(expected, outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testCompactOutput() throws IOException {
+        StringWriter stringWriter = new StringWriter();
+        try (JSONStreamWriter json = new JSONStreamWriter(stringWriter, false)) {
+            json.beginObject();
+            json.name("a").value(1);
+            json.name("b").beginArray().value("x\ny").value(true).nullValue().endArray();
+            json.name("c").beginObject().endObject();
+            json.endObject();
+            assertEquals(0, json.getDepth());
+        }
+        assertEquals("{\"a\":1,\"b\":[\"x\\ny\",true,null],\"c\":{}}", stringWriter.toString());
+    }
+
+    @Test
+    public void testInvalidNesting() throws IOException {
+        JSONStreamWriter json = new JSONStreamWriter(new StringWriter(), false);
+        assertThrows(IllegalStateException.class, json::endObject);
+        json.beginObject();
+        assertThrows(IllegalStateException.class, () -> json.value("no name"));
+        assertThrows(IllegalStateException.class, json::endArray);
+        json.name("array").beginArray();
+        assertThrows(IllegalStateException.class, () -> json.name("no object"));
+    }
+
+    @Test
+    public void testStreamSearchResults(@TempDir Path directory) throws IOException {
+        Files.writeString(directory.resolve("a.txt"), "first todo\nsecond\n");
+        Files.writeString(directory.resolve("b.txt"), "nothing\n");
+
+        StringMatcherInFiles matcher = new StringMatcherInFiles(directory.toFile(), "todo");
+        Path output = directory.resolve("out.json");
+        int count;
+        try (TextSearchResultStreamWriter writer = new TextSearchResultStreamWriter(Files.newOutputStream(output), directory.toString(), "todo")) {
+            count = matcher.search(writer::write);
+        }
+
+        assertEquals(1, count);
+        String json = Files.readString(output);
+        assertTrue(json.contains("a.txt"));
+        assertTrue(json.contains("\"startIndex\": 6"));
+        assertFalse(json.contains("b.txt"));
+    }
+}
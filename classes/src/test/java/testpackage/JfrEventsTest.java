@@ -0,0 +1,74 @@
+package testpackage;
+
+import javadev.stringcollections.textreplacor.ReplaceStringInFiles;
+import javadev.stringcollections.textreplacor.search.StringMatcherInFiles;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the JFR events of the search and replace pipelines
+ */
+public class JfrEventsTest {
+
+    private static final String PREFIX = "javadev.stringcollections.textreplacor.";
+
+    @Test
+    public void testEventsAreRecorded(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("a.txt");
+        Files.writeString(file, "old value\nanother old value\n");
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            // record every event, whatever its duration
+            for (String name : new String[]{"FileSearch", "FileReplace", "FileClassify", "DirectoryWalk"}) {
+                recording.enable(PREFIX + name).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+
+            StringMatcherInFiles matcher = new StringMatcherInFiles(directory.toFile(), "old");
+            assertNotNull(matcher.search());
+            new ReplaceStringInFiles(directory.toString(), "old", "new").replaceStringInFiles();
+
+            recording.stop();
+            Path dump = directory.resolve("recording.jfr");
+            recording.dump(dump);
+            events = RecordingFile.readAllEvents(dump);
+        }
+
+        RecordedEvent search = find(events, "FileSearch");
+        assertEquals(file.toAbsolutePath().toString(), search.getString("path"));
+        assertEquals(2, search.getLong("matchCount"));
+        assertEquals("literal-ignore-case", search.getString("engine"));
+        assertEquals("search", search.getString("mode"));
+        // the whole file is read, before it is replaced
+        assertEquals("old value\nanother old value\n".length(), search.getLong("bytesProcessed"));
+
+        RecordedEvent replace = find(events, "FileReplace");
+        assertEquals(file.toAbsolutePath().toString(), replace.getString("path"));
+        assertEquals(2, replace.getLong("matchCount"));
+        assertEquals(Files.size(file), replace.getLong("bytesWritten"));
+
+        RecordedEvent classify = find(events, "FileClassify");
+        assertTrue(classify.getBoolean("text"));
+
+        RecordedEvent walk = find(events, "DirectoryWalk");
+        assertEquals(1, walk.getLong("fileCount"));
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(PREFIX + name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No " + name + " event recorded"));
+    }
+}
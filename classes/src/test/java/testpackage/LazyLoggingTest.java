@@ -0,0 +1,67 @@
+package testpackage;
+
+import javadev.stringcollections.textreplacor.ReplaceStringInFiles;
+import javadev.stringcollections.textreplacor.object.Line;
+import javadev.stringcollections.textreplacor.search.FindOccurrencesInAString;
+import javadev.stringcollections.textreplacor.writer.ReplaceStringInAFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the lazy logging methods, messages must not be built when logging is disabled
+ */
+public class LazyLoggingTest {
+
+    @Test
+    public void testMessagesAreNotBuiltWhenLoggingIsDisabled() {
+        ReplaceStringInAFile replacer = new ReplaceStringInAFile(new File("unused.txt"), "old", "new");
+        assertFalse(replacer.isUseLogger());
+
+        AtomicInteger supplierCalls = new AtomicInteger();
+        replacer.logMessage(LazyLoggingTest.class, "test()", () -> "message " + supplierCalls.incrementAndGet(), ReplaceStringInFiles.LogType.INFO);
+        assertEquals(0, supplierCalls.get());
+
+        // toString() of an argument is only called when the message is formatted
+        Object argument = new Object() {
+            @Override
+            public String toString() {
+                throw new AssertionError("The argument must not be formatted");
+            }
+        };
+        replacer.logMessage(LazyLoggingTest.class, "test()", "{} and {}", argument, argument, ReplaceStringInFiles.LogType.INFO);
+    }
+
+    @Test
+    public void testPerMatchPathDoesNotAllocateLogMessages() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadBean)
+                || !threadBean.isThreadAllocatedMemorySupported()) {
+            return; // allocation can't be measured on this JVM
+        }
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        int matches = 1000;
+        String line = "ab".repeat(matches);
+        FindOccurrencesInAString finder = new FindOccurrencesInAString(line, "ab");
+        finder.setCaseSensitive(true);
+
+        long threadId = Thread.currentThread().getId();
+        long leastAllocated = Long.MAX_VALUE;
+        for (int i = 0; i < 200; i++) {
+            long before = threadBean.getThreadAllocatedBytes(threadId);
+            Line[] occurrences = finder.findAndReturnOccurrence(line, "ab", 1);
+            long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+            assertNotNull(occurrences);
+            assertEquals(matches, occurrences.length);
+            leastAllocated = Math.min(leastAllocated, allocated);
+        }
+
+        // the Line objects and the two arrays, an eagerly built message would add well over 100 bytes per match
+        long expectedMaximum = matches * 48L + (line.length() + matches) * 8L + 1024;
+        assertTrue(leastAllocated <= expectedMaximum, "Allocated " + leastAllocated + " bytes for " + matches + " matches");
+    }
+}
@@ -0,0 +1,119 @@
+package testpackage;
+
+import javadev.stringcollections.textreplacor.io.FileHashDriver;
+import javadev.stringcollections.textreplacor.io.MerkleManifest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link MerkleManifest}
+ */
+public class MerkleManifestTest {
+
+    @Test
+    public void testSaveAndLoad(@TempDir Path directory) throws Exception {
+        Path root = TestFixtures.createProjectTree(directory.resolve("tree"));
+        MerkleManifest manifest = MerkleManifest.build(root);
+        assertEquals(FileHashDriver.XXH3_128, manifest.getAlgorithm());
+
+        MerkleManifest.FileNode app = (MerkleManifest.FileNode) manifest.find("src/main/App.java");
+        assertNotNull(app);
+        assertEquals(FileHashDriver.generateXXH3(root.resolve("src/main/App.java").toString()), FileHashDriver.toHexString(app.digest()));
+        assertNull(manifest.find("src/missing"));
+
+        Path saved = directory.resolve("tree.manifest");
+        manifest.save(saved);
+        MerkleManifest loaded = MerkleManifest.load(saved);
+        assertEquals(manifest.getRootDigest(), loaded.getRootDigest());
+        assertEquals(manifest.getBuildTime(), loaded.getBuildTime());
+        assertTrue(manifest.compare(loaded).isEmpty());
+        assertArrayEquals(app.digest(), loaded.find("src/main/App.java").digest());
+        // the digests are compared by content
+        assertEquals(app, loaded.find("src/main/App.java"));
+        assertEquals(app.hashCode(), loaded.find("src/main/App.java").hashCode());
+        assertEquals(manifest.getRoot(), loaded.getRoot());
+
+        // a rebuild of the unchanged tree has the same digest
+        assertEquals(manifest.getRootDigest(), MerkleManifest.build(root).getRootDigest());
+
+        byte[] bytes = Files.readAllBytes(saved);
+        // magic, version, algorithm and build time
+        int headerLength = 4 + 4 + 2 + manifest.getAlgorithm().length() + 8;
+        Files.write(saved, Arrays.copyOf(bytes, bytes.length / 2));
+        assertThrows(IOException.class, () -> MerkleManifest.load(saved));
+        // a digest length of 2^32 - 1
+        Files.write(saved, concat(Arrays.copyOf(bytes, headerLength), new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F}));
+        IOException malformed = assertThrows(IOException.class, () -> MerkleManifest.load(saved));
+        assertTrue(malformed.getMessage().startsWith("Malformed manifest"));
+        // a name length larger than the file
+        Files.write(saved, concat(Arrays.copyOf(bytes, headerLength + 2), new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07}));
+        malformed = assertThrows(IOException.class, () -> MerkleManifest.load(saved));
+        assertTrue(malformed.getMessage().startsWith("Malformed manifest"));
+
+        Files.writeString(saved, "not a manifest");
+        assertThrows(IOException.class, () -> MerkleManifest.load(saved));
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] bytes = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, bytes, first.length, second.length);
+        return bytes;
+    }
+
+    @Test
+    public void testCompare(@TempDir Path directory) throws Exception {
+        Path root = TestFixtures.createProjectTree(directory);
+        MerkleManifest before = MerkleManifest.build(root);
+        String vendorDigest = FileHashDriver.toHexString(before.find("vendor").digest());
+
+        Files.writeString(root.resolve("src/main/App.java"), "class App { int changed; }\n");
+        Files.delete(root.resolve("src/main/Util.java"));
+        Files.createDirectories(root.resolve("src/test"));
+        Files.writeString(root.resolve("src/test/AppTest.java"), "class AppTest {}\n");
+
+        MerkleManifest after = MerkleManifest.build(root, FileHashDriver.XXH3_128, before);
+        assertNotEquals(before.getRootDigest(), after.getRootDigest());
+        // the untouched subtree keeps its digest
+        assertEquals(vendorDigest, FileHashDriver.toHexString(after.find("vendor").digest()));
+
+        MerkleManifest.Changes changes = before.compare(after);
+        assertEquals(List.of("src/test/AppTest.java"), changes.added());
+        assertEquals(List.of("src/main/App.java"), changes.modified());
+        assertEquals(List.of("src/main/Util.java"), changes.removed());
+        assertEquals(List.of("src/main/App.java", "src/test/AppTest.java"), changes.changedFiles());
+
+        // a directory replaced by a file
+        Path lib = root.resolve("vendor/lib");
+        Files.delete(lib.resolve("library.js"));
+        Files.delete(lib);
+        Files.writeString(lib, "now a file\n");
+        changes = after.compare(MerkleManifest.build(root));
+        assertEquals(List.of("vendor/lib"), changes.added());
+        assertEquals(List.of("vendor/lib/library.js"), changes.removed());
+    }
+
+    @Test
+    public void testUnchangedFilesAreNotHashedAgain(@TempDir Path directory) throws Exception {
+        Path root = TestFixtures.createProjectTree(directory);
+        MerkleManifest before = MerkleManifest.build(root);
+
+        // same size and modification time, the previous hash is trusted without reading the file
+        Path readme = root.resolve("README.md");
+        FileTime lastModified = Files.getLastModifiedTime(readme);
+        Files.writeString(readme, "README\n");
+        Files.setLastModifiedTime(readme, lastModified);
+        assertTrue(before.compare(MerkleManifest.build(root, FileHashDriver.XXH3_128, before)).isEmpty());
+
+        // without the previous manifest, the change is seen
+        assertEquals(List.of("README.md"), before.compare(MerkleManifest.build(root)).modified());
+    }
+}
@@ -0,0 +1,103 @@
+package testpackage;
+
+import javadev.stringcollections.textreplacor.ReplaceStringInFiles;
+import javadev.stringcollections.textreplacor.metrics.InProcessMetricsRecorder;
+import javadev.stringcollections.textreplacor.metrics.LatencyHistogram;
+import javadev.stringcollections.textreplacor.metrics.MetricsRecorder;
+import javadev.stringcollections.textreplacor.metrics.MetricsSnapshot;
+import javadev.stringcollections.textreplacor.search.StringMatcherInFiles;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the {@link MetricsRecorder} implementations and the pipelines that feed them
+ */
+public class MetricsTest {
+
+    @Test
+    public void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(50));
+
+        for (long value = 1; value <= 10000; value++) {
+            histogram.record(value * 1000);
+        }
+        assertEquals(10000, histogram.getCount());
+        assertEquals(1000, histogram.getMin());
+        assertEquals(10_000_000, histogram.getMax());
+
+        // within the 1/16 bucket precision
+        long median = histogram.getValueAtPercentile(50);
+        assertTrue(median >= 5_000_000 && median <= 5_000_000 * 17 / 16, "median " + median);
+        long p99 = histogram.getValueAtPercentile(99);
+        assertTrue(p99 >= 9_900_000 && p99 <= 9_900_000 * 17 / 16, "p99 " + p99);
+        assertEquals(10_000_000, histogram.getValueAtPercentile(100));
+
+        // small and huge values
+        histogram.reset();
+        histogram.record(-5);
+        histogram.record(3);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(0, histogram.getMin());
+        assertEquals(3, histogram.getValueAtPercentile(50));
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testSearchFeedsRecorder(@TempDir Path directory) throws Exception {
+        Files.writeString(directory.resolve("a.txt"), "todo\ndone\n");
+        Files.writeString(directory.resolve("b.txt"), "nothing here\n");
+        Files.write(directory.resolve("c.bin"), new byte[0]);
+
+        InProcessMetricsRecorder metrics = new InProcessMetricsRecorder();
+        StringMatcherInFiles matcher = new StringMatcherInFiles(directory.toFile(), "todo");
+        matcher.setMetricsRecorder(metrics);
+        assertNotNull(matcher.search());
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(3, snapshot.get(MetricsRecorder.Counter.FILES_WALKED));
+        assertEquals(2, snapshot.get(MetricsRecorder.Counter.FILES_TEXT));
+        assertEquals(1, snapshot.get(MetricsRecorder.Counter.FILES_BINARY));
+        assertEquals(1, snapshot.get(MetricsRecorder.Counter.FILES_MATCHED));
+        assertEquals(Files.size(directory.resolve("a.txt")) + Files.size(directory.resolve("b.txt")), snapshot.get(MetricsRecorder.Counter.BYTES_READ));
+        assertEquals(1, snapshot.get(MetricsRecorder.Stage.WALK).count());
+        assertEquals(3, snapshot.get(MetricsRecorder.Stage.CLASSIFY).count());
+        assertEquals(2, snapshot.get(MetricsRecorder.Stage.SCAN).count());
+        assertEquals(0, snapshot.get(MetricsRecorder.Stage.WRITE).count());
+
+        Path export = directory.resolve("metrics").resolve("search-metrics.json");
+        snapshot.saveToJsonFile(export);
+        String json = Files.readString(export);
+        assertTrue(json.contains("\"FILES_WALKED\": 3"));
+        assertTrue(json.contains("\"SCAN\": {"));
+
+        metrics.reset();
+        assertEquals(0, metrics.getCount(MetricsRecorder.Counter.FILES_WALKED));
+        assertEquals(0, metrics.getLatency(MetricsRecorder.Stage.SCAN).getCount());
+    }
+
+    @Test
+    public void testReplaceFeedsRecorder(@TempDir Path directory) throws Exception {
+        Files.writeString(directory.resolve("a.txt"), "old value\nanother old value\n");
+        Files.writeString(directory.resolve("b.txt"), "nothing here\n");
+
+        InProcessMetricsRecorder metrics = new InProcessMetricsRecorder();
+        ReplaceStringInFiles replacer = new ReplaceStringInFiles(directory.toString(), "old", "new");
+        replacer.setMetricsRecorder(metrics);
+        replacer.replaceStringInFiles();
+
+        assertEquals("new value\nanother new value\n", Files.readString(directory.resolve("a.txt")));
+        assertEquals(2, metrics.getCount(MetricsRecorder.Counter.FILES_WALKED));
+        assertEquals(2, metrics.getCount(MetricsRecorder.Counter.FILES_TEXT));
+        assertEquals(2, metrics.getCount(MetricsRecorder.Counter.FILES_REWRITTEN));
+        assertEquals(1, metrics.getCount(MetricsRecorder.Counter.FILES_MATCHED));
+        assertEquals(metrics.getCount(MetricsRecorder.Counter.BYTES_READ), metrics.getCount(MetricsRecorder.Counter.BYTES_WRITTEN));
+        assertEquals(2, metrics.getLatency(MetricsRecorder.Stage.WRITE).getCount());
+        assertEquals(2, metrics.getLatency(MetricsRecorder.Stage.RENAME).getCount());
+    }
+}
@@ -0,0 +1,73 @@
+package testpackage;
+
+import javadev.stringcollections.textreplacor.io.TextSearchResultNdjsonWriter;
+import javadev.stringcollections.textreplacor.io.TextSearchResultSaver;
+import javadev.stringcollections.textreplacor.object.Line;
+import javadev.stringcollections.textreplacor.object.TextSearchResult;
+import javadev.stringcollections.textreplacor.search.StringMatcherInFiles;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link TextSearchResultNdjsonWriter}
+ */
+public class NdjsonWriterTest {
+
+    private static final TextSearchResult RESULT = new TextSearchResult(
+            new Line[]{new Line(1, "", 0, 3), new Line(4, "a \"b\"", 2, 4)}, new File("/projects/root/File1.txt"));
+
+    @Test
+    public void testRecordsPerFileAndPerHit(@TempDir Path directory) throws IOException {
+        Path output = directory.resolve("out/results.ndjson");
+        TextSearchResultSaver saver = new TextSearchResultSaver();
+
+        saver.saveResultsToNdjsonFile(List.of(RESULT), output.toString(), TextSearchResultNdjsonWriter.Granularity.FILE);
+        // the second save appends
+        saver.saveResultsToNdjsonFile(List.of(RESULT), output.toString(), TextSearchResultNdjsonWriter.Granularity.HIT);
+
+        List<String> lines = Files.readAllLines(output);
+        assertEquals(3, lines.size());
+        assertEquals("{\"file\":\"/projects/root/File1.txt\",\"lines\":[{\"lineNumber\":1,\"lineContent\":\"\",\"startIndex\":0,\"endIndex\":3},"
+                + "{\"lineNumber\":4,\"lineContent\":\"a \\\"b\\\"\",\"startIndex\":2,\"endIndex\":4}]}", lines.get(0));
+        assertEquals("{\"file\":\"/projects/root/File1.txt\",\"lineNumber\":1,\"lineContent\":\"\",\"startIndex\":0,\"endIndex\":3}", lines.get(1));
+        assertEquals("{\"file\":\"/projects/root/File1.txt\",\"lineNumber\":4,\"lineContent\":\"a \\\"b\\\"\",\"startIndex\":2,\"endIndex\":4}", lines.get(2));
+    }
+
+    @Test
+    public void testRecordsAreFlushedInBatches(@TempDir Path directory) throws IOException {
+        Path output = directory.resolve("results.ndjson");
+        TextSearchResultNdjsonWriter writer = new TextSearchResultNdjsonWriter(output, TextSearchResultNdjsonWriter.Granularity.HIT, 2);
+
+        writer.write(new TextSearchResult(new Line[]{new Line(1, "", 0, 3)}, new File("/a.txt")));
+        assertEquals(0, Files.size(output));
+
+        writer.write(new TextSearchResult(new Line[]{}, new File("/b.txt")));
+        assertEquals(2, Files.readAllLines(output).size());
+        assertEquals("{\"file\":\"/b.txt\"}", Files.readAllLines(output).get(1));
+
+        writer.close();
+        assertEquals(2, writer.getRecordCount());
+    }
+
+    @Test
+    public void testStreamSearchResults(@TempDir Path directory) throws IOException {
+        Path tree = directory.resolve("tree");
+        Files.createDirectories(tree);
+        Files.writeString(tree.resolve("a.txt"), "todo\ntodo todo\n");
+        Files.writeString(tree.resolve("b.txt"), "todo\n");
+        Path output = directory.resolve("results.ndjson");
+
+        try (TextSearchResultNdjsonWriter writer = new TextSearchResultNdjsonWriter(output, TextSearchResultNdjsonWriter.Granularity.HIT, 1)) {
+            new StringMatcherInFiles(tree.toFile(), "todo").search(writer::write);
+        }
+        assertEquals(4, Files.readAllLines(output).size());
+    }
+}
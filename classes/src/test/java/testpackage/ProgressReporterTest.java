@@ -0,0 +1,109 @@
+package testpackage;
+
+import javadev.stringcollections.textreplacor.ReplaceStringInFiles;
+import javadev.stringcollections.textreplacor.console.ColoredConsoleOutput;
+import javadev.stringcollections.textreplacor.console.ProgressReporter;
+import javadev.stringcollections.textreplacor.search.StringMatcherInFiles;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link ProgressReporter} and the console output it shares
+ */
+public class ProgressReporterTest {
+
+    @Test
+    public void testStatusLine() {
+        ProgressReporter reporter = new ProgressReporter(new PrintStream(new ByteArrayOutputStream()), 1000);
+        reporter.start();
+        assertTrue(reporter.getStatusLine().startsWith("files 0 |"), reporter.getStatusLine());
+
+        reporter.setTotalFiles(4);
+        assertTrue(reporter.getStatusLine().startsWith("files 0/4 (0%)"), reporter.getStatusLine());
+        assertTrue(reporter.getStatusLine().endsWith("ETA --:--:--"), reporter.getStatusLine());
+
+        reporter.fileProcessed(1024);
+        reporter.fileProcessed(1024);
+        reporter.fileMatched();
+        reporter.error();
+        String line = reporter.getStatusLine();
+        assertTrue(line.startsWith("files 2/4 (50%)"), line);
+        assertTrue(line.contains("| matched 1 | errors 1 |"), line);
+
+        reporter.fileProcessed(0);
+        reporter.fileProcessed(0);
+        assertTrue(reporter.getStatusLine().endsWith("ETA 00:00:00"), reporter.getStatusLine());
+        reporter.stop();
+
+        // stopping twice is harmless, starting again resets the counters
+        reporter.stop();
+        reporter.start();
+        assertEquals(0, reporter.getFilesProcessed());
+        reporter.close();
+    }
+
+    @Test
+    public void testSearchReportsProgress(@TempDir Path directory) throws Exception {
+        Files.writeString(directory.resolve("a.txt"), "todo\ndone\n");
+        Files.writeString(directory.resolve("b.txt"), "nothing here\n");
+        Files.writeString(directory.resolve("c.txt"), "todo todo\n");
+
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        ProgressReporter reporter = new ProgressReporter(new PrintStream(console, true, StandardCharsets.UTF_8), 10);
+        StringMatcherInFiles matcher = new StringMatcherInFiles(directory.toFile(), "todo");
+        matcher.setProgressReporter(reporter);
+        assertNotNull(matcher.count());
+
+        assertEquals(3, reporter.getFilesProcessed());
+        assertEquals(2, reporter.getFilesMatched());
+        assertEquals(0, reporter.getErrors());
+
+        // the final line is printed in place and ends the line
+        String output = console.toString(StandardCharsets.UTF_8);
+        assertTrue(output.startsWith("\r"), output);
+        assertTrue(output.contains("files 3/3 (100%)"), output);
+        assertTrue(output.endsWith(System.lineSeparator()), output);
+    }
+
+    @Test
+    public void testReplaceReportsProgress(@TempDir Path directory) throws Exception {
+        Files.writeString(directory.resolve("a.txt"), "old value\n");
+        Files.writeString(directory.resolve("b.txt"), "nothing here\n");
+
+        ProgressReporter reporter = new ProgressReporter(new PrintStream(new ByteArrayOutputStream()), 10);
+        ReplaceStringInFiles replacer = new ReplaceStringInFiles(directory.toString(), "old", "new");
+        replacer.setPrintIgnoredFiles(false);
+        replacer.setProgressReporter(reporter);
+        replacer.replaceStringInFiles();
+
+        assertEquals(2, reporter.getFilesProcessed());
+        assertEquals(1, reporter.getFilesMatched());
+        assertEquals("new value\n", Files.readString(directory.resolve("a.txt")));
+    }
+
+    @Test
+    public void testColoredTextIsPrintedAtOnce() {
+        PrintStream original = System.out;
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(console, true, StandardCharsets.UTF_8));
+        try {
+            ColoredConsoleOutput.printGreenText("first\nsecond\n\n");
+        } finally {
+            System.setOut(original);
+        }
+
+        // one colored line per line of text, trailing line breaks are dropped like String.split does
+        String[] lines = console.toString(StandardCharsets.UTF_8).split(System.lineSeparator());
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("first"));
+        assertTrue(lines[1].contains("second"));
+    }
+}
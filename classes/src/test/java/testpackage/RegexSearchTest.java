@@ -0,0 +1,112 @@
+package testpackage;
+
+import javadev.stringcollections.textreplacor.object.Line;
+import javadev.stringcollections.textreplacor.object.TextSearchResult;
+import javadev.stringcollections.textreplacor.search.FindOccurrencesInAString;
+import javadev.stringcollections.textreplacor.search.RegexSearchPattern;
+import javadev.stringcollections.textreplacor.search.StringMatcherInFiles;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for regex search in {@link FindOccurrencesInAString} and {@link StringMatcherInFiles}, and the literal extraction of {@link RegexSearchPattern}.
+ */
+public class RegexSearchTest {
+
+    /**
+     * Required literals of simple expressions
+     */
+    @Test
+    public void testExtractRequiredLiterals() {
+        assertArrayEquals(new String[]{"password"}, RegexSearchPattern.extractRequiredLiterals("password\\s*=\\s*\"[^\"]+\""));
+        assertArrayEquals(new String[]{"http://"}, RegexSearchPattern.extractRequiredLiterals("http://[a-z]+\\.com"));
+        assertArrayEquals(new String[]{"foo", "bar"}, RegexSearchPattern.extractRequiredLiterals("foo\\d+|ba?bar"));
+        // optional atom is dropped from the literal
+        assertArrayEquals(new String[]{"colo"}, RegexSearchPattern.extractRequiredLiterals("colou?r"));
+        // escape sequences are not literals
+        assertArrayEquals(new String[]{"end"}, RegexSearchPattern.extractRequiredLiterals("\\x41\\u0042end"));
+        // no usable literal
+        assertEquals(0, RegexSearchPattern.extractRequiredLiterals("[a-z]+\\d*").length);
+        assertEquals(0, RegexSearchPattern.extractRequiredLiterals("abc|\\d+").length);
+        assertEquals(0, RegexSearchPattern.extractRequiredLiterals("(?i)abc").length);
+        assertEquals(0, RegexSearchPattern.extractRequiredLiterals("(a)b\\1").length);
+    }
+
+    /**
+     * The prefilter never skips a text the expression matches
+     */
+    @Test
+    public void testPrefilterKeepsMatches() {
+        // an optional supplementary character is dropped whole, not one surrogate of it
+        RegexSearchPattern emoji = RegexSearchPattern.compile("ab\uD83D\uDE00?", true);
+        assertArrayEquals(new String[]{"ab"}, emoji.getRequiredLiterals());
+        assertTrue(emoji.getPattern().matcher("xab").find());
+        assertTrue(emoji.mayMatch("xab"));
+
+        // an empty quote is no atom, the quantifier applies to b
+        RegexSearchPattern quoted = RegexSearchPattern.compile("ab\\Q\\E?c", true);
+        assertTrue(quoted.getPattern().matcher("ac").find());
+        assertTrue(quoted.mayMatch("ac"));
+    }
+
+    /**
+     * Regex search on a string, with line numbers and inclusive end indexes
+     */
+    @Test
+    public void testFindRegexOccurrences() throws IOException {
+        String input = "nothing here\nuser=alice id=42\nid=7 and id=100\n";
+        FindOccurrencesInAString finder = new FindOccurrencesInAString(input, "id=\\d+");
+        finder.setUseRegex(true);
+
+        TextSearchResult result = finder.findOccurrences();
+        assertNotNull(result);
+
+        Line[] lines = result.lines();
+        assertEquals(3, lines.length);
+        assertEquals(2, lines[0].lineNumber());
+        assertEquals(11, lines[0].startIndex());
+        assertEquals(15, lines[0].endIndex());
+        assertEquals(3, lines[1].lineNumber());
+        assertEquals(0, lines[1].startIndex());
+        assertEquals(3, lines[1].endIndex());
+        assertEquals(9, lines[2].startIndex());
+        assertEquals(14, lines[2].endIndex());
+    }
+
+    /**
+     * Regex search in a directory, only the file containing a match is returned
+     */
+    @Test
+    public void testRegexSearchInFiles(@TempDir Path directory) throws IOException {
+        Files.writeString(directory.resolve("config.properties"), "db.user=admin\ndb.password = \"s3cret\"\n");
+        Files.writeString(directory.resolve("readme.txt"), "Set the password in the configuration file.\n");
+        Files.writeString(directory.resolve("other.txt"), "nothing to see\n");
+
+        StringMatcherInFiles matcher = new StringMatcherInFiles(directory.toFile(), "password\\s*=\\s*\"[^\"]+\"");
+        matcher.setUseRegex(true);
+
+        List<TextSearchResult> results = matcher.search();
+        assertNotNull(results);
+        assertEquals(1, results.size());
+        assertEquals("config.properties", results.get(0).file().getName());
+        assertEquals(2, results.get(0).lines()[0].lineNumber());
+    }
+
+    /**
+     * Invalid expressions are reported as IOException
+     */
+    @Test
+    public void testInvalidRegex(@TempDir Path directory) throws IOException {
+        StringMatcherInFiles matcher = new StringMatcherInFiles(directory.toFile(), "id=(\\d+");
+        matcher.setUseRegex(true);
+
+        assertThrows(IOException.class, matcher::search);
+    }
+}
@@ -1,15 +1,24 @@
 package testpackage;
 
+import javadev.stringcollections.textreplacor.ReplaceStringInFiles;
 import javadev.stringcollections.textreplacor.exception.TextReplacerError;
 import javadev.stringcollections.textreplacor.filesquery.DirectoryReader;
+import javadev.stringcollections.textreplacor.io.FileHashDriver;
+import javadev.stringcollections.textreplacor.object.ReplaceResult;
 import javadev.stringcollections.textreplacor.writer.ReplaceStringInAFile;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Test class for {@link javadev.stringcollections.textreplacor.writer.ReplaceStringInAFile}
@@ -62,4 +71,39 @@ public class ReplaceStringInFileTest {
 
 
     }
+
+    @Test
+    public void testReplaceResultDigests(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("audit.txt");
+        byte[] original = "keep the old value, old habits\n".getBytes();
+        Files.write(file, original);
+
+        ReplaceStringInAFile replaceStringInAFile = new ReplaceStringInAFile(file.toFile(), "old", "new");
+        replaceStringInAFile.setDigestAlgorithm("SHA-256");
+        ReplaceResult result = replaceStringInAFile.replaceStringWithResult();
+
+        byte[] replaced = Files.readAllBytes(file);
+        assertEquals("keep the new value, new habits\n", new String(replaced));
+        assertTrue(result.matched());
+        assertEquals(original.length, result.bytesRead());
+        assertEquals(replaced.length, result.bytesWritten());
+        // the digests of the single pass are the ones of a separate read
+        assertEquals(FileHashDriver.toHexString(MessageDigest.getInstance("SHA-256").digest(original)), result.inputDigest());
+        assertEquals(FileHashDriver.toHexString(MessageDigest.getInstance("SHA-256").digest(replaced)), result.outputDigest());
+        assertTrue(result.isContentChanged());
+
+        // without a match the content is unchanged, the fast hash works the same way
+        replaceStringInAFile = new ReplaceStringInAFile(file.toFile(), "missing", "new");
+        replaceStringInAFile.setDigestAlgorithm(FileHashDriver.XXH3_128);
+        result = replaceStringInAFile.replaceStringWithResult();
+        assertFalse(result.matched());
+        assertFalse(result.isContentChanged());
+        assertEquals(FileHashDriver.generateXXH3(file.toString()), result.outputDigest());
+
+        // no digest by default, and no result is kept
+        ReplaceStringInFiles replaceStringInFiles = new ReplaceStringInFiles(directory.toString(), "new", "old");
+        replaceStringInFiles.replaceStringInFiles();
+        assertTrue(replaceStringInFiles.getReplaceResults().isEmpty());
+        assertArrayEquals(original, Files.readAllBytes(file));
+    }
 }
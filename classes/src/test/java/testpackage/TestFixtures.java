@@ -0,0 +1,108 @@
+package testpackage;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Fixture files and archives shared by the test classes
+ */
+final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    /**
+     * Write a deflated entry to the archive
+     * @param out the archive
+     * @param name the entry name
+     * @param content the entry content
+     * @throws Exception if the entry can not be written
+     */
+    static void putEntry(ZipOutputStream out, String name, byte[] content) throws Exception {
+        out.putNextEntry(new ZipEntry(name));
+        out.write(content);
+        out.closeEntry();
+    }
+
+    /**
+     * Create a tree of text, empty, binary and nested files to zip, big enough to be split in several chunks
+     * @param source the directory to create
+     * @return the source directory
+     * @throws Exception if the files can not be written
+     */
+    static Path createZipSourceTree(Path source) throws Exception {
+        Files.createDirectories(source);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            text.append("line ").append(i).append(" of some compressible text\n");
+        }
+        Files.writeString(source.resolve("notes.txt"), text);
+        Files.writeString(source.resolve("empty.txt"), "");
+
+        byte[] random = new byte[300_000];
+        new Random(42).nextBytes(random);
+        Files.write(source.resolve("random.bin"), random);
+
+        Files.createDirectories(source.resolve("images"));
+        byte[] png = Arrays.copyOf(text.toString().getBytes(), 5000);
+        Files.write(source.resolve("images/logo.png"), png);
+
+        Files.createDirectories(source.resolve("nested/deeper"));
+        Files.writeString(source.resolve("nested/readme.md"), "# nested\n");
+        Files.writeString(source.resolve("nested/deeper/data.csv"), "a,b,c\n1,2,3\n".repeat(1000));
+        return source;
+    }
+
+    /**
+     * Create a small project tree, with files modified an hour ago
+     * @param root the directory to create
+     * @return the root directory
+     * @throws Exception if the files can not be written
+     */
+    static Path createProjectTree(Path root) throws Exception {
+        Files.createDirectories(root.resolve("src/main"));
+        Files.createDirectories(root.resolve("vendor/lib"));
+        Files.writeString(root.resolve("README.md"), "readme\n");
+        Files.writeString(root.resolve("src/main/App.java"), "class App {}\n");
+        Files.writeString(root.resolve("src/main/Util.java"), "class Util {}\n");
+        Files.writeString(root.resolve("vendor/lib/library.js"), "var library = 1;\n");
+        // old enough to be trusted by a later build
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - 3_600_000));
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Create a text file, a fake zip and lib/app.jar with text, empty and binary entries, all mentioning "endpoint"
+     * @param directory the existing directory to write to
+     * @throws Exception if the files can not be written
+     */
+    static void createArchiveTree(Path directory) throws Exception {
+        Files.writeString(directory.resolve("readme.txt"), "the endpoint is configured in the jar\n");
+        // named like an archive, but not one
+        Files.writeString(directory.resolve("broken.zip"), "endpoint, but not a zip\n");
+
+        Files.createDirectories(directory.resolve("lib"));
+        byte[] binary = new byte[8192];
+        new Random(3).nextBytes(binary);
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(directory.resolve("lib/app.jar")))) {
+            out.putNextEntry(new ZipEntry("META-INF/"));
+            out.closeEntry();
+            putEntry(out, "META-INF/app.properties", "endpoint=http://a\nname=app\nbackup.endpoint=http://b\n".getBytes(StandardCharsets.UTF_8));
+            putEntry(out, "config/settings.yml", "server:\n  endpoint: /api\n".getBytes(StandardCharsets.UTF_8));
+            putEntry(out, "config/empty.txt", new byte[0]);
+            putEntry(out, "nothing.txt", "no match here\n".getBytes(StandardCharsets.UTF_8));
+            putEntry(out, "App.class", binary);
+        }
+    }
+}
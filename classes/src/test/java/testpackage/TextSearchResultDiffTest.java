@@ -0,0 +1,98 @@
+package testpackage;
+
+import javadev.stringcollections.textreplacor.io.TextSearchResultDiff;
+import javadev.stringcollections.textreplacor.io.TextSearchResultReader;
+import javadev.stringcollections.textreplacor.io.TextSearchResultSaver;
+import javadev.stringcollections.textreplacor.object.Line;
+import javadev.stringcollections.textreplacor.object.TextSearchResult;
+import javadev.stringcollections.textreplacor.search.StringMatcherInFiles;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link TextSearchResultDiff}
+ */
+public class TextSearchResultDiffTest {
+
+    // records the changes as text
+    private static final class RecordingListener implements TextSearchResultDiff.Listener {
+        private final List<String> changes = new ArrayList<>();
+
+        @Override
+        public void onAdded(File file, Line line) {
+            changes.add("+" + file.getName() + ":" + line.lineNumber());
+        }
+
+        @Override
+        public void onRemoved(File file, Line line) {
+            changes.add("-" + file.getName() + ":" + line.lineNumber());
+        }
+
+        @Override
+        public void onMoved(File file, Line from, Line to) {
+            changes.add("~" + file.getName() + ":" + from.lineNumber() + ">" + to.lineNumber());
+        }
+    }
+
+    @Test
+    public void testDiff() throws IOException {
+        List<TextSearchResult> before = List.of(
+                new TextSearchResult(new Line[]{new Line(1, "a todo", 2, 5), new Line(5, "b todo", 2, 5)}, new File("/r/a.txt")),
+                new TextSearchResult(new Line[]{new Line(3, "", 0, 3)}, new File("/r/b.txt")),
+                new TextSearchResult(new Line[]{new Line(7, "", 0, 3)}, new File("/r/c.txt"))
+        );
+        List<TextSearchResult> after = List.of(
+                new TextSearchResult(new Line[]{new Line(1, "a todo", 2, 5), new Line(9, "b todo", 2, 5), new Line(10, "c todo", 2, 5)}, new File("/r/a.txt")),
+                new TextSearchResult(new Line[]{new Line(7, "", 0, 3)}, new File("/r/c.txt")),
+                new TextSearchResult(new Line[]{new Line(2, "", 0, 3)}, new File("/r/d.txt"))
+        );
+
+        RecordingListener listener = new RecordingListener();
+        TextSearchResultDiff.Summary summary = TextSearchResultDiff.diff(before.iterator(), after.iterator(), listener);
+
+        assertEquals(List.of("~a.txt:5>9", "+a.txt:10", "-b.txt:3", "+d.txt:2"), listener.changes);
+        assertEquals(new TextSearchResultDiff.Summary(2, 1, 1, 2), summary);
+    }
+
+    @Test
+    public void testUnsortedInput() {
+        List<TextSearchResult> unsorted = List.of(
+                new TextSearchResult(new Line[]{}, new File("/r/b.txt")),
+                new TextSearchResult(new Line[]{}, new File("/r/a.txt"))
+        );
+        assertThrows(IOException.class, () -> TextSearchResultDiff.diff(unsorted.iterator(), List.<TextSearchResult>of().iterator(), new RecordingListener()));
+    }
+
+    @Test
+    public void testDiffSavedRuns(@TempDir Path directory) throws IOException {
+        Path source = Files.createDirectories(directory.resolve("source"));
+        Files.writeString(source.resolve("a.txt"), "todo\nkeep\n");
+        Files.writeString(source.resolve("b.txt"), "todo\n");
+        Files.writeString(source.resolve("c.txt"), "todo\n");
+
+        StringMatcherInFiles matcher = new StringMatcherInFiles(source.toFile(), "todo");
+        matcher.setIncludeTextWhereMatched(true);
+        matcher.setSortResultsByPath(true);
+        new TextSearchResultSaver().saveResultsToJsonFile(matcher.search(), directory.resolve("before.json").toString(), source.toString(), "todo");
+
+        Files.writeString(source.resolve("a.txt"), "keep\ntodo\n");
+        Files.delete(source.resolve("b.txt"));
+        new TextSearchResultSaver().saveResultsToJsonFile(matcher.search(), directory.resolve("after.json").toString(), source.toString(), "todo");
+
+        RecordingListener listener = new RecordingListener();
+        try (TextSearchResultReader before = new TextSearchResultReader(directory.resolve("before.json"));
+             TextSearchResultReader after = new TextSearchResultReader(directory.resolve("after.json"))) {
+            TextSearchResultDiff.diff(before, after, listener);
+        }
+        assertEquals(List.of("~a.txt:1>2", "-b.txt:1"), listener.changes);
+    }
+}
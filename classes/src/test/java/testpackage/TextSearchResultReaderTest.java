@@ -0,0 +1,123 @@
+package testpackage;
+
+import javadev.stringcollections.textreplacor.io.TextSearchResultNdjsonWriter;
+import javadev.stringcollections.textreplacor.io.TextSearchResultReader;
+import javadev.stringcollections.textreplacor.io.TextSearchResultSaver;
+import javadev.stringcollections.textreplacor.io.json.JSONStreamReader;
+import javadev.stringcollections.textreplacor.object.Line;
+import javadev.stringcollections.textreplacor.object.TextSearchResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link JSONStreamReader} and {@link TextSearchResultReader}
+ */
+public class TextSearchResultReaderTest {
+
+    private static final List<TextSearchResult> RESULTS = List.of(
+            new TextSearchResult(new Line[]{new Line(10, "say \"hi\"\t\\ é", 5, 12), new Line(11, "", 0, 3)}, new File("/projects/root/File1.txt")),
+            new TextSearchResult(new Line[]{}, new File("/projects/root/File2.txt"))
+    );
+
+    @Test
+    public void testPullParser() throws IOException {
+        JSONStreamReader json = new JSONStreamReader(new StringReader(
+                "{\"a\": [1, -2.5e3, true, null, \"x\\u0041\\n\"], \"b\": {\"skip\": [{}, []]}, \"c\": false}\n{}"));
+        json.beginObject();
+        assertEquals("a", json.nextName());
+        json.beginArray();
+        assertEquals(1, json.nextInt());
+        assertEquals(JSONStreamReader.Token.NUMBER, json.peek());
+        assertEquals("-2.5e3", json.nextString());
+        assertTrue(json.nextBoolean());
+        assertNull(json.nextStringOrNull());
+        assertEquals("xA\n", json.nextString());
+        assertFalse(json.hasNext());
+        json.endArray();
+        assertEquals("b", json.nextName());
+        json.skipValue();
+        assertEquals("c", json.nextName());
+        assertFalse(json.nextBoolean());
+        json.endObject();
+
+        // a second top-level value, like JSON Lines
+        json.beginObject();
+        json.endObject();
+        assertEquals(JSONStreamReader.Token.END_DOCUMENT, json.peek());
+    }
+
+    @Test
+    public void testMalformedInput() {
+        IOException e = assertThrows(IOException.class, () -> {
+            JSONStreamReader json = new JSONStreamReader(new StringReader("{\n\"a\" 1}"));
+            json.beginObject();
+            json.nextName();
+            json.nextInt();
+        });
+        assertTrue(e.getMessage().contains("line 2"));
+    }
+
+    @Test
+    public void testReadSavedJson(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("results.json");
+        new TextSearchResultSaver().saveResultsToJsonFile(RESULTS, file.toString(), "/projects/root", "hi");
+
+        List<TextSearchResult> read = new ArrayList<>();
+        try (TextSearchResultReader reader = new TextSearchResultReader(file)) {
+            assertEquals(2, reader.forEach(read::add));
+            assertEquals("/projects/root", reader.getRootDirectory());
+            assertEquals("hi", reader.getSearchPhrase());
+        }
+        assertResultsEqual(RESULTS, read);
+
+        // compact document with unknown fields
+        String json = "{\"version\":2,\"results\":[{\"file\":\"/a\",\"extra\":{\"x\":[1]},\"lines\":[{\"lineNumber\":1,\"score\":0.5,\"startIndex\":2,\"endIndex\":3}]}],\"rootDirectory\":\"/\"}";
+        try (TextSearchResultReader reader = new TextSearchResultReader(new StringReader(json))) {
+            TextSearchResult result = reader.next();
+            assertEquals(new Line(1, "", 2, 3), result.lines()[0]);
+            assertFalse(reader.hasNext());
+            assertEquals("/", reader.getRootDirectory());
+        }
+    }
+
+    @Test
+    public void testReadNdjson(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("results.ndjson");
+        new TextSearchResultSaver().saveResultsToNdjsonFile(RESULTS, file.toString(), TextSearchResultNdjsonWriter.Granularity.FILE);
+
+        List<TextSearchResult> read = new ArrayList<>();
+        try (TextSearchResultReader reader = new TextSearchResultReader(file)) {
+            reader.forEach(read::add);
+        }
+        assertResultsEqual(RESULTS, read);
+
+        Files.delete(file);
+        new TextSearchResultSaver().saveResultsToNdjsonFile(RESULTS, file.toString(), TextSearchResultNdjsonWriter.Granularity.HIT);
+        read.clear();
+        try (TextSearchResultReader reader = new TextSearchResultReader(file)) {
+            reader.forEach(read::add);
+        }
+        // one result per hit, and one for the file without lines
+        assertEquals(3, read.size());
+        assertEquals(RESULTS.get(0).lines()[1], read.get(1).lines()[0]);
+        assertEquals(0, read.get(2).lines().length);
+    }
+
+    private static void assertResultsEqual(List<TextSearchResult> expected, List<TextSearchResult> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).file().getAbsolutePath(), actual.get(i).file().getAbsolutePath());
+            assertArrayEquals(expected.get(i).lines(), actual.get(i).lines());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package testpackage;
+
+import javadev.stringcollections.textreplacor.io.FileHashDriver;
+import javadev.stringcollections.textreplacor.io.XXH3Digest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link XXH3Digest}, the expected hashes are computed with the xxHash 0.8 library
+ */
+public class XXH3DigestTest {
+
+    // length, XXH3 64-bit, XXH3 128-bit of data(length), one length for every path of the algorithm
+    private static final Object[][] VECTORS = {
+            {0, "2d06800538d394c2", "99aa06d3014798d86001c324468d497f"},
+            {1, "4c5cca45d0f4811f", "495b62073ef70ca44c5cca45d0f4811f"},
+            {3, "15f7093b173d005c", "46f66cb93538156515f7093b173d005c"},
+            {4, "dca012f95811b6b9", "7fefeeffb4d0eab3b987ca5d9241572a"},
+            {8, "dec6a9a43575982e", "803c675a846cc6c256bb836ceb6d4baa"},
+            {9, "cbe393399f17ffbd", "d46556872d230f224376673580310154"},
+            {16, "7e484c18d74895d0", "650fe308c566747df853dd94614dfa07"},
+            {17, "208bde5ee2bed407", "18217300b5132d5a78c349fe81b2f26c"},
+            {64, "dd30702ab46b3745", "f9bfa77da0891a9636c5f7e547426bc4"},
+            {128, "f92b70eaa21a6288", "b4f87b99d2db8a511e04fad9f0cacb4d"},
+            {129, "f8f76713f2bb60fa", "6881633650cd8924c51bc887976aef63"},
+            {240, "ccc7375172c41f03", "de57aab31e77a2ff93e173833f75ab66"},
+            {241, "0b3b630948ce4a00", "92b991a7192f3f080b3b630948ce4a00"},
+            {1024, "d218d699d62a6d8b", "e46b39afc6d4fe0bd218d699d62a6d8b"},
+            {1025, "38f5f1f86ddfa599", "33ec9cca459a5e2638f5f1f86ddfa599"},
+            {2048, "e29245b34db354a9", "64b1708eba63f181e29245b34db354a9"},
+            {2049, "bff009d82d71d075", "9c9c58b6060d806cbff009d82d71d075"},
+            {10000, "001125d6f7a5bb65", "739e39687906b027001125d6f7a5bb65"},
+            {100003, "42282b032f56d111", "b61586044bb93f6442282b032f56d111"},
+    };
+
+    private static byte[] data(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) ((i * 31 + 7) ^ (i >> 8));
+        }
+        return data;
+    }
+
+    @Test
+    public void testReferenceVectors() {
+        for (Object[] vector : VECTORS) {
+            byte[] data = data((int) vector[0]);
+            assertEquals(vector[1], FileHashDriver.toHexString(XXH3Digest.xxh3_64().digest(data)), "XXH3-64 of length " + vector[0]);
+            assertEquals(vector[2], FileHashDriver.toHexString(XXH3Digest.xxh3_128().digest(data)), "XXH3-128 of length " + vector[0]);
+        }
+    }
+
+    @Test
+    public void testChunkedUpdatesMatchOneShot() throws Exception {
+        Random random = new Random(42);
+        for (Object[] vector : VECTORS) {
+            byte[] data = data((int) vector[0]);
+            MessageDigest digest = FileHashDriver.newDigest(FileHashDriver.XXH3_128);
+            int offset = 0;
+            while (offset < data.length) {
+                int chunk = Math.min(data.length - offset, random.nextInt(150) + 1);
+                if (random.nextBoolean()) {
+                    digest.update(data, offset, chunk);
+                } else {
+                    // direct buffers are read in place
+                    ByteBuffer buffer = ByteBuffer.allocateDirect(chunk);
+                    buffer.put(data, offset, chunk).flip();
+                    digest.update(buffer);
+                }
+                offset += chunk;
+            }
+            assertEquals(vector[2], FileHashDriver.toHexString(digest.digest()), "chunked XXH3-128 of length " + vector[0]);
+            // the digest is reset and reusable
+            assertEquals(vector[2], FileHashDriver.toHexString(digest.digest(data)));
+        }
+    }
+
+    @Test
+    public void testFileHashDriverAlgorithms(@TempDir Path directory) throws Exception {
+        Path small = directory.resolve("small.bin");
+        Files.write(small, data(1025));
+        // several read buffers
+        Path large = directory.resolve("large.bin");
+        byte[] content = new byte[3 * 1024 * 1024 + 100];
+        new Random(7).nextBytes(content);
+        Files.write(large, content);
+
+        assertEquals("33ec9cca459a5e2638f5f1f86ddfa599", FileHashDriver.generateXXH3(small.toString()));
+
+        Map<Path, String> hashes = FileHashDriver.hashAll(List.of(small, large), FileHashDriver.XXH3_64);
+        assertEquals("38f5f1f86ddfa599", hashes.get(small));
+        assertEquals(FileHashDriver.toHexString(XXH3Digest.xxh3_64().digest(content)), hashes.get(large));
+    }
+}
@@ -0,0 +1,176 @@
+package testpackage;
+
+import javadev.stringcollections.textreplacor.io.ZipFile;
+import javadev.stringcollections.textreplacor.io.zip.SpillBuffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link ZipFile}
+ */
+public class ZipFileTest {
+
+    @Test
+    public void testZipDirectoryParallel(@TempDir Path work) throws Exception {
+        Path source = TestFixtures.createZipSourceTree(work.resolve("tree"));
+        String serial = work.resolve("serial.zip").toString();
+        String parallel = work.resolve("parallel").toString();
+
+        ZipFile.zipDirectory(source.toString(), serial);
+        ZipFile.zipDirectoryParallel(source.toString(), parallel, 3);
+        Path parallelZip = work.resolve("parallel.zip");
+        assertTrue(Files.isRegularFile(parallelZip));
+
+        // same entries, in the same order
+        assertEquals(entryNames(Path.of(serial)), entryNames(parallelZip));
+
+        try (java.util.zip.ZipFile zip = new java.util.zip.ZipFile(parallelZip.toFile())) {
+            String root = source.getFileName().toString();
+            // compressible text is deflated
+            ZipEntry text = zip.getEntry(root + "/notes.txt");
+            assertEquals(ZipEntry.DEFLATED, text.getMethod());
+            assertTrue(text.getCompressedSize() < text.getSize());
+            // compressed by extension, or not smaller, is stored
+            assertEquals(ZipEntry.STORED, zip.getEntry(root + "/images/logo.png").getMethod());
+            assertEquals(ZipEntry.STORED, zip.getEntry(root + "/random.bin").getMethod());
+            assertTrue(zip.getEntry(root + "/images/").isDirectory());
+
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                Path original = source.getParent().resolve(entry.getName());
+                try (InputStream in = zip.getInputStream(entry)) {
+                    assertArrayEquals(Files.readAllBytes(original), in.readAllBytes());
+                }
+            }
+        }
+
+        // the streaming reader, which checks the local headers, and the existing unzip
+        Path unzipped = Files.createDirectories(work.resolve("unzipped"));
+        ZipFile.unzipFile(parallelZip.toString(), unzipped.toString());
+        Path copy = unzipped.resolve(source.getFileName());
+        assertArrayEquals(Files.readAllBytes(source.resolve("nested/deeper/data.csv")), Files.readAllBytes(copy.resolve("nested/deeper/data.csv")));
+        assertEquals(0, Files.size(copy.resolve("empty.txt")));
+    }
+
+    @Test
+    public void testUnzipFileParallel(@TempDir Path work) throws Exception {
+        Path source = TestFixtures.createZipSourceTree(work.resolve("tree"));
+        Path zip = work.resolve("tree.zip");
+        ZipFile.zipDirectory(source.toString(), zip.toString());
+
+        Path serial = Files.createDirectories(work.resolve("serial"));
+        Path parallel = Files.createDirectories(work.resolve("parallel"));
+        ZipFile.unzipFile(zip.toString(), serial.toString());
+        ZipFile.unzipFileParallel(zip.toString(), parallel.toString(), 3);
+
+        List<Path> serialFiles;
+        try (var stream = Files.walk(serial)) {
+            serialFiles = stream.map(serial::relativize).sorted().toList();
+        }
+        try (var stream = Files.walk(parallel)) {
+            assertEquals(serialFiles, stream.map(parallel::relativize).sorted().toList());
+        }
+        for (Path file : serialFiles) {
+            if (Files.isRegularFile(serial.resolve(file))) {
+                assertArrayEquals(Files.readAllBytes(serial.resolve(file)), Files.readAllBytes(parallel.resolve(file)));
+            }
+        }
+    }
+
+    @Test
+    public void testUnzipFileParallelRejectsZipSlip(@TempDir Path work) throws Exception {
+        Path zip = work.resolve("evil.zip");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+            out.putNextEntry(new ZipEntry("good.txt"));
+            out.write("fine".getBytes());
+            out.closeEntry();
+            out.putNextEntry(new ZipEntry("../evil.txt"));
+            out.write("outside".getBytes());
+            out.closeEntry();
+        }
+        Path destination = Files.createDirectories(work.resolve("out"));
+        assertThrows(IOException.class, () -> ZipFile.unzipFileParallel(zip.toString(), destination.toString()));
+        // nothing is written when an entry is rejected
+        assertFalse(Files.exists(destination.resolve("good.txt")));
+        assertFalse(Files.exists(destination.resolveSibling("evil.txt")));
+    }
+
+    @Test
+    public void testUnzipFileParallelSameFileTwice(@TempDir Path work) throws Exception {
+        Path zip = work.resolve("twice.zip");
+        byte[] first = "first ".repeat(200_000).getBytes();
+        byte[] last = "last".repeat(100_000).getBytes();
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+            out.putNextEntry(new ZipEntry("a/b.txt"));
+            out.write(first);
+            out.closeEntry();
+            // the same file, by another name
+            out.putNextEntry(new ZipEntry("a//b.txt"));
+            out.write(last);
+            out.closeEntry();
+        }
+        Path serial = Files.createDirectories(work.resolve("serial"));
+        Path parallel = Files.createDirectories(work.resolve("parallel"));
+        ZipFile.unzipFile(zip.toString(), serial.toString());
+        ZipFile.unzipFileParallel(zip.toString(), parallel.toString(), 4);
+
+        // the last entry wins, like with the serial unzip
+        assertArrayEquals(last, Files.readAllBytes(serial.resolve("a/b.txt")));
+        assertArrayEquals(last, Files.readAllBytes(parallel.resolve("a/b.txt")));
+    }
+
+    @Test
+    public void testSpillBuffer() throws Exception {
+        byte[] data = new byte[10_000];
+        new Random(7).nextBytes(data);
+
+        try (SpillBuffer memory = new SpillBuffer(1 << 20); SpillBuffer spilled = new SpillBuffer(1000)) {
+            for (int offset = 0; offset < data.length; offset += 333) {
+                int length = Math.min(333, data.length - offset);
+                memory.write(data, offset, length);
+                spilled.write(data, offset, length);
+            }
+            assertEquals(data.length, memory.size());
+            assertEquals(data.length, spilled.size());
+
+            for (SpillBuffer buffer : List.of(memory, spilled)) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                buffer.writeTo(Channels.newChannel(out));
+                assertArrayEquals(data, out.toByteArray());
+            }
+        }
+    }
+
+    private static List<String> entryNames(Path zip) throws Exception {
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream in = new ZipInputStream(Files.newInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                names.add(entry.getName());
+                // reads the data, so the sizes and the CRC are checked
+                in.readAllBytes();
+            }
+        }
+        return names;
+    }
+}